@@ -0,0 +1,56 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the entity-to-DTO mapping in both controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseMappingJmh {
+
+    private Borrower borrower;
+    private LoanApplication loan;
+
+    @Setup
+    public void setUp() {
+        borrower = new Borrower();
+        borrower.setFirstName("John");
+        borrower.setLastName("Doe");
+        borrower.setDob(LocalDate.of(1990, 1, 1));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(55000.0);
+
+        loan = new LoanApplication();
+        loan.setBorrower(borrower);
+        loan.setLoanAmount(20000.0);
+        loan.setTermMonths(24);
+        loan.setLoanType("Personal");
+        loan.setRiskScore(98.0);
+        loan.setRiskGrade(RiskGrade.LOW);
+        loan.setDecision(Decision.APPROVE);
+    }
+
+    @Benchmark
+    public LoanApplicationResponse loanMapToResponse() {
+        return LoanApplicationController.mapToResponse(loan);
+    }
+
+    @Benchmark
+    public BorrowerResponse borrowerMapToResponse() {
+        return BorrowerController.mapToResponse(borrower);
+    }
+}
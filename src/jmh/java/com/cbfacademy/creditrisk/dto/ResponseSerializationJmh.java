@@ -0,0 +1,76 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for Jackson serialization of the list responses at several sizes,
+ * as JSON and in the binary encodings the API negotiates (Smile, CBOR).
+ * The mappers are configured like Spring Boot's (java.time module, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationJmh {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectWriter loanWriter;
+    private ObjectWriter borrowerWriter;
+    private List<LoanApplicationResponse> loans;
+    private List<BorrowerResponse> borrowers;
+
+    @Setup
+    public void setUp() {
+        MapperBuilder<?, ?> builder = switch (format) {
+            case "smile" -> SmileMapper.builder();
+            case "cbor" -> CBORMapper.builder();
+            default -> JsonMapper.builder();
+        };
+        ObjectMapper mapper = builder
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        loanWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, LoanApplicationResponse.class));
+        borrowerWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, BorrowerResponse.class));
+
+        loans = new ArrayList<>(size);
+        borrowers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            loans.add(new LoanApplicationResponse((long) i, (long) (i % 500), 1000.0 + i * 10, 36, "Personal",
+                    i % 3 == 0 ? RiskGrade.HIGH : RiskGrade.LOW, i % 3 == 0 ? Decision.REJECT : Decision.APPROVE, 100 - (1000.0 + i * 10) / 10000));
+            borrowers.add(new BorrowerResponse((long) i, "First" + i, "Last" + i,
+                    LocalDate.of(1970, 1, 1).plusDays(i), "Employed", 30000.0 + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeLoanList() throws Exception {
+        return loanWriter.writeValueAsBytes(loans);
+    }
+
+    @Benchmark
+    public byte[] serializeBorrowerList() throws Exception {
+        return borrowerWriter.writeValueAsBytes(borrowers);
+    }
+}
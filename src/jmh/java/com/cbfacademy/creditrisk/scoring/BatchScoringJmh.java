@@ -0,0 +1,71 @@
+package com.cbfacademy.creditrisk.scoring;
+
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for scoring a book of loans: one LoanApplication at a time, as applyRiskScoring does,
+ * against the scalar batch kernel and the engine's own (vectorized under mvn -P bench,vector) over
+ * primitive columns. Reports average time per loan. The book (about 1.1 MB of columns) fits in L2 cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchScoringJmh {
+
+    private static final int LOANS = 1 << 16;
+
+    private final RiskScoringEngine engine = new DefaultRiskScoringEngine();
+    private final RiskScore result = new RiskScore();
+    private LoanApplication[] loans;
+    private double[] amounts;
+    private double[] scores;
+    private byte[] gradeCodes;
+
+    @Setup
+    public void setUp() {
+        // Spread across all three grades, as in RiskScoringJmh
+        SplittableRandom random = new SplittableRandom(42);
+        loans = new LoanApplication[LOANS];
+        amounts = new double[LOANS];
+        for (int i = 0; i < LOANS; i++) {
+            amounts[i] = random.nextDouble(1_000, 1_000_000);
+            loans[i] = new LoanApplication();
+            loans[i].setLoanAmount(amounts[i]);
+        }
+        scores = new double[LOANS];
+        gradeCodes = new byte[LOANS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public LoanApplication[] perEntity() {
+        for (LoanApplication loan : loans) {
+            engine.score(loan.getLoanAmount(), result);
+            loan.setRiskScore(result.getScore());
+            loan.setRiskGrade(result.getGrade());
+            loan.setDecision(result.getDecision());
+        }
+        return loans;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public byte[] scalarKernel() {
+        DefaultRiskScoringEngine.scoreScalar(amounts, scores, gradeCodes, 0, LOANS);
+        return gradeCodes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public byte[] engineKernel() {
+        engine.scoreBatch(amounts, scores, gradeCodes, 0, LOANS);
+        return gradeCodes;
+    }
+}
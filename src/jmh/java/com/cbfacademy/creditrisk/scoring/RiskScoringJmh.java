@@ -0,0 +1,46 @@
+package com.cbfacademy.creditrisk.scoring;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the scoring hot path (DefaultRiskScoringEngine).
+ * Reports average time per scored loan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RiskScoringJmh {
+
+    private static final int LOANS = 1024;
+
+    private final RiskScoringEngine engine = new DefaultRiskScoringEngine();
+    private final RiskScore result = new RiskScore();
+    private double[] amounts;
+
+    @Setup
+    public void setUp() {
+        // Spread across all three grades so branch prediction sees a realistic mix
+        SplittableRandom random = new SplittableRandom(42);
+        amounts = new double[LOANS];
+        for (int i = 0; i < LOANS; i++) {
+            amounts[i] = random.nextDouble(1_000, 1_000_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOANS)
+    public void scoreLoan(Blackhole blackhole) {
+        for (double amount : amounts) {
+            engine.score(amount, result);
+            blackhole.consume(result.getScore());
+            blackhole.consume(result.getGradeCode());
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.cbfacademy.creditrisk.load;
+
+import com.cbfacademy.creditrisk.importer.BorrowerCsvImporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the origination API.
+ *
+ * Starts the application on a random port against an embedded H2 database, seeds a book of
+ * borrowers and loans, then drives a weighted mix of borrower creates, loan creates, loan updates,
+ * listings by risk grade and loan reads over real HTTP. Concurrency is ramped step by step; each
+ * step reports throughput and p50/p95/p99/p99.9 latency per operation.
+ *
+ * Run with: mvn -P load [-Dload.concurrency=1,4,16 -Dload.step-seconds=60 ...]
+ *
+ * Output in load.report-dir:
+ * - latency.hlog: every step's histograms in HdrHistogram log format, tagged c{workers}.{operation}
+ * - c{workers}-{operation}.hgrm: percentile distribution in milliseconds, for the HdrHistogram plotter
+ * - summary.csv: one row per step and operation
+ *
+ * Workers send the next request only after the previous response, so latency under overload
+ * is understated (coordinated omission); compare throughput between steps to find saturation.
+ * Embedded H2 is not MySQL: use the numbers to compare builds and hardware, not as absolute capacity.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OriginationLoadTest {
+
+    // Latency is recorded in microseconds, up to one minute, with 3 significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final String[] LAST_NAMES = {"Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Okafor", "Khan", "Nowak", "Silva"};
+    private static final String[] LOAN_TYPES = {"Personal", "Auto", "Mortgage", "Business"};
+    private static final String[] RISK_GRADES = {"Low", "Medium", "High"};
+
+    /**
+     * Operations that load.mix can weight, by key.
+     */
+    enum Operation {
+        BORROWER_CREATE("borrowerCreate"),
+        LOAN_CREATE("loanCreate"),
+        LOAN_UPDATE("loanUpdate"),
+        LOANS_BY_GRADE("loansByGrade"),
+        LOAN_BY_ID("loanById");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    @LocalServerPort private int port;
+    @Autowired private BorrowerCsvImporter importer;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${load.mix:borrowerCreate=5,loanCreate=30,loanUpdate=10,loansByGrade=25,loanById=30}")
+    private String mix;
+    @Value("${load.concurrency:1,2,4,8,16,32}")
+    private int[] concurrency;
+    @Value("${load.warmup-seconds:15}")
+    private int warmupSeconds;
+    @Value("${load.step-seconds:30}")
+    private int stepSeconds;
+    @Value("${load.seed-borrowers:5000}")
+    private int seedBorrowers;
+    @Value("${load.report-dir:target/load-report}")
+    private Path reportDir;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final IdPool borrowers = new IdPool(1 << 20);
+    private final IdPool loans = new IdPool(1 << 20);
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private Operation[] weighted;
+
+    @Test
+    void rampOriginationMix() throws Exception {
+        weighted = parseMix(mix);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+        seed();
+
+        Files.createDirectories(reportDir);
+        try (PrintStream hlog = new PrintStream(Files.newOutputStream(reportDir.resolve("latency.hlog")));
+             PrintWriter csv = new PrintWriter(Files.newBufferedWriter(reportDir.resolve("summary.csv")))) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            logWriter.outputLogFormatVersion();
+            logWriter.outputStartTime(System.currentTimeMillis());
+            logWriter.outputLegend();
+            csv.println("workers,operation,requests,errors,requests_per_second,p50_ms,p95_ms,p99_ms,p99_9_ms,max_ms");
+
+            System.out.printf("Warming up for %d s with %d workers%n", warmupSeconds, concurrency[0]);
+            run(concurrency[0], warmupSeconds);
+            resetRecorders();
+
+            System.out.printf("%7s %-15s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "workers", "operation", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (int workers : concurrency) {
+                long start = System.currentTimeMillis();
+                run(workers, stepSeconds);
+                report(workers, start, logWriter, csv);
+            }
+        }
+        System.out.println("Load report written to " + reportDir.toAbsolutePath());
+    }
+
+    /**
+     * Import the seed borrowers, one loan each, through the bulk importer, then fill the id pools.
+     */
+    private void seed() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < seedBorrowers; i++) {
+            csv.append("Seed,").append(LAST_NAMES[i % LAST_NAMES.length]).append(i).append(",1980-01-01,Employed,")
+                    .append(30000 + i % 90000).append(',').append(randomAmount()).append(",36,")
+                    .append(LOAN_TYPES[i % LOAN_TYPES.length]).append('\n');
+        }
+        importer.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        jdbcTemplate.query("select id from borrowers", row -> {
+            borrowers.add(row.getLong(1), 0);
+        });
+        jdbcTemplate.query("select id, borrower_id from loan_applications", row -> {
+            loans.add(row.getLong(1), row.getLong(2));
+        });
+        System.out.printf("Seeded %d borrowers and %d loans%n", borrowers.size(), loans.size());
+    }
+
+    /**
+     * Run the mix with the given number of closed-loop workers for the given time.
+     */
+    private void run(int workers, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = perform(operation);
+                    } catch (IOException ex) {
+                        ok = false;
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (ok) {
+                        long micros = (System.nanoTime() - start) / 1000;
+                        recorders.get(operation).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                    } else {
+                        errors.get(operation).increment();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(seconds + 120L, TimeUnit.SECONDS)) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Send one request of the given operation.
+     * @return Whether the response was 2xx
+     */
+    private boolean perform(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case BORROWER_CREATE -> {
+                String body = String.format("{\"firstName\":\"Load\",\"lastName\":\"%s%d\",\"dob\":\"%s\","
+                                + "\"employmentStatus\":\"Employed\",\"annualIncome\":%d}",
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], random.nextInt(1_000_000),
+                        LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                        20000 + random.nextInt(200000));
+                HttpResponse<String> response = send(json("/api/borrowers").POST(HttpRequest.BodyPublishers.ofString(body)));
+                if (!ok(response)) return false;
+                borrowers.add(objectMapper.readTree(response.body()).get("id").asLong(), 0);
+                return true;
+            }
+            case LOAN_CREATE -> {
+                long borrowerId = borrowers.randomId();
+                HttpResponse<String> response = send(json("/api/loans")
+                        .POST(HttpRequest.BodyPublishers.ofString(loanBody(borrowerId))));
+                if (!ok(response)) return false;
+                loans.add(objectMapper.readTree(response.body()).get("id").asLong(), borrowerId);
+                return true;
+            }
+            case LOAN_UPDATE -> {
+                int slot = loans.randomSlot();
+                return ok(send(json("/api/loans/" + loans.id(slot))
+                        .PUT(HttpRequest.BodyPublishers.ofString(loanBody(loans.owner(slot))))));
+            }
+            case LOANS_BY_GRADE -> {
+                return ok(send(request("/api/loans?limit=100&riskGrade=" + RISK_GRADES[random.nextInt(RISK_GRADES.length)]
+                        + "&after=" + random.nextLong(Math.max(1, loans.id(loans.randomSlot())))).GET()));
+            }
+            case LOAN_BY_ID -> {
+                return ok(send(request("/api/loans/" + loans.id(loans.randomSlot())).GET()));
+            }
+            default -> throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private void report(int workers, long startMillis, HistogramLogWriter logWriter, PrintWriter csv) throws IOException {
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            long failed = errors.get(operation).sumThenReset();
+            if (histogram.getTotalCount() == 0 && failed == 0) continue;
+
+            String tag = "c" + workers + "." + operation.key;
+            histogram.setTag(tag);
+            histogram.setStartTimeStamp(startMillis);
+            histogram.setEndTimeStamp(System.currentTimeMillis());
+            logWriter.outputIntervalHistogram(histogram);
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(reportDir.resolve("c" + workers + "-" + operation.key + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0); // microseconds -> milliseconds
+            }
+
+            double throughput = (double) histogram.getTotalCount() / stepSeconds;
+            double[] ms = {millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0};
+            System.out.printf("%7d %-15s %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    workers, operation.key, throughput, failed, ms[0], ms[1], ms[2], ms[3], ms[4]);
+            csv.printf("%d,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    workers, operation.key, histogram.getTotalCount(), failed, throughput, ms[0], ms[1], ms[2], ms[3], ms[4]);
+        }
+        csv.flush();
+    }
+
+    private void resetRecorders() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Expand "name=weight,..." into a table with one entry per unit of weight, so picking an
+     * operation is a single random index.
+     */
+    static Operation[] parseMix(String mix) {
+        List<Operation> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.key.equals(parts[0].trim())) operation = candidate;
+            }
+            if (operation == null || parts.length != 2) {
+                throw new IllegalArgumentException("Bad load.mix entry: " + entry);
+            }
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) throw new IllegalArgumentException("load.mix has no weight");
+        return table.toArray(Operation[]::new);
+    }
+
+    private String loanBody(long borrowerId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("{\"borrowerId\":%d,\"loanAmount\":%d,\"termMonths\":%d,\"loanType\":\"%s\"}",
+                borrowerId, randomAmount(), 6 * (1 + random.nextInt(20)), LOAN_TYPES[random.nextInt(LOAN_TYPES.length)]);
+    }
+
+    // Mostly small loans, with a tail of large ones that grade Medium and High
+    private static long randomAmount() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextInt(10) < 7 ? 1000 + random.nextInt(250_000) : 250_000 + random.nextInt(750_000);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return request(path).header("Content-Type", "application/json");
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    /**
+     * Append-mostly pool of ids that workers pick from at random, with the owning borrower of each loan.
+     * When full, new ids overwrite random slots.
+     */
+    static final class IdPool {
+        private final AtomicLongArray slots; // id, owner, id, owner, ...
+        private final AtomicInteger size = new AtomicInteger();
+
+        IdPool(int capacity) {
+            slots = new AtomicLongArray(2 * capacity);
+        }
+
+        // Creates are a small share of the mix, so a lock here costs nothing next to the HTTP call.
+        // The slot is written before size is published, so readers never see an empty slot.
+        synchronized void add(long id, long owner) {
+            int capacity = slots.length() / 2;
+            int n = size.get();
+            int slot = n < capacity ? n : ThreadLocalRandom.current().nextInt(capacity);
+            slots.set(2 * slot + 1, owner);
+            slots.set(2 * slot, id);
+            if (n < capacity) size.set(n + 1);
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        int randomSlot() {
+            return ThreadLocalRandom.current().nextInt(Math.max(1, size.get()));
+        }
+
+        long randomId() {
+            return id(randomSlot());
+        }
+
+        long id(int slot) {
+            return slots.get(2 * slot);
+        }
+
+        long owner(int slot) {
+            return slots.get(2 * slot + 1);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.cbfacademy.creditrisk;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class CreditRiskApplication {
     public static void main(String[] args) {
         SpringApplication.run(CreditRiskApplication.class, args);
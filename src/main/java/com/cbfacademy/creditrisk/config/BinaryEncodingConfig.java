@@ -0,0 +1,49 @@
+package com.cbfacademy.creditrisk.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings of the API DTOs, for consumers that pull large lists:
+ * Smile (Accept: application/x-jackson-smile) and CBOR (Accept: application/cbor).
+ * Request bodies are read in the same formats by Content-Type. JSON stays the default.
+ *
+ * The mappers come from Boot's Jackson2ObjectMapperBuilder, so they serialize exactly like
+ * the JSON one (ISO dates, spring.jackson.* settings). Spring's own defaults for these
+ * formats would write dates as timestamp arrays.
+ *
+ * The WebFlux codecs for the reactive profile are in ReactiveBinaryEncodingConfig (mvn -P reactive).
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryEncodingConfig {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Concatenated Smile values, for the streaming loan export.
+     */
+    public static final String SMILE_STREAM_VALUE = "application/stream+x-jackson-smile";
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class Servlet {
+
+        // Boot's HttpMessageConverters puts these in place of the MVC defaults of the same type
+
+        @Bean
+        MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+        }
+
+        @Bean
+        MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+        }
+    }
+}
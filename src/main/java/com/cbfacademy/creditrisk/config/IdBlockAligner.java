@@ -0,0 +1,86 @@
+package com.cbfacademy.creditrisk.config;
+
+import com.cbfacademy.creditrisk.model.BlockIdGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration helper for tables that used to rely on AUTO_INCREMENT ids.
+ * Before the application starts serving requests, every "<table>_seq" block table
+ * is moved past the highest id already stored in its entity table, so newly handed
+ * out id blocks never collide with existing rows.
+ * The update only ever moves next_val forward, so it is safe to run on every startup
+ * and from several instances at once. An empty block table is seeded with one
+ * INSERT ... SELECT ... WHERE NOT EXISTS; under InnoDB's default REPEATABLE READ isolation
+ * two instances seeding at once lock the same gap, so one of them fails with a deadlock,
+ * retries and then only moves the row the other inserted. The table never gets a second row.
+ * Skipped when creditrisk.startup.load-data is false (CDS training run, no database).
+ */
+@Component
+@ConditionalOnProperty(name = "creditrisk.id.align-on-startup", havingValue = "true", matchIfMissing = true)
+public class IdBlockAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdBlockAligner.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean loadData;
+
+    public IdBlockAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                          @Value("${creditrisk.startup.load-data:true}") boolean loadData) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadData = loadData;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!loadData) return;
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    if (persister.getGenerator() instanceof BlockIdGenerator generator
+                            && persister instanceof AbstractEntityPersister entityPersister) {
+                        align(entityPersister.getTableName(),
+                                entityPersister.getIdentifierColumnNames()[0],
+                                generator.getDatabaseStructure().getPhysicalName().render(),
+                                generator.getDatabaseStructure().getIncrementSize());
+                    }
+                });
+    }
+
+    private void align(String table, String idColumn, String sequenceTable, int incrementSize) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                alignOnce(table, idColumn, sequenceTable, incrementSize);
+                return;
+            } catch (PessimisticLockingFailureException ex) {
+                if (attempt == MAX_ATTEMPTS) throw ex;
+                log.info("Id block table {} was seeded concurrently, retrying", sequenceTable);
+            }
+        }
+    }
+
+    private void alignOnce(String table, String idColumn, String sequenceTable, int incrementSize) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(" + idColumn + "), 0) from " + table, Long.class);
+        // One extra block of headroom covers both the pooled and pooled-lo interpretations of next_val
+        long nextValue = maxId + 1 + incrementSize;
+
+        int updated = jdbcTemplate.update("update " + sequenceTable + " set next_val = ? where next_val < ?", nextValue, nextValue);
+        updated += jdbcTemplate.update("insert into " + sequenceTable + " (next_val) select ? from dual "
+                + "where not exists (select * from " + sequenceTable + ")", nextValue);
+        if (updated > 0) {
+            log.info("Moved id block table {} to {} (max {}.{} = {})", sequenceTable, nextValue, table, idColumn, maxId);
+        }
+    }
+}
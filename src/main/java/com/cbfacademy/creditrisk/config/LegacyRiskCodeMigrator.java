@@ -0,0 +1,63 @@
+package com.cbfacademy.creditrisk.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migration helper for loans written before risk grades and decisions were stored as codes.
+ * Such rows hold "Low", "Medium", "High", "Approve" or "Reject". They can be read, but do not
+ * match grade filters, which compare codes. On startup they are rewritten to their one-character
+ * codes, in transactions of creditrisk.startup.code-migration.chunk-size rows.
+ * Legacy rows are found through the risk_grade index, so with none left the check is one index lookup.
+ * Rewriting a row that another instance has just rewritten changes nothing, so it is safe to run on
+ * every startup and from several instances at once.
+ * Skipped when creditrisk.startup.load-data is false (CDS training run, no database).
+ */
+@Component
+public class LegacyRiskCodeMigrator implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyRiskCodeMigrator.class);
+
+    private static final String MIGRATE_CHUNK = "update loan_applications "
+            + "set risk_grade = left(risk_grade, 1), decision = left(decision, 1) "
+            + "where risk_grade in ('Low', 'Medium', 'High') limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final boolean loadData;
+
+    public LegacyRiskCodeMigrator(JdbcTemplate jdbcTemplate,
+                                  @Value("${creditrisk.startup.code-migration.chunk-size:10000}") int chunkSize,
+                                  @Value("${creditrisk.startup.load-data:true}") boolean loadData) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("creditrisk.startup.code-migration.chunk-size must be at least 1, was " + chunkSize);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.loadData = loadData;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (loadData) migrate();
+    }
+
+    /**
+     * Rewrite every legacy grade and decision to its code.
+     * @return Number of rows rewritten
+     */
+    public long migrate() {
+        long migrated = 0;
+        for (int updated = chunkSize; updated == chunkSize; migrated += updated) {
+            updated = jdbcTemplate.update(MIGRATE_CHUNK, chunkSize);
+        }
+        if (migrated > 0) {
+            log.info("Rewrote risk grade and decision of {} legacy loans as codes", migrated);
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cbfacademy.creditrisk.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup settings for the prod profile, which turns on spring.main.lazy-initialization.
+ * Beans that do their work when the context starts (load in-memory state, register Hibernate
+ * listeners, align id blocks) implement SmartInitializingSingleton. They stay eager; if they
+ * were lazy, that work would never run. Everything else is created on first use.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter startupWorkExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> SmartInitializingSingleton.class.isAssignableFrom(beanType);
+    }
+}
@@ -2,12 +2,18 @@ package com.cbfacademy.creditrisk.controller;
 
 import com.cbfacademy.creditrisk.dto.BorrowerRequest;
 import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.exception.ResourceNotFoundException;
 import com.cbfacademy.creditrisk.model.Borrower;
 import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.service.BorrowerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * REST controller for Borrower-related endpoints.
@@ -15,13 +21,20 @@ import java.util.stream.Collectors;
  * Uses DTOs to decouple API contract from entity persistence.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/borrowers")
 public class BorrowerController {
 
+    private final BorrowerService borrowerService;
     private final BorrowerRepository borrowerRepository;
+    private final int maxPageSize;
 
-    public BorrowerController(BorrowerRepository borrowerRepository) {
+    public BorrowerController(BorrowerService borrowerService,
+                              BorrowerRepository borrowerRepository,
+                              @Value("${creditrisk.pagination.max-limit:1000}") int maxPageSize) {
+        this.borrowerService = borrowerService;
         this.borrowerRepository = borrowerRepository;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -32,29 +45,38 @@ public class BorrowerController {
     @PostMapping
     public BorrowerResponse createBorrower(@RequestBody BorrowerRequest request) {
         Borrower borrower = mapToEntity(request);
-        Borrower saved = borrowerRepository.save(borrower);
+        Borrower saved = borrowerService.createBorrower(borrower);
         return mapToResponse(saved);
     }
 
+    /**
+     * Search Borrowers by partial last name (case-insensitive), e.g. ?lastName=smi.
+     */
+    @GetMapping("/search")
+    public List<BorrowerResponse> searchBorrowers(@RequestParam String lastName,
+                                                  @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        return borrowerService.searchByLastName(lastName, Math.max(1, Math.min(limit, maxPageSize)));
+    }
+
     /**
      * Retrieve a Borrower by ID.
      */
     @GetMapping("/{id}")
     public BorrowerResponse getBorrower(@PathVariable Long id) {
-        Borrower borrower = borrowerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Borrower not found"));
-        return mapToResponse(borrower);
+        return borrowerService.findBorrower(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found"));
     }
 
     /**
      * Retrieve all Borrowers.
+     * Keyset-paginated: pass the returned nextCursor as ?after= to get the next page.
      */
     @GetMapping
-    public List<BorrowerResponse> getAllBorrowers() {
-        return borrowerRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<BorrowerResponse> getAllBorrowers(@RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<BorrowerResponse> borrowers = borrowerRepository.findResponsePageAfter(after, Limit.of(pageSize + 1));
+        return CursorPage.of(borrowers, pageSize, BorrowerResponse::getId, Function.identity());
     }
 
     /**
@@ -62,17 +84,7 @@ public class BorrowerController {
      */
     @PutMapping("/{id}")
     public BorrowerResponse updateBorrower(@PathVariable Long id, @RequestBody BorrowerRequest request) {
-        Borrower borrower = borrowerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Borrower not found"));
-
-        borrower.setFirstName(request.getFirstName());
-        borrower.setLastName(request.getLastName());
-        borrower.setDob(request.getDob());
-        borrower.setEmploymentStatus(request.getEmploymentStatus());
-        borrower.setAnnualIncome(request.getAnnualIncome());
-
-        Borrower updated = borrowerRepository.save(borrower);
-        return mapToResponse(updated);
+        return borrowerService.updateBorrower(id, mapToEntity(request));
     }
 
     /**
@@ -80,13 +92,13 @@ public class BorrowerController {
      */
     @DeleteMapping("/{id}")
     public void deleteBorrower(@PathVariable Long id) {
-        borrowerRepository.deleteById(id);
+        borrowerService.deleteBorrower(id);
     }
 
     /**
      * Map BorrowerRequest DTO to Borrower entity.
      */
-    private Borrower mapToEntity(BorrowerRequest request) {
+    static Borrower mapToEntity(BorrowerRequest request) {
         Borrower borrower = new Borrower();
         borrower.setFirstName(request.getFirstName());
         borrower.setLastName(request.getLastName());
@@ -98,8 +110,9 @@ public class BorrowerController {
 
     /**
      * Map Borrower entity to BorrowerResponse DTO.
+     * Package-private so the JMH mapping benchmark can call it.
      */
-    private BorrowerResponse mapToResponse(Borrower borrower) {
+    static BorrowerResponse mapToResponse(Borrower borrower) {
         BorrowerResponse response = new BorrowerResponse();
         response.setId(borrower.getId());
         response.setFirstName(borrower.getFirstName());
@@ -0,0 +1,34 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.ImportReport;
+import com.cbfacademy.creditrisk.importer.BorrowerCsvImporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for bulk imports.
+ * The request body is streamed straight into the importer, so uploads of any size use constant memory.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private final BorrowerCsvImporter importer;
+
+    public ImportController(BorrowerCsvImporter importer) {
+        this.importer = importer;
+    }
+
+    /**
+     * Import borrowers, each with an optional loan, from a CSV body (Content-Type: text/csv).
+     * See BorrowerCsvImporter for the column layout.
+     */
+    @PostMapping(value = "/borrowers", consumes = "text/csv")
+    public ImportReport importBorrowers(InputStream body) throws IOException {
+        return importer.importCsv(body);
+    }
+}
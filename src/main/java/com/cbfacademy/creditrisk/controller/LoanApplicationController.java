@@ -1,16 +1,33 @@
 package com.cbfacademy.creditrisk.controller;
 
+import com.cbfacademy.creditrisk.config.BinaryEncodingConfig;
+import com.cbfacademy.creditrisk.dto.CursorPage;
 import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
 import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
-import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.dto.LoanBatchResponse;
 import com.cbfacademy.creditrisk.model.LoanApplication;
-import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.model.RiskGrade;
 import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
 import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * REST controller for LoanApplication endpoints.
@@ -18,17 +35,31 @@ import java.util.stream.Collectors;
  * Uses DTOs to decouple API contract from persistence layer.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/loans")
 public class LoanApplicationController {
 
     private final LoanApplicationService service;
-    private final BorrowerRepository borrowerRepository;
+    private final LoanSubmissions submissions;
     private final LoanApplicationRepository loanApplicationRepository;
-
-    public LoanApplicationController(LoanApplicationService service, BorrowerRepository borrowerRepository, LoanApplicationRepository loanApplicationRepository) {
+    private final ObjectWriter exportWriter;
+    private final ObjectWriter smileExportWriter;
+    private final int maxPageSize;
+
+    public LoanApplicationController(LoanApplicationService service, LoanSubmissions submissions,
+                                     LoanApplicationRepository loanApplicationRepository,
+                                     ObjectMapper objectMapper,
+                                     MappingJackson2SmileHttpMessageConverter smileConverter,
+                                     @Value("${creditrisk.pagination.max-limit:1000}") int maxPageSize) {
         this.service = service;
-        this.borrowerRepository = borrowerRepository;
+        this.submissions = submissions;
         this.loanApplicationRepository = loanApplicationRepository;
+        // No flush per row: the generator's buffer decides when bytes go out
+        this.exportWriter = objectMapper.writerFor(LoanApplicationResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.smileExportWriter = smileConverter.getObjectMapper().writerFor(LoanApplicationResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -36,36 +67,77 @@ public class LoanApplicationController {
      */
     @PostMapping
     public LoanApplicationResponse createLoan(@RequestBody LoanApplicationRequest request) {
-        Borrower borrower = borrowerRepository.findById(request.getBorrowerId())
-                .orElseThrow(() -> new RuntimeException("Borrower not found"));
-
-        LoanApplication loan = new LoanApplication();
-        loan.setBorrower(borrower);
-        loan.setLoanAmount(request.getLoanAmount());
-        loan.setTermMonths(request.getTermMonths());
-        loan.setLoanType(request.getLoanType());
+        return submissions.create(request);
+    }
 
-        LoanApplication saved = service.createLoanApplication(loan);
-        return mapToResponse(saved);
+    /**
+     * Create many LoanApplications in one call.
+     * Each entry gets its own result, so one bad entry does not fail the whole submission.
+     */
+    @PostMapping("/batch")
+    public LoanBatchResponse createLoans(@RequestBody List<LoanApplicationRequest> requests) {
+        return submissions.createBatch(requests);
     }
+
     /**
      * Retrieve a single LoanApplication by its ID.
      * Used to check the status, risk score, and decision of a specific loan.
      */
     @GetMapping("/{id}")
     public LoanApplicationResponse getLoanById(@PathVariable Long id) {
-        LoanApplication loan = loanApplicationRepository.findById(id)
+        return loanApplicationRepository.findResponseById(id)
             .orElseThrow(() -> new RuntimeException("Loan not found"));
-        return mapToResponse(loan);
 }
 
     /**
      * Retrieve loans, optionally filtered by risk grade.
+     * Keyset-paginated: pass the returned nextCursor as ?after= to get the next page.
      */
     @GetMapping
-    public List<LoanApplicationResponse> getLoans(@RequestParam(required = false) String riskGrade) {
-        List<LoanApplication> loans = service.getLoansByRiskGrade(riskGrade);
-        return loans.stream().map(this::mapToResponse).collect(Collectors.toList());
+    public CursorPage<LoanApplicationResponse> getLoans(@RequestParam(required = false) String riskGrade,
+                                                        @RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<LoanApplicationResponse> loans = service.getLoansPage(riskGrade, after, pageSize + 1);
+        return CursorPage.of(loans, pageSize, LoanApplicationResponse::getId, Function.identity());
+    }
+
+    /**
+     * Export loans as newline-delimited JSON, one LoanApplicationResponse per line,
+     * or as concatenated Smile values when the client accepts application/stream+x-jackson-smile.
+     * Loans are streamed from the database and written as they are read,
+     * so the portfolio is never held in memory.
+     */
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", BinaryEncodingConfig.SMILE_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportLoans(
+            @RequestParam(required = false) String riskGrade,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean smile = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.parseMediaType(BinaryEncodingConfig.SMILE_STREAM_VALUE)::equalsTypeAndSubtype);
+        return smile
+                ? export(smileExportWriter, false, BinaryEncodingConfig.SMILE_STREAM_VALUE, riskGrade, createdFrom, createdTo)
+                : export(exportWriter, true, "application/x-ndjson", riskGrade, createdFrom, createdTo);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ObjectWriter writer, boolean newlineDelimited, String contentType,
+                                                         String riskGrade, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        // Validate the filter before the response starts streaming
+        RiskGrade grade = riskGrade == null || riskGrade.isEmpty() ? null : RiskGrade.fromDisplayName(riskGrade);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+                service.exportLoans(grade, createdFrom, createdTo, loan -> {
+                    try {
+                        writer.writeValue(generator, mapToResponse(loan));
+                        if (newlineDelimited) generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(contentType)).body(body);
     }
 
     /**
@@ -73,19 +145,7 @@ public class LoanApplicationController {
      */
     @PutMapping("/{id}")
     public LoanApplicationResponse updateLoan(@PathVariable Long id, @RequestBody LoanApplicationRequest request) {
-        LoanApplication loan = loanApplicationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Loan not found"));
-
-        Borrower borrower = borrowerRepository.findById(request.getBorrowerId())
-                .orElseThrow(() -> new RuntimeException("Borrower not found"));
-
-        loan.setBorrower(borrower);
-        loan.setLoanAmount(request.getLoanAmount());
-        loan.setTermMonths(request.getTermMonths());
-        loan.setLoanType(request.getLoanType());
-
-        LoanApplication updated = service.updateLoanApplication(loan);
-        return mapToResponse(updated);
+        return submissions.update(id, request);
     }
 
     /**
@@ -98,16 +158,17 @@ public class LoanApplicationController {
 
     /**
      * Map LoanApplication entity to LoanApplicationResponse DTO.
+     * Package-private so the JMH mapping benchmark can call it.
      */
-    private LoanApplicationResponse mapToResponse(LoanApplication loan) {
+    static LoanApplicationResponse mapToResponse(LoanApplication loan) {
     LoanApplicationResponse response = new LoanApplicationResponse();
     response.setId(loan.getId());
     response.setBorrowerId(loan.getBorrower().getId());
     response.setLoanAmount(loan.getLoanAmount());
     response.setTermMonths(loan.getTermMonths());
     response.setLoanType(loan.getLoanType());
-    response.setRiskGrade(loan.getRiskGrade());
-    response.setDecision(loan.getDecision());
+    response.setRiskGrade(loan.getRiskGrade() == null ? null : loan.getRiskGrade().getDisplayName());
+    response.setDecision(loan.getDecision() == null ? null : loan.getDecision().getDisplayName());
     response.setRiskScore(loan.getRiskScore());  
     return response;
     }
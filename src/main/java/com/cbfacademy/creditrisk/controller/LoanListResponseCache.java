@@ -0,0 +1,158 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.service.LoanTableVersion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response cache and conditional GET for loan listings (GET /api/loans).
+ *
+ * Each page is cached as the serialized body plus its gzip-compressed form, keyed by the query
+ * parameters and the Accept header, and tagged with the LoanTableVersion it was built at.
+ * The ETag is derived from that version alone, so If-None-Match is answered with 304 before
+ * the cache is even consulted: no query, no mapping, no serialization. A cached page is only
+ * served while the version is unchanged; any committed loan write makes it stale, on this instance at
+ * once and on others at their next version check.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "creditrisk.loans.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class LoanListResponseCache extends OncePerRequestFilter {
+
+    private static final String PATH = "/api/loans";
+    private static final Pattern GZIP_REFUSED = Pattern.compile(";\\s*q=0(\\.0*)?$");
+
+    private final LoanTableVersion loanTableVersion;
+    private final Cache<Key, Entry> responses;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+
+    public LoanListResponseCache(LoanTableVersion loanTableVersion, MeterRegistry meterRegistry,
+                                 @Value("${creditrisk.loans.response-cache.max-bytes:67108864}") long maxBytes) {
+        this.loanTableVersion = loanTableVersion;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .build();
+        this.hits = result(meterRegistry, "hit");
+        this.misses = result(meterRegistry, "miss");
+        this.notModified = result(meterRegistry, "not_modified");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !(request.getContextPath() + PATH).equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Read before the query runs: a write committing meanwhile leaves the page tagged as stale
+        long version = loanTableVersion.current();
+        response.setHeader(HttpHeaders.VARY, "Accept, Accept-Encoding");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Sets the ETag; true (and a 304) if the client already has this version
+        if (new ServletWebRequest(request, response).checkNotModified(loanTableVersion.etag(version))) {
+            notModified.increment();
+            return;
+        }
+
+        Key key = new Key(query(request.getParameterMap()), request.getHeader(HttpHeaders.ACCEPT));
+        Entry entry = responses.policy().getIfPresentQuietly(key);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+        } else {
+            misses.increment();
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+                // Errors (e.g. an unknown risk grade) are not cached
+                wrapper.copyBodyToResponse();
+                return;
+            }
+            entry = Entry.of(version, wrapper.getContentType(), wrapper.getContentAsByteArray());
+            responses.put(key, entry);
+        }
+        write(request, response, entry);
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, Entry entry) throws IOException {
+        byte[] body = entry.body();
+        if (entry.gzipped() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = entry.gzipped();
+        }
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            if ((coding.equals("gzip") || coding.startsWith("gzip;")) && !GZIP_REFUSED.matcher(coding).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Parameters sorted by name, so ?limit=10&after=5 and ?after=5&limit=10 share an entry
+    private static String query(Map<String, String[]> parameters) {
+        StringBuilder query = new StringBuilder();
+        new TreeMap<>(parameters).forEach((name, values) -> query.append(name).append('=')
+                .append(String.join(",", values)).append('&'));
+        return query.toString();
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("creditrisk.loans.list.cache")
+                .description("GET /api/loans requests by response cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Key(String query, String accept) {}
+
+    /**
+     * @param gzipped the compressed body, or null when compression does not make it smaller
+     */
+    private record Entry(long version, String contentType, byte[] body, byte[] gzipped) {
+
+        static Entry of(long version, String contentType, byte[] body) throws IOException {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            byte[] gzipped = compressed.size() < body.length ? compressed.toByteArray() : null;
+            return new Entry(version, contentType, body, gzipped);
+        }
+
+        int weight() {
+            return body.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.dto.LoanBatchItemResult;
+import com.cbfacademy.creditrisk.dto.LoanBatchResponse;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.service.BorrowerService;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loan write requests, shared by the servlet and reactive loan controllers.
+ * Turns request DTOs into loans and hands them to LoanApplicationService for scoring and persisting.
+ * Blocking: the reactive controller calls it on its JPA worker threads.
+ */
+@Component
+class LoanSubmissions {
+
+    private final LoanApplicationService service;
+    private final BorrowerService borrowerService;
+    private final BorrowerRepository borrowerRepository;
+
+    LoanSubmissions(LoanApplicationService service, BorrowerService borrowerService, BorrowerRepository borrowerRepository) {
+        this.service = service;
+        this.borrowerService = borrowerService;
+        this.borrowerRepository = borrowerRepository;
+    }
+
+    LoanApplicationResponse create(LoanApplicationRequest request) {
+        LoanApplication saved = service.createLoanApplication(toLoan(request));
+        return LoanApplicationController.mapToResponse(saved);
+    }
+
+    LoanApplicationResponse update(Long id, LoanApplicationRequest request) {
+        LoanApplication updated = service.updateLoanApplication(id, toLoan(request));
+        return LoanApplicationController.mapToResponse(updated);
+    }
+
+    /**
+     * Create many loans in one call.
+     * All referenced borrowers are checked against the borrower cache, with one query
+     * for the ones not cached yet, then the valid loans
+     * are scored and persisted in batches. Each entry gets its own result, so one bad
+     * entry does not fail the whole submission.
+     */
+    LoanBatchResponse createBatch(List<LoanApplicationRequest> requests) {
+        List<Long> borrowerIds = requests.stream()
+                .map(LoanApplicationRequest::getBorrowerId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Set<Long> knownBorrowerIds = borrowerService.findBorrowers(borrowerIds).keySet();
+
+        LoanBatchItemResult[] results = new LoanBatchItemResult[requests.size()];
+        List<LoanApplication> loans = new ArrayList<>(requests.size());
+        List<Integer> loanIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            LoanApplicationRequest request = requests.get(i);
+            if (!knownBorrowerIds.contains(request.getBorrowerId())) {
+                results[i] = LoanBatchItemResult.failed(i, "Borrower not found");
+            } else if (request.getLoanAmount() == null) {
+                results[i] = LoanBatchItemResult.failed(i, "Loan amount is required");
+            } else {
+                LoanApplication loan = new LoanApplication();
+                loan.setBorrower(borrowerRepository.getReferenceById(request.getBorrowerId()));
+                loan.setLoanAmount(request.getLoanAmount());
+                loan.setTermMonths(request.getTermMonths());
+                loan.setLoanType(request.getLoanType());
+                loans.add(loan);
+                loanIndexes.add(i);
+            }
+        }
+
+        List<LoanApplication> saved = service.createLoanApplications(loans);
+        for (int j = 0; j < saved.size(); j++) {
+            int index = loanIndexes.get(j);
+            LoanApplication loan = saved.get(j);
+            results[index] = loan != null
+                    ? LoanBatchItemResult.created(index, LoanApplicationController.mapToResponse(loan))
+                    : LoanBatchItemResult.failed(index, "Could not persist loan");
+        }
+        return new LoanBatchResponse(Arrays.asList(results));
+    }
+
+    private LoanApplication toLoan(LoanApplicationRequest request) {
+        LoanApplication loan = new LoanApplication();
+        loan.setBorrower(borrowerReference(request.getBorrowerId()));
+        loan.setLoanAmount(request.getLoanAmount());
+        loan.setTermMonths(request.getTermMonths());
+        loan.setLoanType(request.getLoanType());
+        return loan;
+    }
+
+    /**
+     * Borrower for a loan's foreign key.
+     * Existence is checked through the borrower cache; the loan only needs the id,
+     * so it gets an uninitialized reference and no SELECT is issued for the borrower.
+     */
+    private Borrower borrowerReference(Long borrowerId) {
+        if (borrowerId == null || borrowerService.findBorrower(borrowerId).isEmpty()) {
+            throw new RuntimeException("Borrower not found");
+        }
+        return borrowerRepository.getReferenceById(borrowerId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.dto.PortfolioCell;
+import com.cbfacademy.creditrisk.dto.PortfolioReconciliation;
+import com.cbfacademy.creditrisk.dto.SnapshotBucket;
+import com.cbfacademy.creditrisk.dto.SnapshotFilter;
+import com.cbfacademy.creditrisk.dto.SnapshotGroup;
+import com.cbfacademy.creditrisk.dto.SnapshotLoan;
+import com.cbfacademy.creditrisk.service.PortfolioCube;
+import com.cbfacademy.creditrisk.service.PortfolioSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for portfolio-level views.
+ * The summary is served from the in-memory PortfolioCube and ad-hoc analytics from the off-heap
+ * PortfolioSnapshot, so neither touches the loan table.
+ * Snapshot queries take the SnapshotFilter fields as optional query parameters.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/portfolio")
+public class PortfolioController {
+
+    private final PortfolioCube portfolioCube;
+    private final PortfolioSnapshot portfolioSnapshot;
+    private final int maxPageSize;
+
+    public PortfolioController(PortfolioCube portfolioCube, PortfolioSnapshot portfolioSnapshot,
+                               @Value("${creditrisk.pagination.max-limit:1000}") int maxPageSize) {
+        this.portfolioCube = portfolioCube;
+        this.portfolioSnapshot = portfolioSnapshot;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Count, total loan amount and mean risk score per risk grade × loan type × term bucket.
+     */
+    @GetMapping("/summary")
+    public List<PortfolioCell> getSummary() {
+        return portfolioCube.summary();
+    }
+
+    /**
+     * Compare the summary with a full SQL aggregate of the loan table.
+     * Pass ?repair=true to replace the summary with the SQL result when they differ.
+     */
+    @PostMapping("/summary/reconcile")
+    public PortfolioReconciliation reconcile(@RequestParam(defaultValue = "false") boolean repair) {
+        return portfolioCube.reconcile(repair);
+    }
+
+    /**
+     * Count, total loan amount and mean risk score of the matching loans,
+     * in total or per ?groupBy=riskGrade or ?groupBy=loanType.
+     */
+    @GetMapping("/snapshot/aggregate")
+    public List<SnapshotGroup> aggregate(SnapshotFilter filter, @RequestParam(required = false) String groupBy) {
+        return portfolioSnapshot.aggregate(filter, groupBy);
+    }
+
+    /**
+     * Histogram of the matching loans' amounts: ?buckets= buckets of ?bucketWidth= each, the last one open-ended.
+     */
+    @GetMapping("/snapshot/histogram")
+    public List<SnapshotBucket> amountHistogram(SnapshotFilter filter, @RequestParam double bucketWidth,
+                                                @RequestParam(defaultValue = "20") int buckets) {
+        return portfolioSnapshot.amountHistogram(filter, bucketWidth, buckets);
+    }
+
+    /**
+     * Matching loans in id order, e.g. ?minAmount=500000.
+     * Keyset-paginated: pass the returned nextCursor as ?after= to get the next page.
+     */
+    @GetMapping("/snapshot/loans")
+    public CursorPage<SnapshotLoan> findLoans(SnapshotFilter filter, @RequestParam(defaultValue = "0") long after,
+                                              @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        return portfolioSnapshot.findLoans(filter, after, Math.max(1, Math.min(limit, maxPageSize)));
+    }
+
+    /**
+     * Reload the snapshot from the loan table, e.g. after rows were changed directly in the database.
+     * Returns the total over the reloaded snapshot.
+     */
+    @PostMapping("/snapshot/reload")
+    public SnapshotGroup reloadSnapshot() {
+        return portfolioSnapshot.reload();
+    }
+}
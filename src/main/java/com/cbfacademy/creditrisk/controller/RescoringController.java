@@ -0,0 +1,49 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.RescoringJobResponse;
+import com.cbfacademy.creditrisk.service.RescoringJobService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for portfolio re-scoring jobs.
+ * Jobs run in the background; poll GET /api/rescoring/jobs/{id} for progress.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/rescoring/jobs")
+public class RescoringController {
+
+    private final RescoringJobService service;
+
+    public RescoringController(RescoringJobService service) {
+        this.service = service;
+    }
+
+    /**
+     * Start re-scoring every existing loan with the current scoring rules.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public RescoringJobResponse startJob() {
+        return service.start();
+    }
+
+    /**
+     * Progress and throughput of a job.
+     */
+    @GetMapping("/{id}")
+    public RescoringJobResponse getJob(@PathVariable Long id) {
+        return service.getJob(id);
+    }
+
+    /**
+     * Resume a failed job from its last checkpoint.
+     */
+    @PostMapping("/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public RescoringJobResponse resumeJob(@PathVariable Long id) {
+        return service.resume(id);
+    }
+}
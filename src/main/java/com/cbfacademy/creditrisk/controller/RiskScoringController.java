@@ -0,0 +1,40 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.ScoreDistributionReport;
+import com.cbfacademy.creditrisk.service.RiskScoreSketches;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+/**
+ * REST controller for the distribution of the scores given to submitted loans.
+ * What-if scoring (POST /api/risk/score) is served by WhatIfScoringFilter, ahead of Spring MVC.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/risk")
+public class RiskScoringController {
+
+    private final RiskScoreSketches riskScoreSketches;
+
+    public RiskScoringController(RiskScoreSketches riskScoreSketches) {
+        this.riskScoreSketches = riskScoreSketches;
+    }
+
+    /**
+     * p10/p50/p90 of the risk scores and the approval rate of loans scored recently (created,
+     * batch-submitted, imported or updated), in total, per grade, per loan type, and per both.
+     * What-if scores are not counted. Only committed loans are counted, and the approval rate is
+     * their stored decision, so a loan rejected by the borrower exposure limit counts as rejected.
+     * Answered from in-memory sketches, without touching the database.
+     * @param minutes Window ending now, rounded up to whole slices; defaults to every retained slice
+     */
+    @GetMapping("/score-distribution")
+    public ScoreDistributionReport scoreDistribution(@RequestParam(required = false) Integer minutes) {
+        if (minutes != null && minutes < 1) {
+            throw new IllegalArgumentException("minutes must be at least 1");
+        }
+        return riskScoreSketches.report(minutes == null ? null : Duration.ofMinutes(minutes));
+    }
+}
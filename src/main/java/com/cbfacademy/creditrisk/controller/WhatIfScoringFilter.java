@@ -0,0 +1,229 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.scoring.RiskScore;
+import com.cbfacademy.creditrisk.scoring.RiskScoringEngine;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * What-if scoring of hypothetical loans (POST /api/risk/score), served ahead of Spring MVC.
+ *
+ * A loan is an object with a loanAmount; other fields (e.g. a whole loan request) are ignored.
+ * The answer has the same form as the request: {"riskScore":..,"riskGrade":..,"decision":..},
+ * or an array of those in request order. The borrower exposure limit is not applied. Nothing is
+ * persisted and the database is never touched, so pricing and pre-qualification front-ends can
+ * score as often as they like.
+ *
+ * The request is tiny and the scoring takes nanoseconds, so the framework around it was most of
+ * the cost: this filter runs first and answers without the rest of the filter chain, the request
+ * observation (http.server.requests) or the DispatcherServlet, and calls the RiskScoringEngine
+ * directly. Requests are counted in creditrisk.scoring.what-if.requests instead; what-if loans are
+ * not timed in creditrisk.scoring. Errors get the same status and plain-text message
+ * GlobalExceptionHandler would give.
+ *
+ * The body is read and the answer written with Jackson's streaming parser and generator (with its
+ * fast double parser and writer): no request or response DTOs and no entities. The answer is
+ * buffered, about 70 bytes per loan, so it goes out with a Content-Length.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WhatIfScoringFilter implements Filter {
+
+    private static final String PATH = "/api/risk/score";
+    private static final String LOAN_AMOUNT = "loanAmount";
+
+    private final RiskScoringEngine scoringEngine;
+    private final JsonFactory jsonFactory;
+    private final Counter scored;
+    private final Counter rejected;
+
+    public WhatIfScoringFilter(RiskScoringEngine scoringEngine, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.scoringEngine = scoringEngine;
+        this.jsonFactory = objectMapper.getFactory().rebuild()
+                .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+                .enable(StreamWriteFeature.USE_FAST_DOUBLE_WRITER)
+                // Tomcat threads carry many thread-locals, so the default per-thread buffer lookup often misses
+                .recyclerPool(JsonRecyclerPools.newConcurrentDequePool())
+                .build();
+        this.scored = result(meterRegistry, "scored");
+        this.rejected = result(meterRegistry, "rejected");
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        String uri = request.getRequestURI();
+        if (!uri.endsWith(PATH) || uri.length() != request.getContextPath().length() + PATH.length()) {
+            chain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        if (!"POST".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "POST");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        if (!isJson(request.getContentType())) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            return;
+        }
+        if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            response.sendError(HttpServletResponse.SC_NOT_ACCEPTABLE);
+            return;
+        }
+        try {
+            score(request, response);
+            scored.increment();
+        } catch (IllegalArgumentException ex) {
+            rejected.increment();
+            byte[] message = ex.getMessage().getBytes(StandardCharsets.UTF_8);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.setContentLength(message.length);
+            response.getOutputStream().write(message);
+        }
+    }
+
+    private void score(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Parse the whole body first, so a bad entry is a 400 rather than a half-written answer
+        double[] loanAmounts;
+        boolean array;
+        try (JsonParser parser = parser(request)) {
+            JsonToken first = parser.nextToken();
+            array = first == JsonToken.START_ARRAY;
+            if (array) {
+                loanAmounts = readLoanAmounts(parser);
+            } else if (first == JsonToken.START_OBJECT) {
+                loanAmounts = new double[] {readLoanAmount(parser, -1)};
+            } else {
+                throw new IllegalArgumentException("Expected a loan object or an array of loans");
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+
+        ByteArrayBuilder answer = new ByteArrayBuilder(64 + loanAmounts.length * 70);
+        RiskScore result = new RiskScore();
+        try (JsonGenerator generator = jsonFactory.createGenerator(answer)) {
+            if (array) generator.writeStartArray();
+            for (double loanAmount : loanAmounts) {
+                scoringEngine.score(loanAmount, result);
+                generator.writeStartObject();
+                generator.writeNumberField("riskScore", result.getScore());
+                generator.writeStringField("riskGrade", result.getGrade().getDisplayName());
+                generator.writeStringField("decision", result.getDecision().getDisplayName());
+                generator.writeEndObject();
+            }
+            if (array) generator.writeEndArray();
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(answer.size());
+        response.getOutputStream().write(answer.toByteArray());
+    }
+
+    // A body of known length is read in one go; the parser then needs no input buffer of its own
+    private JsonParser parser(HttpServletRequest request) throws IOException {
+        int length = request.getContentLength();
+        if (length < 0) return jsonFactory.createParser(request.getInputStream());
+        byte[] body = request.getInputStream().readNBytes(length);
+        return jsonFactory.createParser(body, 0, body.length);
+    }
+
+    private static double[] readLoanAmounts(JsonParser parser) throws IOException {
+        double[] loanAmounts = new double[16];
+        int count = 0;
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Loan at index " + count + " is not an object");
+            }
+            if (count == loanAmounts.length) loanAmounts = Arrays.copyOf(loanAmounts, count * 2);
+            loanAmounts[count] = readLoanAmount(parser, count);
+            count++;
+        }
+        return Arrays.copyOf(loanAmounts, count);
+    }
+
+    /**
+     * Read the loanAmount of the object the parser is at, skipping every other field.
+     * @param index Position in the request array, or -1 for a single loan
+     */
+    private static double readLoanAmount(JsonParser parser, int index) throws IOException {
+        double loanAmount = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (LOAN_AMOUNT.equals(field) && value.isNumeric()) {
+                loanAmount = parser.getDoubleValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (Double.isNaN(loanAmount)) {
+            throw new IllegalArgumentException(index < 0
+                    ? "Loan amount is required"
+                    : "Loan amount is required at index " + index);
+        }
+        return loanAmount;
+    }
+
+    private static boolean isJson(String contentType) {
+        if (MediaType.APPLICATION_JSON_VALUE.equals(contentType)) return true; // Skip parsing in the usual case
+        try {
+            return contentType != null && MediaType.APPLICATION_JSON.includes(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    // What produces = application/json accepted: no Accept header, or one compatible with JSON
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isEmpty() || accept.equals(MediaType.APPLICATION_JSON_VALUE) || accept.equals(MediaType.ALL_VALUE)) {
+            return true;
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return true;
+            }
+            return false;
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    private static Counter result(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("creditrisk.scoring.what-if.requests")
+                .description("POST /api/risk/score requests by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cbfacademy.creditrisk.dto;
+
+/**
+ * Approved exposure (sum of approved loan amounts) of one borrower.
+ * Used to load the ExposureLedger for many borrowers with one query.
+ */
+public class BorrowerExposureRow {
+    private final Long borrowerId;
+    private final double approvedExposure;
+
+    public BorrowerExposureRow(Long borrowerId, Double approvedExposure) {
+        this.borrowerId = borrowerId;
+        this.approvedExposure = approvedExposure == null ? 0 : approvedExposure;
+    }
+
+    public Long getBorrowerId() {
+        return borrowerId;
+    }
+
+    public double getApprovedExposure() {
+        return approvedExposure;
+    }
+}
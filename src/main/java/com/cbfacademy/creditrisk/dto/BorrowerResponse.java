@@ -12,7 +12,7 @@ public class BorrowerResponse {
 
     public BorrowerResponse() {}
 
-    // All-args constructor (for easy mapping in test)
+    // All-args constructor (for easy mapping in test and JPQL constructor expressions)
     public BorrowerResponse(Long id, String firstName, String lastName, LocalDate dob, String employmentStatus, Double annualIncome) {
         this.id = id;
         this.firstName = firstName;
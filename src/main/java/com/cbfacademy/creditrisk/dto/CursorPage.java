@@ -0,0 +1,57 @@
+package com.cbfacademy.creditrisk.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is the id to pass as ?after= to fetch the following page,
+ * or null when there are no more rows.
+ */
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private int limit;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, Long nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Build a page from rows fetched with limit + 1.
+     * The extra row only signals that another page exists and is not returned.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? idOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor, limit);
+    }
+
+    // Getters & Setters
+    public List<T> getItems() {
+        return items;
+    }
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
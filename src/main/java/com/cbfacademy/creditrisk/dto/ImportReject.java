@@ -0,0 +1,41 @@
+package com.cbfacademy.creditrisk.dto;
+
+/**
+ * A CSV line that a bulk import did not import.
+ * record is the line as it was sent.
+ */
+public class ImportReject {
+    private long line;
+    private String reason;
+    private String record;
+
+    public ImportReject() {}
+
+    public ImportReject(long line, String reason, String record) {
+        this.line = line;
+        this.reason = reason;
+        this.record = record;
+    }
+
+    // Getters & Setters
+    public long getLine() {
+        return line;
+    }
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getRecord() {
+        return record;
+    }
+    public void setRecord(String record) {
+        this.record = record;
+    }
+}
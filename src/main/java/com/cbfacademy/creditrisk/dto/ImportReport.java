@@ -0,0 +1,91 @@
+package com.cbfacademy.creditrisk.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk CSV import.
+ * A command-line import lists every line that was not imported, with its line number and reason,
+ * in rejectFile. The endpoint returns them in rejects instead, up to creditrisk.import.max-reported-rejects;
+ * rejected counts them all.
+ */
+public class ImportReport {
+    private long linesRead;
+    private long borrowersImported;
+    private long loansImported;
+    private long rejected;
+    private double seconds;
+    private double rowsPerSecond;
+    private String rejectFile;
+    private List<ImportReject> rejects;
+
+    public ImportReport() {}
+
+    public ImportReport(long linesRead, long borrowersImported, long loansImported, long rejected,
+                        double seconds, String rejectFile, List<ImportReject> rejects) {
+        this.linesRead = linesRead;
+        this.borrowersImported = borrowersImported;
+        this.loansImported = loansImported;
+        this.rejected = rejected;
+        this.seconds = seconds;
+        this.rowsPerSecond = seconds > 0 ? borrowersImported / seconds : 0;
+        this.rejectFile = rejectFile;
+        this.rejects = rejects;
+    }
+
+    // Getters & Setters
+    public long getLinesRead() {
+        return linesRead;
+    }
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getBorrowersImported() {
+        return borrowersImported;
+    }
+    public void setBorrowersImported(long borrowersImported) {
+        this.borrowersImported = borrowersImported;
+    }
+
+    public long getLoansImported() {
+        return loansImported;
+    }
+    public void setLoansImported(long loansImported) {
+        this.loansImported = loansImported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public double getSeconds() {
+        return seconds;
+    }
+    public void setSeconds(double seconds) {
+        this.seconds = seconds;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public String getRejectFile() {
+        return rejectFile;
+    }
+    public void setRejectFile(String rejectFile) {
+        this.rejectFile = rejectFile;
+    }
+
+    public List<ImportReject> getRejects() {
+        return rejects;
+    }
+    public void setRejects(List<ImportReject> rejects) {
+        this.rejects = rejects;
+    }
+}
@@ -1,5 +1,8 @@
 package com.cbfacademy.creditrisk.dto;
 
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
 public class LoanApplicationResponse {
     private Long id;
     private Long borrowerId;
@@ -10,6 +13,21 @@ public class LoanApplicationResponse {
     private String decision;
     private double riskScore;
 
+    public LoanApplicationResponse() {}
+
+    // All-args constructor, used by JPQL constructor expressions in LoanApplicationRepository
+    public LoanApplicationResponse(Long id, Long borrowerId, Double loanAmount, Integer termMonths, String loanType,
+                                   RiskGrade riskGrade, Decision decision, double riskScore) {
+        this.id = id;
+        this.borrowerId = borrowerId;
+        this.loanAmount = loanAmount;
+        this.termMonths = termMonths;
+        this.loanType = loanType;
+        this.riskGrade = riskGrade == null ? null : riskGrade.getDisplayName();
+        this.decision = decision == null ? null : decision.getDisplayName();
+        this.riskScore = riskScore;
+    }
+
     // Getters & Setters
     public Long getId() { 
         return id; 
@@ -0,0 +1,58 @@
+package com.cbfacademy.creditrisk.dto;
+
+/**
+ * Outcome of a single entry in a batch loan submission.
+ * index refers to the position of the request in the submitted array.
+ */
+public class LoanBatchItemResult {
+    private int index;
+    private String status;   // Created or Failed
+    private LoanApplicationResponse loan;
+    private String error;
+
+    public LoanBatchItemResult() {}
+
+    public LoanBatchItemResult(int index, String status, LoanApplicationResponse loan, String error) {
+        this.index = index;
+        this.status = status;
+        this.loan = loan;
+        this.error = error;
+    }
+
+    public static LoanBatchItemResult created(int index, LoanApplicationResponse loan) {
+        return new LoanBatchItemResult(index, "Created", loan, null);
+    }
+
+    public static LoanBatchItemResult failed(int index, String error) {
+        return new LoanBatchItemResult(index, "Failed", null, error);
+    }
+
+    // Getters & Setters
+    public int getIndex() {
+        return index;
+    }
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LoanApplicationResponse getLoan() {
+        return loan;
+    }
+    public void setLoan(LoanApplicationResponse loan) {
+        this.loan = loan;
+    }
+
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+}
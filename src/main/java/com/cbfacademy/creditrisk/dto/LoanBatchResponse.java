@@ -0,0 +1,52 @@
+package com.cbfacademy.creditrisk.dto;
+
+import java.util.List;
+
+/**
+ * Summary returned by POST /api/loans/batch.
+ * Results are listed in the same order as the submitted requests.
+ */
+public class LoanBatchResponse {
+    private int submitted;
+    private int created;
+    private int failed;
+    private List<LoanBatchItemResult> results;
+
+    public LoanBatchResponse() {}
+
+    public LoanBatchResponse(List<LoanBatchItemResult> results) {
+        this.results = results;
+        this.submitted = results.size();
+        this.created = (int) results.stream().filter(r -> r.getLoan() != null).count();
+        this.failed = submitted - created;
+    }
+
+    // Getters & Setters
+    public int getSubmitted() {
+        return submitted;
+    }
+    public void setSubmitted(int submitted) {
+        this.submitted = submitted;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<LoanBatchItemResult> getResults() {
+        return results;
+    }
+    public void setResults(List<LoanBatchItemResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,119 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a re-scoring job needs for one loan: the scoring input, the stored result,
+ * the grouping fields of the portfolio cube and the borrower whose exposure it counts towards. The new result is filled in when the
+ * loan is re-scored. updatedAt tells whether the loan was edited after the row was read.
+ */
+public class LoanScoreRow {
+    private final Long id;
+    private final Long borrowerId;
+    private final Double loanAmount;
+    private final String loanType;
+    private final Integer termMonths;
+    private final double riskScore;
+    private final RiskGrade riskGrade;
+    private final Decision decision;
+    private final LocalDateTime updatedAt; // Null if the loan was never updated
+
+    private double newRiskScore;
+    private RiskGrade newRiskGrade;
+    private Decision newDecision;
+
+    public LoanScoreRow(Long id, Long borrowerId, Double loanAmount, String loanType, Integer termMonths,
+                        double riskScore, RiskGrade riskGrade, Decision decision, LocalDateTime updatedAt) {
+        this.id = id;
+        this.borrowerId = borrowerId;
+        this.loanAmount = loanAmount;
+        this.loanType = loanType;
+        this.termMonths = termMonths;
+        this.riskScore = riskScore;
+        this.riskGrade = riskGrade;
+        this.decision = decision;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Store a new result.
+     * @return true if it differs from the stored one
+     */
+    public boolean rescore(double score, RiskGrade grade, Decision decision) {
+        this.newRiskScore = score;
+        this.newRiskGrade = grade;
+        this.newDecision = decision;
+        return changed();
+    }
+
+    /**
+     * Whether the new result turns a rejected loan into an approved one, which must fit the exposure limit.
+     */
+    public boolean isNewApproval() {
+        return decision == Decision.REJECT && newDecision == Decision.APPROVE;
+    }
+
+    /**
+     * Keep the loan rejected, because approving it would exceed the borrower's exposure limit.
+     * @return true if the new result still differs from the stored one
+     */
+    public boolean keepRejected() {
+        this.newDecision = Decision.REJECT;
+        return changed();
+    }
+
+    private boolean changed() {
+        return newRiskScore != riskScore || newRiskGrade != riskGrade || newDecision != decision;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getBorrowerId() {
+        return borrowerId;
+    }
+
+    public Double getLoanAmount() {
+        return loanAmount;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+
+    public Integer getTermMonths() {
+        return termMonths;
+    }
+
+    public double getRiskScore() {
+        return riskScore;
+    }
+
+    public RiskGrade getRiskGrade() {
+        return riskGrade;
+    }
+
+    public Decision getDecision() {
+        return decision;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public double getNewRiskScore() {
+        return newRiskScore;
+    }
+
+    public RiskGrade getNewRiskGrade() {
+        return newRiskGrade;
+    }
+
+    public Decision getNewDecision() {
+        return newDecision;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+/**
+ * One row of the SQL portfolio aggregate, grouped by grade, loan type and exact term.
+ * Used to build and reconcile the in-memory portfolio cube.
+ */
+public class PortfolioAggregateRow {
+    private final RiskGrade riskGrade;
+    private final String loanType;
+    private final Integer termMonths;
+    private final long count;
+    private final double totalLoanAmount;
+    private final double totalRiskScore;
+
+    public PortfolioAggregateRow(RiskGrade riskGrade, String loanType, Integer termMonths,
+                                 Long count, Double totalLoanAmount, Double totalRiskScore) {
+        this.riskGrade = riskGrade;
+        this.loanType = loanType;
+        this.termMonths = termMonths;
+        this.count = count == null ? 0 : count;
+        this.totalLoanAmount = totalLoanAmount == null ? 0 : totalLoanAmount;
+        this.totalRiskScore = totalRiskScore == null ? 0 : totalRiskScore;
+    }
+
+    public RiskGrade getRiskGrade() {
+        return riskGrade;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+
+    public Integer getTermMonths() {
+        return termMonths;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalLoanAmount() {
+        return totalLoanAmount;
+    }
+
+    public double getTotalRiskScore() {
+        return totalRiskScore;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.model.TermBucket;
+
+/**
+ * Portfolio summary for one risk grade × loan type × term bucket.
+ */
+public class PortfolioCell {
+    private RiskGrade riskGrade;
+    private String loanType;
+    private TermBucket termBucket;
+    private long count;
+    private double totalLoanAmount;
+    private double meanRiskScore;
+
+    public PortfolioCell() {}
+
+    public PortfolioCell(RiskGrade riskGrade, String loanType, TermBucket termBucket,
+                         long count, double totalLoanAmount, double totalRiskScore) {
+        this.riskGrade = riskGrade;
+        this.loanType = loanType;
+        this.termBucket = termBucket;
+        this.count = count;
+        this.totalLoanAmount = totalLoanAmount;
+        this.meanRiskScore = count == 0 ? 0 : totalRiskScore / count;
+    }
+
+    // Getters & Setters
+    public RiskGrade getRiskGrade() {
+        return riskGrade;
+    }
+    public void setRiskGrade(RiskGrade riskGrade) {
+        this.riskGrade = riskGrade;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+    public void setLoanType(String loanType) {
+        this.loanType = loanType;
+    }
+
+    public TermBucket getTermBucket() {
+        return termBucket;
+    }
+    public void setTermBucket(TermBucket termBucket) {
+        this.termBucket = termBucket;
+    }
+
+    public long getCount() {
+        return count;
+    }
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalLoanAmount() {
+        return totalLoanAmount;
+    }
+    public void setTotalLoanAmount(double totalLoanAmount) {
+        this.totalLoanAmount = totalLoanAmount;
+    }
+
+    public double getMeanRiskScore() {
+        return meanRiskScore;
+    }
+    public void setMeanRiskScore(double meanRiskScore) {
+        this.meanRiskScore = meanRiskScore;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cbfacademy.creditrisk.dto;
+
+import java.util.List;
+
+/**
+ * Result of comparing the in-memory portfolio cube with a full SQL aggregate.
+ * Each mismatch pairs the cube's cell with the database's cell; either side is null
+ * when the cell exists on one side only.
+ */
+public class PortfolioReconciliation {
+    private int cellsChecked;
+    private List<Mismatch> mismatches;
+    private boolean repaired;
+
+    public PortfolioReconciliation() {}
+
+    public PortfolioReconciliation(int cellsChecked, List<Mismatch> mismatches, boolean repaired) {
+        this.cellsChecked = cellsChecked;
+        this.mismatches = mismatches;
+        this.repaired = repaired;
+    }
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+
+    // Getters & Setters
+    public int getCellsChecked() {
+        return cellsChecked;
+    }
+    public void setCellsChecked(int cellsChecked) {
+        this.cellsChecked = cellsChecked;
+    }
+
+    public List<Mismatch> getMismatches() {
+        return mismatches;
+    }
+    public void setMismatches(List<Mismatch> mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    public boolean isRepaired() {
+        return repaired;
+    }
+    public void setRepaired(boolean repaired) {
+        this.repaired = repaired;
+    }
+
+    public static class Mismatch {
+        private PortfolioCell cube;
+        private PortfolioCell database;
+
+        public Mismatch() {}
+
+        public Mismatch(PortfolioCell cube, PortfolioCell database) {
+            this.cube = cube;
+            this.database = database;
+        }
+
+        public PortfolioCell getCube() {
+            return cube;
+        }
+        public void setCube(PortfolioCell cube) {
+            this.cube = cube;
+        }
+
+        public PortfolioCell getDatabase() {
+            return database;
+        }
+        public void setDatabase(PortfolioCell database) {
+            this.database = database;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.RescoringJob;
+import com.cbfacademy.creditrisk.model.RescoringStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a re-scoring job.
+ * rowsPerSecond covers the current run in this process and is 0 when the job is not running here.
+ */
+public class RescoringJobResponse {
+    private Long id;
+    private RescoringStatus status;
+    private long totalLoans;
+    private long processed;
+    private long rescored;
+    private long lastLoanId;
+    private double percentComplete;
+    private double rowsPerSecond;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public RescoringJobResponse() {}
+
+    public RescoringJobResponse(RescoringJob job, double rowsPerSecond) {
+        this.id = job.getId();
+        this.status = job.getStatus();
+        this.totalLoans = job.getTotalLoans();
+        this.processed = job.getProcessed();
+        this.rescored = job.getRescored();
+        this.lastLoanId = job.getLastLoanId();
+        this.percentComplete = job.getStatus() == RescoringStatus.COMPLETED || job.getTotalLoans() == 0
+                ? 100.0 : Math.min(100.0, 100.0 * job.getProcessed() / job.getTotalLoans());
+        this.rowsPerSecond = rowsPerSecond;
+        this.finishedAt = job.getFinishedAt();
+        this.error = job.getError();
+    }
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RescoringStatus getStatus() {
+        return status;
+    }
+    public void setStatus(RescoringStatus status) {
+        this.status = status;
+    }
+
+    public long getTotalLoans() {
+        return totalLoans;
+    }
+    public void setTotalLoans(long totalLoans) {
+        this.totalLoans = totalLoans;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getRescored() {
+        return rescored;
+    }
+    public void setRescored(long rescored) {
+        this.rescored = rescored;
+    }
+
+    public long getLastLoanId() {
+        return lastLoanId;
+    }
+    public void setLastLoanId(long lastLoanId) {
+        this.lastLoanId = lastLoanId;
+    }
+
+    public double getPercentComplete() {
+        return percentComplete;
+    }
+    public void setPercentComplete(double percentComplete) {
+        this.percentComplete = percentComplete;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+}
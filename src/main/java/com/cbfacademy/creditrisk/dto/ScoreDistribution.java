@@ -0,0 +1,81 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+/**
+ * Risk-score distribution of the loans scored in one group during a time window.
+ * Only the grouped attributes are set: riskGrade, loanType, both, or neither for the total.
+ * approvalRate and the percentiles are null when no loan was scored.
+ */
+public class ScoreDistribution {
+    private RiskGrade riskGrade;
+    private String loanType;
+    private long count;
+    private Double approvalRate;
+    private Double p10;
+    private Double p50;
+    private Double p90;
+
+    public ScoreDistribution() {}
+
+    public ScoreDistribution(RiskGrade riskGrade, String loanType, long count, Double approvalRate,
+                             Double p10, Double p50, Double p90) {
+        this.riskGrade = riskGrade;
+        this.loanType = loanType;
+        this.count = count;
+        this.approvalRate = approvalRate;
+        this.p10 = p10;
+        this.p50 = p50;
+        this.p90 = p90;
+    }
+
+    // Getters & Setters
+    public RiskGrade getRiskGrade() {
+        return riskGrade;
+    }
+    public void setRiskGrade(RiskGrade riskGrade) {
+        this.riskGrade = riskGrade;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+    public void setLoanType(String loanType) {
+        this.loanType = loanType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Double getApprovalRate() {
+        return approvalRate;
+    }
+    public void setApprovalRate(Double approvalRate) {
+        this.approvalRate = approvalRate;
+    }
+
+    public Double getP10() {
+        return p10;
+    }
+    public void setP10(Double p10) {
+        this.p10 = p10;
+    }
+
+    public Double getP50() {
+        return p50;
+    }
+    public void setP50(Double p50) {
+        this.p50 = p50;
+    }
+
+    public Double getP90() {
+        return p90;
+    }
+    public void setP90(Double p90) {
+        this.p90 = p90;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cbfacademy.creditrisk.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Risk-score distributions over a recent time window (GET /api/risk/score-distribution):
+ * the total, per grade, per loan type, and per grade and loan type.
+ * Groups without scored loans are left out of the lists.
+ */
+public class ScoreDistributionReport {
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private ScoreDistribution overall;
+    private List<ScoreDistribution> byRiskGrade;
+    private List<ScoreDistribution> byLoanType;
+    private List<ScoreDistribution> byRiskGradeAndLoanType;
+
+    public ScoreDistributionReport() {}
+
+    public ScoreDistributionReport(LocalDateTime windowStart, LocalDateTime windowEnd, ScoreDistribution overall,
+                                   List<ScoreDistribution> byRiskGrade, List<ScoreDistribution> byLoanType,
+                                   List<ScoreDistribution> byRiskGradeAndLoanType) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.overall = overall;
+        this.byRiskGrade = byRiskGrade;
+        this.byLoanType = byLoanType;
+        this.byRiskGradeAndLoanType = byRiskGradeAndLoanType;
+    }
+
+    // Getters & Setters
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+    public void setWindowEnd(LocalDateTime windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public ScoreDistribution getOverall() {
+        return overall;
+    }
+    public void setOverall(ScoreDistribution overall) {
+        this.overall = overall;
+    }
+
+    public List<ScoreDistribution> getByRiskGrade() {
+        return byRiskGrade;
+    }
+    public void setByRiskGrade(List<ScoreDistribution> byRiskGrade) {
+        this.byRiskGrade = byRiskGrade;
+    }
+
+    public List<ScoreDistribution> getByLoanType() {
+        return byLoanType;
+    }
+    public void setByLoanType(List<ScoreDistribution> byLoanType) {
+        this.byLoanType = byLoanType;
+    }
+
+    public List<ScoreDistribution> getByRiskGradeAndLoanType() {
+        return byRiskGradeAndLoanType;
+    }
+    public void setByRiskGradeAndLoanType(List<ScoreDistribution> byRiskGradeAndLoanType) {
+        this.byRiskGradeAndLoanType = byRiskGradeAndLoanType;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cbfacademy.creditrisk.dto;
+
+/**
+ * One bucket of a loan amount histogram: loans with lowerBound <= amount < upperBound.
+ * The last bucket has no upper bound.
+ */
+public class SnapshotBucket {
+    private double lowerBound;
+    private Double upperBound;
+    private long count;
+    private double totalLoanAmount;
+
+    public SnapshotBucket() {}
+
+    public SnapshotBucket(double lowerBound, Double upperBound, long count, double totalLoanAmount) {
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.count = count;
+        this.totalLoanAmount = totalLoanAmount;
+    }
+
+    // Getters & Setters
+    public double getLowerBound() {
+        return lowerBound;
+    }
+    public void setLowerBound(double lowerBound) {
+        this.lowerBound = lowerBound;
+    }
+
+    public Double getUpperBound() {
+        return upperBound;
+    }
+    public void setUpperBound(Double upperBound) {
+        this.upperBound = upperBound;
+    }
+
+    public long getCount() {
+        return count;
+    }
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalLoanAmount() {
+        return totalLoanAmount;
+    }
+    public void setTotalLoanAmount(double totalLoanAmount) {
+        this.totalLoanAmount = totalLoanAmount;
+    }
+}
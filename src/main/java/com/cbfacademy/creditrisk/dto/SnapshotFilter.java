@@ -0,0 +1,84 @@
+package com.cbfacademy.creditrisk.dto;
+
+/**
+ * Filter for portfolio snapshot queries, bound from query parameters.
+ * Every field is optional; lower bounds are inclusive, upper bounds exclusive.
+ * A loan with no amount or term never matches a bound on it.
+ */
+public class SnapshotFilter {
+    private String riskGrade;
+    private String loanType;
+    private Long borrowerId;
+    private Double minAmount;
+    private Double maxAmount;
+    private Integer minTermMonths;
+    private Integer maxTermMonths;
+    private Double minRiskScore;
+    private Double maxRiskScore;
+
+    public SnapshotFilter() {}
+
+    // Getters & Setters
+    public String getRiskGrade() {
+        return riskGrade;
+    }
+    public void setRiskGrade(String riskGrade) {
+        this.riskGrade = riskGrade;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+    public void setLoanType(String loanType) {
+        this.loanType = loanType;
+    }
+
+    public Long getBorrowerId() {
+        return borrowerId;
+    }
+    public void setBorrowerId(Long borrowerId) {
+        this.borrowerId = borrowerId;
+    }
+
+    public Double getMinAmount() {
+        return minAmount;
+    }
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public Integer getMinTermMonths() {
+        return minTermMonths;
+    }
+    public void setMinTermMonths(Integer minTermMonths) {
+        this.minTermMonths = minTermMonths;
+    }
+
+    public Integer getMaxTermMonths() {
+        return maxTermMonths;
+    }
+    public void setMaxTermMonths(Integer maxTermMonths) {
+        this.maxTermMonths = maxTermMonths;
+    }
+
+    public Double getMinRiskScore() {
+        return minRiskScore;
+    }
+    public void setMinRiskScore(Double minRiskScore) {
+        this.minRiskScore = minRiskScore;
+    }
+
+    public Double getMaxRiskScore() {
+        return maxRiskScore;
+    }
+    public void setMaxRiskScore(Double maxRiskScore) {
+        this.maxRiskScore = maxRiskScore;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+/**
+ * Aggregate of the snapshot loans in one group.
+ * Only the grouped attribute is set: riskGrade when grouped by grade, loanType when
+ * grouped by loan type, neither for the total.
+ */
+public class SnapshotGroup {
+    private RiskGrade riskGrade;
+    private String loanType;
+    private long count;
+    private double totalLoanAmount;
+    private double meanRiskScore;
+
+    public SnapshotGroup() {}
+
+    public SnapshotGroup(RiskGrade riskGrade, String loanType, long count, double totalLoanAmount, double totalRiskScore) {
+        this.riskGrade = riskGrade;
+        this.loanType = loanType;
+        this.count = count;
+        this.totalLoanAmount = totalLoanAmount;
+        this.meanRiskScore = count == 0 ? 0 : totalRiskScore / count;
+    }
+
+    // Getters & Setters
+    public RiskGrade getRiskGrade() {
+        return riskGrade;
+    }
+    public void setRiskGrade(RiskGrade riskGrade) {
+        this.riskGrade = riskGrade;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+    public void setLoanType(String loanType) {
+        this.loanType = loanType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getTotalLoanAmount() {
+        return totalLoanAmount;
+    }
+    public void setTotalLoanAmount(double totalLoanAmount) {
+        this.totalLoanAmount = totalLoanAmount;
+    }
+
+    public double getMeanRiskScore() {
+        return meanRiskScore;
+    }
+    public void setMeanRiskScore(double meanRiskScore) {
+        this.meanRiskScore = meanRiskScore;
+    }
+}
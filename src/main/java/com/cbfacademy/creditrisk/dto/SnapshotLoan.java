@@ -0,0 +1,80 @@
+package com.cbfacademy.creditrisk.dto;
+
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+/**
+ * One loan as held in the portfolio snapshot.
+ * The snapshot does not keep decisions or timestamps; read the loan itself for those.
+ */
+public class SnapshotLoan {
+    private Long id;
+    private Long borrowerId;
+    private Double loanAmount;
+    private Integer termMonths;
+    private String loanType;
+    private RiskGrade riskGrade;
+    private double riskScore;
+
+    public SnapshotLoan() {}
+
+    public SnapshotLoan(Long id, Long borrowerId, Double loanAmount, Integer termMonths, String loanType,
+                        RiskGrade riskGrade, double riskScore) {
+        this.id = id;
+        this.borrowerId = borrowerId;
+        this.loanAmount = loanAmount;
+        this.termMonths = termMonths;
+        this.loanType = loanType;
+        this.riskGrade = riskGrade;
+        this.riskScore = riskScore;
+    }
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBorrowerId() {
+        return borrowerId;
+    }
+    public void setBorrowerId(Long borrowerId) {
+        this.borrowerId = borrowerId;
+    }
+
+    public Double getLoanAmount() {
+        return loanAmount;
+    }
+    public void setLoanAmount(Double loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public Integer getTermMonths() {
+        return termMonths;
+    }
+    public void setTermMonths(Integer termMonths) {
+        this.termMonths = termMonths;
+    }
+
+    public String getLoanType() {
+        return loanType;
+    }
+    public void setLoanType(String loanType) {
+        this.loanType = loanType;
+    }
+
+    public RiskGrade getRiskGrade() {
+        return riskGrade;
+    }
+    public void setRiskGrade(RiskGrade riskGrade) {
+        this.riskGrade = riskGrade;
+    }
+
+    public double getRiskScore() {
+        return riskScore;
+    }
+    public void setRiskScore(double riskScore) {
+        this.riskScore = riskScore;
+    }
+}
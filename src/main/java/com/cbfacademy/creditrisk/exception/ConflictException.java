@@ -0,0 +1,20 @@
+package com.cbfacademy.creditrisk.exception;
+
+/**
+ * Custom exception for requests that conflict with the current state of a resource,
+ * e.g. starting a job while another one is running.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException() {
+        super();
+    }
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
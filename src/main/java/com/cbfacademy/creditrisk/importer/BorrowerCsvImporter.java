@@ -0,0 +1,361 @@
+package com.cbfacademy.creditrisk.importer;
+
+import com.cbfacademy.creditrisk.dto.ImportReject;
+import com.cbfacademy.creditrisk.dto.ImportReport;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.BorrowerNameIndex;
+import com.cbfacademy.creditrisk.service.BorrowerService;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk import of borrowers, each with at most one loan, from CSV.
+ *
+ * Columns: firstName,lastName,dob,employmentStatus,annualIncome,loanAmount,termMonths,loanType
+ * (dob as yyyy-MM-dd; leave the three loan columns empty for a borrower without a loan;
+ * an optional header line is skipped).
+ *
+ * The input is streamed through CsvRowReader and never held in memory. Rows are validated
+ * with BorrowerService.validateBorrower, loans are scored, and borrowers and loans are
+ * inserted together in JDBC-batched transactions of creditrisk.import.chunk-size rows.
+ * Invalid lines are rejected: written to a reject file, or returned in the report. Text columns
+ * longer than their varchar(255) columns are invalid too, so they never reach the database.
+ *
+ * A chunk keeps its raw lines until it commits. When it fails to commit (a constraint the
+ * checks above do not know about), it is split in halves and each half is parsed again from its
+ * raw lines and retried in its own transaction, down to single lines. Only the lines that fail on
+ * their own are rejected, each with its own database error; a chunk with one bad line costs about
+ * 2 log2(chunk-size) extra transactions.
+ */
+@Service
+public class BorrowerCsvImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowerCsvImporter.class);
+    private static final int FIRST_NAME = 0, LAST_NAME = 1, DOB = 2, EMPLOYMENT_STATUS = 3,
+            ANNUAL_INCOME = 4, LOAN_AMOUNT = 5, TERM_MONTHS = 6, LOAN_TYPE = 7, COLUMNS = 8;
+    private static final byte[] REJECT_HEADER = "line,reason,record\n".getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_TEXT_LENGTH = 255; // varchar(255) columns
+
+    private final BorrowerService borrowerService;
+    private final LoanApplicationService loanApplicationService;
+    private final BorrowerRepository borrowerRepository;
+    private final LoanApplicationRepository loanRepository;
+    private final BorrowerNameIndex nameIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedRejects;
+
+    public BorrowerCsvImporter(BorrowerService borrowerService,
+                               LoanApplicationService loanApplicationService,
+                               BorrowerRepository borrowerRepository,
+                               LoanApplicationRepository loanRepository,
+                               BorrowerNameIndex nameIndex,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${creditrisk.import.chunk-size:5000}") int chunkSize,
+                               @Value("${creditrisk.import.max-reported-rejects:1000}") int maxReportedRejects) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("creditrisk.import.chunk-size must be at least 1, was " + chunkSize);
+        }
+        this.borrowerService = borrowerService;
+        this.loanApplicationService = loanApplicationService;
+        this.borrowerRepository = borrowerRepository;
+        this.loanRepository = loanRepository;
+        this.nameIndex = nameIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    /**
+     * Import a CSV stream, returning the first creditrisk.import.max-reported-rejects rejected lines in the report.
+     * @param csv CSV input; closed when the import ends
+     */
+    public ImportReport importCsv(InputStream csv) throws IOException {
+        ReportedRejects rejects = new ReportedRejects(maxReportedRejects);
+        return importCsv(csv, rejects, null, rejects.list);
+    }
+
+    /**
+     * Import a CSV stream.
+     * @param csv CSV input; closed when the import ends
+     * @param rejectFile File that receives the lines that were not imported
+     */
+    public ImportReport importCsv(InputStream csv, Path rejectFile) throws IOException {
+        return importCsv(csv, new RejectFile(rejectFile), rejectFile.toString(), null);
+    }
+
+    private ImportReport importCsv(InputStream csv, Rejects rejects, String rejectFile, List<ImportReject> reported) throws IOException {
+        long start = System.nanoTime();
+        Chunk chunk = new Chunk(chunkSize);
+        Counts counts = new Counts();
+        try (CsvRowReader reader = new CsvRowReader(csv); rejects) {
+            while (reader.next()) {
+                if (reader.isBlankLine()) continue;
+                if (reader.lineNumber() == 1 && reader.equalsIgnoreCase(FIRST_NAME, "firstName")) continue;
+                counts.lines++;
+                try {
+                    chunk.add(parse(reader), reader);
+                } catch (RuntimeException ex) {
+                    rejects.reject(reader.lineNumber(), ex.getMessage(), reader);
+                    counts.rejected++;
+                    continue;
+                }
+                if (chunk.size() == chunkSize) flush(chunk, counts, rejects);
+            }
+            flush(chunk, counts, rejects);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        ImportReport report = new ImportReport(counts.lines, counts.borrowers, counts.loans, counts.rejected,
+                seconds, rejectFile, reported);
+        log.info("Imported {} borrowers and {} loans from {} lines in {} s ({} rows/s), {} rejected",
+                report.getBorrowersImported(), report.getLoansImported(), report.getLinesRead(),
+                String.format("%.1f", seconds), String.format("%.0f", report.getRowsPerSecond()), report.getRejected());
+        return report;
+    }
+
+    private Row parse(CsvRowReader reader) {
+        if (reader.fieldCount() != COLUMNS && reader.fieldCount() != LOAN_AMOUNT) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns but found " + reader.fieldCount());
+        }
+        Borrower borrower = new Borrower();
+        borrower.setFirstName(text(reader.string(FIRST_NAME), "firstName"));
+        borrower.setLastName(text(reader.string(LAST_NAME), "lastName"));
+        borrower.setDob(reader.isEmpty(DOB) ? null : reader.isoDate(DOB));
+        borrower.setEmploymentStatus(text(reader.dictionaryString(EMPLOYMENT_STATUS), "employmentStatus"));
+        borrower.setAnnualIncome(reader.isEmpty(ANNUAL_INCOME) ? null : reader.decimal(ANNUAL_INCOME));
+        borrowerService.validateBorrower(borrower);
+
+        LoanApplication loan = null;
+        if (!reader.isEmpty(LOAN_AMOUNT) || !reader.isEmpty(TERM_MONTHS) || !reader.isEmpty(LOAN_TYPE)) {
+            if (reader.isEmpty(LOAN_AMOUNT)) throw new IllegalArgumentException("Loan amount is required");
+            loan = new LoanApplication();
+            loan.setBorrower(borrower);
+            loan.setLoanAmount(reader.decimal(LOAN_AMOUNT));
+            loan.setTermMonths(reader.isEmpty(TERM_MONTHS) ? null : reader.integer(TERM_MONTHS));
+            loan.setLoanType(reader.isEmpty(LOAN_TYPE) ? null : text(reader.dictionaryString(LOAN_TYPE), "loanType"));
+        }
+        return new Row(borrower, loan);
+    }
+
+    private static String text(String value, String column) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(column + " must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private void flush(Chunk chunk, Counts counts, Rejects rejects) throws IOException {
+        if (chunk.size() == 0) return;
+        loanApplicationService.scoreNewBorrowerLoans(chunk.loans);
+        try {
+            persist(chunk.borrowers, chunk.loans, counts);
+        } catch (DataAccessException | TransactionException ex) {
+            log.warn("Failed to import lines {}-{}; retrying them in smaller transactions",
+                    chunk.lineNumbers[0], chunk.lineNumbers[chunk.size() - 1], ex);
+            split(chunk, 0, chunk.size(), ex, counts, rejects);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Persist a chunk's lines from..to-1 in one transaction, splitting them in halves when that
+     * fails; a single line that fails is rejected with its own error. The lines are parsed again
+     * from their raw text, since the failed transaction left ids and timestamps on the entities.
+     */
+    private void retry(Chunk chunk, int from, int to, Counts counts, Rejects rejects) throws IOException {
+        if (from == to) return;
+        List<Borrower> borrowers = new ArrayList<>(to - from);
+        List<LoanApplication> loans = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            byte[] line = chunk.line(i);
+            try (CsvRowReader reader = new CsvRowReader(new ByteArrayInputStream(line), line.length + 1)) {
+                reader.next();
+                Row row = parse(reader);
+                borrowers.add(row.borrower());
+                if (row.loan() != null) loans.add(row.loan());
+            }
+        }
+        loanApplicationService.scoreNewBorrowerLoans(loans);
+        try {
+            persist(borrowers, loans, counts);
+        } catch (DataAccessException | TransactionException ex) {
+            split(chunk, from, to, ex, counts, rejects);
+        }
+    }
+
+    // Retry both halves of lines that failed together; a single line is rejected with the error
+    private void split(Chunk chunk, int from, int to, NestedRuntimeException failure,
+                       Counts counts, Rejects rejects) throws IOException {
+        if (to - from == 1) {
+            rejects.reject(chunk.lineNumbers[from], "Row could not be persisted: " + failure.getMostSpecificCause().getMessage(), chunk.line(from));
+            counts.rejected++;
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        retry(chunk, from, middle, counts, rejects);
+        retry(chunk, middle, to, counts, rejects);
+    }
+
+    private void persist(List<Borrower> borrowers, List<LoanApplication> loans, Counts counts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            borrowerRepository.saveAll(borrowers);
+            loanRepository.saveAll(loans);
+        });
+        Map<Long, String> lastNames = new HashMap<>(borrowers.size() * 2);
+        for (Borrower borrower : borrowers) {
+            lastNames.put(borrower.getId(), borrower.getLastName());
+        }
+        nameIndex.indexAll(lastNames);
+        counts.borrowers += borrowers.size();
+        counts.loans += loans.size();
+    }
+
+    // One line per reject: database messages can span several
+    private static String quote(String text) {
+        return "\"" + reason(text).replace("\"", "\"\"").replaceAll("\\R+", " ") + "\"";
+    }
+
+    private static String reason(String message) {
+        return message == null ? "Invalid row" : message;
+    }
+
+    // Where rejected lines go
+    private interface Rejects extends Closeable {
+        void reject(long line, String reason, byte[] record) throws IOException;
+
+        default void reject(long line, String reason, CsvRowReader reader) throws IOException {
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            reader.writeLine(record);
+            reject(line, reason, record.toByteArray());
+        }
+    }
+
+    // CSV file of line,reason,record
+    private static final class RejectFile implements Rejects {
+        final OutputStream out;
+
+        RejectFile(Path file) throws IOException {
+            out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+            out.write(REJECT_HEADER);
+        }
+
+        @Override
+        public void reject(long line, String reason, byte[] record) throws IOException {
+            out.write((line + "," + quote(reason) + ",").getBytes(StandardCharsets.UTF_8));
+            out.write(record);
+            out.write('\n');
+        }
+
+        @Override
+        public void reject(long line, String reason, CsvRowReader reader) throws IOException {
+            out.write((line + "," + quote(reason) + ",").getBytes(StandardCharsets.UTF_8));
+            reader.writeLine(out);
+            out.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // The first rejects, kept for the report; the rest are only counted
+    private static final class ReportedRejects implements Rejects {
+        final List<ImportReject> list = new ArrayList<>();
+        final int max;
+
+        ReportedRejects(int max) {
+            this.max = max;
+        }
+
+        @Override
+        public void reject(long line, String reason, byte[] record) {
+            if (list.size() < max) list.add(new ImportReject(line, reason(reason), new String(record, StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public void reject(long line, String reason, CsvRowReader reader) throws IOException {
+            if (list.size() < max) Rejects.super.reject(line, reason, reader);
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private record Row(Borrower borrower, LoanApplication loan) {}
+
+    private static final class Chunk {
+        final List<Borrower> borrowers;
+        final List<LoanApplication> loans;
+        final long[] lineNumbers;
+        final int[] lineEnds;
+        final ByteArrayOutputStream lines = new ByteArrayOutputStream(); // Raw lines, for retrying a chunk that fails
+        byte[] written; // lines as one array, taken once the chunk is complete
+
+        Chunk(int capacity) {
+            borrowers = new ArrayList<>(capacity);
+            loans = new ArrayList<>(capacity);
+            lineNumbers = new long[capacity];
+            lineEnds = new int[capacity];
+        }
+
+        void add(Row row, CsvRowReader reader) throws IOException {
+            int index = borrowers.size();
+            lineNumbers[index] = reader.lineNumber();
+            reader.writeLine(lines);
+            lineEnds[index] = lines.size();
+            borrowers.add(row.borrower());
+            if (row.loan() != null) loans.add(row.loan());
+        }
+
+        // Raw text of one line, as read
+        byte[] line(int index) {
+            if (written == null) written = lines.toByteArray();
+            return Arrays.copyOfRange(written, index == 0 ? 0 : lineEnds[index - 1], lineEnds[index]);
+        }
+
+        int size() {
+            return borrowers.size();
+        }
+
+        void clear() {
+            borrowers.clear();
+            loans.clear();
+            lines.reset();
+            written = null;
+        }
+    }
+
+    private static final class Counts {
+        long lines;
+        long borrowers;
+        long loans;
+        long rejected;
+    }
+}
@@ -0,0 +1,58 @@
+package com.cbfacademy.creditrisk.importer;
+
+import com.cbfacademy.creditrisk.dto.ImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line bulk import, e.g.
+ * java -jar creditrisk.jar --spring.main.web-application-type=none --creditrisk.import.file=book.csv
+ * Imports the file, logs the report and exits (unless creditrisk.import.exit-when-done=false).
+ * Rejected lines go to creditrisk.import.reject-file, by default next to the input as *.rejects.csv.
+ */
+@Component
+@ConditionalOnProperty("creditrisk.import.file")
+public class BulkImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    private final BorrowerCsvImporter importer;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final String rejectFile;
+    private final boolean exitWhenDone;
+
+    public BulkImportRunner(BorrowerCsvImporter importer,
+                            ConfigurableApplicationContext context,
+                            @Value("${creditrisk.import.file}") Path file,
+                            @Value("${creditrisk.import.reject-file:}") String rejectFile,
+                            @Value("${creditrisk.import.exit-when-done:true}") boolean exitWhenDone) {
+        this.importer = importer;
+        this.context = context;
+        this.file = file;
+        this.rejectFile = rejectFile;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path rejects = rejectFile.isEmpty() ? file.resolveSibling(file.getFileName() + ".rejects.csv") : Path.of(rejectFile);
+        ImportReport report = importer.importCsv(Files.newInputStream(file), rejects);
+        if (report.getRejected() > 0) {
+            log.info("Rejected lines are in {}", report.getRejectFile());
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
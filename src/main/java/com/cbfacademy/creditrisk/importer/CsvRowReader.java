@@ -0,0 +1,285 @@
+package com.cbfacademy.creditrisk.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Streaming CSV reader that works on raw bytes.
+ * Each line stays in one reusable buffer and fields are kept as offsets into it, so numbers and
+ * dates are parsed without creating Strings. Text fields are decoded only when asked for, and
+ * repeated low-cardinality values (employment status, loan type) come from a small dictionary.
+ *
+ * Supports comma-separated UTF-8 with optional double-quoted fields ("" escapes a quote)
+ * and LF or CRLF line endings. Quoted fields cannot contain line breaks.
+ */
+public final class CsvRowReader implements Closeable {
+
+    private static final int DICTIONARY_SIZE = 1024; // Power of two
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private final InputStream in;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private int lineStart;
+    private int lineEnd;
+    private long lineNumber;
+    private int fieldCount;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private boolean[] fieldEscaped = new boolean[16];
+
+    private final byte[][] dictionaryKeys = new byte[DICTIONARY_SIZE][];
+    private final String[] dictionaryValues = new String[DICTIONARY_SIZE];
+
+    public CsvRowReader(InputStream in) {
+        this(in, 1 << 20);
+    }
+
+    public CsvRowReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Advance to the next line and split it into fields.
+     * @return false at end of input
+     */
+    public boolean next() throws IOException {
+        int newline;
+        while ((newline = indexOf((byte) '\n', position, limit)) < 0) {
+            if (endOfInput) {
+                if (position >= limit) return false;
+                newline = limit; // Last line without a line break
+                break;
+            }
+            fill();
+        }
+        lineStart = position;
+        lineEnd = newline > lineStart && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+        position = Math.min(newline + 1, limit);
+        lineNumber++;
+        split();
+        return true;
+    }
+
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public boolean isBlankLine() {
+        return lineEnd == lineStart;
+    }
+
+    public boolean isEmpty(int field) {
+        return field >= fieldCount || fieldEnd[field] == fieldStart[field];
+    }
+
+    /**
+     * Whether the field equals the given ASCII text, ignoring case (e.g. to detect a header).
+     */
+    public boolean equalsIgnoreCase(int field, String text) {
+        int length = fieldEnd[field] - fieldStart[field];
+        if (length != text.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase((char) buffer[fieldStart[field] + i]) != Character.toLowerCase(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    public String string(int field) {
+        String value = new String(buffer, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+        return fieldEscaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    /**
+     * Decode a field that takes few distinct values; the same String instance is returned for equal bytes.
+     */
+    public String dictionaryString(int field) {
+        if (fieldEscaped[field]) return string(field);
+        int start = fieldStart[field];
+        int length = fieldEnd[field] - start;
+        int hash = 1;
+        for (int i = start; i < start + length; i++) hash = 31 * hash + buffer[i];
+        int slot = (hash ^ (hash >>> 16)) & (DICTIONARY_SIZE - 1);
+        byte[] key = dictionaryKeys[slot];
+        if (key != null && Arrays.equals(key, 0, key.length, buffer, start, start + length)) {
+            return dictionaryValues[slot];
+        }
+        String value = string(field);
+        dictionaryKeys[slot] = Arrays.copyOfRange(buffer, start, start + length);
+        dictionaryValues[slot] = value;
+        return value;
+    }
+
+    /**
+     * Parse a plain decimal (e.g. -1234.56) straight from the bytes.
+     * Other forms, such as exponents or very long values, fall back to Double.parseDouble.
+     * @throws NumberFormatException if the field is not a number
+     */
+    public double decimal(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = i < end && buffer[i] == '-';
+        if (negative || (i < end && buffer[i] == '+')) i++;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) scale++;
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(string(field).trim());
+            }
+        }
+        if (digits == 0) throw new NumberFormatException("Not a number: '" + string(field) + "'");
+        if (digits > 15 || scale >= POWERS_OF_TEN.length) return Double.parseDouble(string(field));
+        // Both operands are exact doubles, so the division rounds exactly like parseDouble
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * @throws NumberFormatException if the field is not an integer
+     */
+    public int integer(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = i < end && buffer[i] == '-';
+        if (negative) i++;
+        if (i == end || end - i > 9) return Integer.parseInt(string(field));
+        int value = 0;
+        for (; i < end; i++) {
+            byte b = buffer[i];
+            if (b < '0' || b > '9') throw new NumberFormatException("Not an integer: '" + string(field) + "'");
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse an ISO date (yyyy-MM-dd).
+     * @throws DateTimeException if the field is not a valid date
+     */
+    public LocalDate isoDate(int field) {
+        int s = fieldStart[field];
+        if (fieldEnd[field] - s != 10 || buffer[s + 4] != '-' || buffer[s + 7] != '-') {
+            throw new DateTimeException("Not a yyyy-MM-dd date: '" + string(field) + "'");
+        }
+        return LocalDate.of(digits(s, 4), digits(s + 5, 2), digits(s + 8, 2));
+    }
+
+    /**
+     * Copy the current line, as read, to the output (without its line break).
+     */
+    public void writeLine(OutputStream out) throws IOException {
+        out.write(buffer, lineStart, lineEnd - lineStart);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            byte b = buffer[i];
+            if (b < '0' || b > '9') throw new DateTimeException("Not a yyyy-MM-dd date: '" + new String(buffer, start, count, StandardCharsets.US_ASCII) + "'");
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private void split() {
+        fieldCount = 0;
+        int i = lineStart;
+        while (true) {
+            ensureFieldCapacity();
+            boolean quoted = i < lineEnd && buffer[i] == '"';
+            boolean escaped = false;
+            int start;
+            int end;
+            if (quoted) {
+                start = ++i;
+                while (i < lineEnd) {
+                    if (buffer[i] == '"') {
+                        if (i + 1 < lineEnd && buffer[i + 1] == '"') {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                end = i;
+                i = indexOf((byte) ',', Math.min(i + 1, lineEnd), lineEnd);
+            } else {
+                start = i;
+                i = indexOf((byte) ',', i, lineEnd);
+                end = i < 0 ? lineEnd : i;
+            }
+            fieldStart[fieldCount] = start;
+            fieldEnd[fieldCount] = end;
+            fieldEscaped[fieldCount] = escaped;
+            fieldCount++;
+            if (i < 0) return;
+            i++;
+        }
+    }
+
+    private void ensureFieldCapacity() {
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+            fieldEscaped = Arrays.copyOf(fieldEscaped, fieldCount * 2);
+        }
+    }
+
+    // Move the unread tail to the front, growing the buffer if one line fills it, and read more
+    private void fill() throws IOException {
+        int remaining = limit - position;
+        if (remaining == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        }
+        position = 0;
+        limit = remaining;
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == b) return i;
+        }
+        return -1;
+    }
+}
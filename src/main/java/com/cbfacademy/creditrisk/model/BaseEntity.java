@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increment primary key
+    @BlockId // Ids handed out in blocks from a per-table "<table>_seq" table, so inserts can be batched
     private Long id;
 
     private LocalDateTime createdAt; // Timestamp for entity creation
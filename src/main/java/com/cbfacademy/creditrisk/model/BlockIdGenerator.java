@@ -0,0 +1,47 @@
+package com.cbfacademy.creditrisk.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Table-backed id generator that hands out ids in blocks.
+ * Each entity table gets its own "<table>_seq" table (MySQL has no sequences).
+ *
+ * The optimizer and block size are chosen per entity table through configuration:
+ *   spring.jpa.properties.creditrisk.id.<table>.optimizer       (pooled-lo, pooled, hilo, none)
+ *   spring.jpa.properties.creditrisk.id.<table>.allocation-size (ids per block)
+ * with creditrisk.id.default.* used when a table has no entry of its own.
+ */
+public class BlockIdGenerator extends SequenceStyleGenerator {
+
+    public static final String SETTINGS_PREFIX = "creditrisk.id.";
+    public static final String SEQUENCE_TABLE_SUFFIX = "_seq";
+
+    private static final String DEFAULT_OPTIMIZER = "pooled-lo";
+    private static final String DEFAULT_ALLOCATION_SIZE = "100";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService config = serviceRegistry.requireService(ConfigurationService.class);
+        String table = params.getProperty(PersistentIdentifierGenerator.TABLE);
+
+        params.setProperty(SEQUENCE_PARAM, table + SEQUENCE_TABLE_SUFFIX);
+        params.setProperty(FORCE_TBL_PARAM, "true");
+        params.setProperty(OPT_PARAM, setting(config, table, "optimizer", DEFAULT_OPTIMIZER));
+        params.setProperty(INCREMENT_PARAM, setting(config, table, "allocation-size", DEFAULT_ALLOCATION_SIZE));
+
+        super.configure(type, params, serviceRegistry);
+    }
+
+    private String setting(ConfigurationService config, String table, String name, String fallback) {
+        String defaultValue = config.getSetting(SETTINGS_PREFIX + "default." + name, StandardConverters.STRING, fallback);
+        return config.getSetting(SETTINGS_PREFIX + table + "." + name, StandardConverters.STRING, defaultValue);
+    }
+}
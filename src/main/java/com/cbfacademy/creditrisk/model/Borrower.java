@@ -1,6 +1,7 @@
 package com.cbfacademy.creditrisk.model;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 
@@ -9,7 +10,11 @@ import java.time.LocalDate;
  * Inherits auditing fields from BaseEntity.
  */
 @Entity
-@Table(name = "borrowers")
+@Table(name = "borrowers", indexes = {
+        // BorrowerNameIndex's periodic refresh reads the borrowers created or updated since its last pass
+        @Index(name = "idx_borrower_created_at", columnList = "created_at"),
+        @Index(name = "idx_borrower_updated_at", columnList = "updated_at")
+})
 public class Borrower extends BaseEntity {
 
     private String firstName;
@@ -0,0 +1,53 @@
+package com.cbfacademy.creditrisk.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Loan decision.
+ * Stored as a one-character code (see DecisionConverter) and exposed
+ * on the wire by its display name: Approve, Reject.
+ */
+public enum Decision {
+    APPROVE("Approve", 'A'),
+    REJECT("Reject", 'R');
+
+    private final String displayName;
+    private final char code;
+
+    Decision(String displayName, char code) {
+        this.displayName = displayName;
+        this.code = code;
+    }
+
+    @JsonValue
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    @JsonCreator
+    public static Decision fromDisplayName(String name) {
+        for (Decision decision : values()) {
+            if (decision.displayName.equalsIgnoreCase(name)) return decision;
+        }
+        throw new IllegalArgumentException("Unknown decision: " + name);
+    }
+
+    /**
+     * Resolve a decision from its stored code.
+     * Also accepts the full display names written before decisions were coded.
+     */
+    public static Decision fromCode(String code) {
+        if (code.length() == 1) {
+            char c = code.charAt(0);
+            for (Decision decision : values()) {
+                if (decision.code == c) return decision;
+            }
+        }
+        return fromDisplayName(code);
+    }
+}
@@ -0,0 +1,21 @@
+package com.cbfacademy.creditrisk.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores Decision as a single character: A or R.
+ */
+@Converter
+public class DecisionConverter implements AttributeConverter<Decision, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Decision decision) {
+        return decision == null ? null : String.valueOf(decision.getCode());
+    }
+
+    @Override
+    public Decision convertToEntityAttribute(String code) {
+        return code == null ? null : Decision.fromCode(code);
+    }
+}
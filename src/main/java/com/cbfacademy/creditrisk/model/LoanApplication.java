@@ -7,7 +7,12 @@ import jakarta.persistence.*;
  * Includes risk assessment and decision fields.
  */
 @Entity
-@Table(name = "loan_applications")
+@Table(name = "loan_applications", indexes = {
+        // Grade filters and keyset pages by grade (InnoDB appends the id to secondary indexes)
+        @Index(name = "idx_loan_risk_grade", columnList = "risk_grade"),
+        // Grade + creation-date range filters (export, reporting)
+        @Index(name = "idx_loan_risk_grade_created_at", columnList = "risk_grade, created_at")
+})
 public class LoanApplication extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY) // Many loans can belong to one borrower
@@ -18,8 +23,13 @@ public class LoanApplication extends BaseEntity {
     private String loanType;
     private Integer termMonths;
     private double riskScore; // Calculated risk score
-    private String riskGrade; // Low, Medium, High
-    private String decision;  // Approve or Reject
+    @Convert(converter = RiskGradeConverter.class)
+    @Column(length = 1, columnDefinition = "char(1)")
+    private RiskGrade riskGrade; // Low, Medium, High
+
+    @Convert(converter = DecisionConverter.class)
+    @Column(length = 1, columnDefinition = "char(1)")
+    private Decision decision;  // Approve or Reject
 
     // Getters
     public Borrower getBorrower() {
@@ -42,11 +52,11 @@ public class LoanApplication extends BaseEntity {
         return riskScore;
     }
 
-    public String getRiskGrade() {
+    public RiskGrade getRiskGrade() {
         return riskGrade;
     }
 
-    public String getDecision() {
+    public Decision getDecision() {
         return decision;
     }
 
@@ -71,11 +81,11 @@ public class LoanApplication extends BaseEntity {
         this.riskScore = riskScore;
     }
 
-    public void setRiskGrade(String riskGrade) {
+    public void setRiskGrade(RiskGrade riskGrade) {
         this.riskGrade = riskGrade;
     }
 
-    public void setDecision(String decision) {
+    public void setDecision(Decision decision) {
         this.decision = decision;
     }
 }
@@ -0,0 +1,28 @@
+package com.cbfacademy.creditrisk.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One of the counters whose sum is the loan_applications change version (see LoanTableVersion).
+ * Each write transaction bumps one slot chosen at random, so concurrent writers rarely wait on the same row.
+ */
+@Entity
+@Table(name = "loan_table_versions")
+public class LoanTableVersionSlot {
+
+    @Id
+    private int slot;
+
+    private long version;
+
+    // Getters
+    public int getSlot() {
+        return slot;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
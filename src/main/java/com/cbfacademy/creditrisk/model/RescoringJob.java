@@ -0,0 +1,119 @@
+package com.cbfacademy.creditrisk.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a portfolio re-scoring job.
+ * The job walks loan_applications in id order up to maxLoanId (the highest id when it started);
+ * lastLoanId is committed with every chunk, so a restarted job continues after it.
+ * A running job is claimed by one process (owner) until leaseExpiresAt; the claim is renewed with
+ * every chunk, so another process only takes the job over once the owner has stopped renewing it.
+ */
+@Entity
+@Table(name = "rescoring_jobs")
+public class RescoringJob extends BaseEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private RescoringStatus status;
+
+    private long maxLoanId;  // Loans created after the job started are already scored by the current rules
+    private long lastLoanId; // Checkpoint: every loan up to this id has been processed
+    private long totalLoans;
+    private long processed;
+    private long rescored;   // Loans whose score, grade or decision changed
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(length = 64)
+    private String owner;                 // Process running the job; null while no process holds it
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(unique = true)
+    private Boolean active;               // True while RUNNING, otherwise null: the unique index allows one running job
+
+    /**
+     * Record a committed chunk.
+     */
+    public void checkpoint(long lastLoanId, int processed, int rescored) {
+        this.lastLoanId = lastLoanId;
+        this.processed += processed;
+        this.rescored += rescored;
+    }
+
+    // Getters & Setters
+    public RescoringStatus getStatus() {
+        return status;
+    }
+    public void setStatus(RescoringStatus status) {
+        this.status = status;
+    }
+
+    public long getMaxLoanId() {
+        return maxLoanId;
+    }
+    public void setMaxLoanId(long maxLoanId) {
+        this.maxLoanId = maxLoanId;
+    }
+
+    public long getLastLoanId() {
+        return lastLoanId;
+    }
+    public void setLastLoanId(long lastLoanId) {
+        this.lastLoanId = lastLoanId;
+    }
+
+    public long getTotalLoans() {
+        return totalLoans;
+    }
+    public void setTotalLoans(long totalLoans) {
+        this.totalLoans = totalLoans;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getRescored() {
+        return rescored;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,11 @@
+package com.cbfacademy.creditrisk.model;
+
+/**
+ * Lifecycle of a portfolio re-scoring job.
+ * RUNNING jobs found at startup were interrupted and are resumed from their checkpoint.
+ */
+public enum RescoringStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,71 @@
+package com.cbfacademy.creditrisk.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Risk grade of a loan.
+ * Stored as a one-character code (see RiskGradeConverter) and exposed
+ * on the wire by its display name: Low, Medium, High.
+ */
+public enum RiskGrade {
+    LOW("Low", 'L'),
+    MEDIUM("Medium", 'M'),
+    HIGH("High", 'H');
+
+    private static final RiskGrade[] VALUES = values();
+
+    private final String displayName;
+    private final char code;
+
+    RiskGrade(String displayName, char code) {
+        this.displayName = displayName;
+        this.code = code;
+    }
+
+    @JsonValue
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    /**
+     * Compact numeric code (0 = Low, 1 = Medium, 2 = High) for primitive arrays.
+     */
+    public byte ordinalCode() {
+        return (byte) ordinal();
+    }
+
+    public static RiskGrade fromOrdinalCode(byte code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Resolve a grade from its display name (case-insensitive), e.g. a ?riskGrade= filter.
+     * @throws IllegalArgumentException if the name is not a known grade
+     */
+    @JsonCreator
+    public static RiskGrade fromDisplayName(String name) {
+        for (RiskGrade grade : VALUES) {
+            if (grade.displayName.equalsIgnoreCase(name)) return grade;
+        }
+        throw new IllegalArgumentException("Unknown risk grade: " + name);
+    }
+
+    /**
+     * Resolve a grade from its stored code.
+     * Also accepts the full display names written before grades were coded.
+     */
+    public static RiskGrade fromCode(String code) {
+        if (code.length() == 1) {
+            char c = code.charAt(0);
+            for (RiskGrade grade : VALUES) {
+                if (grade.code == c) return grade;
+            }
+        }
+        return fromDisplayName(code);
+    }
+}
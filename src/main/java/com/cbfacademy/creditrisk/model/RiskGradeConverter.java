@@ -0,0 +1,21 @@
+package com.cbfacademy.creditrisk.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores RiskGrade as a single character: L, M or H.
+ */
+@Converter
+public class RiskGradeConverter implements AttributeConverter<RiskGrade, String> {
+
+    @Override
+    public String convertToDatabaseColumn(RiskGrade grade) {
+        return grade == null ? null : String.valueOf(grade.getCode());
+    }
+
+    @Override
+    public RiskGrade convertToEntityAttribute(String code) {
+        return code == null ? null : RiskGrade.fromCode(code);
+    }
+}
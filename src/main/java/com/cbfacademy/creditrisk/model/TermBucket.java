@@ -0,0 +1,40 @@
+package com.cbfacademy.creditrisk.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Loan term range used to group loans in the portfolio summary.
+ */
+public enum TermBucket {
+    UP_TO_12("0-12", 12),
+    UP_TO_24("13-24", 24),
+    UP_TO_36("25-36", 36),
+    UP_TO_60("37-60", 60),
+    OVER_60("61+", Integer.MAX_VALUE),
+    UNKNOWN("Unknown", -1);
+
+    private final String label;
+    private final int maxMonths;
+
+    TermBucket(String label, int maxMonths) {
+        this.label = label;
+        this.maxMonths = maxMonths;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Bucket for a term in months; UNKNOWN when the term is not set.
+     */
+    public static TermBucket of(Integer termMonths) {
+        if (termMonths == null) return UNKNOWN;
+        if (termMonths <= UP_TO_12.maxMonths) return UP_TO_12;
+        if (termMonths <= UP_TO_24.maxMonths) return UP_TO_24;
+        if (termMonths <= UP_TO_36.maxMonths) return UP_TO_36;
+        if (termMonths <= UP_TO_60.maxMonths) return UP_TO_60;
+        return OVER_60;
+    }
+}
@@ -1,9 +1,17 @@
 package com.cbfacademy.creditrisk.repository;
 
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
 import com.cbfacademy.creditrisk.model.Borrower;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +26,42 @@ public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
 
     // Full match search for a single borrower by first name, last name, and DOB
     Optional<Borrower> findByFirstNameAndLastNameAndDob(String firstName, String lastName, LocalDate dob);
+
+    // Read-only projections: select straight into the response DTO without hydrating entities
+    String RESPONSE_PROJECTION = "select new com.cbfacademy.creditrisk.dto.BorrowerResponse("
+            + "b.id, b.firstName, b.lastName, b.dob, b.employmentStatus, b.annualIncome) "
+            + "from Borrower b ";
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where b.id = :id")
+    Optional<BorrowerResponse> findResponseById(@Param("id") Long id);
+
+    // Keyset pagination: seek past the last seen id instead of using OFFSET
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where b.id > :afterId order by b.id")
+    List<BorrowerResponse> findResponsePageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Borrowers created or updated since a time, for refreshing the in-memory name index
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where b.createdAt >= :since or b.updatedAt >= :since")
+    List<BorrowerResponse> findResponsesChangedSince(@Param("since") LocalDateTime since);
+
+    // Rows for ids already resolved by the in-memory name index
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where b.id in :ids order by b.id")
+    List<BorrowerResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Single-statement writes: no SELECT to load the entity first. Borrowers have no
+    // cascades or entity listeners besides the updatedAt stamp, which is set here.
+    @Modifying
+    @Transactional
+    @Query("update Borrower b set b.firstName = :#{#borrower.firstName}, b.lastName = :#{#borrower.lastName}, "
+            + "b.dob = :#{#borrower.dob}, b.employmentStatus = :#{#borrower.employmentStatus}, "
+            + "b.annualIncome = :#{#borrower.annualIncome}, b.updatedAt = local datetime where b.id = :id")
+    int updateDetails(@Param("id") Long id, @Param("borrower") Borrower borrower);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Borrower b where b.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
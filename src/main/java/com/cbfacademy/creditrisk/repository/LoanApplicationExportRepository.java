@@ -0,0 +1,26 @@
+package com.cbfacademy.creditrisk.repository;
+
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Custom repository fragment for streaming the loan portfolio.
+ * Implemented in LoanApplicationExportRepositoryImpl.
+ */
+public interface LoanApplicationExportRepository {
+
+    /**
+     * Stream loans in id order over a forward-only JDBC cursor.
+     * Every loan is detached from the persistence context before it is handed out,
+     * so memory use does not grow with the number of rows read.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @param riskGrade Optional risk grade filter (null for all)
+     * @param createdFrom Optional inclusive lower bound on createdAt
+     * @param createdTo Optional exclusive upper bound on createdAt
+     * @param fetchSize Rows fetched from the database per round-trip, where the driver fetches in batches
+     */
+    Stream<LoanApplication> streamForExport(RiskGrade riskGrade, LocalDateTime createdFrom, LocalDateTime createdTo, int fetchSize);
+}
@@ -0,0 +1,48 @@
+package com.cbfacademy.creditrisk.repository;
+
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * EntityManager-based implementation of LoanApplicationExportRepository.
+ * A plain derived query cannot take the fetch size at runtime, so the query is built here.
+ * On MySQL the rows are streamed one by one (StreamingReads), not fetched in batches.
+ */
+class LoanApplicationExportRepositoryImpl implements LoanApplicationExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<LoanApplication> streamForExport(RiskGrade riskGrade, LocalDateTime createdFrom, LocalDateTime createdTo, int fetchSize) {
+        StringBuilder jpql = new StringBuilder("select l from LoanApplication l where 1 = 1");
+        if (riskGrade != null) jpql.append(" and l.riskGrade = :riskGrade");
+        if (createdFrom != null) jpql.append(" and l.createdAt >= :createdFrom");
+        if (createdTo != null) jpql.append(" and l.createdAt < :createdTo");
+        jpql.append(" order by l.id");
+
+        // Runs on the transaction's connection, which the query below uses too
+        int streamingFetchSize = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> StreamingReads.fetchSize(connection, fetchSize));
+        TypedQuery<LoanApplication> query = entityManager.createQuery(jpql.toString(), LoanApplication.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamingFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+        if (riskGrade != null) query.setParameter("riskGrade", riskGrade);
+        if (createdFrom != null) query.setParameter("createdFrom", createdFrom);
+        if (createdTo != null) query.setParameter("createdTo", createdTo);
+
+        return query.getResultStream().map(loan -> {
+            entityManager.detach(loan); // Keep the persistence context empty while streaming
+            return loan;
+        });
+    }
+}
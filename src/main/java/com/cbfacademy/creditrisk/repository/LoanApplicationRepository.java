@@ -1,13 +1,87 @@
 package com.cbfacademy.creditrisk.repository;
 
+import com.cbfacademy.creditrisk.dto.BorrowerExposureRow;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.dto.LoanScoreRow;
+import com.cbfacademy.creditrisk.dto.PortfolioAggregateRow;
 import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for LoanApplication entity.
  * Includes derived query for filtering by risk grade.
+ * Streaming export queries come from the LoanApplicationExportRepository fragment.
  */
-public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long> {
-    List<LoanApplication> findByRiskGrade(String riskGrade);
+public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long>, LoanApplicationExportRepository {
+    List<LoanApplication> findByRiskGrade(RiskGrade riskGrade);
+
+    // Read-only projections: select straight into the response DTO, so no managed entity,
+    // dirty-checking snapshot or Borrower proxy is created. l.borrower.id reads the FK column without a join.
+    String RESPONSE_PROJECTION = "select new com.cbfacademy.creditrisk.dto.LoanApplicationResponse("
+            + "l.id, l.borrower.id, l.loanAmount, l.termMonths, l.loanType, l.riskGrade, l.decision, l.riskScore) "
+            + "from LoanApplication l ";
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where l.id = :id")
+    Optional<LoanApplicationResponse> findResponseById(@Param("id") Long id);
+
+    // Keyset pagination: seek past the last seen id instead of using OFFSET.
+    // Written as JPQL so Hibernate caches the query plan (derived queries are rebuilt per call).
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where l.id > :afterId order by l.id")
+    List<LoanApplicationResponse> findResponsePageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "where l.riskGrade = :riskGrade and l.id > :afterId order by l.id")
+    List<LoanApplicationResponse> findResponsePageByRiskGradeAfter(@Param("riskGrade") RiskGrade riskGrade, @Param("afterId") Long afterId, Limit limit);
+
+    // Full portfolio aggregate for building and reconciling the PortfolioCube.
+    // Grouped by exact term (few distinct values); terms are bucketed in Java.
+    @Transactional(readOnly = true)
+    @Query("select new com.cbfacademy.creditrisk.dto.PortfolioAggregateRow("
+            + "l.riskGrade, l.loanType, l.termMonths, count(l), sum(l.loanAmount), sum(l.riskScore)) "
+            + "from LoanApplication l group by l.riskGrade, l.loanType, l.termMonths")
+    List<PortfolioAggregateRow> aggregatePortfolio();
+
+    // Re-scoring job: one primary-key chunk of scoring inputs and stored results, no entities
+    @Transactional(readOnly = true)
+    @Query("select new com.cbfacademy.creditrisk.dto.LoanScoreRow("
+            + "l.id, l.borrower.id, l.loanAmount, l.loanType, l.termMonths, l.riskScore, l.riskGrade, l.decision, l.updatedAt) "
+            + "from LoanApplication l where l.id > :afterId and l.id <= :maxId order by l.id")
+    List<LoanScoreRow> findScoreRowsAfter(@Param("afterId") Long afterId, @Param("maxId") Long maxId, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select coalesce(max(l.id), 0) from LoanApplication l")
+    long findMaxId();
+
+    @Transactional(readOnly = true)
+    @Query("select count(l) from LoanApplication l where l.id <= :maxId")
+    long countUpTo(@Param("maxId") Long maxId);
+
+    // Approved exposure per borrower for the ExposureLedger (borrower_id is indexed by its foreign key)
+    @Transactional(readOnly = true)
+    @Query("select coalesce(sum(l.loanAmount), 0) from LoanApplication l "
+            + "where l.borrower.id = :borrowerId and l.decision = com.cbfacademy.creditrisk.model.Decision.APPROVE")
+    double sumApprovedExposure(@Param("borrowerId") Long borrowerId);
+
+    // Same for many borrowers at once; borrowers without approved loans are absent
+    @Transactional(readOnly = true)
+    @Query("select new com.cbfacademy.creditrisk.dto.BorrowerExposureRow(l.borrower.id, sum(l.loanAmount)) "
+            + "from LoanApplication l where l.borrower.id in :borrowerIds "
+            + "and l.decision = com.cbfacademy.creditrisk.model.Decision.APPROVE group by l.borrower.id")
+    List<BorrowerExposureRow> sumApprovedExposures(@Param("borrowerIds") Collection<Long> borrowerIds);
+
+    @Transactional(readOnly = true)
+    @Query("select coalesce(sum(l.loanAmount), 0) from LoanApplication l "
+            + "where l.borrower.id = :borrowerId and l.decision = com.cbfacademy.creditrisk.model.Decision.APPROVE and l.id <> :loanId")
+    double sumApprovedExposureExcluding(@Param("borrowerId") Long borrowerId, @Param("loanId") Long loanId);
 }
@@ -0,0 +1,17 @@
+package com.cbfacademy.creditrisk.repository;
+
+import com.cbfacademy.creditrisk.model.RescoringJob;
+import com.cbfacademy.creditrisk.model.RescoringStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Repository for RescoringJob checkpoints.
+ */
+public interface RescoringJobRepository extends JpaRepository<RescoringJob, Long> {
+
+    List<RescoringJob> findByStatus(RescoringStatus status);
+
+    boolean existsByStatus(RescoringStatus status);
+}
@@ -0,0 +1,26 @@
+package com.cbfacademy.creditrisk.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Fetch size for one large forward-only read (export, snapshot load).
+ * MySQL Connector/J buffers a whole result set for any positive fetch size unless the connection
+ * uses server-side cursors (useCursorFetch), which would apply to every query of the application.
+ * Integer.MIN_VALUE instead streams the rows of that one statement as they are read; the connection
+ * runs nothing else until the result set is closed. Other drivers get the configured fetch size.
+ */
+public final class StreamingReads {
+
+    private static final String MYSQL = "MySQL";
+
+    private StreamingReads() {}
+
+    /**
+     * @param connection Connection the statement will run on
+     * @param rowsPerRoundTrip Fetch size for drivers that honour it
+     */
+    public static int fetchSize(Connection connection, int rowsPerRoundTrip) throws SQLException {
+        return MYSQL.equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : rowsPerRoundTrip;
+    }
+}
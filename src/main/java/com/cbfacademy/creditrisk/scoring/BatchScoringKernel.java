@@ -0,0 +1,12 @@
+package com.cbfacademy.creditrisk.scoring;
+
+/**
+ * DefaultRiskScoringEngine's batch kernel: scores loanAmounts[from, to) into scores and gradeCodes,
+ * bit for bit as DefaultRiskScoringEngine.score() would. Bounds are checked by the caller.
+ */
+interface BatchScoringKernel {
+
+    void score(double[] loanAmounts, double[] scores, byte[] gradeCodes, int from, int to);
+
+    String description();
+}
@@ -0,0 +1,116 @@
+package com.cbfacademy.creditrisk.scoring;
+
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Default scoring rules (creditrisk.scoring.engine=default):
+ * score = 100 - loanAmount / 10000, clamped to 0-100;
+ * grade Low (>= 75), Medium (>= 50), High otherwise;
+ * High risk is rejected, everything else approved.
+ *
+ * Batches are scored with a plain loop, or with the JDK Vector API (VectorScoringKernel) when the
+ * build includes it (Maven profile vector) and the JVM runs with --add-modules jdk.incubator.vector.
+ * The kernel is loaded by name, so the default build neither compiles nor needs the incubating module.
+ * Both give the same results as score(), bit for bit.
+ */
+@Component
+@ConditionalOnProperty(name = "creditrisk.scoring.engine", havingValue = "default", matchIfMissing = true)
+public class DefaultRiskScoringEngine implements RiskScoringEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DefaultRiskScoringEngine.class);
+
+    static final double REFERENCE_AMOUNT = 10000;
+    static final double LOW_RISK_THRESHOLD = 75;
+    static final double MEDIUM_RISK_THRESHOLD = 50;
+
+    static final byte LOW = RiskGrade.LOW.ordinalCode();
+    static final byte MEDIUM = RiskGrade.MEDIUM.ordinalCode();
+    static final byte HIGH = RiskGrade.HIGH.ordinalCode();
+
+    private static final String VECTOR_KERNEL = "com.cbfacademy.creditrisk.scoring.VectorScoringKernel";
+
+    static final BatchScoringKernel SCALAR = new BatchScoringKernel() {
+        @Override
+        public void score(double[] loanAmounts, double[] scores, byte[] gradeCodes, int from, int to) {
+            scoreScalar(loanAmounts, scores, gradeCodes, from, to);
+        }
+
+        @Override
+        public String description() {
+            return "scalar";
+        }
+    };
+
+    // Chosen once. A static final field, so the JIT sees one implementation and inlines it
+    static final BatchScoringKernel KERNEL = loadKernel();
+
+    public DefaultRiskScoringEngine() {
+        log.info("Batch scoring kernel: {}", KERNEL.description());
+    }
+
+    @Override
+    public void score(double loanAmount, RiskScore result) {
+        double riskScore = rawScore(loanAmount);
+        byte gradeCode = gradeCode(riskScore);
+        result.set(clamp(riskScore), RiskGrade.fromOrdinalCode(gradeCode), gradeCode != HIGH);
+    }
+
+    @Override
+    public void scoreBatch(double[] loanAmounts, double[] scores, byte[] gradeCodes, int from, int to) {
+        Objects.checkFromToIndex(from, to, loanAmounts.length);
+        Objects.checkFromToIndex(from, to, scores.length);
+        Objects.checkFromToIndex(from, to, gradeCodes.length);
+        KERNEL.score(loanAmounts, scores, gradeCodes, from, to);
+    }
+
+    // VectorScoringKernel must not even be loaded when the module is missing
+    private static BatchScoringKernel loadKernel() {
+        boolean moduleResolved = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        try {
+            Class<?> kernel = Class.forName(VECTOR_KERNEL, false, DefaultRiskScoringEngine.class.getClassLoader());
+            if (!moduleResolved) {
+                log.warn("Batch scoring kernel: scalar. This build includes the vector kernel; start the JVM with "
+                        + "--add-modules jdk.incubator.vector (e.g. JDK_JAVA_OPTIONS) to use it");
+                return SCALAR;
+            }
+            return (BatchScoringKernel) kernel.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException ex) {
+            return SCALAR; // Built without the vector profile
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            log.warn("Batch scoring kernel: scalar. The vector kernel is unavailable: {}", cause.toString());
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Scalar batch kernel; also scores the tail the vector kernel leaves over.
+     */
+    static void scoreScalar(double[] loanAmounts, double[] scores, byte[] gradeCodes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double riskScore = rawScore(loanAmounts[i]);
+            scores[i] = clamp(riskScore);
+            gradeCodes[i] = gradeCode(riskScore);
+        }
+    }
+
+    // Higher loan relative to 10k reduces score
+    static double rawScore(double loanAmount) {
+        return 100 - (loanAmount / REFERENCE_AMOUNT);
+    }
+
+    static double clamp(double riskScore) {
+        return Math.max(Math.min(riskScore, 100), 0);
+    }
+
+    // Grade uses the unclamped score, as the original rules did
+    static byte gradeCode(double riskScore) {
+        return (byte) (HIGH - (riskScore >= MEDIUM_RISK_THRESHOLD ? 1 : 0) - (riskScore >= LOW_RISK_THRESHOLD ? 1 : 0));
+    }
+}
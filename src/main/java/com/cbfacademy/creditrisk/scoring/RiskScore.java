@@ -0,0 +1,46 @@
+package com.cbfacademy.creditrisk.scoring;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+
+/**
+ * Mutable, reusable holder for the output of a RiskScoringEngine.
+ * Callers keep one instance per thread and pass it to every score call,
+ * so scoring allocates nothing (grade and decision are shared enum constants).
+ */
+public final class RiskScore {
+
+    private double score;
+    private RiskGrade grade;
+    private boolean approved;
+
+    /**
+     * Overwrite this holder with a new result.
+     */
+    public void set(double score, RiskGrade grade, boolean approved) {
+        this.score = score;
+        this.grade = grade;
+        this.approved = approved;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public RiskGrade getGrade() {
+        return grade;
+    }
+
+    // 0 = Low, 1 = Medium, 2 = High
+    public byte getGradeCode() {
+        return grade.ordinalCode();
+    }
+
+    public boolean isApproved() {
+        return approved;
+    }
+
+    public Decision getDecision() {
+        return approved ? Decision.APPROVE : Decision.REJECT;
+    }
+}
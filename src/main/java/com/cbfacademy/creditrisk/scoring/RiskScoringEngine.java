@@ -0,0 +1,37 @@
+package com.cbfacademy.creditrisk.scoring;
+
+/**
+ * Computes risk score, risk grade and decision for a loan.
+ * Implementations must be thread-safe and must not allocate per call:
+ * the result is written into the caller-supplied RiskScore.
+ * The active implementation is chosen with the creditrisk.scoring.engine property.
+ */
+public interface RiskScoringEngine {
+
+    /**
+     * Score a loan.
+     * @param loanAmount Requested loan amount
+     * @param result Holder that receives score, grade and decision
+     */
+    void score(double loanAmount, RiskScore result);
+
+    /**
+     * Score a column of loans: loanAmounts[i] for from <= i < to is scored into scores[i] and
+     * gradeCodes[i] (RiskGrade.ordinalCode). Results are identical to calling score() per loan.
+     * Decisions are not written; callers that need them use score().
+     * The default implementation calls score() per loan; engines may override it with a faster kernel.
+     * @param loanAmounts Requested loan amounts
+     * @param scores Receives the risk scores
+     * @param gradeCodes Receives the risk grade codes
+     * @param from First index to score, inclusive
+     * @param to Last index to score, exclusive
+     */
+    default void scoreBatch(double[] loanAmounts, double[] scores, byte[] gradeCodes, int from, int to) {
+        RiskScore result = new RiskScore();
+        for (int i = from; i < to; i++) {
+            score(loanAmounts[i], result);
+            scores[i] = result.getScore();
+            gradeCodes[i] = result.getGradeCode();
+        }
+    }
+}
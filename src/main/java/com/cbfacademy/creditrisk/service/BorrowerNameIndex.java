@@ -0,0 +1,304 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * In-memory trigram index over borrower last names for substring search.
+ * Each trigram (three consecutive lower-cased characters) maps to a sorted array of
+ * borrower ids. A query is answered by intersecting the arrays of its trigrams and
+ * checking the few remaining candidates against the stored name, so no table scan is needed.
+ *
+ * Built in parallel before the application starts serving requests; BorrowerService keeps it
+ * current on create, update and delete. Posting arrays are copy-on-write, so readers never lock.
+ *
+ * Other instances sharing the database change borrowers too, so every
+ * creditrisk.borrowers.search.refresh-ms the borrowers created or updated since the last pass are
+ * read again (created_at / updated_at) and re-indexed. Each pass starts REFRESH_OVERLAP before the
+ * previous one, to cover clock differences and transactions that commit after their timestamp;
+ * re-indexing an unchanged name costs nothing. Deletes on another instance are not seen until the
+ * next rebuild: the id stays in the index, but search results are read from the table, so a deleted
+ * borrower is never returned.
+ *
+ * Queries must be at least MIN_QUERY_LENGTH characters, one trigram; shorter ones would need a scan.
+ */
+@Component
+public class BorrowerNameIndex implements SmartInitializingSingleton, DisposableBean {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowerNameIndex.class);
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final long[] NO_IDS = new long[0];
+
+    private final BorrowerRepository repository;
+    private final boolean loadData;
+    private final long refreshMillis;
+    private final ScheduledExecutorService refresher =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("borrower-name-refresh-"));
+    private volatile LocalDateTime refreshedFrom; // Start of the next refresh pass
+    private final Map<Long, long[]> postings = new ConcurrentHashMap<>(); // trigram -> sorted borrower ids
+    private final Map<Long, String> names = new ConcurrentHashMap<>();    // borrower id -> normalized last name
+
+    public BorrowerNameIndex(BorrowerRepository repository, MeterRegistry meterRegistry,
+                             @Value("${creditrisk.startup.load-data:true}") boolean loadData,
+                             @Value("${creditrisk.borrowers.search.refresh-ms:10000}") long refreshMillis) {
+        if (refreshMillis < 0) {
+            throw new IllegalArgumentException("creditrisk.borrowers.search.refresh-ms must be at least 0, was " + refreshMillis);
+        }
+        this.repository = repository;
+        this.loadData = loadData;
+        this.refreshMillis = refreshMillis;
+        Gauge.builder("creditrisk.borrower.search.index.memory", this, BorrowerNameIndex::estimatedMemoryBytes)
+                .description("Estimated heap used by the borrower last-name trigram index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("creditrisk.borrower.search.index.borrowers", names, Map::size)
+                .description("Borrowers in the last-name trigram index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!loadData) return;
+        rebuild();
+        if (refreshMillis > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Load every borrower name and rebuild the index from scratch.
+     * Trigrams are extracted and grouped in parallel.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> loadedIds = new ArrayList<>();
+        List<String> loadedNames = new ArrayList<>();
+        long after = 0;
+        List<BorrowerResponse> page;
+        do {
+            page = repository.findResponsePageAfter(after, Limit.of(LOAD_PAGE_SIZE));
+            for (BorrowerResponse borrower : page) {
+                loadedIds.add(borrower.getId());
+                loadedNames.add(normalize(borrower.getLastName()));
+                after = borrower.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        Map<Long, List<Long>> grouped = IntStream.range(0, loadedIds.size()).parallel().boxed()
+                .flatMap(i -> trigramKeys(loadedNames.get(i)).mapToObj(key -> new long[]{key, loadedIds.get(i)}))
+                .collect(Collectors.groupingByConcurrent(pair -> pair[0], Collectors.mapping(pair -> pair[1], Collectors.toList())));
+
+        postings.clear();
+        names.clear();
+        grouped.entrySet().parallelStream().forEach(entry ->
+                postings.put(entry.getKey(), entry.getValue().stream().mapToLong(Long::longValue).sorted().distinct().toArray()));
+        for (int i = 0; i < loadedIds.size(); i++) {
+            names.put(loadedIds.get(i), loadedNames.get(i));
+        }
+        refreshedFrom = startedAt.minus(REFRESH_OVERLAP);
+        log.info("Indexed {} borrower names ({} trigrams) in {} ms",
+                names.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Re-index the borrowers created or updated since the previous pass (or rebuild).
+     * @return Borrowers read
+     */
+    public int refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime from = refreshedFrom;
+        if (from == null) from = startedAt.minus(REFRESH_OVERLAP);
+        Map<Long, String> lastNames = new HashMap<>();
+        for (BorrowerResponse borrower : repository.findResponsesChangedSince(from)) {
+            lastNames.put(borrower.getId(), borrower.getLastName());
+        }
+        indexAll(lastNames);
+        refreshedFrom = startedAt.minus(REFRESH_OVERLAP);
+        return lastNames.size();
+    }
+
+    // A failed pass is retried on the next tick from the same point; an exception would end the schedule
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Borrower name index refresh failed; retrying in {} ms", refreshMillis, ex);
+        }
+    }
+
+    /**
+     * Add or re-index one borrower after it was created or updated.
+     */
+    public void index(Long id, String lastName) {
+        String name = normalize(lastName);
+        String previous = names.put(id, name);
+        if (name.equals(previous)) return;
+        if (previous != null) trigramKeys(previous).forEach(key -> removePosting(key, id));
+        trigramKeys(name).forEach(key -> addPosting(key, id));
+    }
+
+    /**
+     * Add many new borrowers at once, e.g. one bulk-import chunk.
+     * Each trigram's posting array is rewritten once per call instead of once per borrower.
+     * @param lastNames Last name by borrower id
+     */
+    public void indexAll(Map<Long, String> lastNames) {
+        Map<Long, List<Long>> additions = new HashMap<>();
+        lastNames.forEach((id, lastName) -> {
+            String name = normalize(lastName);
+            String previous = names.put(id, name);
+            if (name.equals(previous)) return;
+            if (previous != null) trigramKeys(previous).forEach(key -> removePosting(key, id));
+            trigramKeys(name).forEach(key -> additions.computeIfAbsent(key, k -> new ArrayList<>()).add(id));
+        });
+        additions.forEach((key, ids) -> {
+            long[] added = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+            postings.merge(key, added, BorrowerNameIndex::union);
+        });
+    }
+
+    /**
+     * Drop one borrower after it was deleted.
+     */
+    public void remove(Long id) {
+        String previous = names.remove(id);
+        if (previous != null) trigramKeys(previous).forEach(key -> removePosting(key, id));
+    }
+
+    /**
+     * Ids of borrowers whose last name contains the query (case-insensitive), in id order.
+     * @param query Substring to look for
+     * @param limit Maximum number of ids to return
+     * @throws IllegalArgumentException for a query shorter than MIN_QUERY_LENGTH characters
+     */
+    public long[] search(String query, int limit) {
+        String q = normalize(query);
+        if (q.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("lastName must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+
+        long[][] lists = trigramKeys(q).mapToObj(key -> postings.getOrDefault(key, NO_IDS)).toArray(long[][]::new);
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length)); // intersect smallest first
+        long[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        // Trigrams can match out of order, so confirm each candidate against its name
+        return Arrays.stream(candidates)
+                .filter(id -> {
+                    String name = names.get(id);
+                    return name != null && name.contains(q);
+                })
+                .limit(limit).toArray();
+    }
+
+    /**
+     * Rough heap footprint: posting arrays and map entries for both maps.
+     */
+    public long estimatedMemoryBytes() {
+        long bytes = 0;
+        for (long[] ids : postings.values()) {
+            bytes += 16 + 8L * ids.length   // long[]
+                    + 32 + 16;             // map node + boxed key
+        }
+        for (String name : names.values()) {
+            bytes += 32 + 16               // map node + boxed key
+                    + 40 + name.length();  // String + Latin-1 bytes
+        }
+        return bytes;
+    }
+
+    private void addPosting(long key, long id) {
+        postings.compute(key, (k, ids) -> {
+            if (ids == null) return new long[]{id};
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos >= 0) return ids;
+            int insertAt = -pos - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            return updated;
+        });
+    }
+
+    private void removePosting(long key, long id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            int pos = Arrays.binarySearch(ids, id);
+            if (pos < 0) return ids;
+            if (ids.length == 1) return null;
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, pos);
+            System.arraycopy(ids, pos + 1, updated, pos, ids.length - pos - 1);
+            return updated;
+        });
+    }
+
+    // Merge two sorted id arrays, dropping duplicates
+    private static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            long next = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+            if (n == 0 || out[n - 1] != next) out[n++] = next;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // Three 16-bit chars packed into one long
+    private static LongStream trigramKeys(String name) {
+        return IntStream.rangeClosed(0, name.length() - 3)
+                .mapToLong(i -> ((long) name.charAt(i) << 32) | ((long) name.charAt(i + 1) << 16) | name.charAt(i + 2))
+                .distinct();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
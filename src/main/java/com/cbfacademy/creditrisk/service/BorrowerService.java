@@ -1,10 +1,23 @@
 package com.cbfacademy.creditrisk.service;
 
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.exception.ResourceNotFoundException;
 import com.cbfacademy.creditrisk.model.Borrower;
 import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service layer for Borrower operations.
@@ -14,10 +27,17 @@ import java.util.List;
 @Service
 public class BorrowerService {
 
+    // Bounded by spring.cache.caffeine.spec; evicted on update and delete
+    public static final String BORROWER_CACHE = "borrowers";
+
     private final BorrowerRepository repository;
+    private final BorrowerNameIndex nameIndex;
+    private final CacheManager cacheManager;
 
-    public BorrowerService(BorrowerRepository repository) {
+    public BorrowerService(BorrowerRepository repository, BorrowerNameIndex nameIndex, CacheManager cacheManager) {
         this.repository = repository;
+        this.nameIndex = nameIndex;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -28,7 +48,9 @@ public class BorrowerService {
     public Borrower createBorrower(Borrower borrower) {
         // Optional: add validation here (e.g., DOB in past, positive income)
         validateBorrower(borrower);
-        return repository.save(borrower);
+        Borrower saved = repository.save(borrower);
+        nameIndex.index(saved.getId(), saved.getLastName());
+        return saved;
     }
 
     /**
@@ -43,47 +65,99 @@ public class BorrowerService {
      */
     public Borrower getBorrowerById(Long id) {
         return repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Borrower not found"));
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found"));
     }
 
     /**
-     * Update an existing Borrower.
-     * @param borrower Borrower entity with updated fields
-     * @return updated Borrower
+     * Look up a Borrower through the borrower cache.
+     * Only found borrowers are cached, so a borrower created later is never hidden by a stale miss.
+     * @param id Borrower ID
+     * @return Borrower details, or empty if there is no such borrower
      */
-    public Borrower updateBorrower(Borrower borrower) {
-        Borrower existing = repository.findById(borrower.getId())
-                .orElseThrow(() -> new RuntimeException("Borrower not found"));
+    @Cacheable(cacheNames = BORROWER_CACHE, unless = "#result == null")
+    public Optional<BorrowerResponse> findBorrower(Long id) {
+        return repository.findResponseById(id);
+    }
 
-        existing.setFirstName(borrower.getFirstName());
-        existing.setLastName(borrower.getLastName());
-        existing.setDob(borrower.getDob());
-        existing.setEmploymentStatus(borrower.getEmploymentStatus());
-        existing.setAnnualIncome(borrower.getAnnualIncome());
+    /**
+     * Look up many Borrowers through the borrower cache.
+     * Cache misses are loaded with a single query and added to the cache.
+     * @param ids Borrower IDs
+     * @return Found borrowers by ID; unknown IDs are absent
+     */
+    public Map<Long, BorrowerResponse> findBorrowers(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(BORROWER_CACHE);
+        Map<Long, BorrowerResponse> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            BorrowerResponse cached = cache == null ? null : cache.get(id, BorrowerResponse.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (BorrowerResponse borrower : repository.findResponsesByIdIn(misses)) {
+                found.put(borrower.getId(), borrower);
+                if (cache != null) cache.put(borrower.getId(), borrower);
+            }
+        }
+        return found;
+    }
 
-        validateBorrower(existing); // Optional validation
-        return repository.save(existing);
+    /**
+     * Search Borrowers whose last name contains the given text (case-insensitive).
+     * Matching ids come from the in-memory trigram index; only those rows are read.
+     * @param lastName Substring of the last name, at least BorrowerNameIndex.MIN_QUERY_LENGTH characters
+     * @param limit Maximum number of results
+     * @throws IllegalArgumentException for a shorter lastName
+     */
+    @Transactional(readOnly = true)
+    public List<BorrowerResponse> searchByLastName(String lastName, int limit) {
+        long[] ids = nameIndex.search(lastName, limit);
+        if (ids.length == 0) return List.of();
+        return repository.findResponsesByIdIn(Arrays.stream(ids).boxed().toList());
     }
 
     /**
-     * Delete a Borrower by ID.
+     * Update an existing Borrower with a single UPDATE statement.
+     * @param id ID of the Borrower to update
+     * @param borrower Borrower entity with updated fields
+     * @return updated Borrower details
      */
-    public void deleteBorrower(Long id) {
-        if (!repository.existsById(id)) {
-            throw new RuntimeException("Borrower not found");
+    @CacheEvict(cacheNames = BORROWER_CACHE, key = "#id")
+    public BorrowerResponse updateBorrower(Long id, Borrower borrower) {
+        validateBorrower(borrower); // Optional validation
+        if (repository.updateDetails(id, borrower) == 0) {
+            throw new ResourceNotFoundException("Borrower not found");
         }
-        repository.deleteById(id);
+        nameIndex.index(id, borrower.getLastName());
+        return new BorrowerResponse(id, borrower.getFirstName(), borrower.getLastName(), borrower.getDob(),
+                borrower.getEmploymentStatus(), borrower.getAnnualIncome());
+    }
+
+    /**
+     * Delete a Borrower by ID with a single DELETE statement.
+     * Deleting a Borrower that does not exist does nothing, so a repeated DELETE still succeeds.
+     */
+    @CacheEvict(cacheNames = BORROWER_CACHE, key = "#id")
+    public void deleteBorrower(Long id) {
+        repository.deleteRowById(id);
+        nameIndex.remove(id);
     }
 
     /**
      * Optional validation logic for Borrower.
+     * Public so the bulk importer applies the same rules to every CSV row.
+     * @throws IllegalArgumentException describing the first rule the borrower breaks
      */
-    private void validateBorrower(Borrower borrower) {
-        if (borrower.getAnnualIncome() < 0) {
-            throw new RuntimeException("Annual income cannot be negative");
+    public void validateBorrower(Borrower borrower) {
+        if (borrower.getAnnualIncome() != null && borrower.getAnnualIncome() < 0) {
+            throw new IllegalArgumentException("Annual income cannot be negative");
         }
         if (borrower.getDob() == null) {
-            throw new RuntimeException("Date of birth is required");
+            throw new IllegalArgumentException("Date of birth is required");
         }
         // Additional rules can be added here
     }
@@ -0,0 +1,191 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.BorrowerExposureRow;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.LoanApplicationChangeDispatcher.LoanState;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-borrower approved exposure (sum of approved loan amounts) and the limit it is checked against.
+ *
+ * Submissions for one borrower are serialized with a striped lock: borrowers hash onto a fixed
+ * array of locks, so different borrowers almost never contend and there is no global lock or
+ * database row lock. The caller holds the borrower's stripe while it checks the limit, commits
+ * the loan and records the new exposure, so two concurrent submissions can never both fit.
+ *
+ * Exposure is loaded from the database on first use and cached (bounded). Updates and deletes
+ * of loans drop the cached value after commit, so it is reloaded from committed rows next time.
+ *
+ * The locks and the cache belong to this process, so the limit is enforced exactly only for
+ * submissions handled by one instance. A cached value is reloaded creditrisk.exposure.cache-ttl-seconds
+ * after it was loaded, however often it is added to, so approvals committed by another instance are
+ * seen within that time; submissions for one borrower on two instances inside that window can
+ * together exceed the limit.
+ */
+@Component
+public class ExposureLedger implements LoanApplicationChangeDispatcher.Subscriber {
+
+    private final LoanApplicationRepository repository;
+    private final double limit;
+    private final Lock[] stripes;
+    private final Cache<Long, Double> exposures;
+
+    public ExposureLedger(LoanApplicationRepository repository,
+                          @Value("${creditrisk.exposure.limit-per-borrower:1000000}") double limit,
+                          @Value("${creditrisk.exposure.lock-stripes:1024}") int lockStripes,
+                          @Value("${creditrisk.exposure.cache-size:100000}") long cacheSize,
+                          @Value("${creditrisk.exposure.cache-ttl-seconds:10}") long cacheTtlSeconds) {
+        this.repository = repository;
+        this.limit = limit;
+        // Power of two, so a stripe is picked with a mask
+        this.stripes = new Lock[Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.exposures = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new ExpireAfterLoad(Duration.ofSeconds(cacheTtlSeconds)))
+                .build();
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    /**
+     * The lock that serializes submissions for a borrower.
+     */
+    public Lock lockFor(Long borrowerId) {
+        return stripes[stripe(borrowerId)];
+    }
+
+    /**
+     * Lock the stripes of several borrowers, always in stripe order so two callers cannot deadlock.
+     * @return Locks held, to pass to unlockAll
+     */
+    public List<Lock> lockAll(Collection<Long> borrowerIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long borrowerId : borrowerIds) {
+            indexes.add(stripe(borrowerId));
+        }
+        List<Lock> held = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            stripes[index].lock();
+            held.add(stripes[index]);
+        }
+        return held;
+    }
+
+    public static void unlockAll(List<Lock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+    }
+
+    /**
+     * Whether the borrower can take on more approved exposure. Caller must hold the borrower's lock.
+     */
+    public boolean fits(Long borrowerId, double amount) {
+        return exposure(borrowerId) + amount <= limit;
+    }
+
+    /**
+     * Whether an existing loan, changed to the given approved amount, stays within the limit.
+     * Reads the borrower's other loans from the database. Caller must hold the borrower's lock.
+     */
+    public boolean fitsReplacing(Long borrowerId, Long loanId, double amount) {
+        return repository.sumApprovedExposureExcluding(borrowerId, loanId) + amount <= limit;
+    }
+
+    /**
+     * Record committed approved exposure. Caller must hold the borrower's lock.
+     * Nothing to do when the borrower is not cached: the next load reads the committed loan.
+     */
+    public void add(Long borrowerId, double amount) {
+        if (amount != 0) exposures.asMap().computeIfPresent(borrowerId, (id, current) -> current + amount);
+    }
+
+    /**
+     * Forget a borrower's cached exposure, e.g. after loans were changed outside this ledger.
+     */
+    public void invalidate(Long borrowerId) {
+        exposures.invalidate(borrowerId);
+    }
+
+    /**
+     * Approved exposure, loaded from the database when not cached. Caller must hold the borrower's lock.
+     */
+    public double exposure(Long borrowerId) {
+        return exposures.get(borrowerId, repository::sumApprovedExposure);
+    }
+
+    /**
+     * Load the approved exposure of every borrower not cached yet with one query, so checking
+     * a batch does not cost a query per borrower. Caller must hold the borrowers' locks.
+     */
+    public void loadAll(Collection<Long> borrowerIds) {
+        exposures.getAll(borrowerIds, missing -> {
+            Map<Long, Double> loaded = new HashMap<>();
+            for (Long borrowerId : missing) {
+                loaded.put(borrowerId, 0.0);
+            }
+            for (BorrowerExposureRow row : repository.sumApprovedExposures(List.copyOf(missing))) {
+                loaded.put(row.getBorrowerId(), row.getApprovedExposure());
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public void updated(long id, LoanState oldState, LoanState state) {
+        if (oldState != null) invalidate(oldState);
+        invalidate(state);
+    }
+
+    @Override
+    public void deleted(long id, LoanState deletedState) {
+        invalidate(deletedState);
+    }
+
+    private void invalidate(LoanState state) {
+        Long borrowerId = state.borrowerId();
+        if (borrowerId != null) invalidate(borrowerId);
+    }
+
+    private int stripe(Long borrowerId) {
+        int h = borrowerId.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    // Expires a value a fixed time after it was loaded; add() and reads do not extend it
+    private record ExpireAfterLoad(Duration ttl) implements Expiry<Long, Double> {
+        @Override
+        public long expireAfterCreate(Long borrowerId, Double exposure, long currentTime) {
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long borrowerId, Double exposure, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Long borrowerId, Double exposure, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
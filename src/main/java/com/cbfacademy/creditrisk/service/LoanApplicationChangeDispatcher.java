@@ -0,0 +1,261 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.tuple.entity.EntityMetamodel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hands every LoanApplication insert, update and delete Hibernate writes to the Subscriber beans,
+ * with the entity state as a typed LoanState.
+ *
+ * Registers one set of Hibernate listeners for all of them, when it is created: every bean exists
+ * by then but none has run afterSingletonsInstantiated, so a subscriber that loads its state at
+ * startup misses no change. Subscribers are called after the change has committed, so rolled-back
+ * changes are never seen, unless afterCommit() is false: those are called as the change is flushed,
+ * inside the writing transaction. A committed subscriber that throws is logged and the others are
+ * still called; an in-transaction one fails the flush.
+ *
+ * Writes that bypass Hibernate (JDBC, such as the re-scoring job's updates) are not dispatched.
+ */
+@Component
+public class LoanApplicationChangeDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(LoanApplicationChangeDispatcher.class);
+
+    private final PersistenceUnitUtil persistenceUnitUtil;
+    private final Subscriber[] committed;
+    private final Subscriber[] inTransaction;
+
+    // Positions of LoanApplication's attributes in Hibernate's entity state arrays
+    private final int borrowerIndex;
+    private final int amountIndex;
+    private final int loanTypeIndex;
+    private final int termIndex;
+    private final int scoreIndex;
+    private final int gradeIndex;
+    private final int decisionIndex;
+
+    public LoanApplicationChangeDispatcher(EntityManagerFactory entityManagerFactory, List<Subscriber> subscribers) {
+        this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        this.committed = subscribers.stream().filter(Subscriber::afterCommit).toArray(Subscriber[]::new);
+        this.inTransaction = subscribers.stream().filter(s -> !s.afterCommit()).toArray(Subscriber[]::new);
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityMetamodel loans = sessionFactory.getMappingMetamodel().getEntityDescriptor(LoanApplication.class).getEntityMetamodel();
+        borrowerIndex = loans.getPropertyIndex("borrower");
+        amountIndex = loans.getPropertyIndex("loanAmount");
+        loanTypeIndex = loans.getPropertyIndex("loanType");
+        termIndex = loans.getPropertyIndex("termMonths");
+        scoreIndex = loans.getPropertyIndex("riskScore");
+        gradeIndex = loans.getPropertyIndex("riskGrade");
+        decisionIndex = loans.getPropertyIndex("decision");
+
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        if (committed.length > 0) {
+            CommittedListener listener = new CommittedListener();
+            listeners.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+            listeners.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+            listeners.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        }
+        if (inTransaction.length > 0) {
+            InTransactionListener listener = new InTransactionListener();
+            listeners.appendListeners(EventType.POST_INSERT, listener);
+            listeners.appendListeners(EventType.POST_UPDATE, listener);
+            listeners.appendListeners(EventType.POST_DELETE, listener);
+        }
+    }
+
+    /**
+     * Receives LoanApplication changes. Every Spring bean implementing it is subscribed.
+     * Callbacks run on the thread that committed (or flushed) the change.
+     */
+    public interface Subscriber {
+
+        /**
+         * Whether to be called once the change has committed (the default), or as it is flushed,
+         * inside the writing transaction.
+         */
+        default boolean afterCommit() {
+            return true;
+        }
+
+        default void inserted(long id, LoanState state) {}
+
+        /**
+         * @param oldState State before the update, or null when Hibernate did not have it
+         *                 (an update of an entity not loaded in the session)
+         */
+        default void updated(long id, LoanState oldState, LoanState state) {}
+
+        default void deleted(long id, LoanState deletedState) {}
+    }
+
+    /**
+     * Typed view of a LoanApplication's entity state array.
+     */
+    public final class LoanState {
+
+        private final Object[] values;
+
+        private LoanState(Object[] values) {
+            this.values = values;
+        }
+
+        /**
+         * The borrower's id, read without initializing a lazy proxy; null without a borrower.
+         */
+        public Long borrowerId() {
+            Object borrower = values[borrowerIndex];
+            return borrower == null ? null : (Long) persistenceUnitUtil.getIdentifier(borrower);
+        }
+
+        public Double loanAmount() {
+            return (Double) values[amountIndex];
+        }
+
+        public String loanType() {
+            return (String) values[loanTypeIndex];
+        }
+
+        public Integer termMonths() {
+            return (Integer) values[termIndex];
+        }
+
+        public double riskScore() {
+            return values[scoreIndex] instanceof Double score ? score : 0;
+        }
+
+        public RiskGrade riskGrade() {
+            return (RiskGrade) values[gradeIndex];
+        }
+
+        public Decision decision() {
+            return (Decision) values[decisionIndex];
+        }
+    }
+
+    private LoanState state(Object[] values) {
+        return values == null ? null : new LoanState(values);
+    }
+
+    private static boolean isLoan(EntityPersister persister) {
+        return persister.getMappedClass() == LoanApplication.class;
+    }
+
+    private static void notifyCommitted(Subscriber[] subscribers, Consumer<Subscriber> callback) {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                callback.accept(subscriber);
+            } catch (RuntimeException ex) {
+                // The change has committed; one subscriber failing must not keep it from the others
+                log.error("{} failed to apply a committed loan change", subscriber.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+
+    private final class CommittedListener implements
+            PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (!isLoan(event.getPersister())) return;
+            long id = (Long) event.getId();
+            LoanState state = state(event.getState());
+            notifyCommitted(committed, s -> s.inserted(id, state));
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (!isLoan(event.getPersister())) return;
+            long id = (Long) event.getId();
+            LoanState oldState = state(event.getOldState());
+            LoanState state = state(event.getState());
+            notifyCommitted(committed, s -> s.updated(id, oldState, state));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (!isLoan(event.getPersister())) return;
+            long id = (Long) event.getId();
+            LoanState deletedState = state(event.getDeletedState());
+            notifyCommitted(committed, s -> s.deleted(id, deletedState));
+        }
+
+        // Failed commits never reached the database, so there is nothing to report
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return isLoan(persister);
+        }
+    }
+
+    private final class InTransactionListener implements
+            PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (!isLoan(event.getPersister())) return;
+            long id = (Long) event.getId();
+            LoanState state = state(event.getState());
+            for (Subscriber subscriber : inTransaction) {
+                subscriber.inserted(id, state);
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (!isLoan(event.getPersister())) return;
+            long id = (Long) event.getId();
+            LoanState oldState = state(event.getOldState());
+            LoanState state = state(event.getState());
+            for (Subscriber subscriber : inTransaction) {
+                subscriber.updated(id, oldState, state);
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (!isLoan(event.getPersister())) return;
+            long id = (Long) event.getId();
+            LoanState deletedState = state(event.getDeletedState());
+            for (Subscriber subscriber : inTransaction) {
+                subscriber.deleted(id, deletedState);
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
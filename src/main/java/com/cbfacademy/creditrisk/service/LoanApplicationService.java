@@ -1,10 +1,34 @@
 package com.cbfacademy.creditrisk.service;
 
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.model.Decision;
 import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
 import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.scoring.RiskScore;
+import com.cbfacademy.creditrisk.scoring.RiskScoringEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service layer for LoanApplication operations.
@@ -14,32 +38,160 @@ import java.util.List;
 @Service
 public class LoanApplicationService {
 
+    private static final Logger log = LoggerFactory.getLogger(LoanApplicationService.class);
+
+    // One reusable result holder per thread, so scoring allocates nothing
+    private static final ThreadLocal<RiskScore> RISK_SCORE = ThreadLocal.withInitial(RiskScore::new);
+
     private final LoanApplicationRepository repository;
+    private final RiskScoringEngine scoringEngine;
+    private final ExposureLedger exposureLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer scoringTimer;
+    private final int batchChunkSize;
+    private final int exportFetchSize;
 
-    public LoanApplicationService(LoanApplicationRepository repository) {
+    public LoanApplicationService(LoanApplicationRepository repository,
+                                  RiskScoringEngine scoringEngine,
+                                  ExposureLedger exposureLedger,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${creditrisk.loans.batch.chunk-size:1000}") int batchChunkSize,
+                                  @Value("${creditrisk.loans.export.fetch-size:1000}") int exportFetchSize) {
+        if (batchChunkSize < 1) {
+            throw new IllegalArgumentException("creditrisk.loans.batch.chunk-size must be at least 1, was " + batchChunkSize);
+        }
         this.repository = repository;
+        this.scoringEngine = scoringEngine;
+        this.exposureLedger = exposureLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.scoringTimer = Timer.builder("creditrisk.scoring")
+                .description("Time to score one loan with the configured RiskScoringEngine")
+                .register(meterRegistry);
+        this.batchChunkSize = batchChunkSize;
+        this.exportFetchSize = exportFetchSize;
     }
 
     /**
      * Create a new LoanApplication.
      * Performs risk scoring, determines risk grade, and sets decision.
+     * An approval that would take the borrower's approved exposure over the limit is rejected instead.
+     * The check and the insert run under the borrower's exposure lock, so concurrent
+     * submissions for the same borrower cannot both pass.
      * @param loan LoanApplication entity to create
      * @return Persisted LoanApplication with risk data
      */
     public LoanApplication createLoanApplication(LoanApplication loan) {
         applyRiskScoring(loan);
-        return repository.save(loan);
+        Long borrowerId = loan.getBorrower().getId();
+        Lock lock = exposureLedger.lockFor(borrowerId);
+        lock.lock();
+        try {
+            double exposure = approvedExposure(loan);
+            if (exposure > 0 && !exposureLedger.fits(borrowerId, exposure)) {
+                loan.setDecision(Decision.REJECT);
+                exposure = 0;
+            }
+            LoanApplication saved = repository.save(loan);
+            exposureLedger.add(borrowerId, exposure);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Create many LoanApplications at once.
+     * Loans are scored and then persisted in chunks, each chunk in its own transaction,
+     * so Hibernate can send the INSERTs as JDBC batches and the persistence context
+     * never holds more than one chunk.
+     * A chunk that fails to persist is rolled back on its own; the other chunks are kept.
+     * @param loans LoanApplication entities to create
+     * @return Persisted LoanApplications in the same order as the input,
+     *         with null at the positions whose chunk could not be persisted
+     */
+    public List<LoanApplication> createLoanApplications(List<LoanApplication> loans) {
+        List<LoanApplication> saved = new ArrayList<>(loans.size());
+        for (int from = 0; from < loans.size(); from += batchChunkSize) {
+            List<LoanApplication> chunk = loans.subList(from, Math.min(from + batchChunkSize, loans.size()));
+            chunk.forEach(this::applyRiskScoring);
+            List<Long> borrowerIds = chunk.stream().map(loan -> loan.getBorrower().getId()).distinct().toList();
+            List<Lock> locks = exposureLedger.lockAll(borrowerIds);
+            try {
+                exposureLedger.loadAll(borrowerIds);
+                Map<Long, Double> added = applyExposureLimits(chunk);
+                saved.addAll(transactionTemplate.execute(status -> repository.saveAll(chunk)));
+                added.forEach(exposureLedger::add);
+            } catch (DataAccessException | TransactionException ex) {
+                log.warn("Failed to persist loan batch chunk starting at index {}", from, ex);
+                saved.addAll(Collections.nCopies(chunk.size(), null));
+            } finally {
+                ExposureLedger.unlockAll(locks);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Score loans of borrowers that are being created in the same transaction (bulk import).
+     * Such borrowers have no approved exposure yet, so each loan is checked against the
+     * exposure limit on its own and no borrower lock or exposure lookup is needed.
+     * @param loans One loan per new borrower
+     */
+    public void scoreNewBorrowerLoans(List<LoanApplication> loans) {
+        for (LoanApplication loan : loans) {
+            applyRiskScoring(loan);
+            if (approvedExposure(loan) > exposureLedger.getLimit()) {
+                loan.setDecision(Decision.REJECT);
+            }
+        }
     }
 
     /**
      * Update an existing LoanApplication.
      * Recalculates risk score, risk grade, and decision if relevant fields changed.
+     * The loan is loaded, checked and updated in one transaction under the borrower's
+     * exposure lock: one SELECT, the exposure query and one UPDATE.
+     * @param id ID of the loan to update
+     * @param changes Borrower, amount, term and type to apply
+     * @return Updated LoanApplication with updated risk data
+     */
+    public LoanApplication updateLoanApplication(Long id, LoanApplication changes) {
+        applyRiskScoring(changes);
+        Long borrowerId = changes.getBorrower().getId();
+        Lock lock = exposureLedger.lockFor(borrowerId);
+        lock.lock();
+        try {
+            // The commit drops both the old and the new borrower's cached exposure (ExposureLedger listener)
+            return transactionTemplate.execute(status -> {
+                LoanApplication loan = repository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Loan not found"));
+                // Checked before the managed loan changes, so the query does not flush it early
+                double exposure = approvedExposure(changes);
+                if (exposure > 0 && !exposureLedger.fitsReplacing(borrowerId, id, exposure)) {
+                    changes.setDecision(Decision.REJECT);
+                }
+                loan.setBorrower(changes.getBorrower());
+                loan.setLoanAmount(changes.getLoanAmount());
+                loan.setTermMonths(changes.getTermMonths());
+                loan.setLoanType(changes.getLoanType());
+                loan.setRiskScore(changes.getRiskScore());
+                loan.setRiskGrade(changes.getRiskGrade());
+                loan.setDecision(changes.getDecision());
+                return loan;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Update an existing LoanApplication from a detached entity.
      * @param loan LoanApplication entity with updated data
-     * @return Persisted LoanApplication with updated risk data
+     * @return Updated LoanApplication with updated risk data
      */
     public LoanApplication updateLoanApplication(LoanApplication loan) {
-        applyRiskScoring(loan);
-        return repository.save(loan);
+        return updateLoanApplication(loan.getId(), loan);
     }
 
     /**
@@ -52,25 +204,85 @@ public class LoanApplicationService {
         if (riskGrade == null || riskGrade.isEmpty()) {
             return repository.findAll();
         }
-        return repository.findByRiskGrade(riskGrade);
+        return repository.findByRiskGrade(RiskGrade.fromDisplayName(riskGrade));
+    }
+
+    /**
+     * Retrieve one keyset page of loans, optionally filtered by risk grade.
+     * Seeks by primary key, so the cost of a page does not depend on how deep it is.
+     * Rows are projected straight into response DTOs in a read-only transaction; no entities are hydrated.
+     * @param riskGrade Risk grade filter, or null/empty for all loans
+     * @param afterId Only loans with an id greater than this are returned
+     * @param limit Maximum number of loans to return
+     * @return Loans ordered by id
+     */
+    @Transactional(readOnly = true)
+    public List<LoanApplicationResponse> getLoansPage(String riskGrade, long afterId, int limit) {
+        if (riskGrade == null || riskGrade.isEmpty()) {
+            return repository.findResponsePageAfter(afterId, Limit.of(limit));
+        }
+        return repository.findResponsePageByRiskGradeAfter(RiskGrade.fromDisplayName(riskGrade), afterId, Limit.of(limit));
+    }
+
+    /**
+     * Stream every loan matching the filters to the given consumer, in id order.
+     * Rows are read over a forward-only cursor and detached one by one,
+     * so memory use stays flat however large the portfolio is.
+     * @param riskGrade Optional risk grade filter
+     * @param createdFrom Optional inclusive lower bound on createdAt
+     * @param createdTo Optional exclusive upper bound on createdAt
+     * @param consumer Receives each loan; it must not keep references to them
+     * @return Number of loans exported
+     */
+    @Transactional(readOnly = true)
+    public long exportLoans(RiskGrade riskGrade, LocalDateTime createdFrom, LocalDateTime createdTo, Consumer<LoanApplication> consumer) {
+        long count = 0;
+        try (Stream<LoanApplication> loans = repository.streamForExport(riskGrade, createdFrom, createdTo, exportFetchSize)) {
+            for (LoanApplication loan : (Iterable<LoanApplication>) loans::iterator) {
+                consumer.accept(loan);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reject the approvals in a chunk that would take their borrower over the exposure limit,
+     * counting earlier approvals in the same chunk. Caller must hold the chunk's borrower locks.
+     * @return Approved exposure to record per borrower once the chunk has committed
+     */
+    private Map<Long, Double> applyExposureLimits(List<LoanApplication> chunk) {
+        Map<Long, Double> added = new HashMap<>();
+        for (LoanApplication loan : chunk) {
+            double exposure = approvedExposure(loan);
+            if (exposure == 0) continue;
+            Long borrowerId = loan.getBorrower().getId();
+            double pending = added.getOrDefault(borrowerId, 0.0);
+            if (exposureLedger.fits(borrowerId, pending + exposure)) {
+                added.put(borrowerId, pending + exposure);
+            } else {
+                loan.setDecision(Decision.REJECT);
+            }
+        }
+        return added;
+    }
+
+    private static double approvedExposure(LoanApplication loan) {
+        return loan.getDecision() == Decision.APPROVE && loan.getLoanAmount() != null ? loan.getLoanAmount() : 0;
     }
 
     /**
      * Private helper method to calculate risk score, risk grade, and decision.
-     * Encapsulates business logic for risk evaluation.
+     * Delegates the rules to the configured RiskScoringEngine.
      * @param loan LoanApplication entity to evaluate
      */
     private void applyRiskScoring(LoanApplication loan) {
-        // Example risk scoring: higher loan relative to 10k reduces score
-        double riskScore = 100 - (loan.getLoanAmount() / 10000);
-        loan.setRiskScore(Math.max(Math.min(riskScore, 100), 0)); // Clamp between 0-100
-
-        // Determine risk grade
-        if (riskScore >= 75) loan.setRiskGrade("Low");
-        else if (riskScore >= 50) loan.setRiskGrade("Medium");
-        else loan.setRiskGrade("High");
-
-        // Set decision based on risk grade
-        loan.setDecision(loan.getRiskGrade().equals("High") ? "Reject" : "Approve");
+        RiskScore result = RISK_SCORE.get();
+        long start = System.nanoTime();
+        scoringEngine.score(loan.getLoanAmount(), result);
+        scoringTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        loan.setRiskScore(result.getScore());
+        loan.setRiskGrade(result.getGrade());
+        loan.setDecision(result.getDecision());
     }
 }
@@ -0,0 +1,59 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.service.LoanApplicationChangeDispatcher.LoanState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metrics on the outcome of every committed new loan: the risk score distribution and
+ * counts per risk grade and per decision.
+ *
+ * Recorded from LoanApplicationChangeDispatcher's committed inserts, so single, batch and bulk-import
+ * submissions are all counted and rolled-back inserts never are. Re-scoring of existing
+ * loans is not counted. Meters are registered up front, one per enum constant, so
+ * recording is an array lookup and never touches the registry.
+ */
+@Component
+public class LoanOutcomeMetrics implements LoanApplicationChangeDispatcher.Subscriber {
+
+    // Cumulative buckets for the score distribution (scores are 0-100)
+    private static final double[] SCORE_BUCKETS = {10, 20, 30, 40, 50, 60, 70, 75, 80, 90, 100};
+
+    private final DistributionSummary riskScores;
+    private final Counter[] grades = new Counter[RiskGrade.values().length];
+    private final Counter[] decisions = new Counter[Decision.values().length];
+
+    public LoanOutcomeMetrics(MeterRegistry meterRegistry) {
+        this.riskScores = DistributionSummary.builder("creditrisk.loans.risk.score")
+                .description("Risk score of new loans")
+                .serviceLevelObjectives(SCORE_BUCKETS)
+                .register(meterRegistry);
+        for (RiskGrade grade : RiskGrade.values()) {
+            grades[grade.ordinal()] = Counter.builder("creditrisk.loans.grades")
+                    .description("New loans per risk grade")
+                    .tag("grade", grade.getDisplayName())
+                    .register(meterRegistry);
+        }
+        for (Decision decision : Decision.values()) {
+            decisions[decision.ordinal()] = Counter.builder("creditrisk.loans.decisions")
+                    .description("New loans per decision")
+                    .tag("decision", decision.getDisplayName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void inserted(long id, LoanState state) {
+        riskScores.record(state.riskScore());
+        if (state.riskGrade() != null) {
+            grades[state.riskGrade().ordinal()].increment();
+        }
+        if (state.decision() != null) {
+            decisions[state.decision().ordinal()].increment();
+        }
+    }
+}
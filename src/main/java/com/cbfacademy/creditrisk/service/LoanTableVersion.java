@@ -0,0 +1,159 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.service.LoanApplicationChangeDispatcher.LoanState;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Change version of the loan_applications table, for validating cached loan listings.
+ *
+ * The version lives in the database, so every instance sees the same one: it is the sum of the
+ * loan_table_versions slots. Every transaction that writes loans bumps one slot, in the same
+ * transaction, so the new version commits (or rolls back) with the loans. LoanApplication inserts,
+ * updates and deletes arrive from LoanApplicationChangeDispatcher inside their transaction; writes that bypass Hibernate (the
+ * re-scoring job's JDBC updates) call bump() inside their transaction. The slot is picked at random,
+ * so concurrent writers rarely wait on each other's row lock.
+ *
+ * current() re-reads the sum at most every creditrisk.loans.response-cache.version-check-ms, and right
+ * after any local loan transaction completes. A write on another instance is therefore seen within
+ * that interval; a write on this one at once. Changes made directly in the database are not seen.
+ *
+ * The ETag adds a random epoch chosen at startup, so a recreated database restarting its count never
+ * yields an ETag that matches an older listing.
+ *
+ * Disabled along with the response cache (creditrisk.loans.response-cache.enabled=false): nothing
+ * is bumped or read.
+ */
+@Component
+public class LoanTableVersion implements SmartInitializingSingleton, LoanApplicationChangeDispatcher.Subscriber {
+
+    static final int SLOTS = 16;
+
+    private static final String READ = "select coalesce(sum(version), 0) from loan_table_versions";
+    private static final String BUMP = "update loan_table_versions set version = version + 1 where slot = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean loadData;
+    private final long checkIntervalNanos;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    private volatile long version;
+    private volatile long checkedAt;
+    private volatile boolean stale = true;
+
+    public LoanTableVersion(JdbcTemplate jdbcTemplate,
+                            @Value("${creditrisk.loans.response-cache.enabled:true}") boolean enabled,
+                            @Value("${creditrisk.startup.load-data:true}") boolean loadData,
+                            @Value("${creditrisk.loans.response-cache.version-check-ms:1000}") long checkIntervalMillis) {
+        if (checkIntervalMillis < 0) {
+            throw new IllegalArgumentException("creditrisk.loans.response-cache.version-check-ms must be at least 0, was " + checkIntervalMillis);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.loadData = loadData;
+        this.checkIntervalNanos = checkIntervalMillis * 1_000_000;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) return;
+        if (loadData) seedSlots();
+    }
+
+    /**
+     * Current version, re-read from the database when the last read is older than the check interval
+     * or a local loan transaction has completed since.
+     */
+    public long current() {
+        if (stale || System.nanoTime() - checkedAt >= checkIntervalNanos) {
+            refresh();
+        }
+        return version;
+    }
+
+    /**
+     * Record a change to loan_applications made in the current transaction. Only the first call in a
+     * transaction bumps a slot; without a transaction the slot is bumped on its own.
+     */
+    public void bump() {
+        if (!enabled) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpSlot();
+            stale = true;
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) return;
+        bumpSlot();
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(LoanTableVersion.this);
+                stale = true;
+            }
+        });
+    }
+
+    /**
+     * Weak ETag for a response built from the table at the given version.
+     */
+    public String etag(long version) {
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+
+    private synchronized void refresh() {
+        long now = System.nanoTime();
+        if (!stale && now - checkedAt < checkIntervalNanos) return; // Another request has just read it
+        // Cleared before reading: a transaction completing meanwhile marks it stale again
+        stale = false;
+        version = jdbcTemplate.queryForObject(READ, Long.class);
+        checkedAt = now;
+    }
+
+    private void bumpSlot() {
+        jdbcTemplate.update(BUMP, ThreadLocalRandom.current().nextInt(SLOTS));
+    }
+
+    // Safe on every startup and from several instances at once: an existing slot is never touched
+    private void seedSlots() {
+        List<Integer> seeded = jdbcTemplate.queryForList("select slot from loan_table_versions", Integer.class);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (seeded.contains(slot)) continue;
+            try {
+                jdbcTemplate.update("insert into loan_table_versions (slot, version) values (?, 0)", slot);
+            } catch (DataIntegrityViolationException ex) {
+                // Seeded by another instance meanwhile
+            }
+        }
+    }
+
+    // The bump has to be part of the transaction that writes the loans
+    @Override
+    public boolean afterCommit() {
+        return false;
+    }
+
+    @Override
+    public void inserted(long id, LoanState state) {
+        bump();
+    }
+
+    @Override
+    public void updated(long id, LoanState oldState, LoanState state) {
+        bump();
+    }
+
+    @Override
+    public void deleted(long id, LoanState deletedState) {
+        bump();
+    }
+}
@@ -0,0 +1,211 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.PortfolioAggregateRow;
+import com.cbfacademy.creditrisk.dto.PortfolioCell;
+import com.cbfacademy.creditrisk.dto.PortfolioReconciliation;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.model.TermBucket;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.LoanApplicationChangeDispatcher.LoanState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory portfolio aggregate: count, total loan amount and total risk score
+ * per risk grade × loan type × term bucket.
+ *
+ * Built once at startup from a SQL aggregate, then kept current with the committed LoanApplication
+ * inserts, updates and deletes from LoanApplicationChangeDispatcher, so every write path is covered
+ * and rolled-back changes are never counted. Cells use LongAdder/DoubleAdder, so writers
+ * never lock. A summary read is not an atomic snapshot across cells.
+ */
+@Component
+public class PortfolioCube implements SmartInitializingSingleton, LoanApplicationChangeDispatcher.Subscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioCube.class);
+    private static final double TOLERANCE = 1e-6;
+    private static final Comparator<PortfolioCell> CELL_ORDER = Comparator
+            .comparing(PortfolioCell::getRiskGrade, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(PortfolioCell::getLoanType, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(PortfolioCell::getTermBucket);
+
+    private final LoanApplicationRepository repository;
+    private final boolean loadData;
+    private volatile Map<CellKey, Cell> cells = new ConcurrentHashMap<>();
+
+    public PortfolioCube(LoanApplicationRepository repository,
+                         @Value("${creditrisk.startup.load-data:true}") boolean loadData) {
+        this.repository = repository;
+        this.loadData = loadData;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!loadData) return;
+        long start = System.nanoTime();
+        cells = build(repository.aggregatePortfolio());
+        log.info("Built portfolio cube with {} cells in {} ms", cells.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Current summary, one entry per non-empty cell, ordered by grade, loan type and term bucket.
+     */
+    public List<PortfolioCell> summary() {
+        List<PortfolioCell> summary = new ArrayList<>();
+        cells.forEach((key, cell) -> {
+            PortfolioCell value = cell.toPortfolioCell(key);
+            if (value.getCount() != 0) summary.add(value);
+        });
+        summary.sort(CELL_ORDER);
+        return summary;
+    }
+
+    /**
+     * Compare the cube with a full SQL aggregate.
+     * With repair, each differing cell gets the difference between the SQL result and the cube
+     * added to its live counters, so deltas committed afterwards still count. A cell that changed
+     * while the aggregate query ran is only reported: the query may or may not have seen that
+     * change, so it is left for the next reconciliation.
+     * @param repair Correct the cells that differ from the SQL result
+     */
+    public PortfolioReconciliation reconcile(boolean repair) {
+        Map<CellKey, Sums> before = sums(cells);
+        Map<CellKey, Sums> expected = sums(build(repository.aggregatePortfolio()));
+        Map<CellKey, Sums> actual = sums(cells);
+
+        Set<CellKey> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        List<PortfolioReconciliation.Mismatch> mismatches = new ArrayList<>();
+        int corrected = 0;
+        for (CellKey key : keys) {
+            Sums database = expected.getOrDefault(key, Sums.EMPTY);
+            Sums cube = actual.getOrDefault(key, Sums.EMPTY);
+            PortfolioCell databaseCell = database.toNonEmptyCell(key);
+            PortfolioCell cubeCell = cube.toNonEmptyCell(key);
+            if (matches(cubeCell, databaseCell)) continue;
+            mismatches.add(new PortfolioReconciliation.Mismatch(cubeCell, databaseCell));
+            if (repair && cube.equals(before.getOrDefault(key, Sums.EMPTY))) {
+                Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+                cell.count.add(database.count() - cube.count());
+                cell.totalLoanAmount.add(database.totalLoanAmount() - cube.totalLoanAmount());
+                cell.totalRiskScore.add(database.totalRiskScore() - cube.totalRiskScore());
+                corrected++;
+            }
+        }
+
+        if (corrected > 0) {
+            log.warn("Portfolio cube repaired: {} of {} differing cells corrected", corrected, mismatches.size());
+        }
+        return new PortfolioReconciliation(keys.size(), mismatches, corrected > 0);
+    }
+
+    /**
+     * Move one loan between cells after its score was rewritten outside Hibernate
+     * (the re-scoring job's batched JDBC updates). Call only after the change has committed.
+     */
+    public void applyRescore(RiskGrade oldGrade, double oldScore, RiskGrade newGrade, double newScore,
+                             String loanType, Integer termMonths, Double loanAmount) {
+        apply(oldGrade, loanType, termMonths, loanAmount, oldScore, -1);
+        apply(newGrade, loanType, termMonths, loanAmount, newScore, 1);
+    }
+
+    @Override
+    public void inserted(long id, LoanState state) {
+        apply(state, 1);
+    }
+
+    @Override
+    public void updated(long id, LoanState oldState, LoanState state) {
+        if (oldState == null) {
+            // Only happens for updates of entities not loaded in the session; reconcile to correct
+            log.warn("No previous state for LoanApplication {}; portfolio cube may drift", id);
+        } else {
+            apply(oldState, -1);
+        }
+        apply(state, 1);
+    }
+
+    @Override
+    public void deleted(long id, LoanState deletedState) {
+        apply(deletedState, -1);
+    }
+
+    private void apply(LoanState state, int sign) {
+        apply(state.riskGrade(), state.loanType(), state.termMonths(), state.loanAmount(), state.riskScore(), sign);
+    }
+
+    private void apply(RiskGrade grade, String loanType, Integer termMonths, Double amount, Double score, int sign) {
+        CellKey key = new CellKey(grade, loanType, TermBucket.of(termMonths));
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+        cell.count.add(sign);
+        cell.totalLoanAmount.add(sign * (amount == null ? 0 : amount));
+        cell.totalRiskScore.add(sign * (score == null ? 0 : score));
+    }
+
+    private static Map<CellKey, Cell> build(List<PortfolioAggregateRow> rows) {
+        Map<CellKey, Cell> built = new ConcurrentHashMap<>();
+        for (PortfolioAggregateRow row : rows) {
+            CellKey key = new CellKey(row.getRiskGrade(), row.getLoanType(), TermBucket.of(row.getTermMonths()));
+            Cell cell = built.computeIfAbsent(key, k -> new Cell());
+            cell.count.add(row.getCount());
+            cell.totalLoanAmount.add(row.getTotalLoanAmount());
+            cell.totalRiskScore.add(row.getTotalRiskScore());
+        }
+        return built;
+    }
+
+    private static Map<CellKey, Sums> sums(Map<CellKey, Cell> cells) {
+        Map<CellKey, Sums> sums = new HashMap<>();
+        cells.forEach((key, cell) -> sums.put(key, new Sums(cell.count.sum(), cell.totalLoanAmount.sum(), cell.totalRiskScore.sum())));
+        return sums;
+    }
+
+    private static boolean matches(PortfolioCell a, PortfolioCell b) {
+        if (a == null || b == null) return a == b;
+        return a.getCount() == b.getCount()
+                && close(a.getTotalLoanAmount(), b.getTotalLoanAmount())
+                && close(a.getMeanRiskScore(), b.getMeanRiskScore());
+    }
+
+    // Adders and SQL SUM add doubles in different orders, so compare with a relative tolerance
+    private static boolean close(double a, double b) {
+        return Math.abs(a - b) <= TOLERANCE * Math.max(1, Math.max(Math.abs(a), Math.abs(b)));
+    }
+
+    private record CellKey(RiskGrade riskGrade, String loanType, TermBucket termBucket) {}
+
+    // A cell's totals read at one moment
+    private record Sums(long count, double totalLoanAmount, double totalRiskScore) {
+        static final Sums EMPTY = new Sums(0, 0, 0);
+
+        PortfolioCell toNonEmptyCell(CellKey key) {
+            if (count == 0) return null;
+            return new PortfolioCell(key.riskGrade(), key.loanType(), key.termBucket(), count, totalLoanAmount, totalRiskScore);
+        }
+    }
+
+    private static final class Cell {
+        final LongAdder count = new LongAdder();
+        final DoubleAdder totalLoanAmount = new DoubleAdder();
+        final DoubleAdder totalRiskScore = new DoubleAdder();
+
+        PortfolioCell toPortfolioCell(CellKey key) {
+            return new PortfolioCell(key.riskGrade(), key.loanType(), key.termBucket(),
+                    count.sum(), totalLoanAmount.sum(), totalRiskScore.sum());
+        }
+    }
+}
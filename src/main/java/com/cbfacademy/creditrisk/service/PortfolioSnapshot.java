@@ -0,0 +1,668 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.dto.SnapshotBucket;
+import com.cbfacademy.creditrisk.dto.SnapshotFilter;
+import com.cbfacademy.creditrisk.dto.SnapshotGroup;
+import com.cbfacademy.creditrisk.dto.SnapshotLoan;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.repository.StreamingReads;
+import com.cbfacademy.creditrisk.service.LoanApplicationChangeDispatcher.LoanState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Off-heap columnar copy of loan_applications for analytics scans (filtered aggregates,
+ * amount histograms, filtered listings) that should not reach the database.
+ *
+ * Loans are held in segments of 65,536 consecutive ids. A segment is one direct buffer, or a
+ * memory-mapped file when creditrisk.portfolio.snapshot.directory is set, with a column each for
+ * borrower id, amount, risk score, term, loan type (dictionary code) and grade code: 31 bytes per
+ * loan. A loan's id is its position in the segments, so updates and deletes need no index; ids are
+ * handed out in blocks (BlockIdGenerator), so segments fill densely. The heap only holds a few
+ * objects per segment and the loan type dictionary.
+ *
+ * Loaded at startup with one JDBC pass, then kept current with the committed LoanApplication
+ * inserts, updates and deletes from LoanApplicationChangeDispatcher, like PortfolioCube. The re-scoring job reports its
+ * JDBC updates through rescore(). Changes made directly in the database are not seen until reload().
+ *
+ * reload() rebuilds the segments in place, one at a time: rows are read in id order into a single
+ * staging segment, which is copied over the live one when the scan moves past it. Extra memory is
+ * one segment, not a second copy of the book. Writes reported while a reload runs are applied as
+ * usual and also kept, then replayed over each segment as it is copied in, so a change committed
+ * after the scan read its row is not lost.
+ *
+ * Aggregates and histograms scan the segments in parallel on the common ForkJoinPool. A segment
+ * is read under an optimistic StampedLock stamp and scanned again under the read lock if a write
+ * got in, so a query never sees half a row; it is not an atomic view across segments.
+ */
+@Component
+public class PortfolioSnapshot implements SmartInitializingSingleton, LoanApplicationChangeDispatcher.Subscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioSnapshot.class);
+
+    static final int SEGMENT_SHIFT = 16;
+    static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    // Column offsets within a segment, widest first so every column is aligned
+    private static final int BORROWER_IDS = 0;
+    private static final int AMOUNTS = BORROWER_IDS + Long.BYTES * SEGMENT_ROWS;
+    private static final int SCORES = AMOUNTS + Double.BYTES * SEGMENT_ROWS;
+    private static final int TERMS = SCORES + Double.BYTES * SEGMENT_ROWS;
+    private static final int LOAN_TYPES = TERMS + Integer.BYTES * SEGMENT_ROWS;
+    private static final int GRADES = LOAN_TYPES + Short.BYTES * SEGMENT_ROWS;
+    static final int SEGMENT_BYTES = GRADES + SEGMENT_ROWS;
+
+    private static final RiskGrade[] GRADE_VALUES = RiskGrade.values();
+    // Grade column: RiskGrade.ordinalCode(), UNGRADED for a loan without a grade, EMPTY for no loan
+    private static final byte EMPTY = -1;
+    private static final byte UNGRADED = (byte) GRADE_VALUES.length;
+    private static final int NULL_TERM = Integer.MIN_VALUE;
+    // Loan type codes are unsigned shorts; code 0 is a loan without a type
+    private static final int MAX_LOAN_TYPES = 1 << 16;
+    private static final int MAX_BUCKETS = 10_000;
+
+    private static final String LOAD_QUERY = "select id, borrower_id, loan_amount, term_months, risk_score, risk_grade, loan_type "
+            + "from loan_applications order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final int fetchSize;
+    private final boolean loadData;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>(); // id >>> SEGMENT_SHIFT -> segment
+    private final Object reloadLock = new Object();
+    private volatile PendingWrites pendingWrites; // Set while a reload runs
+    private final Map<String, Integer> loanTypeCodes = new ConcurrentHashMap<>();
+    private volatile String[] loanTypes = {null};
+
+    public PortfolioSnapshot(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                             @Value("${creditrisk.portfolio.snapshot.directory:}") String directory,
+                             @Value("${creditrisk.portfolio.snapshot.fetch-size:10000}") int fetchSize,
+                             @Value("${creditrisk.startup.load-data:true}") boolean loadData) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.fetchSize = fetchSize;
+        this.loadData = loadData;
+        Gauge.builder("creditrisk.portfolio.snapshot.loans", this, PortfolioSnapshot::loans)
+                .description("Loans in the off-heap portfolio snapshot")
+                .register(meterRegistry);
+        Gauge.builder("creditrisk.portfolio.snapshot.memory", this, PortfolioSnapshot::offHeapBytes)
+                .description("Direct or mapped memory held by the portfolio snapshot's columns")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (loadData) reload();
+    }
+
+    /**
+     * Rebuild the snapshot from the loan table, read in one forward-only pass in id order.
+     * Segments are replaced one at a time, so queries meanwhile see some segments reloaded and
+     * others not yet. Writes reported during the reload are kept; see the class comment.
+     * Segments left without loans keep their memory, as after deletes.
+     */
+    public SnapshotGroup reload() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            PendingWrites pending = new PendingWrites();
+            pendingWrites = pending;
+            try {
+                Segment staging = new Segment(-1, ByteBuffer.allocateDirect(SEGMENT_BYTES));
+                Set<Long> reloaded = new HashSet<>();
+                long[] current = {-1};
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(LOAD_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(StreamingReads.fetchSize(connection, fetchSize));
+                    return statement;
+                }, (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    if (id >>> SEGMENT_SHIFT != current[0]) {
+                        if (current[0] >= 0) install(current[0], staging, pending);
+                        current[0] = id >>> SEGMENT_SHIFT;
+                        reloaded.add(current[0]);
+                    }
+                    Double amount = rs.getObject(3, Double.class);
+                    Integer term = rs.getObject(4, Integer.class);
+                    String grade = rs.getString(6);
+                    staging.put(slot(id), rs.getLong(2), amount == null ? Double.NaN : amount, rs.getDouble(5),
+                            term == null ? NULL_TERM : term, (short) loanTypeCode(rs.getString(7)),
+                            gradeCode(grade == null ? null : RiskGrade.fromCode(grade)));
+                });
+                if (current[0] >= 0) install(current[0], staging, pending);
+                // Segments without rows in the table: only writes reported since the reload started remain
+                for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+                    if (!reloaded.contains(entry.getKey())) install(entry.getKey(), staging, pending);
+                }
+            } finally {
+                pendingWrites = null;
+            }
+            SnapshotGroup total = aggregate(new SnapshotFilter(), null).get(0);
+            log.info("Loaded portfolio snapshot with {} loans ({} MB off-heap) in {} ms", total.getCount(),
+                    offHeapBytes() >> 20, (System.nanoTime() - start) / 1_000_000);
+            return total;
+        }
+    }
+
+    /**
+     * Copy a staged segment over the live one and replay the writes reported for it since the
+     * reload started, under the live segment's write lock. Then empty the staging segment for reuse.
+     */
+    private void install(long number, Segment staged, PendingWrites pending) {
+        Segment live = segmentFor(number);
+        long stamp = live.lock.writeLock();
+        try {
+            live.copyFrom(staged);
+            for (PendingWrite write : pending.take(number)) {
+                write.write().apply(live, write.slot());
+            }
+        } finally {
+            live.lock.unlockWrite(stamp);
+        }
+        staged.clear();
+    }
+
+    /**
+     * Count, total loan amount and mean risk score of the matching loans.
+     * @param groupBy riskGrade, loanType, or null for one total over all matching loans
+     * @throws IllegalArgumentException for an unknown groupBy or risk grade
+     */
+    public List<SnapshotGroup> aggregate(SnapshotFilter filter, String groupBy) {
+        GroupBy by = GroupBy.of(groupBy);
+        Filter compiled = compile(filter);
+        String[] names = loanTypes;
+        Totals totals = scan(compiled, () -> new Totals(by.groups(names)), (result, segment, slot, grade) ->
+                result.add(by.group(segment, slot, grade), segment.amounts.get(slot), segment.scores.get(slot)));
+
+        List<SnapshotGroup> groups = new ArrayList<>();
+        for (int group = 0; group < totals.counts.length; group++) {
+            if (totals.counts[group] == 0 && by != GroupBy.TOTAL) continue;
+            RiskGrade riskGrade = by == GroupBy.RISK_GRADE && group < GRADE_VALUES.length ? GRADE_VALUES[group] : null;
+            String loanType = by == GroupBy.LOAN_TYPE ? names[group] : null;
+            groups.add(new SnapshotGroup(riskGrade, loanType, totals.counts[group], totals.amounts[group], totals.scores[group]));
+        }
+        if (by == GroupBy.LOAN_TYPE) {
+            groups.sort(Comparator.comparing(SnapshotGroup::getLoanType, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return groups;
+    }
+
+    /**
+     * Histogram of the matching loans' amounts in equal-width buckets starting at 0.
+     * The last bucket also takes every larger amount; loans without an amount are left out.
+     * @throws IllegalArgumentException for a bucket width that is not positive or an out-of-range bucket count
+     */
+    public List<SnapshotBucket> amountHistogram(SnapshotFilter filter, double bucketWidth, int buckets) {
+        if (!(bucketWidth > 0) || Double.isInfinite(bucketWidth)) {
+            throw new IllegalArgumentException("bucketWidth must be a positive number");
+        }
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("buckets must be between 1 and " + MAX_BUCKETS);
+        }
+        Filter compiled = compile(filter);
+        int last = buckets - 1;
+        Totals totals = scan(compiled, () -> new Totals(buckets), (result, segment, slot, grade) -> {
+            double amount = segment.amounts.get(slot);
+            if (amount >= 0) result.add((int) Math.min(amount / bucketWidth, last), amount, 0);
+        });
+
+        List<SnapshotBucket> histogram = new ArrayList<>(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            histogram.add(new SnapshotBucket(bucket * bucketWidth, bucket == last ? null : (bucket + 1) * bucketWidth,
+                    totals.counts[bucket], totals.amounts[bucket]));
+        }
+        return histogram;
+    }
+
+    /**
+     * Matching loans in id order, keyset-paginated like GET /api/loans.
+     * Scans forward from the cursor and stops as soon as the page is full, on the calling thread.
+     */
+    public CursorPage<SnapshotLoan> findLoans(SnapshotFilter filter, long after, int limit) {
+        Filter compiled = compile(filter);
+        long from = Math.max(after + 1, 0);
+        List<SnapshotLoan> rows = new ArrayList<>();
+        for (Segment segment : segments.tailMap(from >>> SEGMENT_SHIFT, true).values()) {
+            int first = (int) Math.max(from - segment.firstId, 0);
+            int wanted = limit + 1 - rows.size();
+            rows.addAll(segment.read(s -> {
+                List<SnapshotLoan> found = new ArrayList<>();
+                for (int slot = first, end = s.end; slot < end && found.size() < wanted; slot++) {
+                    byte grade = s.grades.get(slot);
+                    if (grade != EMPTY && compiled.matches(s, slot, grade)) found.add(toLoan(s, slot, grade));
+                }
+                return found;
+            }));
+            if (rows.size() > limit) break;
+        }
+        return CursorPage.of(rows, limit, SnapshotLoan::getId, Function.identity());
+    }
+
+    /**
+     * Record a loan's new score after it was rewritten outside Hibernate
+     * (the re-scoring job's batched JDBC updates). Call only after the change has committed.
+     */
+    public void rescore(long id, double riskScore, RiskGrade riskGrade) {
+        byte grade = gradeCode(riskGrade);
+        write(id, false, (segment, slot) -> segment.rescore(slot, riskScore, grade));
+    }
+
+    public long loans() {
+        long loans = 0;
+        for (Segment segment : segments.values()) {
+            loans += segment.loans;
+        }
+        return loans;
+    }
+
+    public long offHeapBytes() {
+        return (long) segments.size() * SEGMENT_BYTES;
+    }
+
+    @Override
+    public void inserted(long id, LoanState state) {
+        put(id, state);
+    }
+
+    @Override
+    public void updated(long id, LoanState oldState, LoanState state) {
+        put(id, state);
+    }
+
+    @Override
+    public void deleted(long id, LoanState deletedState) {
+        remove(id);
+    }
+
+    private void put(long id, LoanState state) {
+        Long borrowerId = state.borrowerId();
+        put(id, borrowerId == null ? 0 : borrowerId, state.loanAmount(), state.termMonths(),
+                state.riskScore(), state.riskGrade(), state.loanType());
+    }
+
+    void put(long id, long borrowerId, Double loanAmount, Integer termMonths, double riskScore, RiskGrade riskGrade, String loanType) {
+        double amount = loanAmount == null ? Double.NaN : loanAmount;
+        int term = termMonths == null ? NULL_TERM : termMonths;
+        short loanTypeCode = (short) loanTypeCode(loanType);
+        byte grade = gradeCode(riskGrade);
+        write(id, true, (segment, slot) -> segment.put(slot, borrowerId, amount, riskScore, term, loanTypeCode, grade));
+    }
+
+    void remove(long id) {
+        write(id, false, Segment::remove);
+    }
+
+    /**
+     * Apply a write to a loan's slot under its segment's write lock.
+     * While a reload runs, the write is first kept for replay over the reloaded segment; every write
+     * sets absolute values, so applying it twice is harmless.
+     * @param create whether to allocate the segment if it does not exist yet
+     */
+    private void write(long id, boolean create, SlotWrite write) {
+        long number = id >>> SEGMENT_SHIFT;
+        PendingWrites pending = pendingWrites;
+        if (pending != null) pending.add(number, slot(id), write);
+        Segment segment = create ? segmentFor(number) : segments.get(number);
+        if (segment == null) return;
+        long stamp = segment.lock.writeLock();
+        try {
+            write.apply(segment, slot(id));
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    private Segment segmentFor(long number) {
+        Segment segment = segments.get(number);
+        if (segment != null) return segment;
+        // Serialized, so a segment's memory is never allocated twice
+        synchronized (this) {
+            return segments.computeIfAbsent(number, n -> new Segment(n << SEGMENT_SHIFT, allocate()));
+        }
+    }
+
+    private ByteBuffer allocate() {
+        if (directory == null) return ByteBuffer.allocateDirect(SEGMENT_BYTES);
+        try {
+            Files.createDirectories(directory);
+            Path file = Files.createTempFile(directory, "loans-", ".segment");
+            // The mapping outlives the channel; the file is unlinked on close and its space freed on unmap
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot map a portfolio snapshot segment in " + directory, ex);
+        }
+    }
+
+    private int loanTypeCode(String loanType) {
+        if (loanType == null) return 0;
+        Integer code = loanTypeCodes.get(loanType);
+        return code != null ? code : addLoanType(loanType);
+    }
+
+    private synchronized int addLoanType(String loanType) {
+        Integer code = loanTypeCodes.get(loanType);
+        if (code != null) return code;
+        String[] names = loanTypes;
+        if (names.length == MAX_LOAN_TYPES) {
+            throw new IllegalStateException("The portfolio snapshot holds at most " + (MAX_LOAN_TYPES - 1) + " loan types");
+        }
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = loanType;
+        loanTypes = grown; // Published before the code, so readers can always resolve it
+        loanTypeCodes.put(loanType, names.length);
+        return names.length;
+    }
+
+    private SnapshotLoan toLoan(Segment segment, int slot, byte grade) {
+        double amount = segment.amounts.get(slot);
+        int term = segment.terms.get(slot);
+        int loanType = segment.loanTypes.get(slot) & 0xFFFF;
+        String[] names = loanTypes;
+        return new SnapshotLoan(segment.firstId + slot, segment.borrowerIds.get(slot),
+                Double.isNaN(amount) ? null : amount, term == NULL_TERM ? null : term,
+                loanType < names.length ? names[loanType] : null,
+                grade < GRADE_VALUES.length ? GRADE_VALUES[grade] : null, segment.scores.get(slot));
+    }
+
+    private Filter compile(SnapshotFilter filter) {
+        byte grade = filter.getRiskGrade() == null || filter.getRiskGrade().isEmpty()
+                ? Filter.ANY_GRADE : RiskGrade.fromDisplayName(filter.getRiskGrade()).ordinalCode();
+        int loanType = Filter.ANY_LOAN_TYPE;
+        if (filter.getLoanType() != null && !filter.getLoanType().isEmpty()) {
+            loanType = loanTypeCodes.getOrDefault(filter.getLoanType(), Filter.UNKNOWN_LOAN_TYPE);
+        }
+        return new Filter(grade, loanType,
+                filter.getBorrowerId() != null, filter.getBorrowerId() == null ? 0 : filter.getBorrowerId(),
+                filter.getMinAmount() != null || filter.getMaxAmount() != null,
+                lower(filter.getMinAmount()), upper(filter.getMaxAmount()),
+                filter.getMinTermMonths() != null || filter.getMaxTermMonths() != null,
+                filter.getMinTermMonths() == null ? NULL_TERM + 1 : filter.getMinTermMonths(),
+                filter.getMaxTermMonths() == null ? Integer.MAX_VALUE : filter.getMaxTermMonths(),
+                filter.getMinRiskScore() != null || filter.getMaxRiskScore() != null,
+                lower(filter.getMinRiskScore()), upper(filter.getMaxRiskScore()));
+    }
+
+    private Totals scan(Filter filter, Supplier<Totals> newTotals, RowConsumer consumer) {
+        return Arrays.stream(segments.values().toArray(Segment[]::new)).parallel()
+                .map(segment -> segment.read(s -> {
+                    Totals totals = newTotals.get();
+                    for (int slot = 0, end = s.end; slot < end; slot++) {
+                        byte grade = s.grades.get(slot);
+                        if (grade != EMPTY && filter.matches(s, slot, grade)) consumer.accept(totals, s, slot, grade);
+                    }
+                    return totals;
+                }))
+                .reduce(Totals::merge)
+                .orElseGet(newTotals);
+    }
+
+    private static int slot(long id) {
+        return (int) (id & (SEGMENT_ROWS - 1));
+    }
+
+    private static byte gradeCode(RiskGrade riskGrade) {
+        return riskGrade == null ? UNGRADED : riskGrade.ordinalCode();
+    }
+
+    private static double lower(Double bound) {
+        return bound == null ? Double.NEGATIVE_INFINITY : bound;
+    }
+
+    private static double upper(Double bound) {
+        return bound == null ? Double.POSITIVE_INFINITY : bound;
+    }
+
+    private enum GroupBy {
+        TOTAL, RISK_GRADE, LOAN_TYPE;
+
+        int groups(String[] loanTypes) {
+            return switch (this) {
+                case TOTAL -> 1;
+                case RISK_GRADE -> GRADE_VALUES.length + 1;
+                case LOAN_TYPE -> loanTypes.length;
+            };
+        }
+
+        // A switch rather than constant-specific methods, so the call in the scan loop stays inlinable
+        int group(Segment segment, int slot, byte grade) {
+            return switch (this) {
+                case TOTAL -> 0;
+                case RISK_GRADE -> grade;
+                case LOAN_TYPE -> segment.loanTypes.get(slot) & 0xFFFF;
+            };
+        }
+
+        static GroupBy of(String name) {
+            if (name == null || name.isEmpty()) return TOTAL;
+            if (name.equalsIgnoreCase("riskGrade")) return RISK_GRADE;
+            if (name.equalsIgnoreCase("loanType")) return LOAN_TYPE;
+            throw new IllegalArgumentException("Unknown groupBy: " + name + " (use riskGrade or loanType)");
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(Totals totals, Segment segment, int slot, byte grade);
+    }
+
+    @FunctionalInterface
+    private interface SlotWrite {
+        void apply(Segment segment, int slot);
+    }
+
+    private record PendingWrite(int slot, SlotWrite write) {}
+
+    /**
+     * Writes reported while a reload runs, per segment number, in the order they were reported.
+     */
+    private static final class PendingWrites {
+        private final Map<Long, List<PendingWrite>> bySegment = new HashMap<>();
+
+        synchronized void add(long number, int slot, SlotWrite write) {
+            bySegment.computeIfAbsent(number, n -> new ArrayList<>()).add(new PendingWrite(slot, write));
+        }
+
+        // Writes reported after this are applied to the reloaded segment directly
+        synchronized List<PendingWrite> take(long number) {
+            List<PendingWrite> writes = bySegment.remove(number);
+            return writes == null ? List.of() : writes;
+        }
+    }
+
+    /**
+     * Filter with every bound resolved to a primitive; unset bounds are skipped.
+     * An unknown loan type compiles to a code no loan has.
+     */
+    private record Filter(byte riskGrade, int loanType,
+                          boolean byBorrower, long borrowerId,
+                          boolean byAmount, double minAmount, double maxAmount,
+                          boolean byTerm, int minTermMonths, int maxTermMonths,
+                          boolean byScore, double minRiskScore, double maxRiskScore) {
+
+        static final byte ANY_GRADE = -2;
+        static final int ANY_LOAN_TYPE = -1;
+        static final int UNKNOWN_LOAN_TYPE = -2;
+
+        boolean matches(Segment segment, int slot, byte grade) {
+            if (riskGrade != ANY_GRADE && grade != riskGrade) return false;
+            if (loanType != ANY_LOAN_TYPE && (segment.loanTypes.get(slot) & 0xFFFF) != loanType) return false;
+            if (byBorrower && segment.borrowerIds.get(slot) != borrowerId) return false;
+            if (byAmount) {
+                // NaN (no amount) fails both comparisons
+                double amount = segment.amounts.get(slot);
+                if (!(amount >= minAmount && amount < maxAmount)) return false;
+            }
+            if (byTerm) {
+                int term = segment.terms.get(slot);
+                if (term == NULL_TERM || term < minTermMonths || term >= maxTermMonths) return false;
+            }
+            if (byScore) {
+                double score = segment.scores.get(slot);
+                if (!(score >= minRiskScore && score < maxRiskScore)) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Count, amount and score sums per group or bucket, merged across segments.
+     * Loans without an amount count, but add nothing to the amount total.
+     */
+    private static final class Totals {
+        final long[] counts;
+        final double[] amounts;
+        final double[] scores;
+
+        Totals(int groups) {
+            counts = new long[groups];
+            amounts = new double[groups];
+            scores = new double[groups];
+        }
+
+        void add(int group, double amount, double score) {
+            // Groups created after the query started are left out
+            if (group >= counts.length) return;
+            counts[group]++;
+            if (!Double.isNaN(amount)) amounts[group] += amount;
+            scores[group] += score;
+        }
+
+        Totals merge(Totals other) {
+            for (int group = 0; group < counts.length; group++) {
+                counts[group] += other.counts[group];
+                amounts[group] += other.amounts[group];
+                scores[group] += other.scores[group];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * 65,536 consecutive ids' worth of columns in one off-heap buffer.
+     * Writers take the write lock; loans and end are only changed under it.
+     */
+    private static final class Segment {
+        final long firstId;
+        final ByteBuffer memory;
+        final LongBuffer borrowerIds;
+        final DoubleBuffer amounts;
+        final DoubleBuffer scores;
+        final IntBuffer terms;
+        final ShortBuffer loanTypes;
+        final ByteBuffer grades;
+        final StampedLock lock = new StampedLock();
+        int loans;
+        int end; // One past the highest slot ever filled; scans stop there
+
+        Segment(long firstId, ByteBuffer memory) {
+            this.firstId = firstId;
+            this.memory = memory;
+            borrowerIds = column(memory, BORROWER_IDS, AMOUNTS).asLongBuffer();
+            amounts = column(memory, AMOUNTS, SCORES).asDoubleBuffer();
+            scores = column(memory, SCORES, TERMS).asDoubleBuffer();
+            terms = column(memory, TERMS, LOAN_TYPES).asIntBuffer();
+            loanTypes = column(memory, LOAN_TYPES, GRADES).asShortBuffer();
+            grades = column(memory, GRADES, SEGMENT_BYTES);
+            for (int slot = 0; slot < SEGMENT_ROWS; slot++) {
+                grades.put(slot, EMPTY);
+            }
+        }
+
+        void put(int slot, long borrowerId, double amount, double score, int term, short loanType, byte grade) {
+            if (grades.get(slot) == EMPTY) loans++;
+            borrowerIds.put(slot, borrowerId);
+            amounts.put(slot, amount);
+            scores.put(slot, score);
+            terms.put(slot, term);
+            loanTypes.put(slot, loanType);
+            grades.put(slot, grade);
+            end = Math.max(end, slot + 1);
+        }
+
+        void rescore(int slot, double score, byte grade) {
+            if (grades.get(slot) == EMPTY) return;
+            scores.put(slot, score);
+            grades.put(slot, grade);
+        }
+
+        void remove(int slot) {
+            if (grades.get(slot) == EMPTY) return;
+            grades.put(slot, EMPTY);
+            loans--;
+        }
+
+        void copyFrom(Segment other) {
+            memory.put(0, other.memory, 0, SEGMENT_BYTES);
+            loans = other.loans;
+            end = other.end;
+        }
+
+        void clear() {
+            for (int slot = 0; slot < end; slot++) {
+                grades.put(slot, EMPTY);
+            }
+            loans = 0;
+            end = 0;
+        }
+
+        private static ByteBuffer column(ByteBuffer memory, int from, int to) {
+            return memory.slice(from, to - from).order(ByteOrder.nativeOrder());
+        }
+
+        /**
+         * Run a scan of this segment that no write overlapped.
+         * Tries without locking first; only if a write got in is the scan repeated under the read lock.
+         */
+        <R> R read(Function<Segment, R> scan) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                R result = scan.apply(this);
+                if (lock.validate(stamp)) return result;
+            }
+            stamp = lock.readLock();
+            try {
+                return scan.apply(this);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
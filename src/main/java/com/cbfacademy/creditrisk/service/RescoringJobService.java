@@ -0,0 +1,489 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.LoanScoreRow;
+import com.cbfacademy.creditrisk.dto.RescoringJobResponse;
+import com.cbfacademy.creditrisk.exception.ConflictException;
+import com.cbfacademy.creditrisk.exception.ResourceNotFoundException;
+import com.cbfacademy.creditrisk.model.RescoringJob;
+import com.cbfacademy.creditrisk.model.RescoringStatus;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.repository.RescoringJobRepository;
+import com.cbfacademy.creditrisk.scoring.RiskScore;
+import com.cbfacademy.creditrisk.scoring.RiskScoringEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Background job that re-scores existing loans with the current RiskScoringEngine,
+ * e.g. after the risk thresholds changed.
+ *
+ * Loans are read in primary-key chunks as projections. Each chunk is scored in parallel on a
+ * bounded pool, and only the loans whose result changed are written back with one batched
+ * UPDATE per chunk. The checkpoint is committed in the same short transaction, so a job
+ * interrupted by a crash or shutdown resumes after the last committed chunk. Row locks are
+ * held only while one chunk's UPDATEs commit, so live origination is not blocked.
+ * A rejected loan the new rules would approve is checked against its borrower's exposure limit
+ * under the borrower's lock, so a loan rejected for exposure stays rejected.
+ *
+ * Several instances may share the database, so a job is claimed with a conditional UPDATE before
+ * it runs, and the claim (a lease) is renewed with every checkpoint. An instance whose checkpoint
+ * finds the claim gone rolls the chunk back and stops. Only one job can be RUNNING: the unique
+ * "active" column refuses a second one. A job whose owner died is taken over when its lease has
+ * expired, by the next instance to start or by POST /resume.
+ */
+@Service
+public class RescoringJobService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RescoringJobService.class);
+
+    // Guarded by updated_at: a loan edited since its chunk was read was already re-scored by that edit,
+    // and its type, term or amount may have moved it to another portfolio cell
+    private static final String UPDATE_SCORE = "update loan_applications "
+            + "set risk_score = ?, risk_grade = ?, decision = ?, updated_at = ? "
+            + "where id = ? and updated_at = ?";
+    private static final String UPDATE_NEVER_UPDATED_SCORE = "update loan_applications "
+            + "set risk_score = ?, risk_grade = ?, decision = ?, updated_at = ? "
+            + "where id = ? and updated_at is null";
+
+    // Free, or held by an instance that stopped renewing its lease
+    private static final String CLAIM = "update rescoring_jobs "
+            + "set owner = ?, lease_expires_at = ?, active = true, status = 'RUNNING', error = null "
+            + "where id = ? and status <> 'COMPLETED' and (owner is null or lease_expires_at < ?)";
+    private static final String CHECKPOINT = "update rescoring_jobs "
+            + "set last_loan_id = ?, processed = ?, rescored = ?, lease_expires_at = ?, updated_at = ? "
+            + "where id = ? and owner = ?";
+    private static final String COMPLETE = "update rescoring_jobs "
+            + "set status = 'COMPLETED', finished_at = ?, owner = null, lease_expires_at = null, active = null, updated_at = ? "
+            + "where id = ? and owner = ?";
+    private static final String FAIL = "update rescoring_jobs "
+            + "set status = 'FAILED', error = ?, owner = null, lease_expires_at = null, active = null, updated_at = ? "
+            + "where id = ? and owner = ?";
+    private static final String RELEASE = "update rescoring_jobs set owner = null, lease_expires_at = null "
+            + "where owner = ? and status = 'RUNNING'";
+
+    private final LoanApplicationRepository loanRepository;
+    private final RescoringJobRepository jobRepository;
+    private final RiskScoringEngine scoringEngine;
+    private final PortfolioCube portfolioCube;
+    private final PortfolioSnapshot portfolioSnapshot;
+    private final ExposureLedger exposureLedger;
+    private final LoanTableVersion loanTableVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int threads;
+    private final boolean resumeOnStartup;
+    private final Duration lease;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("rescoring-job-"));
+    private final ThreadPoolExecutor scoringPool;
+    private final Map<Long, Throughput> throughput = new ConcurrentHashMap<>();
+    private volatile Long runningJobId;
+    private volatile boolean shuttingDown;
+
+    public RescoringJobService(LoanApplicationRepository loanRepository,
+                               RescoringJobRepository jobRepository,
+                               RiskScoringEngine scoringEngine,
+                               PortfolioCube portfolioCube,
+                               PortfolioSnapshot portfolioSnapshot,
+                               ExposureLedger exposureLedger,
+                               LoanTableVersion loanTableVersion,
+                               TransactionTemplate transactionTemplate,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${creditrisk.rescoring.chunk-size:1000}") int chunkSize,
+                               @Value("${creditrisk.rescoring.threads:0}") int threads,
+                               @Value("${creditrisk.rescoring.resume-on-startup:true}") boolean resumeOnStartup,
+                               @Value("${creditrisk.rescoring.lease-seconds:60}") int leaseSeconds) {
+        if (leaseSeconds < 1) {
+            throw new IllegalArgumentException("creditrisk.rescoring.lease-seconds must be at least 1, was " + leaseSeconds);
+        }
+        this.loanRepository = loanRepository;
+        this.jobRepository = jobRepository;
+        this.scoringEngine = scoringEngine;
+        this.portfolioCube = portfolioCube;
+        this.portfolioSnapshot = portfolioSnapshot;
+        this.exposureLedger = exposureLedger;
+        this.loanTableVersion = loanTableVersion;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.resumeOnStartup = resumeOnStartup;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        // Bounded queue; when full the job thread scores the slice itself
+        this.scoringPool = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.threads * 2), new CustomizableThreadFactory("rescoring-worker-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Resume jobs left RUNNING by a stopped process, unless another instance holds them.
+     * Runs once the application is ready, after the portfolio cube has been built.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!resumeOnStartup) return;
+        for (RescoringJob job : jobRepository.findByStatus(RescoringStatus.RUNNING)) {
+            if (claim(job.getId())) {
+                log.info("Resuming re-scoring job {} after loan {}", job.getId(), job.getLastLoanId());
+                submit(job.getId());
+            } else {
+                log.info("Re-scoring job {} is running in another instance until {}", job.getId(), job.getLeaseExpiresAt());
+            }
+        }
+    }
+
+    /**
+     * Start a new job over every loan that exists now.
+     * @throws ConflictException if a job is already running, here or in another instance
+     */
+    public synchronized RescoringJobResponse start() {
+        if (runningJobId != null || jobRepository.existsByStatus(RescoringStatus.RUNNING)) {
+            throw new ConflictException("A re-scoring job is already running");
+        }
+        RescoringJob job = new RescoringJob();
+        job.setStatus(RescoringStatus.RUNNING);
+        job.setMaxLoanId(loanRepository.findMaxId());
+        job.setTotalLoans(loanRepository.countUpTo(job.getMaxLoanId()));
+        job.setActive(true);
+        job.setOwner(instanceId);
+        job.setLeaseExpiresAt(LocalDateTime.now().plus(lease));
+        try {
+            job = jobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance started one after the check
+            throw new ConflictException("A re-scoring job is already running");
+        }
+        submit(job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * Resume a failed or interrupted job from its last checkpoint.
+     * @throws ConflictException if the job has completed, another job is running, or another
+     *         instance still holds this one
+     */
+    public synchronized RescoringJobResponse resume(Long id) {
+        RescoringJob job = findJob(id);
+        if (id.equals(runningJobId)) return toResponse(job);
+        if (runningJobId != null) throw new ConflictException("Re-scoring job " + runningJobId + " is already running");
+        if (job.getStatus() == RescoringStatus.COMPLETED) throw new ConflictException("Re-scoring job " + id + " has completed");
+        if (!claim(id)) throw new ConflictException("Re-scoring job " + id + " is running in another instance");
+        submit(id);
+        return toResponse(findJob(id));
+    }
+
+    /**
+     * Progress of a job.
+     */
+    public RescoringJobResponse getJob(Long id) {
+        return toResponse(findJob(id));
+    }
+
+    @Override
+    public void destroy() {
+        // Leaves the job RUNNING but unclaimed, so the next instance to start resumes it from the checkpoint
+        shuttingDown = true;
+        jobRunner.shutdownNow();
+        scoringPool.shutdownNow();
+        try {
+            // A chunk still committing after the release fails its checkpoint and rolls back
+            jobRunner.awaitTermination(10, TimeUnit.SECONDS);
+            jdbcTemplate.update(RELEASE, instanceId);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException ex) {
+            log.warn("Could not release re-scoring jobs; they are resumable once their lease expires", ex);
+        }
+    }
+
+    /**
+     * Take a job that no live instance holds.
+     * @return false if another instance holds it or it has completed
+     * @throws ConflictException if a different job is running
+     */
+    private boolean claim(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return jdbcTemplate.update(CLAIM, instanceId, Timestamp.valueOf(now.plus(lease)), jobId, Timestamp.valueOf(now)) == 1;
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException("A re-scoring job is already running");
+        }
+    }
+
+    /**
+     * Commit a chunk's checkpoint and renew the claim, in the chunk's transaction.
+     * @throws ClaimLostException if another instance has taken the job over
+     */
+    private void checkpoint(RescoringJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(CHECKPOINT, job.getLastLoanId(), job.getProcessed(), job.getRescored(),
+                Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), job.getId(), instanceId) == 0) {
+            throw new ClaimLostException();
+        }
+    }
+
+    private synchronized void submit(Long jobId) {
+        runningJobId = jobId;
+        jobRunner.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        Throughput stats = new Throughput();
+        throughput.put(jobId, stats);
+        RescoringJob job = findJob(jobId);
+        try {
+            while (!shuttingDown) {
+                List<LoanScoreRow> rows = loanRepository.findScoreRowsAfter(job.getLastLoanId(), job.getMaxLoanId(), Limit.of(chunkSize));
+                if (rows.isEmpty()) break;
+
+                commitChunk(job, rows, score(rows));
+                stats.processed.addAndGet(rows.size());
+            }
+            if (!shuttingDown) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.update(COMPLETE, now, now, jobId, instanceId);
+                log.info("Re-scoring job {} completed: {} loans processed, {} re-scored", jobId, job.getProcessed(), job.getRescored());
+            }
+        } catch (ClaimLostException ex) {
+            log.warn("Re-scoring job {} was taken over by another instance; stopping", jobId);
+        } catch (RuntimeException ex) {
+            if (shuttingDown) return;
+            // Reload: the in-memory checkpoint may be ahead of the last committed chunk
+            RescoringJob failed = findJob(jobId);
+            log.error("Re-scoring job {} failed after loan {}", jobId, failed.getLastLoanId(), ex);
+            jdbcTemplate.update(FAIL, ex.getMessage(), Timestamp.valueOf(LocalDateTime.now()), jobId, instanceId);
+        } finally {
+            runningJobId = null;
+            stats.stop();
+        }
+    }
+
+    /**
+     * Write a chunk's new results together with its checkpoint, then apply them to the in-memory views.
+     * A rejected loan is only approved if it fits its borrower's exposure limit. As on submission, the
+     * borrowers' locks are held from the check until the ledger has dropped the exposure the commit changed.
+     * @return Rows written
+     */
+    private List<LoanScoreRow> commitChunk(RescoringJob job, List<LoanScoreRow> rows, List<LoanScoreRow> changed) {
+        Set<Long> approving = new HashSet<>();
+        for (LoanScoreRow row : changed) {
+            if (row.isNewApproval()) approving.add(row.getBorrowerId());
+        }
+        List<Lock> locks = exposureLedger.lockAll(approving);
+        try {
+            if (!approving.isEmpty()) exposureLedger.loadAll(approving);
+            List<LoanScoreRow> writes = applyExposureLimits(changed);
+            List<LoanScoreRow> applied = new ArrayList<>(writes.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                applied.addAll(writeScores(writes));
+                // Invalidates cached loan listings once committed
+                if (!applied.isEmpty()) loanTableVersion.bump();
+                job.checkpoint(rows.get(rows.size() - 1).getId(), rows.size(), applied.size());
+                checkpoint(job);
+            });
+            // Committed: move the re-scored loans between portfolio cells, update their snapshot rows
+            // and reload the exposure of borrowers whose approvals changed
+            for (LoanScoreRow row : applied) {
+                portfolioCube.applyRescore(row.getRiskGrade(), row.getRiskScore(), row.getNewRiskGrade(), row.getNewRiskScore(),
+                        row.getLoanType(), row.getTermMonths(), row.getLoanAmount());
+                portfolioSnapshot.rescore(row.getId(), row.getNewRiskScore(), row.getNewRiskGrade());
+                if (row.getDecision() != row.getNewDecision()) exposureLedger.invalidate(row.getBorrowerId());
+            }
+            return applied;
+        } finally {
+            ExposureLedger.unlockAll(locks);
+        }
+    }
+
+    /**
+     * Keep rejected the loans whose approval would take their borrower over the exposure limit,
+     * counting earlier approvals in the same chunk. Caller must hold the borrowers' locks.
+     * @return Rows that still have a new result to write
+     */
+    private List<LoanScoreRow> applyExposureLimits(List<LoanScoreRow> changed) {
+        Map<Long, Double> pending = new HashMap<>();
+        List<LoanScoreRow> writes = new ArrayList<>(changed.size());
+        for (LoanScoreRow row : changed) {
+            if (row.isNewApproval()) {
+                double exposure = pending.getOrDefault(row.getBorrowerId(), 0.0) + row.getLoanAmount();
+                if (exposureLedger.fits(row.getBorrowerId(), exposure)) {
+                    pending.put(row.getBorrowerId(), exposure);
+                } else if (!row.keepRejected()) {
+                    continue; // Only the decision had changed
+                }
+            }
+            writes.add(row);
+        }
+        return writes;
+    }
+
+    /**
+     * Score a chunk in parallel slices, one per worker.
+     * @return Rows whose result changed, in id order
+     */
+    private List<LoanScoreRow> score(List<LoanScoreRow> rows) {
+        int sliceSize = (rows.size() + threads - 1) / threads;
+        List<Future<List<LoanScoreRow>>> slices = new ArrayList<>(threads);
+        for (int from = 0; from < rows.size(); from += sliceSize) {
+            List<LoanScoreRow> slice = rows.subList(from, Math.min(from + sliceSize, rows.size()));
+            slices.add(scoringPool.submit((Callable<List<LoanScoreRow>>) () -> scoreSlice(slice)));
+        }
+        List<LoanScoreRow> changed = new ArrayList<>();
+        try {
+            for (Future<List<LoanScoreRow>> slice : slices) {
+                changed.addAll(slice.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scoring", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Scoring failed", ex.getCause());
+        }
+        return changed;
+    }
+
+    private List<LoanScoreRow> scoreSlice(List<LoanScoreRow> slice) {
+        RiskScore result = new RiskScore();
+        List<LoanScoreRow> changed = new ArrayList<>();
+        for (LoanScoreRow row : slice) {
+            if (row.getLoanAmount() == null) continue; // Cannot be scored
+            scoringEngine.score(row.getLoanAmount(), result);
+            if (row.rescore(result.getScore(), result.getGrade(), result.getDecision())) {
+                changed.add(row);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Write new results as JDBC batches: one for loans updated before, one for loans never updated.
+     * Must run in the chunk's transaction.
+     * @return Rows that were actually updated (not skipped by the updated_at guard), in id order
+     */
+    private List<LoanScoreRow> writeScores(List<LoanScoreRow> rows) {
+        if (rows.isEmpty()) return List.of();
+        // Truncated to the column's precision, so the stamp can be read back and compared
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        List<LoanScoreRow> updatedBefore = new ArrayList<>(rows.size());
+        List<LoanScoreRow> neverUpdated = new ArrayList<>();
+        for (LoanScoreRow row : rows) {
+            (row.getUpdatedAt() != null ? updatedBefore : neverUpdated).add(row);
+        }
+        List<LoanScoreRow> applied = new ArrayList<>(rows.size());
+        List<LoanScoreRow> unknown = new ArrayList<>();
+        writeBatch(UPDATE_SCORE, true, updatedBefore, now, applied, unknown);
+        writeBatch(UPDATE_NEVER_UPDATED_SCORE, false, neverUpdated, now, applied, unknown);
+        if (!unknown.isEmpty()) {
+            // Rows this transaction updated carry its stamp; a loan skipped by the guard carries its edit's
+            String in = String.join(", ", Collections.nCopies(unknown.size(), "?"));
+            List<Object> args = new ArrayList<>(unknown.size() + 1);
+            args.add(now);
+            unknown.forEach(row -> args.add(row.getId()));
+            List<Long> written = jdbcTemplate.queryForList("select id from loan_applications where updated_at = ? and id in (" + in + ")",
+                    Long.class, args.toArray());
+            for (LoanScoreRow row : unknown) {
+                if (written.contains(row.getId())) applied.add(row);
+            }
+        }
+        applied.sort(Comparator.comparing(LoanScoreRow::getId));
+        return applied;
+    }
+
+    /**
+     * Run one guarded UPDATE batch and sort its rows by the reported counts.
+     * Rewritten batches may report SUCCESS_NO_INFO instead of a row count; those rows go to unknown.
+     */
+    private void writeBatch(String sql, boolean guardedByStamp, List<LoanScoreRow> rows, Timestamp now,
+                            List<LoanScoreRow> applied, List<LoanScoreRow> unknown) {
+        if (rows.isEmpty()) return;
+        int[][] counts = jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+            ps.setDouble(1, row.getNewRiskScore());
+            ps.setString(2, String.valueOf(row.getNewRiskGrade().getCode()));
+            ps.setString(3, String.valueOf(row.getNewDecision().getCode()));
+            ps.setTimestamp(4, now);
+            ps.setLong(5, row.getId());
+            if (guardedByStamp) ps.setTimestamp(6, Timestamp.valueOf(row.getUpdatedAt()));
+        });
+        for (int i = 0; i < rows.size(); i++) {
+            int count = counts[0][i];
+            if (count == Statement.SUCCESS_NO_INFO) {
+                unknown.add(rows.get(i));
+            } else if (count > 0) {
+                applied.add(rows.get(i));
+            }
+        }
+    }
+
+    private RescoringJob findJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Re-scoring job not found"));
+    }
+
+    private RescoringJobResponse toResponse(RescoringJob job) {
+        Throughput stats = throughput.get(job.getId());
+        return new RescoringJobResponse(job, stats == null ? 0 : stats.rowsPerSecond());
+    }
+
+    // The job's claim passed to another instance; the chunk is rolled back and this instance stops
+    private static final class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super("Re-scoring job claim lost");
+        }
+    }
+
+    // Rows processed by the current run in this process, for rowsPerSecond
+    private static final class Throughput {
+        final AtomicLong processed = new AtomicLong();
+        final long startNanos = System.nanoTime();
+        volatile long stopNanos;
+
+        void stop() {
+            stopNanos = System.nanoTime();
+        }
+
+        double rowsPerSecond() {
+            long end = stopNanos != 0 ? stopNanos : System.nanoTime();
+            double seconds = (end - startNanos) / 1e9;
+            return seconds <= 0 ? 0 : processed.get() / seconds;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.service.LoanApplicationChangeDispatcher.LoanState;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds RiskScoreSketches with the score of every committed new or updated loan.
+ *
+ * Recorded from LoanApplicationChangeDispatcher's committed changes, like LoanOutcomeMetrics, so
+ * single, batch, bulk-import and update submissions are counted once they have committed, and a
+ * rejected request or a rolled-back chunk never is. The approval is the decision as stored, so a loan
+ * rejected by the exposure limit counts as rejected. Re-scoring job updates (JDBC) are not counted.
+ */
+@Component
+public class RiskScoreSketchRecorder implements LoanApplicationChangeDispatcher.Subscriber {
+
+    private final RiskScoreSketches riskScoreSketches;
+
+    public RiskScoreSketchRecorder(RiskScoreSketches riskScoreSketches) {
+        this.riskScoreSketches = riskScoreSketches;
+    }
+
+    @Override
+    public void inserted(long id, LoanState state) {
+        record(state);
+    }
+
+    @Override
+    public void updated(long id, LoanState oldState, LoanState state) {
+        record(state);
+    }
+
+    private void record(LoanState state) {
+        if (state.riskGrade() != null) {
+            riskScoreSketches.record(state.riskScore(), state.riskGrade(), state.loanType(), state.decision() == Decision.APPROVE);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.ScoreDistribution;
+import com.cbfacademy.creditrisk.dto.ScoreDistributionReport;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming risk-score distributions for model monitoring: p10/p50/p90 and approval rate of the
+ * loans scored recently, per grade and loan type, without reading the loan table.
+ *
+ * Every score is recorded in an HDR histogram for its grade and loan type. Scores are kept in
+ * tenths of a point to 2 significant digits, so a percentile is within 1% of the exact one.
+ * Histograms of the same shape merge by adding counts, which is what makes the windows and shards
+ * below cheap to combine.
+ *
+ * Time is cut into slices (creditrisk.scoring.sketches.slice-seconds) and the last
+ * creditrisk.scoring.sketches.slices of them are kept, in a ring indexed by slice number.
+ * Recording threads write to one of a power-of-two number of shards (about two per CPU), picked by
+ * thread id, so concurrent requests rarely wait for one another. A shard holds the histograms of the
+ * slice it last wrote to and seals them into the ring when it first writes to a later slice.
+ *
+ * A query merges the ring slices within its window and every shard's open slice. Its cost depends
+ * on the number of slices, shards, grades and loan types, never on the number of loans scored.
+ * Loan types beyond creditrisk.scoring.sketches.max-loan-types are counted with the loans that have no
+ * type, which keeps memory bounded whatever clients send.
+ */
+@Component
+public class RiskScoreSketches {
+
+    // Scores in tenths of a point (0 - 1,000); 2 significant digits keep each bucket within 1% of its values
+    private static final double SCALE = 10;
+    private static final long MAX_VALUE = 100 * (long) SCALE;
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final RiskGrade[] GRADES = RiskGrade.values();
+
+    private final Clock clock;
+    private final long sliceMillis;
+    private final int maxLoanTypes;
+    private final Shard[] shards;
+    private final Slice[] ring; // slice number % slices -> sealed slice
+    private final Map<String, Integer> loanTypeCodes = new ConcurrentHashMap<>();
+    private volatile String[] loanTypes = {null}; // Code 0 is a loan without a type
+
+    @Autowired
+    public RiskScoreSketches(@Value("${creditrisk.scoring.sketches.slice-seconds:60}") int sliceSeconds,
+                             @Value("${creditrisk.scoring.sketches.slices:60}") int slices,
+                             @Value("${creditrisk.scoring.sketches.max-loan-types:50}") int maxLoanTypes) {
+        this(sliceSeconds, slices, maxLoanTypes, 2 * Runtime.getRuntime().availableProcessors(), Clock.systemDefaultZone());
+    }
+
+    RiskScoreSketches(int sliceSeconds, int slices, int maxLoanTypes, int shards, Clock clock) {
+        if (sliceSeconds < 1 || slices < 1) {
+            throw new IllegalArgumentException("Score sketches need at least one slice of at least one second");
+        }
+        this.clock = clock;
+        this.sliceMillis = sliceSeconds * 1000L;
+        this.maxLoanTypes = maxLoanTypes;
+        // Rounded up to a power of two, so a thread's shard is a mask of its id
+        this.shards = new Shard[Integer.highestOneBit(Math.max(1, shards - 1)) << 1];
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard();
+        }
+        this.ring = new Slice[slices];
+        for (int i = 0; i < slices; i++) {
+            ring[i] = new Slice();
+        }
+    }
+
+    /**
+     * Record one scored loan.
+     * @param riskScore Score between 0 and 100; values outside are clamped
+     * @param riskGrade Grade the score was given
+     * @param loanType Loan type, or null
+     * @param approved Whether scoring approved the loan
+     */
+    public void record(double riskScore, RiskGrade riskGrade, String loanType, boolean approved) {
+        int key = loanTypeCode(loanType) * GRADES.length + riskGrade.ordinal();
+        long value = Math.max(0, Math.min(MAX_VALUE, Math.round(riskScore * SCALE)));
+        long slice = clock.millis() / sliceMillis;
+        Shard shard = shards[(int) Thread.currentThread().getId() & (shards.length - 1)];
+        synchronized (shard) {
+            if (shard.slice != slice) {
+                seal(shard);
+                shard.slice = slice;
+            }
+            Cell cell = shard.cell(key);
+            cell.scores.recordValue(value);
+            if (approved) cell.approvals++;
+        }
+    }
+
+    /**
+     * Score distributions of the loans scored within a window ending now.
+     * The window is rounded up to whole slices and capped at the retained ones.
+     * @param window How far back to look, or null for every retained slice
+     */
+    public ScoreDistributionReport report(Duration window) {
+        if (window != null && (window.isZero() || window.isNegative())) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        long now = clock.millis();
+        long current = now / sliceMillis;
+        long slices = window == null ? ring.length
+                : Math.min(ring.length, Math.max(1, (window.toMillis() + sliceMillis - 1) / sliceMillis));
+        long first = current - slices + 1;
+
+        String[] names = loanTypes;
+        Cell[] merged = new Cell[names.length * GRADES.length];
+        for (Slice slice : ring) {
+            synchronized (slice) {
+                if (slice.number >= first && slice.number <= current) mergeInto(merged, slice.cells);
+            }
+        }
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                if (shard.slice >= first && shard.slice <= current) mergeInto(merged, shard.cells);
+            }
+        }
+
+        Cell overall = new Cell(mergeHistogram());
+        Cell[] byGrade = new Cell[GRADES.length];
+        Cell[] byLoanType = new Cell[names.length];
+        List<ScoreDistribution> byGradeAndLoanType = new ArrayList<>();
+        for (int key = 0; key < merged.length; key++) {
+            Cell cell = merged[key];
+            if (cell == null || cell.scores.getTotalCount() == 0) continue;
+            int grade = key % GRADES.length;
+            int loanType = key / GRADES.length;
+            overall.add(cell);
+            if (byGrade[grade] == null) byGrade[grade] = new Cell(mergeHistogram());
+            byGrade[grade].add(cell);
+            if (byLoanType[loanType] == null) byLoanType[loanType] = new Cell(mergeHistogram());
+            byLoanType[loanType].add(cell);
+            byGradeAndLoanType.add(distribution(GRADES[grade], names[loanType], cell));
+        }
+
+        List<ScoreDistribution> grades = new ArrayList<>();
+        for (int grade = 0; grade < byGrade.length; grade++) {
+            if (byGrade[grade] != null) grades.add(distribution(GRADES[grade], null, byGrade[grade]));
+        }
+        List<ScoreDistribution> types = new ArrayList<>();
+        for (int loanType = 0; loanType < byLoanType.length; loanType++) {
+            if (byLoanType[loanType] != null) types.add(distribution(null, names[loanType], byLoanType[loanType]));
+        }
+        Comparator<ScoreDistribution> byName =
+                Comparator.comparing(ScoreDistribution::getLoanType, Comparator.nullsLast(Comparator.naturalOrder()));
+        types.sort(byName);
+        byGradeAndLoanType.sort(Comparator.comparing(ScoreDistribution::getRiskGrade).thenComparing(byName));
+
+        return new ScoreDistributionReport(toLocalDateTime(first * sliceMillis), toLocalDateTime(now),
+                distribution(null, null, overall), grades, types, byGradeAndLoanType);
+    }
+
+    /**
+     * Move a shard's histograms into the ring slot of their slice, and clear them for reuse.
+     * If the ring has already moved past that slice, it is older than every window and is dropped.
+     */
+    private void seal(Shard shard) {
+        if (!shard.recorded) return;
+        Slice slice = ring[(int) Math.floorMod(shard.slice, (long) ring.length)];
+        synchronized (slice) {
+            if (slice.number < shard.slice) {
+                slice.reset(shard.slice);
+            }
+            if (slice.number == shard.slice) {
+                mergeInto(slice, shard.cells);
+            }
+        }
+        for (Cell cell : shard.cells) {
+            if (cell != null) cell.reset();
+        }
+        shard.recorded = false;
+    }
+
+    private static void mergeInto(Slice slice, Cell[] cells) {
+        if (slice.cells.length < cells.length) {
+            slice.cells = Arrays.copyOf(slice.cells, cells.length);
+        }
+        for (int key = 0; key < cells.length; key++) {
+            Cell cell = cells[key];
+            if (cell == null || cell.scores.getTotalCount() == 0) continue;
+            if (slice.cells[key] == null) slice.cells[key] = new Cell(sketchHistogram());
+            slice.cells[key].add(cell);
+        }
+    }
+
+    private static void mergeInto(Cell[] merged, Cell[] cells) {
+        // Loan types added after the query read the dictionary are left out of it
+        for (int key = 0; key < Math.min(merged.length, cells.length); key++) {
+            Cell cell = cells[key];
+            if (cell == null || cell.scores.getTotalCount() == 0) continue;
+            if (merged[key] == null) merged[key] = new Cell(mergeHistogram());
+            merged[key].add(cell);
+        }
+    }
+
+    private static ScoreDistribution distribution(RiskGrade riskGrade, String loanType, Cell cell) {
+        long count = cell.scores.getTotalCount();
+        if (count == 0) {
+            return new ScoreDistribution(riskGrade, loanType, 0, null, null, null, null);
+        }
+        return new ScoreDistribution(riskGrade, loanType, count, (double) cell.approvals / count,
+                percentile(cell, 10), percentile(cell, 50), percentile(cell, 90));
+    }
+
+    private static double percentile(Cell cell, double percentile) {
+        return cell.scores.getValueAtPercentile(percentile) / SCALE;
+    }
+
+    private LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
+    }
+
+    private int loanTypeCode(String loanType) {
+        if (loanType == null) return 0;
+        Integer code = loanTypeCodes.get(loanType);
+        return code != null ? code : addLoanType(loanType);
+    }
+
+    private synchronized int addLoanType(String loanType) {
+        Integer code = loanTypeCodes.get(loanType);
+        if (code != null) return code;
+        String[] names = loanTypes;
+        if (names.length > maxLoanTypes) return 0;
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = loanType;
+        loanTypes = grown; // Published before the code, so queries can always name it
+        loanTypeCodes.put(loanType, names.length);
+        return names.length;
+    }
+
+    // Int counts hold 2 billion loans per cell; recording histograms are 2 KB each
+    private static AbstractHistogram sketchHistogram() {
+        return new IntCountsHistogram(MAX_VALUE, SIGNIFICANT_DIGITS);
+    }
+
+    private static AbstractHistogram mergeHistogram() {
+        return new Histogram(MAX_VALUE, SIGNIFICANT_DIGITS);
+    }
+
+    /** Scores and approvals of one grade and loan type. */
+    private static final class Cell {
+        final AbstractHistogram scores;
+        long approvals;
+
+        Cell(AbstractHistogram scores) {
+            this.scores = scores;
+        }
+
+        void add(Cell other) {
+            scores.add(other.scores);
+            approvals += other.approvals;
+        }
+
+        void reset() {
+            scores.reset();
+            approvals = 0;
+        }
+    }
+
+    /** Histograms of the open slice, written by the threads mapped to this shard. Guarded by itself. */
+    private static final class Shard {
+        long slice = Long.MIN_VALUE;
+        boolean recorded;
+        Cell[] cells = new Cell[0]; // loan type code * grades + grade -> cell
+
+        Cell cell(int key) {
+            if (key >= cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(key + 1, 2 * cells.length));
+            }
+            if (cells[key] == null) cells[key] = new Cell(sketchHistogram());
+            recorded = true;
+            return cells[key];
+        }
+    }
+
+    /** Sealed histograms of one slice in the ring. Guarded by itself. */
+    private static final class Slice {
+        long number = Long.MIN_VALUE;
+        Cell[] cells = new Cell[0];
+
+        void reset(long number) {
+            this.number = number;
+            for (Cell cell : cells) {
+                if (cell != null) cell.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+-- MySQL schema for the prod profile, which does not create or update tables (ddl-auto=none).
+-- Matches the JPA entities; regenerate it from them when an entity changes.
+-- Safe to run again: every table is created only if it does not exist yet. Tables that already
+-- exist are left as they are, so this does not upgrade an older database (see README, Database Persistence).
+
+create table if not exists borrowers (
+    id bigint not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    dob date,
+    ssn_nin varchar(255),
+    employment_status varchar(255),
+    annual_income float(53),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    index idx_borrower_created_at (created_at),
+    index idx_borrower_updated_at (updated_at)
+) engine=InnoDB;
+
+create table if not exists loan_applications (
+    id bigint not null,
+    borrower_id bigint not null,
+    loan_amount float(53),
+    term_months integer,
+    loan_type varchar(255),
+    risk_score float(53) not null,
+    risk_grade char(1),
+    decision char(1),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    index idx_loan_risk_grade (risk_grade),
+    index idx_loan_risk_grade_created_at (risk_grade, created_at),
+    constraint fk_loan_applications_borrower foreign key (borrower_id) references borrowers (id)
+) engine=InnoDB;
+
+create table if not exists rescoring_jobs (
+    id bigint not null,
+    status enum ('COMPLETED','FAILED','RUNNING') not null,
+    max_loan_id bigint not null,
+    last_loan_id bigint not null,
+    total_loans bigint not null,
+    processed bigint not null,
+    rescored bigint not null,
+    finished_at datetime(6),
+    error varchar(1000),
+    owner varchar(64),
+    lease_expires_at datetime(6),
+    active bit,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_rescoring_jobs_active unique (active)
+) engine=InnoDB;
+
+create table if not exists loan_table_versions (
+    slot integer not null,
+    version bigint not null,
+    primary key (slot)
+) engine=InnoDB;
+
+-- Id blocks (BlockIdGenerator): one row each, moved past the highest id on startup (IdBlockAligner)
+create table if not exists borrowers_seq (
+    next_val bigint
+) engine=InnoDB;
+
+create table if not exists loan_applications_seq (
+    next_val bigint
+) engine=InnoDB;
+
+create table if not exists rescoring_jobs_seq (
+    next_val bigint
+) engine=InnoDB;
@@ -0,0 +1,175 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.BorrowerRequest;
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for the reactive profile: /api/loans and /api/borrowers on WebFlux,
+ * with R2DBC reads and JPA writes against the same database.
+ * Checks the responses match the servlet stack's contract, including the binary encodings.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-api;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-api;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa"
+})
+@ActiveProfiles("reactive")
+public class ReactiveApiTest {
+
+    @Autowired private WebTestClient webTestClient;
+
+    @Test
+    void borrowerEndpoints() {
+        BorrowerResponse created = createBorrower("Reactor");
+
+        webTestClient.get().uri("/api/borrowers/{id}", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.lastName").isEqualTo("Reactor")
+                .jsonPath("$.dob").isEqualTo("1985-03-14");
+        webTestClient.get().uri("/api/borrowers/search?lastName=eacto").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isEqualTo(created.getId());
+        webTestClient.get().uri("/api/borrowers?after={after}&limit=1", created.getId() - 1).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(created.getId())
+                .jsonPath("$.limit").isEqualTo(1);
+
+        webTestClient.put().uri("/api/borrowers/{id}", created.getId())
+                .bodyValue(borrowerRequest("Renamed")).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.lastName").isEqualTo("Renamed");
+        // The update evicted the cached borrower, so this read comes from R2DBC
+        webTestClient.get().uri("/api/borrowers/{id}", created.getId()).exchange()
+                .expectBody().jsonPath("$.lastName").isEqualTo("Renamed");
+
+        webTestClient.delete().uri("/api/borrowers/{id}", created.getId()).exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/borrowers/{id}", created.getId()).exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody(String.class).isEqualTo("Borrower not found");
+    }
+
+    @Test
+    void loanEndpoints() {
+        BorrowerResponse borrower = createBorrower("Loaner");
+        LoanApplicationResponse low = createLoan(borrower.getId(), 20000.0);
+        LoanApplicationResponse high = createLoan(borrower.getId(), 800000.0);
+        assertEquals("Low", low.getRiskGrade());
+        assertEquals("High", high.getRiskGrade());
+
+        webTestClient.get().uri("/api/loans/{id}", low.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.borrowerId").isEqualTo(borrower.getId())
+                .jsonPath("$.riskGrade").isEqualTo("Low")
+                .jsonPath("$.decision").isEqualTo("Approve")
+                .jsonPath("$.riskScore").isEqualTo(98.0);
+        webTestClient.get().uri("/api/loans?riskGrade=high&after={after}", low.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(high.getId())
+                .jsonPath("$.nextCursor").doesNotExist();
+        webTestClient.get().uri("/api/loans?riskGrade=Severe").exchange()
+                .expectStatus().isBadRequest();
+
+        List<LoanApplicationResponse> exported = webTestClient.get().uri("/api/loans/export?riskGrade=Low")
+                .accept(MediaType.parseMediaType("application/x-ndjson")).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+                .returnResult(LoanApplicationResponse.class)
+                .getResponseBody().collectList().block();
+        assertEquals(List.of(low.getId()), exported.stream().map(LoanApplicationResponse::getId).toList());
+
+        webTestClient.put().uri("/api/loans/{id}", low.getId())
+                .bodyValue(loanRequest(borrower.getId(), 30000.0)).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.loanAmount").isEqualTo(30000.0);
+        webTestClient.post().uri("/api/loans/batch")
+                .bodyValue(List.of(loanRequest(borrower.getId(), 1000.0), loanRequest(-1L, 1000.0))).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].loan.loanAmount").isEqualTo(1000.0)
+                .jsonPath("$.results[1].error").isEqualTo("Borrower not found");
+
+        webTestClient.delete().uri("/api/loans/{id}", low.getId()).exchange().expectStatus().isOk();
+        webTestClient.get().uri("/api/loans/{id}", low.getId()).exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody(String.class).isEqualTo("Loan not found");
+    }
+
+    @Test
+    void binaryEncodings() throws Exception {
+        BorrowerResponse borrower = createBorrower("Binary");
+        LoanApplicationResponse loan = createLoan(borrower.getId(), 800000.0);
+
+        byte[] cbor = webTestClient.get().uri("/api/loans/{id}", loan.getId())
+                .accept(MediaType.APPLICATION_CBOR).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody().returnResult().getResponseBody();
+        assertEquals(loan.getLoanAmount(), new CBORMapper().readValue(cbor, LoanApplicationResponse.class).getLoanAmount());
+
+        SmileMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+        byte[] smile = webTestClient.get().uri("/api/borrowers/{id}", borrower.getId())
+                .accept(MediaType.parseMediaType("application/x-jackson-smile")).exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        assertEquals("1985-03-14", smileMapper.readTree(smile).get("dob").asText());
+
+        byte[] export = webTestClient.get().uri("/api/loans/export?riskGrade=High")
+                .accept(MediaType.parseMediaType("application/stream+x-jackson-smile")).exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody();
+        List<LoanApplicationResponse> exported = smileMapper.readerFor(LoanApplicationResponse.class)
+                .<LoanApplicationResponse>readValues(export).readAll();
+        assertTrue(exported.stream().anyMatch(exportedLoan -> exportedLoan.getId().equals(loan.getId())));
+    }
+
+    private BorrowerResponse createBorrower(String lastName) {
+        return webTestClient.post().uri("/api/borrowers").bodyValue(borrowerRequest(lastName)).exchange()
+                .expectStatus().isOk()
+                .expectBody(BorrowerResponse.class).returnResult().getResponseBody();
+    }
+
+    private LoanApplicationResponse createLoan(Long borrowerId, double amount) {
+        return webTestClient.post().uri("/api/loans").bodyValue(loanRequest(borrowerId, amount)).exchange()
+                .expectStatus().isOk()
+                .expectBody(LoanApplicationResponse.class).returnResult().getResponseBody();
+    }
+
+    private static BorrowerRequest borrowerRequest(String lastName) {
+        BorrowerRequest request = new BorrowerRequest();
+        request.setFirstName("Rea");
+        request.setLastName(lastName);
+        request.setDob(LocalDate.of(1985, 3, 14));
+        request.setEmploymentStatus("Employed");
+        request.setAnnualIncome(64000.0);
+        return request;
+    }
+
+    private static LoanApplicationRequest loanRequest(Long borrowerId, double amount) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(amount);
+        request.setTermMonths(36);
+        request.setLoanType("Personal");
+        return request;
+    }
+}
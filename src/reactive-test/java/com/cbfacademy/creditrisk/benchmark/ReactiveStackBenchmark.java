@@ -0,0 +1,394 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the servlet and reactive stacks with 10k partner connections polling loan status
+ * (GET /api/loans/{id}), the traffic the reactive profile is for.
+ *
+ * Each stack runs in its own JVM on the test classpath, against an in-memory H2 database seeded
+ * through the API, so client and server each have their own file-descriptor limit. Every simulated
+ * partner holds one keep-alive connection and polls one loan on it every POLL_INTERVAL. All
+ * connections are driven by one NIO selector, so the client needs no thread per connection either.
+ * Connections are opened over the ramp-up, then latency, throughput, errors (connect failures,
+ * timeouts, non-200 answers) and the server's peak thread count are measured.
+ * A connection the server closes between polls is reopened and counted as a reconnect.
+ * Both stacks run with default server settings (Tomcat: 200 threads, 8192 connections).
+ * The offered rate (CONNECTIONS / POLL_INTERVAL) is kept below what one CPU serves, so the
+ * comparison is about holding connections, not raw throughput.
+ * Run with: mvn -P bench test -Dtest=ReactiveStackBenchmark
+ */
+@Tag("benchmark")
+class ReactiveStackBenchmark {
+
+    private static final int CONNECTIONS = 10_000;
+    private static final int LOANS = 1_000;
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(60);
+    private static final Duration RAMP_UP = Duration.ofSeconds(60);
+    private static final Duration MEASURE = Duration.ofSeconds(120);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String MAIN_CLASS = "com.cbfacademy.creditrisk.CreditRiskApplication";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir Path tempDir;
+
+    @Test
+    void statusPollingAt10kConnections() throws Exception {
+        Result servlet = run("servlet", List.of());
+        Result reactive = run("reactive", List.of("--spring.profiles.active=reactive"));
+
+        System.out.printf("%-9s %10s %9s %9s %9s %9s %8s %11s %13s%n", "stack", "connected", "req/s",
+                "p50 ms", "p99 ms", "max ms", "errors", "reconnects", "peak threads");
+        for (Result result : List.of(servlet, reactive)) {
+            System.out.printf("%-9s %10d %9.0f %9.1f %9.1f %9.1f %8d %11d %13.0f%n", result.stack, result.connected,
+                    result.throughput, result.p50 / 1e6, result.p99 / 1e6, result.max / 1e6, result.errors,
+                    result.reconnects, result.peakThreads);
+        }
+        assertEquals(CONNECTIONS, reactive.connected, "Reactive stack did not hold every connection");
+        assertEquals(0, reactive.errors, "Reactive stack failed polls");
+        assertTrue(reactive.peakThreads < servlet.peakThreads, "Reactive stack used as many threads as the servlet stack");
+    }
+
+    private Result run(String stack, List<String> appArgs) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        String base = "http://127.0.0.1:" + port;
+        Process server = launch(stack, port, appArgs);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            awaitStartup(client, server, base, stack);
+            Pollers pollers = new Pollers(new InetSocketAddress("127.0.0.1", port), seed(client, base));
+            pollers.run();
+            JsonNode threads = get(client, base + "/actuator/metrics/jvm.threads.peak");
+            return pollers.result(stack, threads.get("measurements").get(0).get("value").asDouble());
+        } finally {
+            server.destroy();
+            if (!server.waitFor(60, TimeUnit.SECONDS)) server.destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * CONNECTIONS keep-alive HTTP/1.1 connections on one selector. Each sends its next poll
+     * POLL_INTERVAL after the previous one was sent, or straight away if the answer came later than that.
+     */
+    private static class Pollers {
+        private final InetSocketAddress address;
+        private final long[] loanIds;
+        private final Poller[] pollers = new Poller[CONNECTIONS];
+        // Idle pollers by next poll time
+        private final PriorityQueue<Poller> due = new PriorityQueue<>((a, b) -> Long.compare(a.nextPoll, b.nextPoll));
+        private final long[] latencies = new long[1_000_000];
+        private int recorded;
+        private long errors;
+        private long reconnects;
+        private int connected;
+        private long measureStart;
+        private long measureEnd;
+
+        Pollers(InetSocketAddress address, long[] loanIds) {
+            this.address = address;
+            this.loanIds = loanIds;
+        }
+
+        void run() throws IOException {
+            try (Selector selector = Selector.open()) {
+                long start = System.nanoTime();
+                long spacing = RAMP_UP.toNanos() / CONNECTIONS;
+                measureStart = start + RAMP_UP.toNanos();
+                measureEnd = measureStart + MEASURE.toNanos();
+                int opened = 0;
+                long nextTimeoutScan = start;
+                long now = start;
+                while (now < measureEnd) {
+                    while (opened < CONNECTIONS && now >= start + opened * spacing) {
+                        pollers[opened] = new Poller();
+                        open(selector, pollers[opened++], now);
+                    }
+                    while (!due.isEmpty() && due.peek().nextPoll <= now) {
+                        Poller poller = due.poll();
+                        if (poller.closed) open(selector, poller, now);
+                        else send(selector, poller, now);
+                    }
+                    selector.select(1);
+                    now = System.nanoTime();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        Poller poller = (Poller) key.attachment();
+                        if (key.isValid() && key.isConnectable()) finishConnect(selector, poller, now);
+                        else if (key.isValid() && key.isReadable()) read(selector, poller, now);
+                    }
+                    selector.selectedKeys().clear();
+                    if (now >= nextTimeoutScan) {
+                        if (now >= measureStart && connected == 0) connected = countConnected();
+                        for (int i = 0; i < opened; i++) expire(selector, pollers[i], now);
+                        nextTimeoutScan = now + TimeUnit.SECONDS.toNanos(1);
+                    }
+                }
+                for (Poller poller : pollers) {
+                    if (poller != null) poller.close();
+                }
+            }
+        }
+
+        /**
+         * Open a new connection; the first poll goes out as soon as it is connected.
+         */
+        private void open(Selector selector, Poller poller, long now) throws IOException {
+            poller.channel = SocketChannel.open();
+            poller.channel.configureBlocking(false);
+            poller.closed = false;
+            poller.connectStarted = now;
+            poller.sentAt = 0;
+            poller.in.clear();
+            try {
+                if (poller.channel.connect(address)) {
+                    finishConnect(selector, poller, now);
+                } else {
+                    poller.channel.register(selector, SelectionKey.OP_CONNECT, poller);
+                }
+            } catch (IOException ex) {
+                fail(selector, poller, now);
+            }
+        }
+
+        private void finishConnect(Selector selector, Poller poller, long now) throws IOException {
+            try {
+                poller.channel.finishConnect();
+                poller.connectStarted = 0;
+                poller.channel.register(selector, SelectionKey.OP_READ, poller);
+            } catch (IOException ex) {
+                fail(selector, poller, now);
+                return;
+            }
+            send(selector, poller, now);
+        }
+
+        private void send(Selector selector, Poller poller, long now) throws IOException {
+            long loanId = loanIds[ThreadLocalRandom.current().nextInt(loanIds.length)];
+            ByteBuffer request = ByteBuffer.wrap(("GET /api/loans/" + loanId + " HTTP/1.1\r\nHost: "
+                    + address.getHostString() + "\r\nAccept: application/json\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            poller.sentAt = now;
+            try {
+                poller.channel.write(request);
+            } catch (IOException ex) {
+                // Closed by the server while idle: poll again on a new connection
+                reconnects++;
+                poller.close();
+                open(selector, poller, now);
+                return;
+            }
+            if (request.hasRemaining()) fail(selector, poller, now);
+        }
+
+        private void read(Selector selector, Poller poller, long now) throws IOException {
+            int read;
+            try {
+                read = poller.channel.read(poller.in);
+            } catch (IOException ex) {
+                read = -1;
+            }
+            if (read < 0) {
+                if (poller.sentAt != 0) {
+                    fail(selector, poller, now);
+                } else {
+                    // Closed by the server while idle; reopened when the next poll is due
+                    reconnects++;
+                    poller.close();
+                }
+                return;
+            }
+            Response response = Response.parse(poller.in);
+            if (response == null) return;
+            if (now >= measureStart && now < measureEnd) {
+                if (response.status != 200) errors++;
+                else if (recorded < latencies.length) latencies[recorded++] = now - poller.sentAt;
+            }
+            poller.in.clear();
+            poller.nextPoll = Math.max(poller.sentAt + POLL_INTERVAL.toNanos(), now);
+            poller.sentAt = 0;
+            if (response.close) {
+                reconnects++;
+                poller.close();
+            }
+            due.add(poller);
+        }
+
+        /**
+         * Fail a poll that got no answer, or a connect that did not complete, within TIMEOUT.
+         */
+        private void expire(Selector selector, Poller poller, long now) throws IOException {
+            long started = poller.connectStarted != 0 ? poller.connectStarted : poller.sentAt;
+            if (started != 0 && now - started > TIMEOUT.toNanos()) fail(selector, poller, now);
+        }
+
+        private void fail(Selector selector, Poller poller, long now) throws IOException {
+            if (now >= measureStart) errors++;
+            poller.close();
+            open(selector, poller, now);
+        }
+
+        private int countConnected() {
+            int count = 0;
+            for (Poller poller : pollers) {
+                if (poller != null && poller.channel.isConnected()) count++;
+            }
+            return count;
+        }
+
+        Result result(String stack, double peakThreads) {
+            long[] sorted = Arrays.copyOf(latencies, recorded);
+            Arrays.sort(sorted);
+            return new Result(stack, connected, recorded / (MEASURE.toNanos() / 1e9),
+                    recorded == 0 ? 0 : sorted[recorded / 2],
+                    recorded == 0 ? 0 : sorted[(int) (recorded * 0.99)],
+                    recorded == 0 ? 0 : sorted[recorded - 1],
+                    errors, reconnects, peakThreads);
+        }
+    }
+
+    private static final class Poller {
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+        SocketChannel channel;
+        boolean closed;
+        long connectStarted;
+        long sentAt;
+        long nextPoll;
+
+        void close() throws IOException {
+            closed = true;
+            connectStarted = 0;
+            sentAt = 0;
+            channel.close();
+        }
+    }
+
+    /**
+     * Just enough HTTP/1.1 response parsing for the poll answers:
+     * status, Content-Length or chunked body, Connection: close.
+     */
+    private record Response(int status, boolean close) {
+
+        /**
+         * @return the response once it is complete in the buffer, else null
+         */
+        static Response parse(ByteBuffer buffer) {
+            String received = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII);
+            int headerEnd = received.indexOf("\r\n\r\n");
+            if (headerEnd < 0) return null;
+            String headers = received.substring(0, headerEnd).toLowerCase(Locale.ROOT);
+            int bodyStart = headerEnd + 4;
+            int contentLength = headers.indexOf("content-length:");
+            if (contentLength >= 0) {
+                int lineEnd = headers.indexOf("\r\n", contentLength);
+                String value = headers.substring(contentLength + 15, lineEnd < 0 ? headers.length() : lineEnd).trim();
+                if (received.length() < bodyStart + Integer.parseInt(value)) return null;
+            } else if (headers.contains("transfer-encoding: chunked")) {
+                if (!received.endsWith("\r\n0\r\n\r\n") && !received.startsWith("0\r\n\r\n", bodyStart)) return null;
+            }
+            return new Response(Integer.parseInt(headers.substring(9, 12)), headers.contains("connection: close"));
+        }
+    }
+
+    private record Result(String stack, int connected, double throughput, long p50, long p99, long max,
+                          long errors, long reconnects, double peakThreads) {}
+
+    private long[] seed(HttpClient client, String base) throws Exception {
+        JsonNode borrower = post(client, base + "/api/borrowers", Map.of("firstName", "Poll", "lastName", "Status",
+                "dob", "1980-01-01", "employmentStatus", "Employed", "annualIncome", 90000.0));
+        List<Map<String, Object>> loans = new ArrayList<>(LOANS);
+        for (int i = 0; i < LOANS; i++) {
+            loans.add(Map.of("borrowerId", borrower.get("id").asLong(), "loanAmount", 100.0 + i,
+                    "termMonths", 12, "loanType", "Personal"));
+        }
+        JsonNode batch = post(client, base + "/api/loans/batch", loans);
+        long[] ids = new long[LOANS];
+        for (int i = 0; i < LOANS; i++) {
+            ids[i] = batch.get("results").get(i).get("loan").get("id").asLong();
+        }
+        return ids;
+    }
+
+    private JsonNode post(HttpClient client, String url, Object body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), url + ": " + response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private JsonNode get(HttpClient client, String url) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), url + ": " + response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private void awaitStartup(HttpClient client, Process server, String base, String stack) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(base + "/actuator/health")).build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            assertTrue(server.isAlive(), "Server exited, see " + tempDir.resolve(stack + ".log"));
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError(stack + " server did not start, see " + tempDir.resolve(stack + ".log"));
+    }
+
+    private Process launch(String stack, int port, List<String> appArgs) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx1g",
+                "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"),
+                MAIN_CLASS,
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:" + stack + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + stack + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.devtools.livereload.enabled=false",
+                "--logging.level.root=WARN"));
+        command.addAll(appArgs);
+        File log = tempDir.resolve(stack + ".log").toFile();
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+    }
+}
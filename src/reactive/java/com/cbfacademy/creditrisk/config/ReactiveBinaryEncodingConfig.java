@@ -0,0 +1,64 @@
+package com.cbfacademy.creditrisk.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+import static com.cbfacademy.creditrisk.config.BinaryEncodingConfig.SMILE_VALUE;
+
+/**
+ * BinaryEncodingConfig's Smile and CBOR encodings on the reactive stack, as WebFlux codecs.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBinaryEncodingConfig {
+
+    /**
+     * Smile replaces WebFlux's default Smile codec. CBOR has no default Jackson codec, so it is
+     * a custom codec; those are consulted before the defaults, so the JSON encoder is registered
+     * ahead of it to stay the choice for a wildcard Accept header and for client requests without a type.
+     */
+    @Bean
+    CodecCustomizer binaryEncodingCodecCustomizer(ObjectMapper objectMapper,
+                                                  Jackson2ObjectMapperBuilder smileBuilder,
+                                                  Jackson2ObjectMapperBuilder cborBuilder) {
+        ObjectMapper smileMapper = smileBuilder.factory(new SmileFactory()).build();
+        ObjectMapper cborMapper = cborBuilder.factory(new CBORFactory()).build();
+        // Without explicit mime types these codecs would claim the JSON ones
+        MimeType[] smile = {MimeType.valueOf(SMILE_VALUE), MimeType.valueOf("application/*+x-jackson-smile")};
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, smile));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, smile));
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR) {
+                // Spring's CBOR encoder only encodes single values and rejects every publisher,
+                // so encode element by element: a Mono body is then one CBOR value
+                @Override
+                public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                               ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+                    return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+                }
+            });
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.cbfacademy.creditrisk.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive stack, active when spring.main.web-application-type=reactive (the reactive profile).
+ * Only built by the reactive Maven profile, which adds WebFlux, Netty and the R2DBC drivers.
+ * Reads go through R2DBC and never block an event-loop thread. Writes are handed to the
+ * JPA services on a bounded worker pool, so scoring, exposure locks, caches and the
+ * post-commit listeners behave exactly as on the servlet stack.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Netty, not Tomcat: a reactive build still serves the servlet stack when the reactive profile is off,
+     * so Tomcat is on its classpath too and would be picked first.
+     * Netty serves thousands of open connections on one event-loop thread per CPU.
+     */
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * R2DBC client over its own connection pool, configured by the standard spring.r2dbc.* properties.
+     * The pool is not exposed as a ConnectionFactory bean: DataSourceAutoConfiguration backs off
+     * when one exists, and JPA still needs its DataSource. R2dbcAutoConfiguration is excluded
+     * in application.properties for the same reason.
+     */
+    @Bean
+    DatabaseClient reactiveDatabaseClient(R2dbcProperties properties) {
+        ConnectionFactoryBuilder connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        if (properties.getUsername() != null) connectionFactory = connectionFactory.username(properties.getUsername());
+        if (properties.getPassword() != null) connectionFactory = connectionFactory.password(properties.getPassword());
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration.builder(connectionFactory.build())
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .acquireRetry(pool.getAcquireRetry());
+        if (pool.getMaxAcquireTime() != null) configuration.maxAcquireTime(pool.getMaxAcquireTime());
+        if (pool.getValidationQuery() != null) configuration.validationQuery(pool.getValidationQuery());
+        return DatabaseClient.create(new ConnectionPool(configuration.build()));
+    }
+
+    @Bean
+    DisposableBean reactiveConnectionPoolShutdown(DatabaseClient reactiveDatabaseClient) {
+        return ((ConnectionPool) reactiveDatabaseClient.getConnectionFactory())::dispose;
+    }
+
+    /**
+     * Threads that run the blocking JPA writes. Sized like the Hikari pool by default:
+     * more threads would only queue for a JDBC connection.
+     */
+    @Bean(destroyMethod = "dispose")
+    Scheduler jpaScheduler(@Value("${creditrisk.reactive.jpa-threads:10}") int threads) {
+        return Schedulers.newBoundedElastic(threads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "jpa");
+    }
+}
@@ -0,0 +1,112 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.dto.BorrowerRequest;
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.repository.ReactiveBorrowerRepository;
+import com.cbfacademy.creditrisk.service.BorrowerNameIndex;
+import com.cbfacademy.creditrisk.service.BorrowerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Reactive variant of BorrowerController, serving the same /api/borrowers contract on WebFlux.
+ * Reads use the borrower cache and name index in memory and R2DBC for the rest.
+ * Writes run BorrowerService on the JPA worker threads, which keeps the cache and index in step.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/borrowers")
+public class ReactiveBorrowerController {
+
+    private final ReactiveBorrowerRepository reactiveRepository;
+    private final BorrowerService borrowerService;
+    private final BorrowerNameIndex nameIndex;
+    private final Cache borrowerCache;
+    private final Scheduler jpaScheduler;
+    private final int maxPageSize;
+
+    public ReactiveBorrowerController(ReactiveBorrowerRepository reactiveRepository,
+                                      BorrowerService borrowerService,
+                                      BorrowerNameIndex nameIndex,
+                                      CacheManager cacheManager,
+                                      Scheduler jpaScheduler,
+                                      @Value("${creditrisk.pagination.max-limit:1000}") int maxPageSize) {
+        this.reactiveRepository = reactiveRepository;
+        this.borrowerService = borrowerService;
+        this.nameIndex = nameIndex;
+        this.borrowerCache = cacheManager.getCache(BorrowerService.BORROWER_CACHE);
+        this.jpaScheduler = jpaScheduler;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @PostMapping
+    public Mono<BorrowerResponse> createBorrower(@RequestBody BorrowerRequest request) {
+        return blocking(() -> BorrowerController.mapToResponse(
+                borrowerService.createBorrower(BorrowerController.mapToEntity(request))));
+    }
+
+    /**
+     * Search Borrowers by partial last name (case-insensitive), e.g. ?lastName=smi.
+     */
+    @GetMapping("/search")
+    public Mono<List<BorrowerResponse>> searchBorrowers(@RequestParam String lastName,
+                                                        @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        long[] ids = nameIndex.search(lastName, Math.max(1, Math.min(limit, maxPageSize)));
+        if (ids.length == 0) return Mono.just(List.of());
+        return reactiveRepository.findResponsesByIdIn(Arrays.stream(ids).boxed().toList()).collectList();
+    }
+
+    /**
+     * Retrieve a Borrower by ID, through the same borrower cache as BorrowerService.findBorrower.
+     */
+    @GetMapping("/{id}")
+    public Mono<BorrowerResponse> getBorrower(@PathVariable Long id) {
+        BorrowerResponse cached = borrowerCache == null ? null : borrowerCache.get(id, BorrowerResponse.class);
+        if (cached != null) return Mono.just(cached);
+        return reactiveRepository.findResponseById(id)
+                .doOnNext(borrower -> {
+                    if (borrowerCache != null) borrowerCache.put(id, borrower);
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Borrower not found")));
+    }
+
+    /**
+     * Retrieve all Borrowers. Keyset-paginated as on the servlet stack.
+     */
+    @GetMapping
+    public Mono<CursorPage<BorrowerResponse>> getAllBorrowers(@RequestParam(defaultValue = "0") long after,
+                                                              @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        return reactiveRepository.findResponsePageAfter(after, pageSize + 1)
+                .collectList()
+                .map(borrowers -> CursorPage.of(borrowers, pageSize, BorrowerResponse::getId, Function.identity()));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<BorrowerResponse> updateBorrower(@PathVariable Long id, @RequestBody BorrowerRequest request) {
+        return blocking(() -> borrowerService.updateBorrower(id, BorrowerController.mapToEntity(request)));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteBorrower(@PathVariable Long id) {
+        return blocking(() -> {
+            borrowerService.deleteBorrower(id);
+            return null;
+        }).then();
+    }
+
+    private <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(jpaScheduler);
+    }
+}
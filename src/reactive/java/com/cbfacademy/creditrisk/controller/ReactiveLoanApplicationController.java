@@ -0,0 +1,116 @@
+package com.cbfacademy.creditrisk.controller;
+
+import com.cbfacademy.creditrisk.config.BinaryEncodingConfig;
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.dto.LoanBatchResponse;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.repository.ReactiveLoanApplicationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Reactive variant of LoanApplicationController, serving the same /api/loans contract on WebFlux.
+ * Reads are non-blocking R2DBC queries. Writes run the same LoanSubmissions and
+ * LoanApplicationService code as the servlet stack, on the JPA worker threads.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/loans")
+public class ReactiveLoanApplicationController {
+
+    private final ReactiveLoanApplicationRepository reactiveRepository;
+    private final LoanSubmissions submissions;
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final Scheduler jpaScheduler;
+    private final int maxPageSize;
+
+    public ReactiveLoanApplicationController(ReactiveLoanApplicationRepository reactiveRepository,
+                                             LoanSubmissions submissions,
+                                             LoanApplicationRepository loanApplicationRepository,
+                                             Scheduler jpaScheduler,
+                                             @Value("${creditrisk.pagination.max-limit:1000}") int maxPageSize) {
+        this.reactiveRepository = reactiveRepository;
+        this.submissions = submissions;
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.jpaScheduler = jpaScheduler;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @PostMapping
+    public Mono<LoanApplicationResponse> createLoan(@RequestBody LoanApplicationRequest request) {
+        return blocking(() -> submissions.create(request));
+    }
+
+    @PostMapping("/batch")
+    public Mono<LoanBatchResponse> createLoans(@RequestBody List<LoanApplicationRequest> requests) {
+        return blocking(() -> submissions.createBatch(requests));
+    }
+
+    /**
+     * Retrieve a single LoanApplication by its ID: the status poll.
+     */
+    @GetMapping("/{id}")
+    public Mono<LoanApplicationResponse> getLoanById(@PathVariable Long id) {
+        return reactiveRepository.findResponseById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Loan not found")));
+    }
+
+    /**
+     * Retrieve loans, optionally filtered by risk grade. Keyset-paginated as on the servlet stack.
+     */
+    @GetMapping
+    public Mono<CursorPage<LoanApplicationResponse>> getLoans(@RequestParam(required = false) String riskGrade,
+                                                              @RequestParam(defaultValue = "0") long after,
+                                                              @RequestParam(defaultValue = "${creditrisk.pagination.default-limit:100}") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        RiskGrade grade = riskGrade == null || riskGrade.isEmpty() ? null : RiskGrade.fromDisplayName(riskGrade);
+        return reactiveRepository.findResponsePageAfter(grade, after, pageSize + 1)
+                .collectList()
+                .map(loans -> CursorPage.of(loans, pageSize, LoanApplicationResponse::getId, Function.identity()));
+    }
+
+    /**
+     * Export loans as newline-delimited JSON, or as concatenated Smile values.
+     * Rows are pulled from the database only as fast as the client reads the response.
+     */
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", BinaryEncodingConfig.SMILE_STREAM_VALUE})
+    public Flux<LoanApplicationResponse> exportLoans(
+            @RequestParam(required = false) String riskGrade,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        // Validate the filter before the response starts streaming
+        RiskGrade grade = riskGrade == null || riskGrade.isEmpty() ? null : RiskGrade.fromDisplayName(riskGrade);
+        return reactiveRepository.streamForExport(grade, createdFrom, createdTo);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<LoanApplicationResponse> updateLoan(@PathVariable Long id, @RequestBody LoanApplicationRequest request) {
+        return blocking(() -> submissions.update(id, request));
+    }
+
+    // Through JPA, so the post-commit listeners see the deleted loan
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteLoan(@PathVariable Long id) {
+        return blocking(() -> {
+            loanApplicationRepository.deleteById(id);
+            return null;
+        }).then();
+    }
+
+    private <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(jpaScheduler);
+    }
+}
@@ -0,0 +1,64 @@
+package com.cbfacademy.creditrisk.repository;
+
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Non-blocking borrower reads for the reactive stack, over R2DBC.
+ * Same queries as the BorrowerRepository projections, selecting straight into the response DTO.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBorrowerRepository {
+
+    private static final String RESPONSE_PROJECTION = "select id, first_name, last_name, dob, employment_status, "
+            + "annual_income from borrowers ";
+
+    private final DatabaseClient client;
+
+    public ReactiveBorrowerRepository(DatabaseClient reactiveDatabaseClient) {
+        this.client = reactiveDatabaseClient;
+    }
+
+    public Mono<BorrowerResponse> findResponseById(long id) {
+        return client.sql(RESPONSE_PROJECTION + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveBorrowerRepository::toResponse)
+                .one();
+    }
+
+    // Keyset pagination: seek past the last seen id instead of using OFFSET
+    public Flux<BorrowerResponse> findResponsePageAfter(long afterId, int limit) {
+        return client.sql(RESPONSE_PROJECTION + "where id > :afterId order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveBorrowerRepository::toResponse)
+                .all();
+    }
+
+    // Rows for ids already resolved by the in-memory name index
+    public Flux<BorrowerResponse> findResponsesByIdIn(Collection<Long> ids) {
+        return client.sql(RESPONSE_PROJECTION + "where id in (:ids) order by id")
+                .bind("ids", ids)
+                .map(ReactiveBorrowerRepository::toResponse)
+                .all();
+    }
+
+    private static BorrowerResponse toResponse(Readable row) {
+        return new BorrowerResponse(
+                row.get("id", Long.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("dob", LocalDate.class),
+                row.get("employment_status", String.class),
+                row.get("annual_income", Double.class));
+    }
+}
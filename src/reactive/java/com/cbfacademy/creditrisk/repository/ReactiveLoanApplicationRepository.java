@@ -0,0 +1,93 @@
+package com.cbfacademy.creditrisk.repository;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking loan reads for the reactive stack, over R2DBC.
+ * Same queries as the LoanApplicationRepository projections, selecting straight into the response DTO.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLoanApplicationRepository {
+
+    private static final String RESPONSE_PROJECTION = "select id, borrower_id, loan_amount, term_months, loan_type, "
+            + "risk_grade, decision, risk_score from loan_applications ";
+
+    private final DatabaseClient client;
+    private final int exportFetchSize;
+
+    public ReactiveLoanApplicationRepository(DatabaseClient reactiveDatabaseClient,
+                                             @Value("${creditrisk.loans.export.fetch-size:1000}") int exportFetchSize) {
+        this.client = reactiveDatabaseClient;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    public Mono<LoanApplicationResponse> findResponseById(long id) {
+        return client.sql(RESPONSE_PROJECTION + "where id = :id")
+                .bind("id", id)
+                .map(ReactiveLoanApplicationRepository::toResponse)
+                .one();
+    }
+
+    /**
+     * One keyset page, seeking past afterId, optionally filtered by risk grade.
+     */
+    public Flux<LoanApplicationResponse> findResponsePageAfter(RiskGrade riskGrade, long afterId, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = riskGrade == null
+                ? client.sql(RESPONSE_PROJECTION + "where id > :afterId order by id limit :limit")
+                : client.sql(RESPONSE_PROJECTION + "where risk_grade = :riskGrade and id > :afterId order by id limit :limit")
+                        .bind("riskGrade", String.valueOf(riskGrade.getCode()));
+        return spec.bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveLoanApplicationRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * Every loan matching the filters, in id order. Rows are read as the subscriber requests them,
+     * so a slow client holds back the query instead of filling memory.
+     * @param riskGrade Optional risk grade filter (null for all)
+     * @param createdFrom Optional inclusive lower bound on createdAt
+     * @param createdTo Optional exclusive upper bound on createdAt
+     */
+    public Flux<LoanApplicationResponse> streamForExport(RiskGrade riskGrade, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        StringBuilder sql = new StringBuilder(RESPONSE_PROJECTION).append("where 1 = 1");
+        if (riskGrade != null) sql.append(" and risk_grade = :riskGrade");
+        if (createdFrom != null) sql.append(" and created_at >= :createdFrom");
+        if (createdTo != null) sql.append(" and created_at < :createdTo");
+        sql.append(" order by id");
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString())
+                .filter((statement, next) -> next.execute(statement.fetchSize(exportFetchSize)));
+        if (riskGrade != null) spec = spec.bind("riskGrade", String.valueOf(riskGrade.getCode()));
+        if (createdFrom != null) spec = spec.bind("createdFrom", createdFrom);
+        if (createdTo != null) spec = spec.bind("createdTo", createdTo);
+        return spec.map(ReactiveLoanApplicationRepository::toResponse).all();
+    }
+
+    private static LoanApplicationResponse toResponse(Readable row) {
+        String riskGrade = row.get("risk_grade", String.class);
+        String decision = row.get("decision", String.class);
+        Double riskScore = row.get("risk_score", Double.class);
+        return new LoanApplicationResponse(
+                row.get("id", Long.class),
+                row.get("borrower_id", Long.class),
+                row.get("loan_amount", Double.class),
+                row.get("term_months", Integer.class),
+                row.get("loan_type", String.class),
+                riskGrade == null ? null : RiskGrade.fromCode(riskGrade),
+                decision == null ? null : Decision.fromCode(decision),
+                riskScore == null ? 0 : riskScore);
+    }
+}
@@ -0,0 +1,127 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.BorrowerRequest;
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for the Smile and CBOR encodings of the loan and borrower endpoints.
+ * Checks they carry the same DTOs as the JSON responses, with the same date format.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BinaryEncodingTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    // Plain mappers on the client side, as a consumer would use them
+    private final SmileMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+    private final CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void borrower_SmileRequestAndResponse_ShouldMatchJson() throws Exception {
+        byte[] created = mockMvc.perform(post("/api/borrowers")
+                        .contentType(SMILE).accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(borrowerRequest())))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        BorrowerResponse borrower = smileMapper.readValue(created, BorrowerResponse.class);
+        assertEquals(LocalDate.of(1982, 11, 30), borrower.getDob());
+
+        // Dates are ISO strings, as in JSON, not timestamp arrays
+        assertEquals("1982-11-30", smileMapper.readTree(created).get("dob").asText());
+        String json = mockMvc.perform(get("/api/borrowers/{id}", borrower.getId()))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readTree(json), smileMapper.readTree(created));
+    }
+
+    @Test
+    void loans_CborListAndSmileExport_ShouldCarryTheSameLoans() throws Exception {
+        BorrowerResponse borrower = objectMapper.readValue(mockMvc.perform(post("/api/borrowers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(borrowerRequest())))
+                .andReturn().getResponse().getContentAsString(), BorrowerResponse.class);
+        for (double amount : new double[]{20000.0, 30000.0, 40000.0}) {
+            mockMvc.perform(post("/api/loans")
+                            .contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR)
+                            .content(cborMapper.writeValueAsBytes(loanRequest(borrower.getId(), amount))))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        }
+
+        byte[] page = mockMvc.perform(get("/api/loans").param("limit", "2").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        CursorPage<LoanApplicationResponse> loans = cborMapper.readValue(page, new TypeReference<>() {});
+        assertEquals(List.of(20000.0, 30000.0), loans.getItems().stream().map(LoanApplicationResponse::getLoanAmount).toList());
+        assertEquals("Low", loans.getItems().get(0).getRiskGrade());
+        assertEquals(loans.getItems().get(1).getId(), loans.getNextCursor());
+        String json = mockMvc.perform(get("/api/loans").param("limit", "2")).andReturn().getResponse().getContentAsString();
+        assertTrue(page.length < json.length(), "CBOR page is not smaller than JSON");
+
+        MvcResult started = mockMvc.perform(get("/api/loans/export")
+                        .accept(MediaType.parseMediaType("application/stream+x-jackson-smile")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] export = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/stream+x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<LoanApplicationResponse> exported = smileMapper.readerFor(LoanApplicationResponse.class)
+                .<LoanApplicationResponse>readValues(export).readAll();
+        assertEquals(List.of(20000.0, 30000.0, 40000.0), exported.stream().map(LoanApplicationResponse::getLoanAmount).toList());
+    }
+
+    private static BorrowerRequest borrowerRequest() {
+        BorrowerRequest request = new BorrowerRequest();
+        request.setFirstName("Bina");
+        request.setLastName("Encoder");
+        request.setDob(LocalDate.of(1982, 11, 30));
+        request.setEmploymentStatus("Employed");
+        request.setAnnualIncome(72000.0);
+        return request;
+    }
+
+    private static LoanApplicationRequest loanRequest(Long borrowerId, double amount) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(amount);
+        request.setTermMonths(36);
+        request.setLoanType("Personal");
+        return request;
+    }
+}
@@ -0,0 +1,129 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.BorrowerRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for the borrower lookup cache.
+ * Checks cache hits, eviction on update and delete, and that creating a loan
+ * for a cached borrower does not load the borrower entity.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BorrowerCacheTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Borrower borrower;
+
+    @BeforeEach
+    void setUp() {
+        borrower = new Borrower();
+        borrower.setFirstName("Ada");
+        borrower.setLastName("Cachewell");
+        borrower.setDob(LocalDate.of(1980, 1, 15));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(64000.0);
+        borrower = borrowerRepository.save(borrower);
+    }
+
+    @Test
+    void getBorrower_Twice_ShouldHitCache() throws Exception {
+        double hitsBefore = cacheGets("hit");
+
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+
+        assertEquals(hitsBefore + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void updateBorrower_ShouldEvictCachedEntry() throws Exception {
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId()))
+                .andExpect(jsonPath("$.lastName").value("Cachewell"));
+
+        BorrowerRequest request = new BorrowerRequest();
+        request.setFirstName("Ada");
+        request.setLastName("Renamed");
+        request.setDob(borrower.getDob());
+        request.setEmploymentStatus("Employed");
+        request.setAnnualIncome(64000.0);
+        mockMvc.perform(put("/api/borrowers/{id}", borrower.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId()))
+                .andExpect(jsonPath("$.lastName").value("Renamed"));
+    }
+
+    @Test
+    void deleteBorrower_ShouldEvictCachedEntry() throws Exception {
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(borrower.getId()))))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void createLoan_CachedBorrower_ShouldNotLoadBorrowerEntity() throws Exception {
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            mockMvc.perform(post("/api/loans")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loanRequest(borrower.getId()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.borrowerId").value(borrower.getId()));
+
+            assertEquals(0, statistics.getEntityStatistics(Borrower.class.getName()).getLoadCount());
+            assertEquals(0, statistics.getEntityStatistics(Borrower.class.getName()).getFetchCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "borrowers").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static LoanApplicationRequest loanRequest(Long borrowerId) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(25000.0);
+        request.setTermMonths(24);
+        request.setLoanType("Personal");
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cbfacademy.creditrisk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for borrower error responses.
+ * Checks that invalid borrowers are refused with 400, unknown borrowers give 404,
+ * and deleting an unknown borrower still succeeds.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BorrowerErrorResponseTest {
+
+    private static final long UNKNOWN_ID = 987_654_321L;
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    void createBorrower_Invalid_ShouldBeBadRequest() throws Exception {
+        mockMvc.perform(post("/api/borrowers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\": \"No\", \"lastName\": \"Dob\", \"annualIncome\": 40000}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Date of birth is required"));
+        mockMvc.perform(post("/api/borrowers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\": \"Negative\", \"lastName\": \"Income\", \"dob\": \"1985-03-01\", \"annualIncome\": -1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Annual income cannot be negative"));
+    }
+
+    @Test
+    void unknownBorrower_ShouldBeNotFound() throws Exception {
+        mockMvc.perform(get("/api/borrowers/{id}", UNKNOWN_ID))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/borrowers/{id}", UNKNOWN_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\": \"Nobody\", \"lastName\": \"Here\", \"dob\": \"1985-03-01\", \"annualIncome\": 40000}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/borrowers/{id}", UNKNOWN_ID))
+                .andExpect(status().isOk());
+    }
+}
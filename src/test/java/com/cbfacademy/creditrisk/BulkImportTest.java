@@ -0,0 +1,132 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.ImportReport;
+import com.cbfacademy.creditrisk.importer.BorrowerCsvImporter;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for POST /api/import/borrowers.
+ * Imports a small CSV with valid and invalid lines and checks the report,
+ * the returned rejects, the scored loans and the search index. Text too long for its column is
+ * rejected with the line, and a chunk that fails to commit must reject only its failing line.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BulkImportTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private BorrowerCsvImporter importer;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importBorrowers_ShouldImportValidLinesAndRejectInvalidOnes() throws Exception {
+        String csv = String.join("\n",
+                "firstName,lastName,dob,employmentStatus,annualIncome,loanAmount,termMonths,loanType",
+                "Ada,Importwell,1980-01-15,Employed,64000,20000,24,Personal",
+                "Bo,\"Importwell, Jr\",1991-06-30,Self-Employed,51000.50,600000,60,Mortgage",
+                "Cy,Importwell,1975-03-09,Employed,83000,,,",
+                "Di,Importwell,1988-02-02,Employed,-5,10000,12,Personal",
+                "Ed,Importwell,1988-02-30,Employed,40000,10000,12,Personal",
+                "Fay,Importwell,1988-02-02,Employed,40000,,12,Personal",
+                "too,few,columns",
+                "");
+
+        String body = mockMvc.perform(post("/api/import/borrowers").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode report = objectMapper.readTree(body);
+
+        assertEquals(7, report.get("linesRead").asLong());
+        assertEquals(3, report.get("borrowersImported").asLong());
+        assertEquals(2, report.get("loansImported").asLong());
+        assertEquals(4, report.get("rejected").asLong());
+
+        assertTrue(report.get("rejectFile").isNull());
+        JsonNode rejects = report.get("rejects");
+        assertEquals(4, rejects.size());
+        assertEquals(5, rejects.get(0).get("line").asLong());
+        assertEquals("Annual income cannot be negative", rejects.get(0).get("reason").asText());
+        assertEquals("Di,Importwell,1988-02-02,Employed,-5,10000,12,Personal", rejects.get(0).get("record").asText());
+        assertEquals(6, rejects.get(1).get("line").asLong());
+        assertEquals("Loan amount is required", rejects.get(2).get("reason").asText());
+        assertEquals("Expected 8 columns but found 3", rejects.get(3).get("reason").asText());
+        assertEquals("too,few,columns", rejects.get(3).get("record").asText());
+
+        mockMvc.perform(get("/api/borrowers/search").param("lastName", "importwell"))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[1].lastName").value("Importwell, Jr"))
+                .andExpect(jsonPath("$[1].annualIncome").value(51000.50));
+
+        assertTrue(loanRepository.findAll().stream()
+                .anyMatch(l -> "Mortgage".equals(l.getLoanType()) && "High".equals(l.getRiskGrade().getDisplayName())));
+    }
+
+    @Test
+    void importCsv_TextLongerThanItsColumn_ShouldRejectTheLine(@TempDir Path tempDir) throws Exception {
+        String tooLong = "x".repeat(300);
+        String csv = String.join("\n",
+                "Gus,Longname,1980-01-15,Employed,64000,20000,24,Personal",
+                tooLong + ",Longname,1981-01-15,Employed,64000,,,",
+                "");
+        Path rejectFile = tempDir.resolve("rejects.csv");
+
+        ImportReport report = importer.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), rejectFile);
+
+        assertEquals(1, report.getBorrowersImported());
+        assertEquals(1, report.getRejected());
+        List<String> rejects = Files.readAllLines(rejectFile);
+        assertEquals(2, rejects.size());
+        assertEquals("2,\"firstName must be at most 255 characters\"," + tooLong + ",Longname,1981-01-15,Employed,64000,,,", rejects.get(1));
+    }
+
+    @Test
+    void importCsv_ChunkFailsToCommit_ShouldRejectOnlyTheFailingLine(@TempDir Path tempDir) throws Exception {
+        // A constraint the importer does not validate, so line 2 fails only when its chunk commits
+        jdbcTemplate.execute("alter table borrowers add constraint chk_rowfail check (last_name <> 'Rowfail')");
+        try {
+            String csv = String.join("\n",
+                    "Gus,Chunkfail,1980-01-15,Employed,64000,20000,24,Personal",
+                    "Hal,Rowfail,1981-01-15,Employed,64000,,,",
+                    "Ivy,Chunkfail,1982-01-15,Employed,52000,10000,12,Personal",
+                    "");
+            Path rejectFile = tempDir.resolve("rejects.csv");
+
+            ImportReport report = importer.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), rejectFile);
+
+            assertEquals(2, report.getBorrowersImported());
+            assertEquals(2, report.getLoansImported());
+            assertEquals(1, report.getRejected());
+            List<String> rejects = Files.readAllLines(rejectFile);
+            assertEquals(2, rejects.size());
+            assertTrue(rejects.get(1).startsWith("2,\"Row could not be persisted: "));
+            assertTrue(rejects.get(1).endsWith(",Hal,Rowfail,1981-01-15,Employed,64000,,,"));
+        } finally {
+            jdbcTemplate.execute("alter table borrowers drop constraint chk_rowfail");
+        }
+
+        mockMvc.perform(get("/api/borrowers/search").param("lastName", "chunkfail"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+}
@@ -0,0 +1,118 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.ExposureLedger;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Stress test for per-borrower exposure limits.
+ * Many threads submit approvable loans for a few borrowers at once, through both the single
+ * and the batch path; every borrower must end up with exactly the limit approved, never more.
+ */
+@SpringBootTest
+public class ExposureLimitConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int SUBMISSIONS_PER_THREAD = 40;
+    private static final double AMOUNT = 20000.0; // Low risk, approved on its own
+
+    @Autowired private LoanApplicationService service;
+    @Autowired private ExposureLedger exposureLedger;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+
+    private List<Borrower> borrowers;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        borrowers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Borrower borrower = new Borrower();
+            borrower.setFirstName("Stress" + i);
+            borrower.setLastName("Tester");
+            borrower.setDob(LocalDate.of(1990, 1, 1 + i));
+            borrower.setEmploymentStatus("Employed");
+            borrower.setAnnualIncome(50000.0);
+            borrowers.add(borrowerRepository.save(borrower));
+        }
+    }
+
+    @Test
+    void concurrentSubmissions_ShouldNeverExceedLimit() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < SUBMISSIONS_PER_THREAD; i++) {
+                    Borrower borrower = borrowers.get((thread + i) % borrowers.size());
+                    if (i % 4 == 3) {
+                        service.createLoanApplications(List.of(loan(borrower), loan(borrower), loan(borrower)));
+                    } else {
+                        service.createLoanApplication(loan(borrower));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        // Far more was submitted than fits, so every borrower is filled exactly to the limit
+        for (Borrower borrower : borrowers) {
+            assertEquals(exposureLedger.getLimit(), loanRepository.sumApprovedExposure(borrower.getId()), 0.0);
+        }
+        long approved = loanRepository.findAll().stream().filter(l -> l.getDecision() == Decision.APPROVE).count();
+        assertEquals(borrowers.size() * (long) (exposureLedger.getLimit() / AMOUNT), approved);
+    }
+
+    @Test
+    void updateLoan_RaisedOverLimit_ShouldBeRejected() {
+        Borrower borrower = borrowers.get(0);
+        int fill = (int) (exposureLedger.getLimit() / AMOUNT);
+        for (int i = 1; i < fill; i++) {
+            service.createLoanApplication(loan(borrower));
+        }
+        LoanApplication last = service.createLoanApplication(loan(borrower));
+        assertEquals(Decision.APPROVE, last.getDecision());
+
+        last.setLoanAmount(AMOUNT * 2);
+        assertEquals(Decision.REJECT, service.updateLoanApplication(last).getDecision());
+
+        // A new loan fits again once the rejected one no longer counts
+        assertEquals(Decision.APPROVE, service.createLoanApplication(loan(borrower)).getDecision());
+    }
+
+    private LoanApplication loan(Borrower borrower) {
+        LoanApplication loan = new LoanApplication();
+        loan.setBorrower(borrower);
+        loan.setLoanAmount(AMOUNT);
+        loan.setTermMonths(24);
+        loan.setLoanType("Personal");
+        return loan;
+    }
+}
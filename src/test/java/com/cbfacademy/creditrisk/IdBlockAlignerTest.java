@@ -0,0 +1,39 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.config.IdBlockAligner;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for IdBlockAligner.
+ * Checks that an emptied block table is seeded past the highest id, and that aligning
+ * again only moves the one row forward.
+ */
+@SpringBootTest
+public class IdBlockAlignerTest {
+
+    @Autowired private IdBlockAligner aligner;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void align_EmptyBlockTable_ShouldSeedOneRowPastTheHighestId() {
+        jdbcTemplate.update("delete from borrowers_seq");
+        jdbcTemplate.update("insert into borrowers (id, first_name, last_name, created_at) values (5000000, 'Id', 'Aligned', now())");
+
+        try {
+            aligner.afterSingletonsInstantiated();
+            aligner.afterSingletonsInstantiated();
+        } finally {
+            jdbcTemplate.update("delete from borrowers where id = 5000000");
+        }
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from borrowers_seq", Integer.class));
+        long nextValue = jdbcTemplate.queryForObject("select next_val from borrowers_seq", Long.class);
+        assertTrue(nextValue > 5_000_000, "next_val " + nextValue + " is not past the highest id");
+    }
+}
@@ -0,0 +1,99 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for keyset pagination of GET /api/loans and GET /api/borrowers.
+ * Checks cursor handling; KeysetPaginationBenchmark times deep pages against the first one.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class KeysetPaginationTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGES = 100;
+    private static final long FIRST_LOAN_ID = 50_000_000L;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Borrower borrower;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+        borrower = new Borrower();
+        borrower.setFirstName("Page");
+        borrower.setLastName("Walker");
+        borrower.setDob(LocalDate.of(1991, 4, 2));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(50000.0);
+        borrower = borrowerRepository.save(borrower);
+
+        // Inserted directly with JDBC, behind the id generator, at ids far above the ones it hands out
+        List<Object[]> rows = new ArrayList<>(PAGE_SIZE * PAGES);
+        for (long i = 0; i < (long) PAGE_SIZE * PAGES; i++) {
+            String grade = i % 3 == 0 ? "H" : "L";
+            rows.add(new Object[]{FIRST_LOAN_ID + i, borrower.getId(), 10000.0 + i, "Personal", 36, 90.0, grade, "A"});
+        }
+        jdbcTemplate.batchUpdate("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                + "risk_score, risk_grade, decision) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getLoans_FollowingCursor_ShouldReturnConsecutivePages() throws Exception {
+        mockMvc.perform(get("/api/loans").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].id").value(FIRST_LOAN_ID))
+                .andExpect(jsonPath("$.nextCursor").value(FIRST_LOAN_ID + 2));
+
+        mockMvc.perform(get("/api/loans").param("after", String.valueOf(FIRST_LOAN_ID + 2)).param("limit", "3"))
+                .andExpect(jsonPath("$.items[0].id").value(FIRST_LOAN_ID + 3));
+
+        long lastId = FIRST_LOAN_ID + (long) PAGE_SIZE * PAGES - 1;
+        mockMvc.perform(get("/api/loans").param("after", String.valueOf(lastId - 1)))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/loans").param("riskGrade", "High").param("limit", "2"))
+                .andExpect(jsonPath("$.items[1].id").value(FIRST_LOAN_ID + 3))
+                .andExpect(jsonPath("$.items[1].riskGrade").value("High"))
+                .andExpect(jsonPath("$.nextCursor").value(FIRST_LOAN_ID + 3));
+
+        mockMvc.perform(get("/api/loans").param("riskGrade", "Severe"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllBorrowers_ShouldReturnCursorPage() throws Exception {
+        mockMvc.perform(get("/api/borrowers").param("after", String.valueOf(borrower.getId() - 1)).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(borrower.getId()))
+                .andExpect(jsonPath("$.limit").value(1));
+    }
+}
@@ -0,0 +1,68 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.config.LegacyRiskCodeMigrator;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration test for LegacyRiskCodeMigrator.
+ * Loans stored with full grade and decision names, as before the columns held codes,
+ * are rewritten in chunks and then match grade filters.
+ * The columns are widened to hold the old values, so the test runs in a context of its own.
+ */
+@SpringBootTest(properties = "creditrisk.startup.code-migration.chunk-size=2")
+public class LegacyRiskCodeMigrationTest {
+
+    @Autowired private LegacyRiskCodeMigrator migrator;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        jdbcTemplate.execute("alter table loan_applications alter column risk_grade char(1)");
+        jdbcTemplate.execute("alter table loan_applications alter column decision char(1)");
+    }
+
+    @Test
+    void migrate_LegacyNames_ShouldBecomeCodesThatMatchFilters() {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Old");
+        borrower.setLastName("Rows");
+        borrower.setDob(LocalDate.of(1970, 3, 9));
+        borrower.setEmploymentStatus("Retired");
+        borrower.setAnnualIncome(30000.0);
+        borrower = borrowerRepository.save(borrower);
+
+        jdbcTemplate.execute("alter table loan_applications alter column risk_grade varchar(10)");
+        jdbcTemplate.execute("alter table loan_applications alter column decision varchar(10)");
+        String[][] legacy = {{"High", "Reject"}, {"High", "Reject"}, {"Low", "Approve"}, {"Medium", "Approve"}, {"H", "R"}};
+        for (int i = 0; i < legacy.length; i++) {
+            jdbcTemplate.update("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                            + "risk_score, risk_grade, decision) values (?, ?, 10000.0, 'Personal', 12, 50.0, ?, ?)",
+                    70_000_000L + i, borrower.getId(), legacy[i][0], legacy[i][1]);
+        }
+        assertEquals(1, loanRepository.findResponsePageByRiskGradeAfter(RiskGrade.HIGH, 0L, Limit.of(10)).size());
+
+        assertEquals(4, migrator.migrate());
+        assertEquals(0, migrator.migrate());
+
+        assertEquals(3, loanRepository.findResponsePageByRiskGradeAfter(RiskGrade.HIGH, 0L, Limit.of(10)).size());
+        List<String> decisions = jdbcTemplate.queryForList("select decision from loan_applications order by id", String.class);
+        assertEquals(List.of("R", "R", "A", "A", "R"), decisions);
+    }
+}
@@ -0,0 +1,92 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for POST /api/loans/batch.
+ * Checks per-item results for a mix of valid and invalid entries,
+ * and that a chunk size that could never make progress is refused.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoanBatchSubmissionTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Borrower borrower;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAll();
+        borrower = new Borrower();
+        borrower.setFirstName("Jane");
+        borrower.setLastName("Smith");
+        borrower.setDob(LocalDate.of(1985, 8, 22));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(72000.0);
+        borrower = borrowerRepository.save(borrower);
+    }
+
+    @Test
+    void batchSubmission_MixedEntries_ShouldReportPerItemResults() throws Exception {
+        List<LoanApplicationRequest> requests = List.of(
+                loanRequest(borrower.getId(), 20000.0),
+                loanRequest(-1L, 15000.0),
+                loanRequest(borrower.getId(), 600000.0));
+
+        mockMvc.perform(post("/api/loans/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.submitted").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("Created"))
+                .andExpect(jsonPath("$.results[0].loan.riskGrade").value("Low"))
+                .andExpect(jsonPath("$.results[1].status").value("Failed"))
+                .andExpect(jsonPath("$.results[1].error").value("Borrower not found"))
+                .andExpect(jsonPath("$.results[2].index").value(2))
+                .andExpect(jsonPath("$.results[2].loan.decision").value("Reject"));
+
+        assertEquals(2, loanRepository.count());
+    }
+
+    @Test
+    void chunkSize_NotPositive_ShouldBeRefused() {
+        assertThrows(IllegalArgumentException.class, () -> new LoanApplicationService(
+                null, null, null, null, new SimpleMeterRegistry(), 0, 1000));
+    }
+
+    private LoanApplicationRequest loanRequest(Long borrowerId, double amount) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(amount);
+        request.setTermMonths(36);
+        request.setLoanType("Personal");
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for the NDJSON export at GET /api/loans/export.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LoanExportTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Export");
+        borrower.setLastName("Reader");
+        borrower.setDob(LocalDate.of(1979, 6, 5));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(61000.0);
+        borrower = borrowerRepository.save(borrower);
+
+        String insert = "insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                + "risk_score, risk_grade, decision, created_at) values (?, ?, ?, 'Personal', 36, ?, ?, ?, ?)";
+        jdbcTemplate.update(insert, 70_000_001L, borrower.getId(), 20000.0, 98.0, "L", "A", LocalDateTime.of(2025, 1, 10, 9, 0));
+        jdbcTemplate.update(insert, 70_000_002L, borrower.getId(), 600000.0, 40.0, "H", "R", LocalDateTime.of(2025, 2, 10, 9, 0));
+        jdbcTemplate.update(insert, 70_000_003L, borrower.getId(), 700000.0, 30.0, "H", "R", LocalDateTime.of(2025, 3, 10, 9, 0));
+    }
+
+    @Test
+    void exportLoans_NoFilter_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        List<String> lines = export("/api/loans/export");
+
+        assertEquals(3, lines.size());
+        LoanApplicationResponse first = objectMapper.readValue(lines.get(0), LoanApplicationResponse.class);
+        assertEquals(70_000_001L, first.getId());
+        assertEquals("Approve", first.getDecision());
+    }
+
+    @Test
+    void exportLoans_WithGradeAndDateFilters_ShouldOnlyStreamMatchingLoans() throws Exception {
+        List<String> lines = export("/api/loans/export?riskGrade=High&createdFrom=2025-03-01T00:00:00");
+
+        assertEquals(1, lines.size());
+        assertEquals(70_000_003L, objectMapper.readValue(lines.get(0), LoanApplicationResponse.class).getId());
+    }
+
+    private List<String> export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        return body.lines().toList();
+    }
+}
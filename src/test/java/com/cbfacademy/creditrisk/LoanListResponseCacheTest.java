@@ -0,0 +1,185 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.BorrowerRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for the GET /api/loans response cache and conditional GET (LoanListResponseCache).
+ * Checks that unchanged listings cost no SQL, that every loan write invalidates them, and that a
+ * write by another instance (a bumped version row) is seen at the next version check.
+ */
+@SpringBootTest(properties = {
+        "creditrisk.loans.response-cache.enabled=true",
+        "creditrisk.loans.response-cache.version-check-ms=" + LoanListResponseCacheTest.VERSION_CHECK_MS,
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+public class LoanListResponseCacheTest {
+
+    static final int VERSION_CHECK_MS = 200;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private QueryCounter queries;
+    private long borrowerId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        queries = new QueryCounter(mockMvc, entityManagerFactory);
+        borrowerId = objectMapper.readTree(mockMvc.perform(post("/api/borrowers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(borrowerRequest())))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    void getLoans_Unchanged_ShouldBeServedWithoutQueries() throws Exception {
+        createLoan(900000.0);
+
+        // Miss: one page query, then cached
+        MvcResult first = queries.perform(1, get("/api/loans").param("riskGrade", "High"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String body = first.getResponse().getContentAsString();
+
+        // Hit: same body, no SQL
+        queries.perform(0, get("/api/loans").param("riskGrade", "High"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(body));
+        // Conditional GET: 304, no body, no SQL
+        queries.perform(0, get("/api/loans").param("riskGrade", "High").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // Gzip from the cached compressed body
+        byte[] gzipped = queries.perform(0, get("/api/loans").param("riskGrade", "High")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(body, new String(in.readAllBytes()));
+        }
+
+        // Another format is another entry
+        queries.perform(1, get("/api/loans").param("riskGrade", "High").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void getLoans_AfterEveryLoanWrite_ShouldBeRebuilt() throws Exception {
+        long loanId = createLoan(900000.0);
+        String etag = listHighRisk().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Create
+        long secondId = createLoan(950000.0);
+        MvcResult created = listHighRisk();
+        assertNotEquals(etag, created.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(secondId, items(created).get(items(created).size() - 1).get("id").asLong());
+        mockMvc.perform(get("/api/loans").param("riskGrade", "High").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        // Update out of the High grade
+        etag = created.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/api/loans/{id}", loanId).contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(10000.0))))
+                .andExpect(status().isOk());
+        MvcResult updated = listHighRisk();
+        assertNotEquals(etag, updated.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, items(updated).findValues("id").stream().filter(id -> id.asLong() == loanId).count());
+
+        // Delete
+        etag = updated.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(delete("/api/loans/{id}", secondId)).andExpect(status().isOk());
+        MvcResult deleted = listHighRisk();
+        assertNotEquals(etag, deleted.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, items(deleted).findValues("id").stream().filter(id -> id.asLong() == secondId).count());
+    }
+
+    @Test
+    void getLoans_AfterWriteOnAnotherInstance_ShouldBeRebuiltAtTheNextCheck() throws Exception {
+        createLoan(900000.0);
+        String etag = listHighRisk().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Another instance's loan transaction bumps a version slot in the database
+        jdbcTemplate.update("update loan_table_versions set version = version + 1 where slot = 3");
+        Thread.sleep(VERSION_CHECK_MS + 100);
+
+        mockMvc.perform(get("/api/loans").param("riskGrade", "High").param("limit", "1000")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertNotEquals(etag, listHighRisk().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getLoans_Error_ShouldNotBeCached() throws Exception {
+        mockMvc.perform(get("/api/loans").param("riskGrade", "Severe")).andExpect(status().isBadRequest());
+        queries.perform(0, get("/api/loans").param("riskGrade", "Severe")).andExpect(status().isBadRequest());
+    }
+
+    private MvcResult listHighRisk() throws Exception {
+        return mockMvc.perform(get("/api/loans").param("riskGrade", "High").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private JsonNode items(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("items");
+    }
+
+    private long createLoan(double amount) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(amount))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private LoanApplicationRequest loanRequest(double amount) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(amount);
+        request.setTermMonths(60);
+        request.setLoanType("Mortgage");
+        return request;
+    }
+
+    private static BorrowerRequest borrowerRequest() {
+        BorrowerRequest request = new BorrowerRequest();
+        request.setFirstName("Dash");
+        request.setLastName("Board");
+        request.setDob(LocalDate.of(1975, 8, 21));
+        request.setEmploymentStatus("Employed");
+        request.setAnnualIncome(150000.0);
+        return request;
+    }
+}
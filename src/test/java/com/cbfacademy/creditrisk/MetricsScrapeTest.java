@@ -0,0 +1,90 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the Prometheus scrape endpoint.
+ * Checks that endpoint, repository, connection pool, scoring and loan outcome
+ * metrics are all exported, and that outcomes are counted per grade and decision.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsScrapeTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void prometheus_ShouldExportEndpointRepositoryPoolAndLoanMetrics() throws Exception {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Metra");
+        borrower.setLastName("Scrape");
+        borrower.setDob(LocalDate.of(1982, 11, 2));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(61000.0);
+        borrower = borrowerRepository.save(borrower);
+
+        double approvedBefore = count("creditrisk.loans.decisions", "decision", "Approve");
+        double highBefore = count("creditrisk.loans.grades", "grade", "High");
+        long scoresBefore = meterRegistry.get("creditrisk.loans.risk.score").summary().count();
+
+        createLoan(borrower.getId(), 20000.0);  // score 98: Low, Approve
+        createLoan(borrower.getId(), 900000.0); // score 10: High, Reject
+        mockMvc.perform(get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+
+        assertEquals(approvedBefore + 1, count("creditrisk.loans.decisions", "decision", "Approve"));
+        assertEquals(highBefore + 1, count("creditrisk.loans.grades", "grade", "High"));
+        assertEquals(scoresBefore + 2, meterRegistry.get("creditrisk.loans.risk.score").summary().count());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("uri=\"/api/loans\""));
+        assertTrue(scrape.contains("uri=\"/api/borrowers/{id}\""));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count{"));
+        assertTrue(scrape.contains("repository=\"LoanApplicationRepository\""));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertTrue(scrape.contains("creditrisk_scoring_seconds_count"));
+        assertTrue(scrape.contains("creditrisk_loans_risk_score_bucket{le=\"50.0\""));
+        assertTrue(scrape.contains("creditrisk_loans_decisions_total{decision=\"Reject\""));
+        assertTrue(scrape.contains("creditrisk_loans_grades_total{grade=\"Low\""));
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private void createLoan(Long borrowerId, double amount) throws Exception {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(amount);
+        request.setTermMonths(36);
+        request.setLoanType("Personal");
+        mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+}
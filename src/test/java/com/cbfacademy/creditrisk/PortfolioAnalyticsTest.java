@@ -0,0 +1,126 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for snapshot analytics (GET /api/portfolio/snapshot/*).
+ * Checks that the snapshot follows create, update and delete, that queries run no SQL,
+ * and that a reload picks up rows written behind the snapshot's back.
+ * Each test filters on its own loan type, so loans from other tests do not interfere.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class PortfolioAnalyticsTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Borrower borrower;
+    private String loanType;
+
+    @BeforeEach
+    void setUp() {
+        borrower = new Borrower();
+        borrower.setFirstName("Ada");
+        borrower.setLastName("Columns");
+        borrower.setDob(LocalDate.of(1988, 6, 21));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(91000.0);
+        borrower = borrowerRepository.save(borrower);
+        loanType = "Snapshot-" + System.nanoTime();
+    }
+
+    @Test
+    void snapshot_ShouldFollowWritesAndAnswerWithoutQueries() throws Exception {
+        long first = createLoan(20000.0, 12);
+        createLoan(30000.0, 24);
+        long large = createLoan(600000.0, 360);
+        mockMvc.perform(put("/api/loans/{id}", first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(350000.0, 12))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/loans/{id}", large)).andExpect(status().isOk());
+
+        QueryCounter queries = new QueryCounter(mockMvc, entityManagerFactory);
+        queries.perform(0, get("/api/portfolio/snapshot/aggregate")
+                        .param("loanType", loanType).param("groupBy", "riskGrade"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].riskGrade").value("Low"))
+                .andExpect(jsonPath("$[0].totalLoanAmount").value(30000.0))
+                .andExpect(jsonPath("$[1].riskGrade").value("Medium"))
+                .andExpect(jsonPath("$[1].meanRiskScore").value(65.0));
+        queries.perform(0, get("/api/portfolio/snapshot/histogram")
+                        .param("loanType", loanType).param("bucketWidth", "100000").param("buckets", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].count").value(1))
+                .andExpect(jsonPath("$[3].count").value(1))
+                .andExpect(jsonPath("$[4].upperBound").doesNotExist());
+        queries.perform(0, get("/api/portfolio/snapshot/loans")
+                        .param("loanType", loanType).param("minAmount", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(first))
+                .andExpect(jsonPath("$.items[0].borrowerId").value(borrower.getId()))
+                .andExpect(jsonPath("$.items[0].termMonths").value(12))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/portfolio/snapshot/aggregate").param("groupBy", "decision"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reload_RowWrittenOutsideHibernate_ShouldBeCounted() throws Exception {
+        createLoan(20000.0, 24);
+        jdbcTemplate.update("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                        + "risk_score, risk_grade, decision, created_at) values (?, ?, 10000.0, ?, 24, 99.0, 'L', 'A', ?)",
+                91_000_000L + System.nanoTime() % 1_000_000, borrower.getId(), loanType, LocalDateTime.now());
+        mockMvc.perform(get("/api/portfolio/snapshot/aggregate").param("loanType", loanType))
+                .andExpect(jsonPath("$[0].count").value(1));
+
+        mockMvc.perform(post("/api/portfolio/snapshot/reload")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/portfolio/snapshot/aggregate").param("loanType", loanType))
+                .andExpect(jsonPath("$[0].count").value(2))
+                .andExpect(jsonPath("$[0].totalLoanAmount").value(30000.0));
+    }
+
+    private long createLoan(double amount, int termMonths) throws Exception {
+        String body = mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(amount, termMonths))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private LoanApplicationRequest loanRequest(double amount, int termMonths) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrower.getId());
+        request.setLoanAmount(amount);
+        request.setTermMonths(termMonths);
+        request.setLoanType(loanType);
+        return request;
+    }
+}
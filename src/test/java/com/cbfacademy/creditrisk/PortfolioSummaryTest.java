@@ -0,0 +1,134 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.dto.PortfolioCell;
+import com.cbfacademy.creditrisk.dto.PortfolioReconciliation;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.model.TermBucket;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.service.PortfolioCube;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the portfolio summary cube.
+ * Checks incremental maintenance on create, update and delete, and reconciliation
+ * after a row is written behind the cube's back.
+ * Each test uses its own loan type, so cells from other tests do not interfere.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PortfolioSummaryTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private PortfolioCube portfolioCube;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Borrower borrower;
+    private String loanType;
+
+    @BeforeEach
+    void setUp() {
+        borrower = new Borrower();
+        borrower.setFirstName("Cuba");
+        borrower.setLastName("Summers");
+        borrower.setDob(LocalDate.of(1975, 3, 9));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(83000.0);
+        borrower = borrowerRepository.save(borrower);
+        loanType = "Cube-" + System.nanoTime();
+    }
+
+    @Test
+    void summary_ShouldFollowCreateUpdateAndDelete() throws Exception {
+        long first = createLoan(20000.0, 12);
+        createLoan(30000.0, 12);
+        createLoan(600000.0, 48);
+
+        PortfolioCell low = cell(RiskGrade.LOW, TermBucket.UP_TO_12).orElseThrow();
+        assertEquals(2, low.getCount());
+        assertEquals(50000.0, low.getTotalLoanAmount(), 1e-9);
+        assertEquals(97.5, low.getMeanRiskScore(), 1e-9);
+        assertEquals(1, cell(RiskGrade.HIGH, TermBucket.UP_TO_60).orElseThrow().getCount());
+
+        // Moves the first loan from Low/0-12 to High/0-12
+        mockMvc.perform(put("/api/loans/{id}", first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(700000.0, 12))))
+                .andExpect(status().isOk());
+        assertEquals(1, cell(RiskGrade.LOW, TermBucket.UP_TO_12).orElseThrow().getCount());
+        assertEquals(700000.0, cell(RiskGrade.HIGH, TermBucket.UP_TO_12).orElseThrow().getTotalLoanAmount(), 1e-9);
+
+        mockMvc.perform(delete("/api/loans/{id}", first)).andExpect(status().isOk());
+        assertTrue(cell(RiskGrade.HIGH, TermBucket.UP_TO_12).isEmpty());
+    }
+
+    @Test
+    void reconcile_RowWrittenOutsideHibernate_ShouldReportAndRepair() throws Exception {
+        createLoan(20000.0, 24);
+        jdbcTemplate.update("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                        + "risk_score, risk_grade, decision, created_at) values (?, ?, 10000.0, ?, 24, 99.0, 'L', 'A', ?)",
+                90_000_000L + System.nanoTime() % 1_000_000, borrower.getId(), loanType, LocalDateTime.now());
+
+        PortfolioReconciliation report = portfolioCube.reconcile(true);
+        assertTrue(report.isRepaired());
+        assertTrue(report.getMismatches().stream()
+                .anyMatch(m -> m.getDatabase() != null && loanType.equals(m.getDatabase().getLoanType())));
+        assertEquals(2, cell(RiskGrade.LOW, TermBucket.UP_TO_24).orElseThrow().getCount());
+        assertTrue(portfolioCube.reconcile(false).isConsistent());
+
+        // The repair corrected the live counters, so later deltas land on top of it
+        createLoan(30000.0, 24);
+        assertEquals(3, cell(RiskGrade.LOW, TermBucket.UP_TO_24).orElseThrow().getCount());
+        assertTrue(portfolioCube.reconcile(false).isConsistent());
+    }
+
+    private Optional<PortfolioCell> cell(RiskGrade grade, TermBucket bucket) throws Exception {
+        String body = mockMvc.perform(get("/api/portfolio/summary"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<PortfolioCell> cells = List.of(objectMapper.readValue(body, PortfolioCell[].class));
+        return cells.stream()
+                .filter(c -> loanType.equals(c.getLoanType()) && c.getRiskGrade() == grade && c.getTermBucket() == bucket)
+                .findFirst();
+    }
+
+    private long createLoan(double amount, int termMonths) throws Exception {
+        String body = mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(amount, termMonths))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode loan = objectMapper.readTree(body);
+        return loan.get("id").asLong();
+    }
+
+    private LoanApplicationRequest loanRequest(double amount, int termMonths) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrower.getId());
+        request.setLoanAmount(amount);
+        request.setTermMonths(termMonths);
+        request.setLoanType(loanType);
+        return request;
+    }
+}
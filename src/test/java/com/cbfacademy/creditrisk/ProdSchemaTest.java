@@ -0,0 +1,31 @@
+package com.cbfacademy.creditrisk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration test for db/schema-mysql.sql, the schema the prod profile (ddl-auto=none) needs.
+ * The database is created from the script alone, then Hibernate validates every entity against it
+ * and startup seeds the id block and version tables.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/schema-mysql.sql,classpath:db/bench-identity-tables.sql",
+        "spring.sql.init.data-locations=optional:classpath:no-data.sql",
+        "creditrisk.loans.response-cache.enabled=true"
+})
+public class ProdSchemaTest {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void schema_ShouldMatchTheEntitiesAndBeSeededOnStartup() {
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from loan_applications_seq", Integer.class));
+        assertEquals(16, jdbcTemplate.queryForObject("select count(*) from loan_table_versions", Integer.class));
+    }
+}
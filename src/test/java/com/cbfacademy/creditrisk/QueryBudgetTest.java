@@ -0,0 +1,153 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.BorrowerRequest;
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per endpoint, measured with QueryCounter.
+ * A budget that goes up means an endpoint gained a round-trip; change it only on purpose.
+ * Each test creates its own borrowers, so the borrower and exposure caches start cold.
+ * Id block allocations (@BlockId) run in their own isolated transaction and are not counted.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class QueryBudgetTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationService loanService;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queries;
+    private Borrower borrower;
+
+    @BeforeEach
+    void setUp() {
+        queries = new QueryCounter(mockMvc, entityManagerFactory);
+        borrower = borrowerRepository.save(borrower("Budget"));
+    }
+
+    @Test
+    void borrowerEndpoints() throws Exception {
+        // insert
+        queries.perform(1, post("/api/borrowers").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(borrowerRequest("Queryman")))).andExpect(status().isOk());
+        // select on a cache miss, nothing once cached
+        queries.perform(1, get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+        queries.perform(0, get("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+        // one page query
+        queries.perform(1, get("/api/borrowers").param("limit", "10")).andExpect(status().isOk());
+        // ids come from the in-memory index; only the matches are read
+        queries.perform(1, get("/api/borrowers/search").param("lastName", "queryman")).andExpect(status().isOk());
+        queries.perform(0, get("/api/borrowers/search").param("lastName", "no-such-name")).andExpect(status().isOk());
+        queries.perform(0, get("/api/borrowers/search").param("lastName", "qu")).andExpect(status().isBadRequest());
+        // one update, no load first
+        queries.perform(1, put("/api/borrowers/{id}", borrower.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(borrowerRequest("Renamed")))).andExpect(status().isOk());
+        // one delete, no existence check or load first; deleting again is still fine
+        queries.perform(1, delete("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+        queries.perform(1, delete("/api/borrowers/{id}", borrower.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    void loanEndpoints() throws Exception {
+        // borrower lookup + exposure sum + insert when cold; only the insert once both are cached
+        long first = createLoan(3, 20000.0);
+        createLoan(1, 30000.0);
+        // one query each
+        queries.perform(1, get("/api/loans/{id}", first)).andExpect(status().isOk());
+        queries.perform(1, get("/api/loans").param("limit", "10")).andExpect(status().isOk());
+        queries.perform(1, get("/api/loans").param("riskGrade", "Low").param("limit", "10")).andExpect(status().isOk());
+        queries.perform(1, get("/api/loans/export").param("riskGrade", "High")).andExpect(status().isOk());
+        // select + other loans' exposure + update
+        queries.perform(3, put("/api/loans/{id}", first).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loanRequest(borrower.getId(), 25000.0)))).andExpect(status().isOk());
+        // select (the post-commit listeners need the deleted state) + delete
+        queries.perform(2, delete("/api/loans/{id}", first)).andExpect(status().isOk());
+    }
+
+    @Test
+    void loanBatch_ShouldNotQueryPerBorrower() throws Exception {
+        List<Borrower> borrowers = borrowerRepository.saveAll(List.of(borrower("Batch"), borrower("Batch"), borrower("Batch")));
+        List<LoanApplicationRequest> requests = borrowers.stream()
+                .flatMap(b -> List.of(loanRequest(b.getId(), 10000.0), loanRequest(b.getId(), 15000.0)).stream())
+                .toList();
+        // borrowers + exposures + one insert batch, however many borrowers
+        queries.perform(3, post("/api/loans/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests))).andExpect(status().isOk());
+    }
+
+    @Test
+    void portfolioAndImportEndpoints() throws Exception {
+        LoanApplication loan = new LoanApplication();
+        loan.setBorrower(borrower);
+        loan.setLoanAmount(40000.0);
+        loanService.createLoanApplication(loan);
+
+        // served from memory
+        queries.perform(0, get("/api/portfolio/summary")).andExpect(status().isOk());
+        // one aggregate
+        queries.perform(1, post("/api/portfolio/summary/reconcile")).andExpect(status().isOk());
+        // borrower insert batch + loan insert batch
+        String csv = "Ann,Importer,1990-01-01,Employed,50000,10000,12,Personal\n"
+                + "Bob,Importer,1991-02-02,Employed,40000,,,\n";
+        queries.perform(2, post("/api/import/borrowers").contentType("text/csv").content(csv)).andExpect(status().isOk());
+    }
+
+    private long createLoan(int statementBudget, double amount) throws Exception {
+        String body = queries.perform(statementBudget, post("/api/loans").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loanRequest(borrower.getId(), amount))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private static LoanApplicationRequest loanRequest(Long borrowerId, double amount) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(amount);
+        request.setTermMonths(24);
+        request.setLoanType("Personal");
+        return request;
+    }
+
+    private static BorrowerRequest borrowerRequest(String lastName) {
+        BorrowerRequest request = new BorrowerRequest();
+        request.setFirstName("Quinn");
+        request.setLastName(lastName);
+        request.setDob(LocalDate.of(1984, 6, 30));
+        request.setEmploymentStatus("Employed");
+        request.setAnnualIncome(58000.0);
+        return request;
+    }
+
+    private static Borrower borrower(String lastName) {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Quinn");
+        borrower.setLastName(lastName);
+        borrower.setDob(LocalDate.of(1984, 6, 30));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(58000.0);
+        return borrower;
+    }
+}
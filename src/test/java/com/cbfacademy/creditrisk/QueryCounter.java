@@ -0,0 +1,54 @@
+package com.cbfacademy.creditrisk;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Test harness that counts the SQL statements Hibernate prepares while MockMvc performs one request,
+ * and fails when the count differs from the endpoint's budget.
+ * A JDBC batch counts as one statement. Lazy association fetches are never allowed, since
+ * every one of them is an extra round-trip per row (N+1).
+ * Streaming (async) responses are dispatched to completion before counting.
+ * Needs hibernate.generate_statistics=true, and nothing else may use the database meanwhile.
+ */
+class QueryCounter {
+
+    private final MockMvc mockMvc;
+    private final Statistics statistics;
+
+    QueryCounter(MockMvc mockMvc, EntityManagerFactory entityManagerFactory) {
+        this.mockMvc = mockMvc;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "Set spring.jpa.properties.hibernate.generate_statistics=true");
+    }
+
+    /**
+     * Perform the request and assert it prepared exactly the given number of SQL statements.
+     */
+    ResultActions perform(int statementBudget, RequestBuilder request) throws Exception {
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request);
+        MvcResult started = result.andReturn();
+        if (started.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(started));
+        }
+        String counts = String.format("%d statements (%d queries, %d entity loads, %d lazy fetches, "
+                        + "%d inserts, %d updates, %d deletes)",
+                statistics.getPrepareStatementCount(), statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount());
+        String endpoint = started.getRequest().getMethod() + " " + started.getRequest().getRequestURI();
+        assertEquals(0, statistics.getEntityFetchCount(), endpoint + " fetched lazy associations: " + counts);
+        assertEquals(statementBudget, statistics.getPrepareStatementCount(), endpoint + " ran " + counts);
+        return result;
+    }
+}
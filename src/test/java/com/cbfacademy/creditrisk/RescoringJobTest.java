@@ -0,0 +1,213 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.SnapshotFilter;
+import com.cbfacademy.creditrisk.dto.SnapshotGroup;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.RescoringJob;
+import com.cbfacademy.creditrisk.model.RescoringStatus;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.repository.RescoringJobRepository;
+import com.cbfacademy.creditrisk.service.PortfolioCube;
+import com.cbfacademy.creditrisk.service.PortfolioSnapshot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for the portfolio re-scoring job.
+ * Loans are inserted with stale High-amount scores graded Low; the job must fix exactly those,
+ * keep the portfolio cube and snapshot in step, and resume from a checkpoint without redoing earlier chunks.
+ * A job held by another instance is only taken over once its lease has expired, and a loan
+ * rejected for the borrower's exposure limit is not approved by a re-score.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RescoringJobTest {
+
+    private static final long FIRST_ID = 95_000_001L;
+    private static final int LOANS = 2500; // Spans three 1000-loan chunks
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private RescoringJobRepository jobRepository;
+    @Autowired private PortfolioCube portfolioCube;
+    @Autowired private PortfolioSnapshot portfolioSnapshot;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        loanRepository.deleteAllInBatch();
+        jobRepository.deleteAllInBatch();
+        Borrower borrower = saveBorrower("Scorer");
+
+        // Even ids: correctly scored small loans. Odd ids: large loans still carrying a Low/Approve score.
+        List<Object[]> rows = new ArrayList<>(LOANS);
+        for (int i = 0; i < LOANS; i++) {
+            boolean stale = i % 2 == 1;
+            rows.add(new Object[]{FIRST_ID + i, borrower.getId(), stale ? 600000.0 : 20000.0, stale ? 99.0 : 98.0,
+                    "L", "A", LocalDateTime.of(2025, 1, 1, 0, 0)});
+        }
+        jdbcTemplate.batchUpdate("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                + "risk_score, risk_grade, decision, created_at) values (?, ?, ?, 'Personal', 36, ?, ?, ?, ?)", rows);
+        // Rows above were written behind the cube's and the snapshot's back
+        portfolioCube.reconcile(true);
+        portfolioSnapshot.reload();
+    }
+
+    @Test
+    void rescoringJob_ShouldRewriteOnlyStaleLoansAndKeepCubeConsistent() throws Exception {
+        // Half the loans were edited once, so both the updated_at and the never-updated guard are used
+        jdbcTemplate.update("update loan_applications set updated_at = ? where mod(id, 4) >= 2",
+                LocalDateTime.of(2025, 6, 1, 12, 0, 0, 123_456_000));
+
+        JsonNode started = objectMapper.readTree(mockMvc.perform(post("/api/rescoring/jobs"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(LOANS, started.get("totalLoans").asLong());
+
+        JsonNode done = awaitCompletion(started.get("id").asLong());
+        assertEquals(LOANS, done.get("processed").asLong());
+        assertEquals(LOANS / 2, done.get("rescored").asLong());
+        assertEquals(100.0, done.get("percentComplete").asDouble());
+        assertTrue(done.get("rowsPerSecond").asDouble() > 0);
+
+        assertEquals(LOANS / 2, count("risk_grade = 'H' and decision = 'R' and risk_score = 40"));
+        assertEquals(LOANS / 2, count("risk_grade = 'L' and risk_score = 98"));
+        assertTrue(portfolioCube.reconcile(false).isConsistent());
+        List<SnapshotGroup> byGrade = portfolioSnapshot.aggregate(new SnapshotFilter(), "riskGrade");
+        assertEquals(List.of(RiskGrade.LOW, RiskGrade.HIGH), byGrade.stream().map(SnapshotGroup::getRiskGrade).toList());
+        assertEquals(LOANS / 2, byGrade.get(1).getCount());
+        assertEquals(40.0, byGrade.get(1).getMeanRiskScore(), 1e-9);
+    }
+
+    @Test
+    void rescoringJob_ShouldKeepExposureLimitRejections() throws Exception {
+        Borrower atLimit = saveBorrower("Atlimit");
+        Borrower belowLimit = saveBorrower("Belowlimit");
+        long id = FIRST_ID + LOANS;
+        String insert = "insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                + "risk_score, risk_grade, decision, created_at) values (?, ?, ?, 'Personal', 36, ?, 'L', ?, now())";
+        // Approved up to the 1,000,000 limit, then a Low-risk loan rejected for exposure
+        for (int i = 0; i < 4; i++) {
+            jdbcTemplate.update(insert, id++, atLimit.getId(), 250000.0, 75.0, "A");
+        }
+        long overLimit = id++;
+        jdbcTemplate.update(insert, overLimit, atLimit.getId(), 20000.0, 98.0, "R");
+        // Rejected when the borrower had other loans, since deleted
+        long nowFits = id;
+        jdbcTemplate.update(insert, nowFits, belowLimit.getId(), 20000.0, 98.0, "R");
+        portfolioCube.reconcile(true);
+        portfolioSnapshot.reload();
+
+        JsonNode started = objectMapper.readTree(mockMvc.perform(post("/api/rescoring/jobs"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode done = awaitCompletion(started.get("id").asLong());
+
+        assertEquals(LOANS / 2 + 1, done.get("rescored").asLong());
+        assertEquals("R", jdbcTemplate.queryForObject("select decision from loan_applications where id = ?", String.class, overLimit));
+        assertEquals("A", jdbcTemplate.queryForObject("select decision from loan_applications where id = ?", String.class, nowFits));
+    }
+
+    @Test
+    void resume_ShouldContinueAfterCheckpoint() throws Exception {
+        // A job that failed after committing its first chunk
+        long checkpoint = FIRST_ID + 999;
+        RescoringJob job = new RescoringJob();
+        job.setStatus(RescoringStatus.FAILED);
+        job.setMaxLoanId(FIRST_ID + LOANS - 1);
+        job.setTotalLoans(LOANS);
+        job.checkpoint(checkpoint, 1000, 0);
+        job = jobRepository.save(job);
+
+        mockMvc.perform(post("/api/rescoring/jobs/{id}/resume", job.getId())).andExpect(status().isAccepted());
+        JsonNode done = awaitCompletion(job.getId());
+
+        assertEquals(LOANS, done.get("processed").asLong());
+        assertEquals(0, count("id <= " + checkpoint + " and risk_grade = 'H'"));
+        assertEquals(0, count("id > " + checkpoint + " and loan_amount = 600000 and risk_grade = 'L'"));
+    }
+
+    @Test
+    void resume_HeldByAnotherInstance_ShouldWaitForTheLeaseToExpire() throws Exception {
+        RescoringJob job = new RescoringJob();
+        job.setStatus(RescoringStatus.RUNNING);
+        job.setMaxLoanId(FIRST_ID + LOANS - 1);
+        job.setTotalLoans(LOANS);
+        job.setActive(true);
+        job.setOwner("other-instance");
+        job.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(5));
+        job = jobRepository.save(job);
+
+        mockMvc.perform(post("/api/rescoring/jobs/{id}/resume", job.getId())).andExpect(status().isConflict());
+        mockMvc.perform(post("/api/rescoring/jobs")).andExpect(status().isConflict());
+        assertEquals(0, jobRepository.findById(job.getId()).orElseThrow().getProcessed());
+
+        // The other instance stopped renewing its claim
+        jdbcTemplate.update("update rescoring_jobs set lease_expires_at = ? where id = ?",
+                LocalDateTime.now().minusSeconds(1), job.getId());
+        mockMvc.perform(post("/api/rescoring/jobs/{id}/resume", job.getId())).andExpect(status().isAccepted());
+        assertEquals(LOANS, awaitCompletion(job.getId()).get("processed").asLong());
+        RescoringJob done = jobRepository.findById(job.getId()).orElseThrow();
+        assertNull(done.getOwner());
+        assertNull(done.getActive());
+    }
+
+    @Test
+    void start_WhileRunning_ShouldConflict() throws Exception {
+        RescoringJob running = new RescoringJob();
+        running.setStatus(RescoringStatus.RUNNING);
+        jobRepository.save(running);
+
+        mockMvc.perform(post("/api/rescoring/jobs")).andExpect(status().isConflict());
+    }
+
+    private Borrower saveBorrower(String lastName) {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Rita");
+        borrower.setLastName(lastName);
+        borrower.setDob(LocalDate.of(1982, 11, 2));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(58000.0);
+        return borrowerRepository.save(borrower);
+    }
+
+    private JsonNode awaitCompletion(long jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/rescoring/jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (!"RUNNING".equals(job.get("status").asText())) {
+                assertEquals("COMPLETED", job.get("status").asText(), job.toString());
+                return job;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "Re-scoring job did not finish: " + job);
+            Thread.sleep(50);
+        }
+    }
+
+    private long count(String where) {
+        return jdbcTemplate.queryForObject("select count(*) from loan_applications where " + where, Long.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration test for GET /api/risk/score-distribution.
+ * Checks that submitted loans are counted by grade and loan type, that what-if scores and failed
+ * updates are not, and that the report runs no SQL.
+ * The test uses its own loan type, so loans scored by other tests do not interfere.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class ScoreDistributionTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Borrower borrower;
+    private String loanType;
+
+    @BeforeEach
+    void setUp() {
+        borrower = new Borrower();
+        borrower.setFirstName("Quinn");
+        borrower.setLastName("Tiles");
+        borrower.setDob(LocalDate.of(1991, 2, 14));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(64000.0);
+        borrower = borrowerRepository.save(borrower);
+        loanType = "Sketch-" + System.nanoTime();
+    }
+
+    @Test
+    void scoreDistribution_ShouldCountSubmittedLoansWithoutQueries() throws Exception {
+        createLoan(20000.0);  // 98, Low
+        createLoan(30000.0);  // 97, Low
+        createLoan(400000.0); // 60, Medium
+        createLoan(800000.0); // 20, High, rejected
+        mockMvc.perform(post("/api/risk/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"loanAmount\": 10000, \"loanType\": \"" + loanType + "\"}"))
+                .andExpect(status().isOk());
+        // An update of an unknown loan fails after scoring, and is not counted
+        LoanApplicationRequest unknown = new LoanApplicationRequest();
+        unknown.setBorrowerId(borrower.getId());
+        unknown.setLoanAmount(20000.0);
+        unknown.setLoanType(loanType);
+        mockMvc.perform(put("/api/loans/{id}", 987_654_321L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(unknown)))
+                .andExpect(status().is5xxServerError());
+
+        QueryCounter queries = new QueryCounter(mockMvc, entityManagerFactory);
+        String body = queries.perform(0, get("/api/risk/score-distribution").param("minutes", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode report = objectMapper.readTree(body);
+        assertNotNull(report.get("windowStart").asText());
+
+        JsonNode byType = find(report.get("byLoanType"), loanType, null);
+        assertEquals(4, byType.get("count").asLong());
+        assertEquals(0.75, byType.get("approvalRate").asDouble(), 1e-9);
+        assertEquals(20.0, byType.get("p10").asDouble(), 0.2);
+        assertEquals(98.0, byType.get("p90").asDouble(), 1.0);
+
+        JsonNode low = find(report.get("byRiskGradeAndLoanType"), loanType, "Low");
+        assertEquals(2, low.get("count").asLong());
+        assertEquals(97.0, low.get("p10").asDouble(), 1.0);
+        assertEquals(1.0, low.get("approvalRate").asDouble());
+        JsonNode high = find(report.get("byRiskGradeAndLoanType"), loanType, "High");
+        assertEquals(0.0, high.get("approvalRate").asDouble());
+
+        mockMvc.perform(get("/api/risk/score-distribution").param("minutes", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static JsonNode find(JsonNode distributions, String loanType, String riskGrade) {
+        for (JsonNode distribution : distributions) {
+            if (loanType.equals(distribution.path("loanType").asText())
+                    && (riskGrade == null || riskGrade.equals(distribution.path("riskGrade").asText()))) {
+                return distribution;
+            }
+        }
+        throw new AssertionError("No distribution for " + loanType + " " + riskGrade + " in " + distributions);
+    }
+
+    private void createLoan(double amount) throws Exception {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrower.getId());
+        request.setLoanAmount(amount);
+        request.setTermMonths(36);
+        request.setLoanType(loanType);
+        mockMvc.perform(post("/api/loans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,79 @@
+package com.cbfacademy.creditrisk;
+
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration test for what-if scoring (POST /api/risk/score).
+ * Checks both request forms, that the rules match POST /api/loans, and that nothing touches the database.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class WhatIfScoringTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private LoanApplicationRepository loanApplicationRepository;
+
+    @Test
+    void score_SingleLoan_ShouldReturnScoreWithoutQueries() throws Exception {
+        long loans = loanApplicationRepository.count();
+
+        new QueryCounter(mockMvc, entityManagerFactory).perform(0, post("/api/risk/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"borrowerId\": 7, \"loanAmount\": 300000, \"termMonths\": 60, \"loanType\": \"Mortgage\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.riskScore").value(70.0))
+                .andExpect(jsonPath("$.riskGrade").value("Medium"))
+                .andExpect(jsonPath("$.decision").value("Approve"));
+
+        assertEquals(loans, loanApplicationRepository.count());
+    }
+
+    @Test
+    void score_Array_ShouldReturnResultsInRequestOrder() throws Exception {
+        new QueryCounter(mockMvc, entityManagerFactory).perform(0, post("/api/risk/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"loanAmount\": 5000}, {\"loanAmount\": 900000, \"extra\": {\"nested\": [1, 2]}}, {\"loanAmount\": 2000000}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].riskScore").value(99.5))
+                .andExpect(jsonPath("$[0].riskGrade").value("Low"))
+                .andExpect(jsonPath("$[0].decision").value("Approve"))
+                .andExpect(jsonPath("$[1].riskGrade").value("High"))
+                .andExpect(jsonPath("$[1].decision").value("Reject"))
+                .andExpect(jsonPath("$[2].riskScore").value(0.0));
+
+        mockMvc.perform(post("/api/risk/score").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void score_InvalidBody_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/risk/score").contentType(MediaType.APPLICATION_JSON).content("{\"termMonths\": 12}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Loan amount is required"));
+        mockMvc.perform(post("/api/risk/score").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"loanAmount\": 1000}, {\"loanAmount\": null}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Loan amount is required at index 1"));
+        mockMvc.perform(post("/api/risk/score").contentType(MediaType.APPLICATION_JSON).content("{\"loanAmount\": 10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(startsWith("Malformed JSON")));
+        mockMvc.perform(post("/api/risk/score").contentType(MediaType.APPLICATION_JSON).content("42"))
+                .andExpect(status().isBadRequest());
+    }
+}
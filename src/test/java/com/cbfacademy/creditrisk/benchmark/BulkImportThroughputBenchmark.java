@@ -0,0 +1,68 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.dto.ImportReport;
+import com.cbfacademy.creditrisk.importer.BorrowerCsvImporter;
+import com.cbfacademy.creditrisk.importer.CsvRowReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures CSV parsing alone and the full bulk import (parse, validate, score, batch insert)
+ * on a generated file of borrowers with one loan each.
+ * Run with: mvn -P bench test
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BulkImportThroughputBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    @Autowired private BorrowerCsvImporter importer;
+
+    @TempDir Path tempDir;
+
+    @Test
+    void importThroughput() throws IOException {
+        Path csv = tempDir.resolve("book.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(csv)) {
+            out.write("firstName,lastName,dob,employmentStatus,annualIncome,loanAmount,termMonths,loanType\n");
+            for (int i = 0; i < ROWS; i++) {
+                out.write("First" + i + ",Last" + (i % 5000) + ",1980-0" + (1 + i % 9) + "-1" + (i % 10) + ","
+                        + (i % 3 == 0 ? "Self-Employed" : "Employed") + "," + (30000 + i % 70000) + ".50,"
+                        + (5000 + i % 600000) + "," + (12 * (1 + i % 5)) + "," + (i % 2 == 0 ? "Personal" : "Auto") + "\n");
+            }
+        }
+        System.out.printf("Generated %d rows, %.1f MB%n", ROWS, Files.size(csv) / 1e6);
+
+        long start = System.nanoTime();
+        double checksum = 0;
+        try (CsvRowReader reader = new CsvRowReader(Files.newInputStream(csv))) {
+            reader.next(); // Header
+            while (reader.next()) {
+                checksum += reader.decimal(4) + reader.decimal(5) + reader.integer(6) + reader.isoDate(2).getDayOfMonth();
+                reader.dictionaryString(3);
+            }
+        }
+        System.out.printf("Parse only: %.0f rows/s (checksum %.0f)%n", ROWS / ((System.nanoTime() - start) / 1e9), checksum);
+
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(csv)) {
+            report = importer.importCsv(in, tempDir.resolve("rejects.csv"));
+        }
+        System.out.printf("Bulk import: %.0f rows/s (%d borrowers, %d loans in %.1f s)%n",
+                report.getRowsPerSecond(), report.getBorrowersImported(), report.getLoansImported(), report.getSeconds());
+        assertEquals(ROWS, report.getBorrowersImported());
+        assertEquals(0, report.getRejected());
+    }
+}
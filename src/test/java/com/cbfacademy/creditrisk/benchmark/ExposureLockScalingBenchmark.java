@@ -0,0 +1,98 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Measures createLoanApplication throughput with the exposure check as threads are added,
+ * once with every thread on its own borrower (separate lock stripes) and once with all
+ * threads on one borrower (fully serialized).
+ * Run with: mvn -P bench test
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ExposureLockScalingBenchmark {
+
+    private static final int LOANS_PER_THREAD = 2_000;
+
+    @Autowired private LoanApplicationService service;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+
+    @Test
+    void createThroughputByThreadCount() throws Exception {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        List<Borrower> borrowers = new ArrayList<>();
+        for (int i = 0; i < maxThreads; i++) {
+            borrowers.add(borrower(i));
+        }
+        run(1, i -> borrowers.get(0)); // Warm-up
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double distinct = run(threads, borrowers::get);
+            double shared = run(threads, i -> borrowers.get(0));
+            System.out.printf("Exposure-checked creates, %d threads: %.0f loans/s distinct borrowers, %.0f loans/s one borrower%n",
+                    threads, distinct, shared);
+        }
+    }
+
+    private double run(int threads, IntFunction<Borrower> borrowerOf) throws Exception {
+        loanRepository.deleteAllInBatch();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Borrower borrower = borrowerOf.apply(t);
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < LOANS_PER_THREAD; i++) {
+                    service.createLoanApplication(loan(borrower));
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        pool.shutdown();
+        return threads * LOANS_PER_THREAD / seconds;
+    }
+
+    private Borrower borrower(int i) {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Scale" + i);
+        borrower.setLastName("Bench");
+        borrower.setDob(LocalDate.of(1985, 5, 1));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(90000.0);
+        return borrowerRepository.save(borrower);
+    }
+
+    private static LoanApplication loan(Borrower borrower) {
+        LoanApplication loan = new LoanApplication();
+        loan.setBorrower(borrower);
+        loan.setLoanAmount(100.0); // Tiny, so the limit never interferes with the measurement
+        loan.setTermMonths(12);
+        loan.setLoanType("Personal");
+        return loan;
+    }
+}
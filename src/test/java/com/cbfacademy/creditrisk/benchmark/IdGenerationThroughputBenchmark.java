@@ -0,0 +1,211 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.DecisionConverter;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.cbfacademy.creditrisk.model.RiskGradeConverter;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures bulk saveAll throughput for Borrower and LoanApplication
+ * and how many JDBC statements Hibernate needed to do it, against an IDENTITY baseline:
+ * entities with the same columns whose ids come from AUTO_INCREMENT, as BaseEntity's did.
+ * Hibernate has to run each IDENTITY insert on its own to read the generated id, so the baseline
+ * needs one statement per row where block ids need one per JDBC batch.
+ * Run with: mvn -P bench test
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class IdGenerationThroughputBenchmark {
+
+    private static final int ROWS = 20_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void bulkSaveAllThroughput() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        JpaRepository<IdentityBorrower, Long> identityBorrowers = new SimpleJpaRepository<>(IdentityBorrower.class, entityManager);
+        JpaRepository<IdentityLoan, Long> identityLoans = new SimpleJpaRepository<>(IdentityLoan.class, entityManager);
+
+        // Warm-up
+        Borrower borrower = saveInChunks(borrowers(2_000), borrowerRepository).get(0);
+        saveInChunks(loans(borrower, 2_000), loanRepository);
+        saveInChunks(identityBorrowers(2_000), identityBorrowers);
+        saveInChunks(identityLoans(borrower, 2_000), identityLoans);
+        statistics.clear();
+
+        long start = System.nanoTime();
+        saveInChunks(identityBorrowers(ROWS), identityBorrowers);
+        long identityBorrowerStatements = report("IDENTITY Borrower", start, statistics);
+
+        start = System.nanoTime();
+        saveInChunks(identityLoans(borrower, ROWS), identityLoans);
+        long identityLoanStatements = report("IDENTITY LoanApplication", start, statistics);
+
+        start = System.nanoTime();
+        saveInChunks(borrowers(ROWS), borrowerRepository);
+        long borrowerStatements = report("Block id Borrower", start, statistics);
+
+        start = System.nanoTime();
+        saveInChunks(loans(borrower, ROWS), loanRepository);
+        long loanStatements = report("Block id LoanApplication", start, statistics);
+
+        assertEquals(2_000 + ROWS, loanRepository.count());
+        assertEquals(ROWS, identityBorrowerStatements);
+        assertEquals(ROWS, identityLoanStatements);
+        // One statement per JDBC batch, plus the odd id block fetch
+        assertTrue(borrowerStatements < ROWS / 10, "Borrower inserts were not batched: " + borrowerStatements);
+        assertTrue(loanStatements < ROWS / 10, "LoanApplication inserts were not batched: " + loanStatements);
+    }
+
+    private long report(String entity, long start, Statistics statistics) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%-25s saveAll: %6.0f rows/s, %5d statements prepared, %d inserts (%d rows)%n",
+                entity, ROWS / seconds, statements, statistics.getEntityInsertCount(), ROWS);
+        statistics.clear();
+        return statements;
+    }
+
+    private <T> List<T> saveInChunks(List<T> entities, JpaRepository<T, Long> repository) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += CHUNK) {
+            List<T> chunk = entities.subList(from, Math.min(from + CHUNK, entities.size()));
+            saved.addAll(transactionTemplate.execute(status -> repository.saveAll(chunk)));
+        }
+        return saved;
+    }
+
+    private List<Borrower> borrowers(int count) {
+        List<Borrower> borrowers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Borrower borrower = new Borrower();
+            borrower.setFirstName("Bench");
+            borrower.setLastName("Borrower" + i);
+            borrower.setDob(LocalDate.of(1980, 1, 1).plusDays(i % 10_000));
+            borrower.setEmploymentStatus("Employed");
+            borrower.setAnnualIncome(40000.0 + i);
+            borrowers.add(borrower);
+        }
+        return borrowers;
+    }
+
+    private List<LoanApplication> loans(Borrower borrower, int count) {
+        List<LoanApplication> loans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LoanApplication loan = new LoanApplication();
+            loan.setBorrower(borrower);
+            loan.setLoanAmount(1000.0 + (i % 700) * 1000);
+            loan.setTermMonths(36);
+            loan.setLoanType("Personal");
+            loan.setRiskScore(90.0);
+            loan.setRiskGrade(RiskGrade.LOW);
+            loan.setDecision(Decision.APPROVE);
+            loans.add(loan);
+        }
+        return loans;
+    }
+
+    private List<IdentityBorrower> identityBorrowers(int count) {
+        List<IdentityBorrower> borrowers = new ArrayList<>(count);
+        for (Borrower borrower : borrowers(count)) {
+            borrowers.add(new IdentityBorrower(borrower));
+        }
+        return borrowers;
+    }
+
+    private List<IdentityLoan> identityLoans(Borrower borrower, int count) {
+        List<IdentityLoan> loans = new ArrayList<>(count);
+        for (LoanApplication loan : loans(borrower, count)) {
+            loans.add(new IdentityLoan(loan));
+        }
+        return loans;
+    }
+
+    /** Borrower's columns with an AUTO_INCREMENT id, for the baseline. */
+    @Entity
+    @Table(name = "bench_identity_borrowers")
+    static class IdentityBorrower {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private String firstName;
+        private String lastName;
+        private LocalDate dob;
+        private String employmentStatus;
+        private Double annualIncome;
+
+        protected IdentityBorrower() {}
+
+        IdentityBorrower(Borrower borrower) {
+            this.firstName = borrower.getFirstName();
+            this.lastName = borrower.getLastName();
+            this.dob = borrower.getDob();
+            this.employmentStatus = borrower.getEmploymentStatus();
+            this.annualIncome = borrower.getAnnualIncome();
+        }
+    }
+
+    /** LoanApplication's columns with an AUTO_INCREMENT id, for the baseline. */
+    @Entity
+    @Table(name = "bench_identity_loans")
+    static class IdentityLoan {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private Long borrowerId;
+        private Double loanAmount;
+        private Integer termMonths;
+        private String loanType;
+        private Double riskScore;
+        @Convert(converter = RiskGradeConverter.class)
+        private RiskGrade riskGrade;
+        @Convert(converter = DecisionConverter.class)
+        private Decision decision;
+
+        protected IdentityLoan() {}
+
+        IdentityLoan(LoanApplication loan) {
+            this.borrowerId = loan.getBorrower().getId();
+            this.loanAmount = loan.getLoanAmount();
+            this.termMonths = loan.getTermMonths();
+            this.loanType = loan.getLoanType();
+            this.riskScore = loan.getRiskScore();
+            this.riskGrade = loan.getRiskGrade();
+            this.decision = loan.getDecision();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures what the metrics cost on POST /api/loans as a share of request time.
+ *
+ * The same JVM cannot run the endpoint with and without instrumentation, and the difference
+ * would be lost in noise anyway, so the cost is accounted for directly: requests are timed end
+ * to end, the number of repository invocations per request is read back from the registry, and
+ * then exactly that meter work (endpoint observation, repository timers, scoring timer, outcome
+ * summary and counters) is replayed against the same registry and timed on its own.
+ * Run with: mvn -P bench test
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class InstrumentationOverheadBenchmark {
+
+    private static final int WARM_UP = 2_000;
+    private static final int REQUESTS = 5_000;
+    private static final int REPLAYS = 200_000;
+    private static final double MAX_OVERHEAD = 0.01;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private ObservationRegistry observationRegistry;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void instrumentationCostPerLoanSubmission() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(loanRequest(borrower().getId()));
+
+        for (int i = 0; i < WARM_UP; i++) {
+            submit(body);
+        }
+        double repositoryCallsBefore = repositoryInvocations();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            submit(body);
+        }
+        double requestNanos = (double) (System.nanoTime() - start) / REQUESTS;
+        int repositoryCalls = (int) Math.round((repositoryInvocations() - repositoryCallsBefore) / REQUESTS);
+
+        replay(REPLAYS / 10, repositoryCalls);
+        start = System.nanoTime();
+        replay(REPLAYS, repositoryCalls);
+        double meterNanos = (double) (System.nanoTime() - start) / REPLAYS;
+
+        double overhead = meterNanos / requestNanos;
+        System.out.printf("POST /api/loans: %.1f us/request, %d repository calls/request, "
+                        + "metrics %.2f us/request = %.3f%% of request time%n",
+                requestNanos / 1000, repositoryCalls, meterNanos / 1000, overhead * 100);
+        assertTrue(overhead < MAX_OVERHEAD, "Instrumentation overhead " + overhead * 100 + "% exceeds 1%");
+    }
+
+    /**
+     * The meter work one loan submission performs, looked up the same way the instrumentation does.
+     */
+    private void replay(int times, int repositoryCalls) {
+        Timer scoring = meterRegistry.get("creditrisk.scoring").timer();
+        DistributionSummary scores = meterRegistry.get("creditrisk.loans.risk.score").summary();
+        Counter grade = meterRegistry.get("creditrisk.loans.grades").tag("grade", "Low").counter();
+        Counter decision = meterRegistry.get("creditrisk.loans.decisions").tag("decision", "Approve").counter();
+        Runnable noop = () -> {};
+        for (int i = 0; i < times; i++) {
+            Observation.createNotStarted("http.server.requests", observationRegistry)
+                    .lowCardinalityKeyValue("method", "POST")
+                    .lowCardinalityKeyValue("uri", "/api/loans")
+                    .lowCardinalityKeyValue("status", "200")
+                    .lowCardinalityKeyValue("outcome", "SUCCESS")
+                    .lowCardinalityKeyValue("exception", "none")
+                    .observe(noop);
+            for (int call = 0; call < repositoryCalls; call++) {
+                long callStart = System.nanoTime();
+                Timer.builder("spring.data.repository.invocations")
+                        .tag("repository", "LoanApplicationRepository")
+                        .tag("method", "save")
+                        .tag("state", "SUCCESS")
+                        .tag("exception", "None")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+            }
+            long scoreStart = System.nanoTime();
+            scoring.record(System.nanoTime() - scoreStart, TimeUnit.NANOSECONDS);
+            scores.record(98);
+            grade.increment();
+            decision.increment();
+        }
+    }
+
+    private double repositoryInvocations() {
+        return meterRegistry.get("spring.data.repository.invocations").timers().stream()
+                .mapToDouble(Timer::count).sum();
+    }
+
+    private void submit(byte[] body) throws Exception {
+        mockMvc.perform(post("/api/loans").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+    }
+
+    private Borrower borrower() {
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Bench");
+        borrower.setLastName("Overhead");
+        borrower.setDob(LocalDate.of(1980, 1, 1));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(90000.0);
+        return borrowerRepository.save(borrower);
+    }
+
+    private static LoanApplicationRequest loanRequest(Long borrowerId) {
+        LoanApplicationRequest request = new LoanApplicationRequest();
+        request.setBorrowerId(borrowerId);
+        request.setLoanAmount(100.0); // tiny amount, so the exposure limit is never reached
+        request.setTermMonths(12);
+        request.setLoanType("Personal");
+        return request;
+    }
+}
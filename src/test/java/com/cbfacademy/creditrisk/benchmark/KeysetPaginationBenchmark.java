@@ -0,0 +1,98 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Median latency of GET /api/loans for the first page and for page 10,000 of a 100k-row table.
+ * OFFSET paging would scan about 100k rows for the deep page; a keyset page seeks straight to it,
+ * so both should take about the same time.
+ * Run with: mvn -P bench test -Dtest=KeysetPaginationBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class KeysetPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGES = 10_000;
+    private static final long FIRST_LOAN_ID = 50_000_000L;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deepPageLatency() throws Exception {
+        seed();
+        try {
+            String firstPageCursor = String.valueOf(0);
+            String deepPageCursor = String.valueOf(FIRST_LOAN_ID + (long) PAGE_SIZE * (PAGES - 1) - 1);
+
+            // Warm-up
+            medianLatencyNanos(firstPageCursor, 200);
+            medianLatencyNanos(deepPageCursor, 200);
+
+            long firstPage = medianLatencyNanos(firstPageCursor, 300);
+            long deepPage = medianLatencyNanos(deepPageCursor, 300);
+
+            System.out.printf("Keyset page latency (median): page 1 = %d us, page %d = %d us%n",
+                    firstPage / 1000, PAGES, deepPage / 1000);
+            assertTrue(deepPage < firstPage * 3 + 2_000_000,
+                    "Deep page took " + deepPage + "ns vs first page " + firstPage + "ns");
+        } finally {
+            loanRepository.deleteAllInBatch();
+        }
+    }
+
+    private void seed() {
+        loanRepository.deleteAllInBatch();
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("Page");
+        borrower.setLastName("Walker");
+        borrower.setDob(LocalDate.of(1991, 4, 2));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(50000.0);
+        borrower = borrowerRepository.save(borrower);
+
+        // Insert directly with JDBC so the fixture takes seconds, not minutes
+        List<Object[]> rows = new ArrayList<>(PAGE_SIZE * PAGES);
+        for (long i = 0; i < (long) PAGE_SIZE * PAGES; i++) {
+            rows.add(new Object[]{FIRST_LOAN_ID + i, borrower.getId(), 10000.0 + i, "Personal", 36, 90.0, "L", "A"});
+        }
+        jdbcTemplate.batchUpdate("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                + "risk_score, risk_grade, decision) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private long medianLatencyNanos(String after, int samples) throws Exception {
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            mockMvc.perform(get("/api/loans").param("after", after).param("limit", String.valueOf(PAGE_SIZE)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(PAGE_SIZE));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies[samples / 2];
+    }
+}
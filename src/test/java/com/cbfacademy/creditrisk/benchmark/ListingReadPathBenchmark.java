@@ -0,0 +1,129 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.model.LoanApplication;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.cbfacademy.creditrisk.service.LoanApplicationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares walking a 100k-row loan listing through managed entities + mapping
+ * against the DTO projection read path used by GET /api/loans.
+ * Reports bytes allocated per row and p50/p99 latency per 1000-row page.
+ * Run with: mvn -P bench test
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ListingReadPathBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 1_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired private LoanApplicationService service;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Test
+    void entityVersusProjectionListing() {
+        seed();
+
+        LongFunction<List<LoanApplicationResponse>> entityPage = after -> transactionTemplate.execute(status ->
+                entityManager.createQuery("select l from LoanApplication l where l.id > :after order by l.id", LoanApplication.class)
+                        .setParameter("after", after)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList().stream().map(ListingReadPathBenchmark::toResponse).toList());
+        LongFunction<List<LoanApplicationResponse>> projectionPage = after -> service.getLoansPage(null, after, PAGE_SIZE);
+
+        // Warm-up
+        walk(entityPage);
+        walk(projectionPage);
+
+        report("entity + mapToResponse", entityPage);
+        report("DTO projection", projectionPage);
+    }
+
+    private void report(String name, LongFunction<List<LoanApplicationResponse>> page) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        List<Long> latencies = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            latencies.addAll(walk(page));
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("%-24s %6d bytes/row allocated, page p50 = %5d us, p99 = %5d us%n",
+                name, allocated / ((long) ROWS * ROUNDS),
+                sorted[sorted.length / 2] / 1000, sorted[(int) (sorted.length * 0.99)] / 1000);
+    }
+
+    private List<Long> walk(LongFunction<List<LoanApplicationResponse>> page) {
+        List<Long> latencies = new ArrayList<>();
+        long after = 0;
+        int rows = 0;
+        while (true) {
+            long start = System.nanoTime();
+            List<LoanApplicationResponse> loans = page.apply(after);
+            latencies.add(System.nanoTime() - start);
+            if (loans.isEmpty()) break;
+            rows += loans.size();
+            after = loans.get(loans.size() - 1).getId();
+        }
+        assertEquals(ROWS, rows);
+        return latencies;
+    }
+
+    private void seed() {
+        loanRepository.deleteAllInBatch();
+        Borrower borrower = new Borrower();
+        borrower.setFirstName("List");
+        borrower.setLastName("Reader");
+        borrower.setDob(LocalDate.of(1984, 9, 9));
+        borrower.setEmploymentStatus("Employed");
+        borrower.setAnnualIncome(52000.0);
+        borrower = borrowerRepository.save(borrower);
+
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (long i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{80_000_000L + i, borrower.getId(), 10000.0 + i, "Personal", 36, 90.0, "L", "A"});
+        }
+        jdbcTemplate.batchUpdate("insert into loan_applications (id, borrower_id, loan_amount, loan_type, term_months, "
+                + "risk_score, risk_grade, decision) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static LoanApplicationResponse toResponse(LoanApplication loan) {
+        LoanApplicationResponse response = new LoanApplicationResponse();
+        response.setId(loan.getId());
+        response.setBorrowerId(loan.getBorrower().getId());
+        response.setLoanAmount(loan.getLoanAmount());
+        response.setTermMonths(loan.getTermMonths());
+        response.setLoanType(loan.getLoanType());
+        response.setRiskGrade(loan.getRiskGrade().getDisplayName());
+        response.setDecision(loan.getDecision().getDisplayName());
+        response.setRiskScore(loan.getRiskScore());
+        return response;
+    }
+}
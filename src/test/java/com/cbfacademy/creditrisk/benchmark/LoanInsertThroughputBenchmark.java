@@ -0,0 +1,105 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.dto.LoanApplicationRequest;
+import com.cbfacademy.creditrisk.model.Borrower;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import com.cbfacademy.creditrisk.repository.LoanApplicationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares inserts/sec of POST /api/loans (one request per loan)
+ * against POST /api/loans/batch for the same number of loans.
+ * Run with: mvn -P bench test
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoanInsertThroughputBenchmark {
+
+    private static final int LOANS = 5_000;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BorrowerRepository borrowerRepository;
+    @Autowired private LoanApplicationRepository loanRepository;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Test
+    void singleVersusBatchInsertThroughput() throws Exception {
+        List<LoanApplicationRequest> requests = generateRequests(LOANS);
+
+        // Warm up both paths so JIT and connection pool are settled
+        submitOneByOne(requests.subList(0, 500));
+        submitBatch(requests.subList(0, 500));
+        loanRepository.deleteAllInBatch();
+
+        long start = System.nanoTime();
+        submitOneByOne(requests);
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(LOANS, loanRepository.count());
+        loanRepository.deleteAllInBatch();
+
+        start = System.nanoTime();
+        submitBatch(requests);
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(LOANS, loanRepository.count());
+
+        System.out.printf("Loan inserts: single=%.0f/s batch=%.0f/s (%d loans)%n",
+                LOANS / singleSeconds, LOANS / batchSeconds, LOANS);
+    }
+
+    private void submitOneByOne(List<LoanApplicationRequest> requests) throws Exception {
+        for (LoanApplicationRequest request : requests) {
+            mockMvc.perform(post("/api/loans")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private void submitBatch(List<LoanApplicationRequest> requests) throws Exception {
+        mockMvc.perform(post("/api/loans/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk());
+    }
+
+    private List<LoanApplicationRequest> generateRequests(int count) {
+        List<Borrower> borrowers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Borrower borrower = new Borrower();
+            borrower.setFirstName("Bench");
+            borrower.setLastName("Borrower" + i);
+            borrower.setDob(LocalDate.of(1980, 1, 1).plusDays(i));
+            borrower.setEmploymentStatus("Employed");
+            borrower.setAnnualIncome(40000.0 + i * 100);
+            borrowers.add(borrower);
+        }
+        borrowers = borrowerRepository.saveAll(borrowers);
+
+        List<LoanApplicationRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LoanApplicationRequest request = new LoanApplicationRequest();
+            request.setBorrowerId(borrowers.get(i % borrowers.size()).getId());
+            request.setLoanAmount(1000.0 + (i % 700) * 1000);
+            request.setTermMonths(12 * (1 + i % 5));
+            request.setLoanType(i % 2 == 0 ? "Personal" : "Auto");
+            requests.add(request);
+        }
+        return requests;
+    }
+}
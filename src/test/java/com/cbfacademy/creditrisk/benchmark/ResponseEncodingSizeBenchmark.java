@@ -0,0 +1,72 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.dto.LoanApplicationResponse;
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload size of 10k-element loan and borrower lists as JSON, Smile and CBOR,
+ * raw and gzipped. Serialization throughput per format is in ResponseSerializationJmh.
+ * Run with: mvn -P bench test -Dtest=ResponseEncodingSizeBenchmark
+ */
+@Tag("benchmark")
+class ResponseEncodingSizeBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Test
+    void encodedListSizes() throws IOException {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+        mappers.put("smile", SmileMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+        mappers.put("cbor", CBORMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+
+        List<LoanApplicationResponse> loans = new ArrayList<>(SIZE);
+        List<BorrowerResponse> borrowers = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            loans.add(new LoanApplicationResponse((long) i, (long) (i % 500), 1000.0 + i * 10, 36, "Personal",
+                    i % 3 == 0 ? RiskGrade.HIGH : RiskGrade.LOW, i % 3 == 0 ? Decision.REJECT : Decision.APPROVE, 100 - (1000.0 + i * 10) / 10000));
+            borrowers.add(new BorrowerResponse((long) i, "First" + i, "Last" + i,
+                    LocalDate.of(1970, 1, 1).plusDays(i), "Employed", 30000.0 + i));
+        }
+
+        System.out.printf("%-9s %-6s %12s %12s %8s%n", "list", "format", "bytes", "gzip bytes", "vs json");
+        for (Map.Entry<String, List<?>> list : Map.<String, List<?>>of("loans", loans, "borrowers", borrowers).entrySet()) {
+            int json = 0;
+            for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+                byte[] encoded = mapper.getValue().writeValueAsBytes(list.getValue());
+                if (mapper.getKey().equals("json")) json = encoded.length;
+                System.out.printf("%-9s %-6s %12d %12d %7.0f%%%n", list.getKey(), mapper.getKey(), encoded.length,
+                        gzip(encoded).length, 100.0 * encoded.length / json);
+                assertTrue(encoded.length <= json, mapper.getKey() + " is larger than JSON for " + list.getKey());
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,147 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures time from JVM launch to the first successful GET /api/loans, for the packaged
+ * application in its default configuration and in the fast-startup configurations
+ * (prod profile, then + Spring AOT, then + AppCDS archive).
+ *
+ * Needs the extracted jar from mvn -P startup package -DskipTests. H2 stands in for MySQL,
+ * in a file database whose schema the baseline run creates. A CDS archive is only used with
+ * the classpath it was trained on, and the H2 jar has to be on the classpath here, so the
+ * benchmark records its own archive with the same training run as the package build.
+ * Run with: mvn -P bench test -Dtest=StartupTimeBenchmark
+ */
+@Tag("benchmark")
+class StartupTimeBenchmark {
+
+    private static final int RUNS = 3;
+    private static final Path STARTUP_DIR = Path.of("target", "startup");
+    private static final String MAIN_CLASS = "com.cbfacademy.creditrisk.CreditRiskApplication";
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @TempDir Path tempDir;
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        Path appJar = extractedJar();
+        String classpath = appJar + File.pathSeparator
+                + Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path archive = tempDir.resolve("benchmark.jsa");
+
+        // Baseline first: its ddl-auto=update creates the schema the prod runs expect
+        long baseline = median("default configuration", classpath, List.of(), List.of());
+        long prod = median("prod profile", classpath, List.of(), List.of("--spring.profiles.active=prod"));
+        long aot = median("prod + AOT", classpath, List.of("-Dspring.aot.enabled=true"),
+                List.of("--spring.profiles.active=prod"));
+
+        Process training = launch(classpath, List.of("-XX:ArchiveClassesAtExit=" + archive, "-Xlog:cds=error",
+                "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh"),
+                List.of("--spring.profiles.active=prod,cds-training"), "training");
+        assertTrue(training.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS), "CDS training run did not exit");
+        assertEquals(0, training.exitValue(), "CDS training run failed, see " + tempDir.resolve("training.log"));
+
+        long cds = median("prod + AOT + CDS", classpath, List.of("-XX:SharedArchiveFile=" + archive,
+                "-Dspring.aot.enabled=true"), List.of("--spring.profiles.active=prod"));
+
+        System.out.printf("Time to first successful request: %d ms before, %d ms after (%.1fx faster)%n",
+                baseline, cds, (double) baseline / cds);
+        System.out.printf("  prod profile alone %d ms, + AOT %d ms, + CDS %d ms%n", prod, aot, cds);
+    }
+
+    private long median(String name, String classpath, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            millis[run] = timeToFirstRequest(classpath, jvmArgs, appArgs, name.replaceAll("\\W+", "-") + run);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-22s %s ms, median %d ms%n", name, Arrays.toString(millis), millis[RUNS / 2]);
+        return millis[RUNS / 2];
+    }
+
+    private long timeToFirstRequest(String classpath, List<String> jvmArgs, List<String> appArgs, String logName) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> args = new ArrayList<>(appArgs);
+        args.add("--server.port=" + port);
+        HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/loans?limit=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        long start = System.nanoTime();
+        Process app = launch(classpath, jvmArgs, args, logName);
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                assertTrue(app.isAlive(), "Application exited, see " + tempDir.resolve(logName + ".log"));
+                try {
+                    if (client.send(firstRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException ex) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("No successful request within " + START_TIMEOUT);
+        } finally {
+            // Graceful stop, so H2 closes the database file before the next run opens it
+            app.destroy();
+            if (!app.waitFor(60, TimeUnit.SECONDS)) app.destroyForcibly().waitFor();
+        }
+    }
+
+    private Process launch(String classpath, List<String> jvmArgs, List<String> appArgs, String logName) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(MAIN_CLASS);
+        command.add("--spring.datasource.url=jdbc:h2:file:" + tempDir.resolve("creditrisk").toAbsolutePath() + ";MODE=MySQL");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        command.add("--spring.sql.init.mode=never"); // data.sql is MySQL sample data
+        command.add("--creditrisk.import.reject-dir=" + tempDir.resolve("rejects"));
+        command.addAll(appArgs);
+        File log = tempDir.resolve(logName + ".log").toFile();
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+    }
+
+    private static Path extractedJar() throws IOException {
+        assumeTrue(Files.isDirectory(STARTUP_DIR), "Run mvn -P startup package -DskipTests first");
+        try (Stream<Path> files = Files.list(STARTUP_DIR)) {
+            return files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + STARTUP_DIR))
+                    .toAbsolutePath();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.cbfacademy.creditrisk.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of what-if scoring (POST /api/risk/score) over real HTTP.
+ *
+ * The application runs on a random port; CONNECTIONS client threads each hold one keep-alive
+ * connection and send the next request as soon as the previous answer is in. The single-loan form
+ * and arrays of ARRAY_SIZE loans are measured in turn, each after its own warm-up. The warm-up is
+ * long because the whole request path (Tomcat and the scoring filter) has to be JIT-compiled first;
+ * on one CPU that takes tens of seconds.
+ *
+ * Client and server share the machine, so besides the observed rate the benchmark reports the CPU
+ * time the server's Tomcat threads spent per request (ThreadMXBean), and from that the rate one
+ * core of server CPU sustains. That figure does not depend on how many cores the client takes, and
+ * is asserted on every machine.
+ *
+ * The target is TARGET_REQUESTS_PER_SECOND single-loan requests/s on one node. It is asserted on
+ * the observed rate when the machine has at least NODE_CORES processors, enough for the server and
+ * the client threads together; with fewer, only the per-core figure is checked.
+ * Run with: mvn -P bench test -Dtest=WhatIfScoringThroughputBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WhatIfScoringThroughputBenchmark {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final int CONNECTIONS = Math.max(4, 2 * CORES);
+    private static final int ARRAY_SIZE = 100;
+    private static final Duration WARM_UP = Duration.ofSeconds(60);
+    private static final Duration MEASURE = Duration.ofSeconds(30);
+    private static final double TARGET_REQUESTS_PER_SECOND = 50_000;
+    private static final int NODE_CORES = 4;
+    // Regression floors, under the measured 36,000-49,000 requests/s and 1,500,000 loans/s per core
+    private static final double MIN_SINGLE_REQUESTS_PER_CORE = 30_000;
+    private static final double MIN_ARRAY_LOANS_PER_CORE = 1_000_000;
+
+    @LocalServerPort private int port;
+
+    @Test
+    void scoringThroughput() throws Exception {
+        byte[] single = request("{\"loanAmount\":250000,\"termMonths\":60,\"loanType\":\"Mortgage\"}");
+        StringBuilder array = new StringBuilder("[");
+        for (int i = 0; i < ARRAY_SIZE; i++) {
+            if (i > 0) array.append(',');
+            array.append("{\"loanAmount\":").append(1000 + i * 9000).append('}');
+        }
+        byte[] batch = request(array.append(']').toString());
+
+        System.out.printf("%-10s %12s %12s %14s %18s%n", "form", "requests/s", "loans/s", "server CPU/req", "loans/s per core");
+        Rate singleRate = measure("single", single, 1);
+        Rate arrayRate = measure("array x" + ARRAY_SIZE, batch, ARRAY_SIZE);
+
+        assertTrue(singleRate.loansPerCore() > MIN_SINGLE_REQUESTS_PER_CORE,
+                "Single-loan scoring sustains " + (long) singleRate.loansPerCore() + " requests/s per server core");
+        assertTrue(arrayRate.loansPerCore() > MIN_ARRAY_LOANS_PER_CORE,
+                "Array scoring sustains " + (long) arrayRate.loansPerCore() + " loans/s per server core");
+        if (CORES >= NODE_CORES) {
+            assertTrue(singleRate.requestsPerSecond() > TARGET_REQUESTS_PER_SECOND,
+                    "Single-loan scoring answers " + (long) singleRate.requestsPerSecond() + " requests/s on " + CORES + " cores");
+        } else {
+            System.out.printf("Target of %.0f single requests/s is checked on %d or more cores; this machine has %d%n",
+                    TARGET_REQUESTS_PER_SECOND, NODE_CORES, CORES);
+        }
+    }
+
+    private Rate measure(String form, byte[] request, int loansPerRequest) throws Exception {
+        run(request, WARM_UP);
+        long cpuBefore = serverCpuNanos();
+        long requests = run(request, MEASURE);
+        long cpuPerRequest = (serverCpuNanos() - cpuBefore) / requests;
+
+        double requestsPerSecond = (double) requests / MEASURE.toSeconds();
+        double loansPerCore = 1e9 / cpuPerRequest * loansPerRequest;
+        System.out.printf("%-10s %12.0f %12.0f %11.1f us %18.0f%n", form, requestsPerSecond,
+                requestsPerSecond * loansPerRequest, cpuPerRequest / 1000.0, loansPerCore);
+        return new Rate(requestsPerSecond, loansPerCore);
+    }
+
+    /**
+     * @param requestsPerSecond Observed rate, on however many cores client and server share
+     * @param loansPerCore Loans per second one core of server CPU sustains
+     */
+    private record Rate(double requestsPerSecond, double loansPerCore) {
+    }
+
+    /**
+     * Drive every connection for the given time.
+     * @return Requests answered with 200
+     */
+    private long run(byte[] request, Duration duration) throws Exception {
+        LongAdder completed = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> clients = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            Thread client = new Thread(() -> {
+                try {
+                    Connection connection = new Connection(port);
+                    while (running.get()) {
+                        assertEquals(200, connection.exchange(request));
+                        completed.increment();
+                    }
+                    connection.close();
+                } catch (Throwable ex) {
+                    synchronized (failures) {
+                        failures.add(ex);
+                    }
+                }
+            }, "what-if-client-" + i);
+            client.start();
+            clients.add(client);
+        }
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        for (Thread client : clients) {
+            client.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "Client failed: " + failures.get(0));
+        return completed.sum();
+    }
+
+    // CPU time of the embedded Tomcat's acceptor, poller and worker threads
+    private static long serverCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo thread : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (thread != null && thread.getThreadName().startsWith("http-nio-")) {
+                total += Math.max(0, threads.getThreadCpuTime(thread.getThreadId()));
+            }
+        }
+        return total;
+    }
+
+    private byte[] request(String body) {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = "POST /api/risk/score HTTP/1.1\r\n"
+                + "Host: localhost:" + port + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Accept: application/json\r\n"
+                + "Content-Length: " + content.length + "\r\n\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+        byte[] request = new byte[headBytes.length + content.length];
+        System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+        System.arraycopy(content, 0, request, headBytes.length, content.length);
+        return request;
+    }
+
+    /**
+     * One keep-alive HTTP/1.1 connection; reopened when the server closes it.
+     */
+    private static final class Connection {
+
+        private final int port;
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        Connection(int port) throws IOException {
+            this.port = port;
+            open();
+        }
+
+        private void open() throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            out = socket.getOutputStream();
+        }
+
+        /**
+         * Send a request and read the whole response: status line, headers, then a
+         * Content-Length or chunked body.
+         * @return HTTP status
+         */
+        int exchange(byte[] request) throws IOException {
+            out.write(request);
+            out.flush();
+            String statusLine = readLine();
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            long contentLength = -1;
+            boolean chunked = false;
+            boolean close = false;
+            for (String header = readLine(); !header.isEmpty(); header = readLine()) {
+                String name = header.substring(0, header.indexOf(':')).trim();
+                String value = header.substring(header.indexOf(':') + 1).trim();
+                if (name.equalsIgnoreCase("Content-Length")) contentLength = Long.parseLong(value);
+                else if (name.equalsIgnoreCase("Transfer-Encoding")) chunked = value.equalsIgnoreCase("chunked");
+                else if (name.equalsIgnoreCase("Connection")) close = value.equalsIgnoreCase("close");
+            }
+            if (chunked) {
+                for (long size = Long.parseLong(readLine().trim(), 16); size > 0; size = Long.parseLong(readLine().trim(), 16)) {
+                    in.skipNBytes(size);
+                    readLine();
+                }
+                readLine();
+            } else if (contentLength > 0) {
+                in.skipNBytes(contentLength);
+            }
+            if (close) {
+                close();
+                open();
+            }
+            return status;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int b = in.read(); b != '\n'; b = in.read()) {
+                if (b < 0) throw new IOException("Connection closed by server");
+                if (b != '\r') line.append((char) b);
+            }
+            return line.toString();
+        }
+
+        void close() throws IOException {
+            socket.close();
+        }
+    }
+}
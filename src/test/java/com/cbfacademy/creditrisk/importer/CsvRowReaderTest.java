@@ -0,0 +1,103 @@
+package com.cbfacademy.creditrisk.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CsvRowReader
+ * Uses a tiny buffer so lines straddle refills and force the buffer to grow
+ */
+class CsvRowReaderTest {
+
+    @Test
+    void next_ShouldSplitLinesAcrossRefillsAndLineEndings() throws IOException {
+        CsvRowReader reader = reader("a,bb,ccc\r\nlonger-than-the-buffer,,x\nlast");
+
+        assertTrue(reader.next());
+        assertEquals(3, reader.fieldCount());
+        assertEquals("ccc", reader.string(2));
+
+        assertTrue(reader.next());
+        assertEquals("longer-than-the-buffer", reader.string(0));
+        assertTrue(reader.isEmpty(1));
+        assertEquals(2, reader.lineNumber());
+
+        assertTrue(reader.next());
+        assertEquals("last", reader.string(0));
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void string_QuotedField_ShouldKeepCommasAndUnescapeQuotes() throws IOException {
+        CsvRowReader reader = reader("\"O\"\"Brien, Jr\",Smith\n");
+
+        assertTrue(reader.next());
+        assertEquals(2, reader.fieldCount());
+        assertEquals("O\"Brien, Jr", reader.string(0));
+        assertEquals("Smith", reader.string(1));
+    }
+
+    @Test
+    void decimal_ShouldMatchParseDouble() throws IOException {
+        String[] values = {"0", "72000", "72000.5", "-0.1", "123456.789", "0.3", "1e3", "12345678901234567890"};
+        CsvRowReader reader = reader(String.join(",", values));
+        assertTrue(reader.next());
+
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.parseDouble(values[i]), reader.decimal(i), values[i]);
+        }
+    }
+
+    @Test
+    void typedFields_InvalidValues_ShouldThrow() throws IOException {
+        CsvRowReader reader = reader("abc,1990-13-01,12x,.");
+        assertTrue(reader.next());
+
+        assertThrows(NumberFormatException.class, () -> reader.decimal(0));
+        assertThrows(RuntimeException.class, () -> reader.isoDate(1));
+        assertThrows(NumberFormatException.class, () -> reader.integer(2));
+        assertThrows(NumberFormatException.class, () -> reader.decimal(3));
+    }
+
+    @Test
+    void typedFields_ShouldParseWithoutStrings() throws IOException {
+        CsvRowReader reader = reader("1985-08-22,360,-7");
+        assertTrue(reader.next());
+
+        assertEquals(LocalDate.of(1985, 8, 22), reader.isoDate(0));
+        assertEquals(360, reader.integer(1));
+        assertEquals(-7, reader.integer(2));
+    }
+
+    @Test
+    void dictionaryString_ShouldReuseInstances() throws IOException {
+        CsvRowReader reader = reader("Employed\nEmployed\n");
+        assertTrue(reader.next());
+        String first = reader.dictionaryString(0);
+        assertTrue(reader.next());
+
+        assertSame(first, reader.dictionaryString(0));
+    }
+
+    @Test
+    void writeLine_ShouldCopyLineAsRead() throws IOException {
+        CsvRowReader reader = reader("x,\"y\"\r\n");
+        assertTrue(reader.next());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reader.writeLine(out);
+
+        assertEquals("x,\"y\"", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static CsvRowReader reader(String csv) {
+        return new CsvRowReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 8);
+    }
+}
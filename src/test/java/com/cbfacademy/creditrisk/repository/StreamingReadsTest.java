@@ -0,0 +1,32 @@
+package com.cbfacademy.creditrisk.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StreamingReads
+ * Checks that only MySQL connections get the row-streaming fetch size
+ */
+class StreamingReadsTest {
+
+    @Test
+    void fetchSize_ShouldStreamOnMySqlOnly() throws SQLException {
+        assertEquals(Integer.MIN_VALUE, StreamingReads.fetchSize(connectionTo("MySQL"), 1000));
+        assertEquals(1000, StreamingReads.fetchSize(connectionTo("H2"), 1000));
+    }
+
+    private static Connection connectionTo(String productName) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        return connection;
+    }
+}
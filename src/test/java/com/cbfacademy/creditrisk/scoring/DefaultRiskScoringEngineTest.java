@@ -0,0 +1,166 @@
+package com.cbfacademy.creditrisk.scoring;
+
+import com.cbfacademy.creditrisk.model.Decision;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DefaultRiskScoringEngine
+ * Pins the scoring rules: score, grade boundaries, clamping and decision,
+ * and that both batch kernels reproduce score() bit for bit
+ */
+class DefaultRiskScoringEngineTest {
+
+    private DefaultRiskScoringEngine engine;
+    private RiskScore result;
+
+    @BeforeEach
+    void setUp() {
+        engine = new DefaultRiskScoringEngine();
+        result = new RiskScore();
+    }
+
+    @Test
+    void score_SmallLoanAmount_ShouldBeLowRiskAndApprove() {
+        engine.score(5000.0, result);
+
+        assertEquals(99.5, result.getScore());
+        assertEquals(RiskGrade.LOW, result.getGrade());
+        assertEquals(Decision.APPROVE, result.getDecision());
+    }
+
+    @Test
+    void score_MediumRiskRange_ShouldApprove() {
+        engine.score(300000.0, result);
+
+        assertEquals(70.0, result.getScore());
+        assertEquals(RiskGrade.MEDIUM, result.getGrade());
+        assertEquals(Decision.APPROVE, result.getDecision());
+    }
+
+    @Test
+    void score_EdgeOfHighRisk_ShouldReject() {
+        engine.score(501000.0, result);
+
+        assertEquals(49.9, result.getScore(), 1e-9);
+        assertEquals(RiskGrade.HIGH, result.getGrade());
+        assertEquals(2, result.getGradeCode());
+        assertEquals(Decision.REJECT, result.getDecision());
+    }
+
+    @Test
+    void score_GradeBoundaries_ShouldBeInclusive() {
+        engine.score(250000.0, result);
+        assertEquals(RiskGrade.LOW, result.getGrade());
+
+        engine.score(500000.0, result);
+        assertEquals(RiskGrade.MEDIUM, result.getGrade());
+    }
+
+    @Test
+    void score_ExtremeAmounts_ShouldClampScore() {
+        engine.score(2000000.0, result);
+        assertEquals(0.0, result.getScore());
+        assertEquals(RiskGrade.HIGH, result.getGrade());
+        assertFalse(result.isApproved());
+
+        engine.score(-50000.0, result);
+        assertEquals(100.0, result.getScore());
+        assertEquals(RiskGrade.LOW, result.getGrade());
+        assertTrue(result.isApproved());
+    }
+
+    @Test
+    void scoreBatch_ShouldMatchScoreBitForBit() {
+        // mvn -P vector runs the suite on the vectorized kernel, the default build on the scalar one
+        assertEquals(Boolean.getBoolean("creditrisk.test.vector-kernel"),
+                DefaultRiskScoringEngine.KERNEL != DefaultRiskScoringEngine.SCALAR);
+        double[] amounts = amounts();
+        double[] scores = new double[amounts.length];
+        byte[] gradeCodes = new byte[amounts.length];
+
+        engine.scoreBatch(amounts, scores, gradeCodes, 0, amounts.length);
+
+        assertMatchesScore(amounts, scores, gradeCodes, 0, amounts.length);
+    }
+
+    @Test
+    void scoreBatch_Compiled_ShouldMatchScoreBitForBit() {
+        // Repeated until the JIT compiles the kernel to SIMD instructions, checked on every round
+        double[] amounts = Arrays.copyOf(amounts(), 1024);
+        double[] scores = new double[amounts.length];
+        byte[] gradeCodes = new byte[amounts.length];
+        double[] expectedScores = new double[amounts.length];
+        byte[] expectedGradeCodes = new byte[amounts.length];
+        DefaultRiskScoringEngine.scoreScalar(amounts, expectedScores, expectedGradeCodes, 0, amounts.length);
+
+        for (int round = 0; round < 3_000; round++) {
+            engine.scoreBatch(amounts, scores, gradeCodes, 0, amounts.length);
+            for (int i = 0; i < amounts.length; i++) {
+                if (Double.doubleToRawLongBits(scores[i]) != Double.doubleToRawLongBits(expectedScores[i])
+                        || gradeCodes[i] != expectedGradeCodes[i]) {
+                    fail("Round " + round + ": amount " + amounts[i] + " scored " + scores[i] + "/" + gradeCodes[i]
+                            + ", expected " + expectedScores[i] + "/" + expectedGradeCodes[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void scoreScalar_ShouldMatchScoreBitForBit() {
+        double[] amounts = amounts();
+        double[] scores = new double[amounts.length];
+        byte[] gradeCodes = new byte[amounts.length];
+
+        DefaultRiskScoringEngine.scoreScalar(amounts, scores, gradeCodes, 0, amounts.length);
+
+        assertMatchesScore(amounts, scores, gradeCodes, 0, amounts.length);
+    }
+
+    @Test
+    void scoreBatch_Range_ShouldOnlyWriteRange() {
+        double[] amounts = amounts();
+        double[] scores = new double[amounts.length];
+        byte[] gradeCodes = new byte[amounts.length];
+        Arrays.fill(gradeCodes, (byte) -1);
+
+        // Odd bounds, so the vector loop starts unaligned and leaves a scalar tail
+        engine.scoreBatch(amounts, scores, gradeCodes, 3, amounts.length - 5);
+
+        assertMatchesScore(amounts, scores, gradeCodes, 3, amounts.length - 5);
+        assertEquals(-1, gradeCodes[2]);
+        assertEquals(-1, gradeCodes[amounts.length - 5]);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> engine.scoreBatch(amounts, new double[10], gradeCodes, 0, amounts.length));
+    }
+
+    private void assertMatchesScore(double[] amounts, double[] scores, byte[] gradeCodes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            engine.score(amounts[i], result);
+            assertEquals(Double.doubleToRawLongBits(result.getScore()), Double.doubleToRawLongBits(scores[i]),
+                    "score of " + amounts[i]);
+            assertEquals(result.getGradeCode(), gradeCodes[i], "grade of " + amounts[i]);
+        }
+    }
+
+    // Grade boundaries and their neighbours, clamping edges, special values, then random amounts
+    private static double[] amounts() {
+        double[] edges = {0.0, -0.0, 250000.0, Math.nextDown(250000.0), Math.nextUp(250000.0),
+                500000.0, Math.nextDown(500000.0), Math.nextUp(500000.0), 1000000.0, Math.nextUp(1000000.0),
+                -50000.0, 1e300, -1e300, Double.MIN_VALUE, Double.MAX_VALUE, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NaN, 999999.99, 0.1};
+        double[] amounts = new double[10_007];
+        System.arraycopy(edges, 0, amounts, 0, edges.length);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = edges.length; i < amounts.length; i++) {
+            amounts[i] = random.nextDouble(-100_000, 1_200_000);
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,107 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.BorrowerResponse;
+import com.cbfacademy.creditrisk.repository.BorrowerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BorrowerNameIndex
+ * Checks substring matches, trigram false positives, short queries, incremental updates and refresh
+ */
+class BorrowerNameIndexTest {
+
+    private BorrowerRepository repository;
+    private BorrowerNameIndex index;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(BorrowerRepository.class);
+        when(repository.findResponsePageAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                borrower(1L, "Smith"),
+                borrower(2L, "Smithson"),
+                borrower(3L, "Goldsmith"),
+                borrower(4L, "Jones"),
+                borrower(5L, "Nash")));
+        registry = new SimpleMeterRegistry();
+        index = new BorrowerNameIndex(repository, registry, true, 0);
+        index.rebuild();
+    }
+
+    @Test
+    void search_Substring_ShouldMatchAnywhereIgnoringCase() {
+        assertArrayEquals(new long[]{1L, 2L, 3L}, index.search("SMITH", 10));
+        assertArrayEquals(new long[]{2L}, index.search("thso", 10));
+    }
+
+    @Test
+    void search_TrigramsPresentButNotAdjacent_ShouldNotMatch() {
+        // "smi" and "son" both occur in "smithson" but "smison" does not
+        assertEquals(0, index.search("smison", 10).length);
+    }
+
+    @Test
+    void search_ShortQuery_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("on", 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("  ", 10));
+    }
+
+    @Test
+    void search_ShouldHonourLimit() {
+        assertArrayEquals(new long[]{1L, 2L}, index.search("smith", 2));
+    }
+
+    @Test
+    void indexAndRemove_ShouldKeepResultsCurrent() {
+        index.index(4L, "Smithers");
+        index.remove(1L);
+
+        assertArrayEquals(new long[]{2L, 3L, 4L}, index.search("smith", 10));
+        assertEquals(0, index.search("jones", 10).length);
+    }
+
+    @Test
+    void indexAll_ShouldMergeIntoExistingPostings() {
+        index.indexAll(Map.of(7L, "Smithy", 6L, "Arrowsmith", 1L, "Smith"));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L, 6L, 7L}, index.search("smith", 10));
+    }
+
+    @Test
+    void refresh_ShouldIndexBorrowersChangedElsewhere() {
+        when(repository.findResponsesChangedSince(any(LocalDateTime.class))).thenReturn(List.of(
+                borrower(4L, "Blacksmith"), // Renamed on another instance
+                borrower(8L, "Smithfield"), // Created on another instance
+                borrower(2L, "Smithson"))); // Unchanged
+
+        assertEquals(3, index.refresh());
+        assertArrayEquals(new long[]{1L, 2L, 3L, 4L, 8L}, index.search("smith", 10));
+        assertEquals(0, index.search("jones", 10).length);
+    }
+
+    @Test
+    void memoryGauge_ShouldBeRegistered() {
+        double bytes = registry.get("creditrisk.borrower.search.index.memory").gauge().value();
+        assertTrue(bytes > 0);
+    }
+
+    private static BorrowerResponse borrower(Long id, String lastName) {
+        BorrowerResponse response = new BorrowerResponse();
+        response.setId(id);
+        response.setLastName(lastName);
+        return response;
+    }
+}
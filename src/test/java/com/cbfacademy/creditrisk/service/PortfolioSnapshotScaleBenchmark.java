@@ -0,0 +1,106 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.SnapshotFilter;
+import com.cbfacademy.creditrisk.dto.SnapshotGroup;
+import com.cbfacademy.creditrisk.scoring.DefaultRiskScoringEngine;
+import com.cbfacademy.creditrisk.scoring.RiskScore;
+import com.cbfacademy.creditrisk.scoring.RiskScoringEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Heap footprint and scan speed of the portfolio snapshot at book scale.
+ *
+ * Fills a snapshot with LOANS loans (-Dsnapshot.loans, 50 million by default) through put(), so no
+ * database is involved; that is also why it lives in the service package. The columns are memory-mapped
+ * under target/, because 50 million loans need more direct memory than a default JVM allows.
+ * Reports the heap retained by the filled snapshot against its off-heap size, then the time per
+ * query and per loan scanned for a few typical analytics queries.
+ * Run with: mvn -P bench test -Dtest=PortfolioSnapshotScaleBenchmark
+ */
+@Tag("benchmark")
+class PortfolioSnapshotScaleBenchmark {
+
+    private static final int LOANS = Integer.getInteger("snapshot.loans", 50_000_000);
+    private static final String[] LOAN_TYPES = {"Personal", "Mortgage", "Auto", "Business", "Student", "Home Improvement"};
+    private static final int WARM_UP = 3;
+    private static final int RUNS = 5;
+    // Far below the off-heap size; the heap holds a few objects per 65,536 loans
+    private static final long MAX_HEAP_BYTES = 32L << 20;
+
+    @Test
+    void heapFootprintAndScanSpeed() {
+        long heapBefore = usedHeapAfterGc();
+        PortfolioSnapshot snapshot = new PortfolioSnapshot(null, new SimpleMeterRegistry(),
+                "target/snapshot-benchmark", 10_000, false);
+        long start = System.nanoTime();
+        fill(snapshot);
+        double fillSeconds = (System.nanoTime() - start) / 1e9;
+        long heapUsed = usedHeapAfterGc() - heapBefore;
+
+        System.out.printf("Loaded %,d loans in %.1f s (%,.0f loans/s)%n", LOANS, fillSeconds, LOANS / fillSeconds);
+        System.out.printf("Off-heap: %,d MB (%.1f bytes/loan); heap retained: %,d KB (%.2f bytes/loan)%n",
+                snapshot.offHeapBytes() >> 20, (double) snapshot.offHeapBytes() / LOANS,
+                heapUsed >> 10, (double) heapUsed / LOANS);
+        assertEquals(LOANS, snapshot.loans());
+
+        SnapshotFilter all = new SnapshotFilter();
+        SnapshotFilter large = new SnapshotFilter();
+        large.setMinAmount(900_000.0);
+        SnapshotFilter mortgages = new SnapshotFilter();
+        mortgages.setLoanType("Mortgage");
+        mortgages.setMinTermMonths(240);
+
+        System.out.printf("%-34s %10s %14s   (%d cores)%n", "query", "ms", "ns/loan", Runtime.getRuntime().availableProcessors());
+        measure("exposure by grade", () -> snapshot.aggregate(all, "riskGrade"));
+        measure("exposure by loan type", () -> snapshot.aggregate(all, "loanType"));
+        measure("long mortgages, total", () -> snapshot.aggregate(mortgages, null));
+        measure("amount histogram, 20 buckets", () -> snapshot.amountHistogram(all, 50_000, 20));
+        measure("loans >= 900k, first page of 100", () -> snapshot.findLoans(large, 0, 100));
+
+        long total = snapshot.aggregate(all, "riskGrade").stream().mapToLong(SnapshotGroup::getCount).sum();
+        assertEquals(LOANS, total);
+        assertTrue(heapUsed < MAX_HEAP_BYTES, "Snapshot retained " + (heapUsed >> 10) + " KB of heap");
+    }
+
+    private static void fill(PortfolioSnapshot snapshot) {
+        RiskScoringEngine engine = new DefaultRiskScoringEngine();
+        RiskScore result = new RiskScore();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int id = 1; id <= LOANS; id++) {
+            double amount = Math.round(random.nextDouble(1_000, 1_000_000));
+            engine.score(amount, result);
+            snapshot.put(id, id / 3 + 1, amount, 12 * random.nextInt(1, 31), result.getScore(), result.getGrade(),
+                    LOAN_TYPES[random.nextInt(LOAN_TYPES.length)]);
+        }
+    }
+
+    private static void measure(String query, Supplier<?> run) {
+        for (int i = 0; i < WARM_UP; i++) {
+            run.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            run.get();
+        }
+        double nanos = (double) (System.nanoTime() - start) / RUNS;
+        System.out.printf("%-34s %10.1f %14.2f%n", query, nanos / 1e6, nanos / LOANS);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,222 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.CursorPage;
+import com.cbfacademy.creditrisk.dto.SnapshotBucket;
+import com.cbfacademy.creditrisk.dto.SnapshotFilter;
+import com.cbfacademy.creditrisk.dto.SnapshotGroup;
+import com.cbfacademy.creditrisk.dto.SnapshotLoan;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.cbfacademy.creditrisk.service.PortfolioSnapshot.SEGMENT_BYTES;
+import static com.cbfacademy.creditrisk.service.PortfolioSnapshot.SEGMENT_ROWS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PortfolioSnapshot
+ * Checks filters, grouping, histograms, paging across segment boundaries, updates and deletes,
+ * with the columns in direct buffers and in memory-mapped files, and that a reload keeps writes
+ * reported while it reads the table
+ */
+class PortfolioSnapshotTest {
+
+    // Straddles the first segment boundary and skips a whole segment
+    private static final long LAST_OF_FIRST = SEGMENT_ROWS - 1;
+    private static final long FIRST_OF_SECOND = SEGMENT_ROWS;
+    private static final long FOURTH = 3L * SEGMENT_ROWS + 7;
+
+    private SimpleMeterRegistry registry;
+    private PortfolioSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        snapshot = new PortfolioSnapshot(null, registry, "", 1000, false);
+    }
+
+    @Test
+    void aggregate_ShouldGroupAndFilter() {
+        fill(snapshot);
+
+        SnapshotGroup total = snapshot.aggregate(new SnapshotFilter(), null).get(0);
+        assertEquals(5, total.getCount());
+        assertEquals(1_545_000.0, total.getTotalLoanAmount(), 1e-9);
+
+        List<SnapshotGroup> byGrade = snapshot.aggregate(new SnapshotFilter(), "riskGrade");
+        assertEquals(List.of(RiskGrade.LOW, RiskGrade.MEDIUM, RiskGrade.HIGH), byGrade.stream().map(SnapshotGroup::getRiskGrade).toList());
+        assertEquals(2, byGrade.get(0).getCount());
+        assertEquals(97.5, byGrade.get(0).getMeanRiskScore(), 1e-9);
+        assertEquals(1_200_000.0, byGrade.get(2).getTotalLoanAmount(), 1e-9);
+
+        List<SnapshotGroup> byType = snapshot.aggregate(new SnapshotFilter(), "loanType");
+        assertEquals(List.of("Auto", "Mortgage", "Personal"), byType.stream().map(SnapshotGroup::getLoanType).toList());
+        assertEquals(2, byType.get(1).getCount());
+
+        SnapshotFilter filter = new SnapshotFilter();
+        filter.setMinAmount(25_000.0);
+        filter.setMaxTermMonths(60);
+        assertEquals(2, snapshot.aggregate(filter, null).get(0).getCount()); // 30,000/12 and 295,000/48
+
+        filter = new SnapshotFilter();
+        filter.setRiskGrade("medium");
+        filter.setBorrowerId(1L);
+        assertEquals(1, snapshot.aggregate(filter, null).get(0).getCount());
+
+        filter = new SnapshotFilter();
+        filter.setLoanType("Boat");
+        assertEquals(0, snapshot.aggregate(filter, null).get(0).getCount());
+    }
+
+    @Test
+    void amountHistogram_ShouldBucketFromZeroWithOpenLastBucket() {
+        fill(snapshot);
+        snapshot.put(9, 3, null, 12, 100, RiskGrade.LOW, "Auto"); // No amount: counted, but not in any bucket
+
+        List<SnapshotBucket> histogram = snapshot.amountHistogram(new SnapshotFilter(), 100_000, 3);
+        assertEquals(3, histogram.size());
+        assertEquals(2, histogram.get(0).getCount());
+        assertEquals(50_000.0, histogram.get(0).getTotalLoanAmount(), 1e-9);
+        assertEquals(0, histogram.get(1).getCount());
+        assertEquals(3, histogram.get(2).getCount());
+        assertEquals(200_000.0, histogram.get(2).getLowerBound());
+        assertNull(histogram.get(2).getUpperBound());
+        assertEquals(6, snapshot.aggregate(new SnapshotFilter(), null).get(0).getCount());
+
+        assertThrows(IllegalArgumentException.class, () -> snapshot.amountHistogram(new SnapshotFilter(), 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.amountHistogram(new SnapshotFilter(), 1000, 0));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.aggregate(new SnapshotFilter(), "decision"));
+    }
+
+    @Test
+    void findLoans_ShouldPageInIdOrderAcrossSegments() {
+        fill(snapshot);
+        SnapshotFilter filter = new SnapshotFilter();
+        filter.setMinRiskScore(0.0);
+
+        CursorPage<SnapshotLoan> first = snapshot.findLoans(filter, 0, 2);
+        assertEquals(List.of(1L, LAST_OF_FIRST), first.getItems().stream().map(SnapshotLoan::getId).toList());
+        assertEquals(LAST_OF_FIRST, first.getNextCursor());
+
+        CursorPage<SnapshotLoan> second = snapshot.findLoans(filter, first.getNextCursor(), 2);
+        assertEquals(List.of(FIRST_OF_SECOND, FIRST_OF_SECOND + 1), second.getItems().stream().map(SnapshotLoan::getId).toList());
+        CursorPage<SnapshotLoan> third = snapshot.findLoans(filter, second.getNextCursor(), 2);
+        assertEquals(List.of(FOURTH), third.getItems().stream().map(SnapshotLoan::getId).toList());
+        assertNull(third.getNextCursor());
+
+        SnapshotLoan loan = third.getItems().get(0);
+        assertEquals(2L, loan.getBorrowerId());
+        assertEquals(600_000.0, loan.getLoanAmount());
+        assertEquals(360, loan.getTermMonths());
+        assertEquals("Mortgage", loan.getLoanType());
+        assertEquals(RiskGrade.HIGH, loan.getRiskGrade());
+        assertEquals(40.0, loan.getRiskScore());
+    }
+
+    @Test
+    void putAndRemove_ShouldReplaceAndDeleteRows() {
+        fill(snapshot);
+        snapshot.put(1, 1, 700_000.0, 12, 30, RiskGrade.HIGH, "Personal");
+        snapshot.remove(FIRST_OF_SECOND);
+        snapshot.remove(FIRST_OF_SECOND); // Already gone
+        snapshot.remove(10L * SEGMENT_ROWS); // Never existed
+        snapshot.rescore(FOURTH, 75, RiskGrade.LOW);
+        snapshot.rescore(FIRST_OF_SECOND, 75, RiskGrade.LOW); // Deleted loans stay deleted
+
+        assertEquals(4, snapshot.loans());
+        List<SnapshotGroup> byGrade = snapshot.aggregate(new SnapshotFilter(), "riskGrade");
+        assertEquals(RiskGrade.LOW, byGrade.get(0).getRiskGrade());
+        assertEquals(2, byGrade.get(0).getCount());
+        assertEquals(630_000.0, byGrade.get(0).getTotalLoanAmount(), 1e-9);
+        assertEquals(2, byGrade.get(byGrade.size() - 1).getCount());
+        assertEquals(3.0 * SEGMENT_BYTES, registry.get("creditrisk.portfolio.snapshot.memory").gauge().value());
+        assertEquals(4.0, registry.get("creditrisk.portfolio.snapshot.loans").gauge().value());
+    }
+
+    @Test
+    void mappedColumns_ShouldAnswerLikeDirectOnesAndLeaveNoFiles(@TempDir Path directory) throws Exception {
+        PortfolioSnapshot mapped = new PortfolioSnapshot(null, new SimpleMeterRegistry(), directory.toString(), 1000, false);
+        fill(mapped);
+        fill(snapshot);
+
+        assertEquals(3 * (long) SEGMENT_BYTES, mapped.offHeapBytes());
+        SnapshotFilter filter = new SnapshotFilter();
+        filter.setMaxAmount(300_000.0);
+        assertEquals(snapshot.aggregate(filter, "loanType").size(), mapped.aggregate(filter, "loanType").size());
+        assertEquals(snapshot.aggregate(filter, null).get(0).getTotalLoanAmount(),
+                mapped.aggregate(filter, null).get(0).getTotalLoanAmount());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void reload_ShouldReplaceSegmentsInPlaceAndKeepWritesMadeDuringTheScan() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        PortfolioSnapshot reloading = new PortfolioSnapshot(jdbcTemplate, new SimpleMeterRegistry(), "", 1000, false);
+        fill(reloading);
+        long newSegment = 5L * SEGMENT_ROWS;
+        // The table no longer has LAST_OF_FIRST and FOURTH, and loan 1 was re-scored by hand
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(1, 1, 20_000.0, 12, 60, "M", "Personal"));
+            // Committed after the scan read the table: a new loan in the segment being read,
+            // a delete in the next one and a loan in a segment the table does not have yet
+            reloading.put(2, 3, 50_000.0, 24, 95, RiskGrade.LOW, "Auto");
+            reloading.remove(FIRST_OF_SECOND + 1);
+            reloading.put(newSegment, 3, 10_000.0, 12, 99, RiskGrade.LOW, "Auto");
+            handler.processRow(row(FIRST_OF_SECOND, 1, 295_000.0, 48, 70.5, "M", "Personal"));
+            handler.processRow(row(FIRST_OF_SECOND + 1, 2, 600_000.0, 360, 40, "H", "Mortgage"));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertEquals(4, reloading.reload().getCount());
+
+        List<SnapshotLoan> loans = reloading.findLoans(new SnapshotFilter(), 0, 10).getItems();
+        assertEquals(List.of(1L, 2L, FIRST_OF_SECOND, newSegment), loans.stream().map(SnapshotLoan::getId).toList());
+        assertEquals(RiskGrade.MEDIUM, loans.get(0).getRiskGrade());
+        assertEquals(4, reloading.loans());
+        // Segments 0, 1, 3 (emptied, keeps its memory) and 5; nothing left over from the reload
+        assertEquals(4 * (long) SEGMENT_BYTES, reloading.offHeapBytes());
+
+        // Writes after the reload apply as usual
+        reloading.remove(2);
+        assertEquals(3, reloading.aggregate(new SnapshotFilter(), null).get(0).getCount());
+    }
+
+    private static ResultSet row(long id, long borrowerId, double amount, int term, double score, String grade, String loanType)
+            throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(id);
+        when(rs.getLong(2)).thenReturn(borrowerId);
+        when(rs.getObject(3, Double.class)).thenReturn(amount);
+        when(rs.getObject(4, Integer.class)).thenReturn(term);
+        when(rs.getDouble(5)).thenReturn(score);
+        when(rs.getString(6)).thenReturn(grade);
+        when(rs.getString(7)).thenReturn(loanType);
+        return rs;
+    }
+
+    private static void fill(PortfolioSnapshot snapshot) {
+        snapshot.put(1, 1, 20_000.0, 12, 98, RiskGrade.LOW, "Personal");
+        snapshot.put(LAST_OF_FIRST, 1, 30_000.0, 12, 97, RiskGrade.LOW, "Auto");
+        snapshot.put(FIRST_OF_SECOND, 1, 295_000.0, 48, 70.5, RiskGrade.MEDIUM, "Personal");
+        snapshot.put(FIRST_OF_SECOND + 1, 2, 600_000.0, 360, 40, RiskGrade.HIGH, "Mortgage");
+        snapshot.put(FOURTH, 2, 600_000.0, 360, 40, RiskGrade.HIGH, "Mortgage");
+    }
+}
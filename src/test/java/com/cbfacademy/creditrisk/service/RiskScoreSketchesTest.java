@@ -0,0 +1,182 @@
+package com.cbfacademy.creditrisk.service;
+
+import com.cbfacademy.creditrisk.dto.ScoreDistribution;
+import com.cbfacademy.creditrisk.dto.ScoreDistributionReport;
+import com.cbfacademy.creditrisk.model.RiskGrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RiskScoreSketches
+ * Checks percentiles, approval rates and grouping, windows across slice changes and ring reuse,
+ * the loan type limit, and concurrent recording, with a clock the test moves by hand
+ */
+class RiskScoreSketchesTest {
+
+    private static final int SLICE_SECONDS = 60;
+    private static final Duration ONE_SLICE = Duration.ofSeconds(SLICE_SECONDS);
+
+    private ManualClock clock;
+    private RiskScoreSketches sketches;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        sketches = new RiskScoreSketches(SLICE_SECONDS, 3, 50, 2, clock);
+    }
+
+    @Test
+    void report_ShouldGivePercentilesWithinOnePercent() {
+        for (int score = 1; score <= 100; score++) {
+            sketches.record(score, RiskGrade.LOW, "Personal", score % 4 != 0);
+        }
+
+        ScoreDistribution overall = sketches.report(null).getOverall();
+        assertEquals(100, overall.getCount());
+        assertEquals(0.75, overall.getApprovalRate(), 1e-9);
+        assertEquals(10, overall.getP10(), 0.1);
+        assertEquals(50, overall.getP50(), 0.5);
+        assertEquals(90, overall.getP90(), 0.9);
+    }
+
+    @Test
+    void report_ShouldGroupByGradeAndLoanType() {
+        sketches.record(95, RiskGrade.LOW, "Personal", true);
+        sketches.record(96, RiskGrade.LOW, "Auto", true);
+        sketches.record(60, RiskGrade.MEDIUM, "Personal", false);
+        sketches.record(20, RiskGrade.HIGH, null, false);
+        sketches.record(150, RiskGrade.LOW, "Personal", true); // Clamped to 100
+
+        ScoreDistributionReport report = sketches.report(null);
+        assertEquals(5, report.getOverall().getCount());
+        assertEquals(List.of(RiskGrade.LOW, RiskGrade.MEDIUM, RiskGrade.HIGH),
+                report.getByRiskGrade().stream().map(ScoreDistribution::getRiskGrade).toList());
+        assertEquals(3, report.getByRiskGrade().get(0).getCount());
+        assertEquals(100.0, report.getByRiskGrade().get(0).getP90(), 1.0);
+        assertEquals(Arrays.asList("Auto", "Personal", null),
+                report.getByLoanType().stream().map(ScoreDistribution::getLoanType).toList());
+        assertEquals(2.0 / 3, report.getByLoanType().get(1).getApprovalRate(), 1e-9);
+
+        List<ScoreDistribution> cells = report.getByRiskGradeAndLoanType();
+        assertEquals(4, cells.size());
+        assertEquals(RiskGrade.LOW, cells.get(0).getRiskGrade());
+        assertEquals("Auto", cells.get(0).getLoanType());
+        assertEquals(96.0, cells.get(0).getP50(), 1.0);
+        assertEquals(RiskGrade.HIGH, cells.get(3).getRiskGrade());
+        assertNull(cells.get(3).getLoanType());
+        assertEquals(0.0, cells.get(3).getApprovalRate());
+    }
+
+    @Test
+    void report_WithoutScores_ShouldBeEmpty() {
+        ScoreDistributionReport report = sketches.report(ONE_SLICE);
+        assertEquals(0, report.getOverall().getCount());
+        assertNull(report.getOverall().getP50());
+        assertNull(report.getOverall().getApprovalRate());
+        assertTrue(report.getByRiskGrade().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> sketches.report(Duration.ZERO));
+    }
+
+    @Test
+    void report_ShouldOnlyCountSlicesInTheWindow() {
+        sketches.record(90, RiskGrade.LOW, "Personal", true); // Slice 0
+        clock.advance(ONE_SLICE);
+        sketches.record(70, RiskGrade.MEDIUM, "Personal", true); // Slice 1, seals slice 0
+
+        assertEquals(1, sketches.report(ONE_SLICE).getOverall().getCount());
+        assertEquals(2, sketches.report(ONE_SLICE.multipliedBy(2)).getOverall().getCount());
+        assertEquals(2, sketches.report(Duration.ofDays(1)).getOverall().getCount()); // Capped at 3 slices
+
+        clock.advance(ONE_SLICE.multipliedBy(2)); // Slice 3: slice 0 is out of every window
+        ScoreDistributionReport report = sketches.report(null);
+        assertEquals(1, report.getOverall().getCount());
+        assertEquals(70.0, report.getOverall().getP50(), 0.7);
+        assertEquals(clock.instant().minus(ONE_SLICE.multipliedBy(2)), report.getWindowStart().toInstant(ZoneOffset.UTC));
+
+        clock.advance(ONE_SLICE); // Slice 4 reuses slice 1's ring slot
+        sketches.record(40, RiskGrade.HIGH, "Auto", false);
+        clock.advance(ONE_SLICE.multipliedBy(3)); // Slice 7 reuses it again, for slice 4's loan
+        sketches.record(30, RiskGrade.HIGH, "Auto", false);
+        report = sketches.report(null);
+        assertEquals(1, report.getOverall().getCount());
+        assertEquals(30.0, report.getOverall().getP50(), 0.3);
+        assertEquals(0, sketches.report(null).getByRiskGrade().stream()
+                .filter(distribution -> distribution.getRiskGrade() == RiskGrade.MEDIUM).count());
+    }
+
+    @Test
+    void record_LoanTypesBeyondTheLimit_ShouldCountWithoutType() {
+        RiskScoreSketches limited = new RiskScoreSketches(SLICE_SECONDS, 3, 1, 2, clock);
+        limited.record(90, RiskGrade.LOW, "Personal", true);
+        limited.record(80, RiskGrade.LOW, "Auto", true);
+        limited.record(70, RiskGrade.MEDIUM, "Boat", true);
+
+        List<ScoreDistribution> byLoanType = limited.report(null).getByLoanType();
+        assertEquals(Arrays.asList("Personal", null), byLoanType.stream().map(ScoreDistribution::getLoanType).toList());
+        assertEquals(2, byLoanType.get(1).getCount());
+    }
+
+    @Test
+    void record_FromManyThreads_ShouldCountEveryScore() throws Exception {
+        int threads = 4;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        sketches.record(i % 100, RiskGrade.values()[i % 3], "Type " + (i % 5), i % 2 == 0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ScoreDistributionReport report = sketches.report(null);
+        assertEquals((long) threads * perThread, report.getOverall().getCount());
+        assertEquals(0.5, report.getOverall().getApprovalRate(), 1e-9);
+        assertEquals(15, report.getByRiskGradeAndLoanType().size());
+    }
+
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2025-01-06T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Tables of the IDENTITY baseline entities in IdGenerationThroughputBenchmark, which are on the
+-- test classpath only; ProdSchemaTest adds them to db/schema-mysql.sql so every entity validates.
+
+create table if not exists bench_identity_borrowers (
+    id bigint not null auto_increment,
+    first_name varchar(255),
+    last_name varchar(255),
+    dob date,
+    employment_status varchar(255),
+    annual_income float(53),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists bench_identity_loans (
+    id bigint not null auto_increment,
+    borrower_id bigint,
+    loan_amount float(53),
+    term_months integer,
+    loan_type varchar(255),
+    risk_score float(53),
+    risk_grade varchar(255),
+    decision varchar(255),
+    primary key (id)
+) engine=InnoDB;
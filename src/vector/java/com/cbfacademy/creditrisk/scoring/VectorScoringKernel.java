@@ -0,0 +1,71 @@
+package com.cbfacademy.creditrisk.scoring;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import static com.cbfacademy.creditrisk.scoring.DefaultRiskScoringEngine.*;
+
+/**
+ * DefaultRiskScoringEngine's batch kernel on the JDK Vector API: one SIMD register of loans per step,
+ * at the widest width the CPU supports. Division, subtraction, min and max are the same IEEE operations
+ * as the scalar code, so scores match it bit for bit.
+ *
+ * Grade codes are built without leaving vector registers: the two threshold masks blend doubles whose
+ * raw bits are the codes, a shuffle gathers the low byte of every lane, and one long holds the result.
+ * Masks are never converted with toLong or cast between species; JDK 17 does not compile those to
+ * SIMD instructions and allocates instead.
+ *
+ * Compiled only by the vector Maven profile, and loaded by DefaultRiskScoringEngine by name when
+ * jdk.incubator.vector is resolved; see DefaultRiskScoringEngine.KERNEL.
+ */
+final class VectorScoringKernel implements BatchScoringKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+    // Byte lane k <- low byte of double lane k (lanes are little-endian whatever the platform)
+    private static final VectorShuffle<Byte> LOW_BYTES =
+            VectorShuffle.fromOp(SPECIES.withLanes(byte.class), lane -> lane < LANES ? lane * Double.BYTES : 0);
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle SHORTS = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+    VectorScoringKernel() {
+        // A one-lane "vector" (no SIMD support) would only add overhead
+        if (LANES < 2) throw new IllegalStateException("No SIMD support for doubles on this CPU");
+    }
+
+    @Override
+    public void score(double[] loanAmounts, double[] scores, byte[] gradeCodes, int from, int to) {
+        DoubleVector hundred = DoubleVector.broadcast(SPECIES, 100);
+        DoubleVector high = DoubleVector.broadcast(SPECIES, Double.longBitsToDouble(HIGH));
+        double medium = Double.longBitsToDouble(MEDIUM);
+        double low = Double.longBitsToDouble(LOW);
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += LANES) {
+            DoubleVector riskScore = hundred.sub(DoubleVector.fromArray(SPECIES, loanAmounts, i).div(REFERENCE_AMOUNT));
+            riskScore.min(100).max(0).intoArray(scores, i);
+            // Grade uses the unclamped score, as in score()
+            DoubleVector codes = high.blend(medium, riskScore.compare(VectorOperators.GE, MEDIUM_RISK_THRESHOLD))
+                    .blend(low, riskScore.compare(VectorOperators.GE, LOW_RISK_THRESHOLD));
+            long packed = codes.reinterpretAsBytes().rearrange(LOW_BYTES).reinterpretAsLongs().lane(0);
+            switch (LANES) {
+                case 8 -> LONGS.set(gradeCodes, i, packed);
+                case 4 -> INTS.set(gradeCodes, i, (int) packed);
+                case 2 -> SHORTS.set(gradeCodes, i, (short) packed);
+                default -> gradeCodes[i] = (byte) packed;
+            }
+        }
+        scoreScalar(loanAmounts, scores, gradeCodes, i, to);
+    }
+
+    @Override
+    public String description() {
+        return "Vector API, " + LANES + " x " + SPECIES.elementSize() + "-bit lanes";
+    }
+}